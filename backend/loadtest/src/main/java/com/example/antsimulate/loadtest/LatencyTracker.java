@@ -0,0 +1,85 @@
+package com.example.antsimulate.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 틱 발신 시각과 클라이언트 수신 시각을 짝지어 지연을 기록
+ * - 합성 업스트림은 체결량(FID 15)에 시퀀스 번호를 실어 보내고, 발신 시각을 시퀀스 자리에 적어 둔다
+ * - 같은 JVM 안에서 재므로 System.nanoTime을 그대로 비교한다
+ * - 값은 마이크로초 단위로 기록
+ */
+@Component
+public class LatencyTracker {
+    // 지연 창(수 초) 동안의 틱 수보다 충분히 크게
+    private static final int SEQ_CAPACITY = 1 << 22;
+    private static final int SEQ_MASK = SEQ_CAPACITY - 1;
+
+    private final AtomicLongArray sentNanos = new AtomicLongArray(SEQ_CAPACITY);
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Recorder recorder = new Recorder(TimeUnit.MINUTES.toMicros(1), 3);
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder unmatched = new LongAdder();
+
+    public long nextSequence() {
+        return sequence.incrementAndGet();
+    }
+
+    public void markSent(long seq, long nanos) {
+        sentNanos.lazySet((int) (seq & SEQ_MASK), nanos);
+        sent.increment();
+    }
+
+    public void onReceived(long seq, long nowNanos) {
+        received.increment();
+        if (seq <= 0 || sequence.get() - seq >= SEQ_CAPACITY) {
+            unmatched.increment();
+            return;
+        }
+        long sentAt = sentNanos.get((int) (seq & SEQ_MASK));
+        if (sentAt == 0) {
+            unmatched.increment();
+            return;
+        }
+        long micros = Math.max(0, (nowNanos - sentAt) / 1_000);
+        recorder.recordValue(Math.min(micros, TimeUnit.MINUTES.toMicros(1)));
+    }
+
+    /**
+     * 직전 호출 이후의 구간 히스토그램
+     */
+    public Histogram intervalHistogram(Histogram recycle) {
+        return recorder.getIntervalHistogram(recycle);
+    }
+
+    /**
+     * 워밍업 구간 기록 버림
+     */
+    public void reset() {
+        recorder.reset();
+        sent.reset();
+        received.reset();
+        unmatched.reset();
+    }
+
+    public long sentCount() {
+        return sent.sum();
+    }
+
+    public long receivedCount() {
+        return received.sum();
+    }
+
+    public long unmatchedCount() {
+        return unmatched.sum();
+    }
+}
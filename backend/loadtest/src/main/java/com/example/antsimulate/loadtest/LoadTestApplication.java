@@ -0,0 +1,17 @@
+package com.example.antsimulate.loadtest;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * STOMP 팬아웃 부하 테스트 하네스
+ * - 합성 키움 업스트림(SyntheticKiwoomUpstream)을 띄워 백엔드가 여기에 붙게 하고
+ * - /ws 에 STOMP 세션을 대량으로 열어 틱 발신부터 클라이언트 수신까지의 지연을 HDR 히스토그램으로 잰다
+ */
+@SpringBootApplication
+public class LoadTestApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(LoadTestApplication.class, args);
+    }
+}
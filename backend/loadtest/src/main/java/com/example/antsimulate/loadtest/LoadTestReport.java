@@ -0,0 +1,89 @@
+package com.example.antsimulate.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 실행 한 번의 리포트
+ * - run-{시각}.csv : 1초 구간별 count / p50 / p90 / p99 / p99.9 / max (us)
+ * - run-{시각}.json : 설정과 전체 구간 요약
+ * - run-{시각}.hgrm : 전체 구간 백분위 분포 (HdrHistogram 표준 출력)
+ */
+@Slf4j
+public class LoadTestReport {
+    private final Path dir;
+    private final List<String> settings;
+    private final String runId = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+
+    private final Histogram total = new Histogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final StringBuilder csv = new StringBuilder("second,count,p50_us,p90_us,p99_us,p999_us,max_us\n");
+
+    public LoadTestReport(Path dir, List<String> settings) {
+        this.dir = dir;
+        this.settings = settings;
+    }
+
+    public void addInterval(int second, Histogram interval) {
+        total.add(interval);
+        csv.append(second).append(',')
+                .append(interval.getTotalCount()).append(',')
+                .append(interval.getValueAtPercentile(50)).append(',')
+                .append(interval.getValueAtPercentile(90)).append(',')
+                .append(interval.getValueAtPercentile(99)).append(',')
+                .append(interval.getValueAtPercentile(99.9)).append(',')
+                .append(interval.getMaxValue()).append('\n');
+    }
+
+    public void write(int connectedSessions, int failedSessions, long ticksSent, long messagesReceived, long unmatched) throws IOException {
+        Files.createDirectories(dir);
+
+        Path csvFile = dir.resolve("run-" + runId + ".csv");
+        Files.writeString(csvFile, csv, StandardCharsets.UTF_8);
+
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"run_id\": \"").append(runId).append("\",\n");
+        json.append("  \"settings\": {\n");
+        for (int i = 0; i < settings.size(); i++) {
+            String[] kv = settings.get(i).split("=", 2);
+            json.append("    \"").append(kv[0]).append("\": \"").append(kv[1]).append('"')
+                    .append(i + 1 < settings.size() ? ",\n" : "\n");
+        }
+        json.append("  },\n");
+        json.append("  \"sessions_connected\": ").append(connectedSessions).append(",\n");
+        json.append("  \"sessions_failed\": ").append(failedSessions).append(",\n");
+        json.append("  \"ticks_sent\": ").append(ticksSent).append(",\n");
+        json.append("  \"messages_received\": ").append(messagesReceived).append(",\n");
+        json.append("  \"messages_unmatched\": ").append(unmatched).append(",\n");
+        json.append("  \"latency_us\": {\n");
+        json.append("    \"count\": ").append(total.getTotalCount()).append(",\n");
+        json.append("    \"mean\": ").append(String.format("%.1f", total.getMean())).append(",\n");
+        json.append("    \"p50\": ").append(total.getValueAtPercentile(50)).append(",\n");
+        json.append("    \"p90\": ").append(total.getValueAtPercentile(90)).append(",\n");
+        json.append("    \"p99\": ").append(total.getValueAtPercentile(99)).append(",\n");
+        json.append("    \"p999\": ").append(total.getValueAtPercentile(99.9)).append(",\n");
+        json.append("    \"max\": ").append(total.getMaxValue()).append('\n');
+        json.append("  }\n}\n");
+        Path jsonFile = dir.resolve("run-" + runId + ".json");
+        Files.writeString(jsonFile, json, StandardCharsets.UTF_8);
+
+        Path hgrmFile = dir.resolve("run-" + runId + ".hgrm");
+        try (PrintStream out = new PrintStream(Files.newOutputStream(hgrmFile), false, StandardCharsets.UTF_8)) {
+            total.outputPercentileDistribution(out, 1.0);
+        }
+
+        log.info("[LOADTEST] report written: {}, {}, {}", csvFile, jsonFile, hgrmFile);
+        log.info("[LOADTEST] p50={}us p99={}us p99.9={}us max={}us (received {} of {} ticks, conflation included)",
+                total.getValueAtPercentile(50), total.getValueAtPercentile(99), total.getValueAtPercentile(99.9),
+                total.getMaxValue(), messagesReceived, ticksSent);
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.antsimulate.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 부하 시나리오 실행
+ * 1. 백엔드에 전체 종목 구독(REST) 후 키움 연결 시작 요청
+ * 2. STOMP 세션을 connect-rate 속도로 sessions개 열고, 세션마다 symbols-per-session개 토픽 구독
+ * 3. 워밍업 후 duration 동안 1초 단위 구간 히스토그램 수집
+ * 4. CSV(구간별) / JSON(요약) / hgrm(백분위 분포) 리포트 작성 후 종료
+ */
+@Slf4j
+@Component
+public class StompLoadRunner implements ApplicationRunner {
+    private final SymbolMix symbolMix;
+    private final LatencyTracker latencyTracker;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${loadtest.target-url:http://localhost:8080}")
+    private String targetUrl;
+
+    @Value("${loadtest.stomp-path:/ws}")
+    private String stompPath;
+
+    @Value("${loadtest.trigger-connect:true}")
+    private boolean triggerConnect;
+
+    @Value("${loadtest.sessions:1000}")
+    private int sessionCount;
+
+    @Value("${loadtest.connect-rate:200}")
+    private int connectRate;
+
+    @Value("${loadtest.symbols-per-session:3}")
+    private int symbolsPerSession;
+
+    @Value("${loadtest.tick-rate:2000}")
+    private int tickRate;
+
+    @Value("${loadtest.warmup-seconds:10}")
+    private int warmupSeconds;
+
+    @Value("${loadtest.duration-seconds:60}")
+    private int durationSeconds;
+
+    @Value("${loadtest.report-dir:./loadtest-reports}")
+    private String reportDir;
+
+    private final List<StompSession> sessions = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failedSessions = new AtomicInteger();
+
+    public StompLoadRunner(SymbolMix symbolMix, LatencyTracker latencyTracker, ConfigurableApplicationContext context) {
+        this.symbolMix = symbolMix;
+        this.latencyTracker = latencyTracker;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Random random = new Random(7);
+        List<List<String>> plan = new ArrayList<>(sessionCount);
+        Set<String> subscribed = new LinkedHashSet<>();
+        for (int i = 0; i < sessionCount; i++) {
+            List<String> symbols = symbolMix.pickDistinct(random, symbolsPerSession);
+            plan.add(symbols);
+            subscribed.addAll(symbols);
+        }
+
+        prepareBackend(subscribed);
+        openSessions(plan);
+
+        log.info("[LOADTEST] warmup {}s ...", warmupSeconds);
+        TimeUnit.SECONDS.sleep(warmupSeconds);
+        latencyTracker.reset();
+        latencyTracker.intervalHistogram(null);
+
+        LoadTestReport report = new LoadTestReport(Path.of(reportDir), settings(subscribed.size()));
+        Histogram interval = null;
+        log.info("[LOADTEST] measuring {}s ...", durationSeconds);
+        for (int second = 1; second <= durationSeconds; second++) {
+            TimeUnit.SECONDS.sleep(1);
+            interval = latencyTracker.intervalHistogram(interval);
+            report.addInterval(second, interval);
+            if (second % 10 == 0) {
+                log.info("[LOADTEST] t={}s p50={}us p99={}us max={}us count={}", second,
+                        interval.getValueAtPercentile(50), interval.getValueAtPercentile(99),
+                        interval.getMaxValue(), interval.getTotalCount());
+            }
+        }
+
+        report.write(sessions.size(), failedSessions.get(),
+                latencyTracker.sentCount(), latencyTracker.receivedCount(), latencyTracker.unmatchedCount());
+
+        for (StompSession session : sessions) {
+            session.disconnect();
+        }
+        SpringApplication.exit(context, () -> 0);
+    }
+
+    private void prepareBackend(Set<String> symbols) {
+        RestClient restClient = RestClient.create(targetUrl);
+        for (String symbol : symbols) {
+            restClient.post().uri("/api/subscription/{symbol}", symbol).retrieve().toBodilessEntity();
+        }
+        log.info("[LOADTEST] subscribed {} symbols on backend", symbols.size());
+
+        if (triggerConnect) {
+            restClient.get().uri("/debug/kiwoom-ws/connect").retrieve().toBodilessEntity();
+            log.info("[LOADTEST] backend kiwoom connect requested");
+        }
+    }
+
+    private void openSessions(List<List<String>> plan) throws InterruptedException {
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setDefaultHeartbeat(new long[]{0, 0});
+        stompClient.setInboundMessageSizeLimit(64 * 1024);
+
+        String url = targetUrl.replaceFirst("^http", "ws") + stompPath;
+        long intervalNanos = 1_000_000_000L / Math.max(1, connectRate);
+        long next = System.nanoTime();
+
+        for (List<String> symbols : plan) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            next += intervalNanos;
+
+            stompClient.connectAsync(url, new SubscribingHandler(symbols))
+                    .whenComplete((session, error) -> {
+                        if (error != null) {
+                            failedSessions.incrementAndGet();
+                            log.debug("[LOADTEST] connect failed", error);
+                        } else {
+                            sessions.add(session);
+                        }
+                    });
+        }
+
+        // 남은 연결 시도가 끝날 때까지 잠시 대기
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (sessions.size() + failedSessions.get() < plan.size() && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        log.info("[LOADTEST] sessions connected={}, failed={}", sessions.size(), failedSessions.get());
+    }
+
+    private List<String> settings(int distinctSymbols) {
+        return List.of(
+                "target_url=" + targetUrl,
+                "sessions=" + sessionCount,
+                "symbols=" + symbolMix.symbols().size(),
+                "subscribed_symbols=" + distinctSymbols,
+                "symbols_per_session=" + symbolsPerSession,
+                "tick_rate=" + tickRate,
+                "warmup_seconds=" + warmupSeconds,
+                "duration_seconds=" + durationSeconds
+        );
+    }
+
+    /**
+     * 연결되면 배정된 종목 토픽을 구독하고, 받은 시세의 volume(시퀀스)으로 지연을 기록
+     */
+    private final class SubscribingHandler extends StompSessionHandlerAdapter {
+        private final List<String> symbols;
+
+        private SubscribingHandler(List<String> symbols) {
+            this.symbols = symbols;
+        }
+
+        @Override
+        public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+            StompFrameHandler frameHandler = new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return byte[].class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    long now = System.nanoTime();
+                    long seq = parseVolume((byte[]) payload);
+                    if (seq >= 0) {
+                        latencyTracker.onReceived(seq, now);
+                    }
+                }
+            };
+            for (String symbol : symbols) {
+                session.subscribe("/topic/" + symbol, frameHandler);
+            }
+        }
+    }
+
+    /**
+     * JSON 본문에서 "volume" 숫자만 읽는다 (수신 측 비용을 최소화)
+     */
+    static long parseVolume(byte[] json) {
+        byte[] key = {'"', 'v', 'o', 'l', 'u', 'm', 'e', '"'};
+        outer:
+        for (int i = 0; i + key.length < json.length; i++) {
+            for (int k = 0; k < key.length; k++) {
+                if (json[i + k] != key[k]) {
+                    continue outer;
+                }
+            }
+            int p = i + key.length;
+            while (p < json.length && (json[p] == ':' || json[p] == ' ')) {
+                p++;
+            }
+            long value = 0;
+            boolean digits = false;
+            while (p < json.length && json[p] >= '0' && json[p] <= '9') {
+                value = value * 10 + (json[p++] - '0');
+                digits = true;
+            }
+            return digits ? value : -1;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.antsimulate.loadtest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 부하 테스트용 종목 구성
+ * - 종목코드는 실제 종목과 겹치지 않게 9로 시작하는 6자리
+ * - 인기 종목에 구독과 틱이 몰리도록 zipf 분포로 고른다 (exponent 0이면 균등)
+ */
+@Component
+public class SymbolMix {
+    private final List<String> symbols = new ArrayList<>();
+    private final double[] cdf;
+
+    public SymbolMix(@Value("${loadtest.symbols:50}") int count,
+                     @Value("${loadtest.zipf-exponent:1.0}") double exponent) {
+        double[] weights = new double[count];
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            symbols.add(String.format("9%05d", i));
+            weights[i] = 1.0 / Math.pow(i + 1, exponent);
+            sum += weights[i];
+        }
+
+        cdf = new double[count];
+        double acc = 0;
+        for (int i = 0; i < count; i++) {
+            acc += weights[i] / sum;
+            cdf[i] = acc;
+        }
+        cdf[count - 1] = 1.0;
+    }
+
+    public List<String> symbols() {
+        return symbols;
+    }
+
+    public String pick(Random random) {
+        double r = random.nextDouble();
+        int lo = 0;
+        int hi = cdf.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cdf[mid] < r) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return symbols.get(lo);
+    }
+
+    /**
+     * 서로 다른 종목 n개
+     */
+    public List<String> pickDistinct(Random random, int n) {
+        Set<String> picked = new LinkedHashSet<>();
+        int limit = Math.min(n, symbols.size());
+        while (picked.size() < limit) {
+            picked.add(pick(random));
+        }
+        return new ArrayList<>(picked);
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.antsimulate.loadtest;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 키움 프로토콜을 흉내 내는 합성 업스트림
+ * - LOGIN / REG / REMOVE에 return_code 0으로 응답
+ * - 첫 LOGIN 이후 생성 스레드가 tick-rate 속도로 REAL(0B) 프레임을 만든다
+ *   종목은 SymbolMix 분포로 고르고, 그 종목을 REG 한 연결로만 보낸다 (백엔드 연결 풀 샤딩 대응)
+ * - 체결량(15)에 시퀀스 번호를 실어 LatencyTracker가 수신 측에서 지연을 계산할 수 있게 한다
+ */
+@Slf4j
+@Component
+public class SyntheticKiwoomUpstream extends TextWebSocketHandler {
+    private static final Pattern ITEM_ARRAY = Pattern.compile("\"item\"\\s*:\\s*\\[([^\\]]*)]");
+    private static final Pattern QUOTED = Pattern.compile("\"([^\"]+)\"");
+    private static final DateTimeFormatter HHMMSS = DateTimeFormatter.ofPattern("HHmmss");
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    private final SymbolMix symbolMix;
+    private final LatencyTracker latencyTracker;
+    private final int tickRate;
+
+    // 종목 → 그 종목을 REG 한 연결
+    private final ConcurrentHashMap<String, UpstreamSession> ownerBySymbol = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, UpstreamSession> sessions = new ConcurrentHashMap<>();
+
+    private volatile Thread generator;
+    private volatile boolean running = true;
+
+    public SyntheticKiwoomUpstream(SymbolMix symbolMix,
+                                   LatencyTracker latencyTracker,
+                                   @Value("${loadtest.tick-rate:2000}") int tickRate) {
+        this.symbolMix = symbolMix;
+        this.latencyTracker = latencyTracker;
+        this.tickRate = tickRate;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        sessions.put(session.getId(), new UpstreamSession(session));
+        log.info("[UPSTREAM] backend connected. id={}", session.getId());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        UpstreamSession upstream = sessions.get(session.getId());
+        if (upstream == null) {
+            return;
+        }
+        String payload = message.getPayload();
+
+        if (payload.contains("\"LOGIN\"")) {
+            upstream.send(reply("LOGIN"));
+            startGenerator();
+        } else if (payload.contains("\"REG\"")) {
+            forEachItem(payload, symbol -> ownerBySymbol.put(symbol, upstream));
+            upstream.send(reply("REG"));
+        } else if (payload.contains("\"REMOVE\"")) {
+            forEachItem(payload, symbol -> ownerBySymbol.remove(symbol, upstream));
+            upstream.send(reply("REMOVE"));
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        UpstreamSession upstream = sessions.remove(session.getId());
+        if (upstream != null) {
+            ownerBySymbol.values().removeIf(owner -> owner == upstream);
+        }
+        log.info("[UPSTREAM] backend disconnected. id={}, status={}", session.getId(), status);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        Thread thread = generator;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private synchronized void startGenerator() {
+        if (generator != null) {
+            return;
+        }
+        generator = new Thread(this::generate, "synthetic-upstream");
+        generator.setDaemon(true);
+        generator.start();
+        log.info("[UPSTREAM] generator started. tickRate={}/s", tickRate);
+    }
+
+    /**
+     * 정해진 간격마다 틱 하나씩 생성 (늦어지면 밀린 만큼 몰아서 보낸다)
+     */
+    private void generate() {
+        Random random = new Random(42);
+        long intervalNanos = 1_000_000_000L / Math.max(1, tickRate);
+        long next = System.nanoTime();
+        long price = 70_000;
+
+        String time = LocalTime.now(KST).format(HHMMSS);
+        long timeRefreshAt = System.nanoTime() + 1_000_000_000L;
+
+        while (running) {
+            long now = System.nanoTime();
+            if (now < next) {
+                LockSupport.parkNanos(next - now);
+                continue;
+            }
+            next += intervalNanos;
+
+            if (now >= timeRefreshAt) {
+                time = LocalTime.now(KST).format(HHMMSS);
+                timeRefreshAt = now + 1_000_000_000L;
+            }
+
+            String symbol = symbolMix.pick(random);
+            UpstreamSession owner = ownerBySymbol.get(symbol);
+            if (owner == null) {
+                continue;
+            }
+
+            price = Math.max(1_000, price + random.nextInt(201) - 100);
+            long seq = latencyTracker.nextSequence();
+            String frame = "{\"trnm\":\"REAL\",\"data\":[{\"type\":\"0B\",\"name\":\"주식체결\",\"item\":\"" + symbol
+                    + "\",\"values\":{\"20\":\"" + time + "\",\"10\":\"+" + price + "\",\"15\":\"+" + seq + "\"}}]}";
+
+            latencyTracker.markSent(seq, System.nanoTime());
+            owner.send(frame);
+        }
+    }
+
+    private static String reply(String trnm) {
+        return "{\"trnm\":\"" + trnm + "\",\"return_code\":0,\"return_msg\":\"loadtest\"}";
+    }
+
+    private static void forEachItem(String payload, Consumer<String> action) {
+        Matcher items = ITEM_ARRAY.matcher(payload);
+        while (items.find()) {
+            Matcher quoted = QUOTED.matcher(items.group(1));
+            while (quoted.find()) {
+                action.accept(quoted.group(1));
+            }
+        }
+    }
+
+    private static final class UpstreamSession {
+        private final WebSocketSession session;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private UpstreamSession(WebSocketSession session) {
+            this.session = session;
+        }
+
+        private void send(String text) {
+            lock.lock();
+            try {
+                if (session.isOpen()) {
+                    session.sendMessage(new TextMessage(text));
+                }
+            } catch (IOException e) {
+                log.warn("[UPSTREAM] send failed. id={}", session.getId(), e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
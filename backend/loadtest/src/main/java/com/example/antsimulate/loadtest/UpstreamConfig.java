@@ -0,0 +1,22 @@
+package com.example.antsimulate.loadtest;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * 합성 키움 업스트림 노출 (실제 키움과 같은 경로)
+ */
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class UpstreamConfig implements WebSocketConfigurer {
+    private final SyntheticKiwoomUpstream syntheticKiwoomUpstream;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(syntheticKiwoomUpstream, "/api/dostk/websocket");
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.antsimulate.loadtest;
+
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * 합성 업스트림의 토큰 발급 (/oauth2/token)
+ */
+@RestController
+public class UpstreamTokenController {
+
+    @PostMapping("/oauth2/token")
+    public Map<String, Object> issueToken() {
+        String expiresDt = LocalDateTime.now(ZoneId.of("Asia/Seoul")).plusHours(24)
+                .format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
+        return Map.of(
+                "return_code", 0,
+                "return_msg", "loadtest",
+                "token", "loadtest-token",
+                "token_type", "bearer",
+                "expires_dt", expiresDt
+        );
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.antsimulate.domain.account;
+
+import com.example.antsimulate.domain.account.service.AccountExecutor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 계좌 경합 시 주문 처리량 (계좌 mailbox vs 낙관적 락 재시도만)
+ * - 실행: ./gradlew jmh -Pjmh.includes=AccountExecutorBenchmark
+ * - 16개 스레드가 accounts개 계좌 중 임의의 계좌에 주문을 넣는다
+ * - 주문 하나는 버전 읽기 → roundTripMicros 대기(DB 트랜잭션) → 버전 비교 후 쓰기
+ * - optimistic: 각 스레드가 바로 실행하고 충돌하면 다시 시도 (같은 계좌에 몰리면 재시도가 처리량을 깎는다)
+ * - mailbox: AccountExecutor로 계좌별 순차 실행 (같은 계좌는 충돌 없이 줄을 서고, 다른 계좌는 병렬)
+ * - conflicts: 버려진 트랜잭션 수 (실제 DB라면 그만큼 커넥션과 쿼리를 헛되이 쓴다)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class AccountExecutorBenchmark {
+    @Param({"1", "16", "1024"})
+    public int accounts;
+
+    @Param({"200"})
+    public int roundTripMicros;
+
+    private AtomicLongArray versions;
+    private AccountExecutor accountExecutor;
+
+    @Setup
+    public void setUp() {
+        versions = new AtomicLongArray(accounts);
+        accountExecutor = new AccountExecutor(Integer.MAX_VALUE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        accountExecutor.shutdown();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Conflicts {
+        public long conflicts;
+    }
+
+    @Benchmark
+    public void optimistic(Conflicts counters) {
+        int account = ThreadLocalRandom.current().nextInt(accounts);
+        while (true) {
+            try {
+                order(account);
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                counters.conflicts++;
+            }
+        }
+    }
+
+    @Benchmark
+    public void mailbox(Conflicts counters) {
+        int account = ThreadLocalRandom.current().nextInt(accounts);
+        try {
+            accountExecutor.run((long) account, () -> order(account));
+        } catch (OptimisticLockingFailureException e) {
+            counters.conflicts++;
+        }
+    }
+
+    private void order(int account) {
+        long version = versions.get(account);
+        LockSupport.parkNanos(roundTripMicros * 1_000L);
+        if (!versions.compareAndSet(account, version, version + 1)) {
+            throw new OptimisticLockingFailureException("account " + account);
+        }
+    }
+}
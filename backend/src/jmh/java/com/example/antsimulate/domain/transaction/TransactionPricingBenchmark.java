@@ -0,0 +1,126 @@
+package com.example.antsimulate.domain.transaction;
+
+import com.example.antsimulate.domain.account.entity.Account;
+import com.example.antsimulate.domain.account.repository.AccountRepository;
+import com.example.antsimulate.domain.exchange.entity.ExchangeRateDaily;
+import com.example.antsimulate.domain.exchange.repository.ExchangeRateDailyRepository;
+import com.example.antsimulate.domain.exchange.service.ExchangeRateDailyService;
+import com.example.antsimulate.domain.portfolio.repository.PortfolioQueryRepository;
+import com.example.antsimulate.domain.portfolio.repository.PortfolioRepository;
+import com.example.antsimulate.domain.portfolio.service.PortfolioService;
+import com.example.antsimulate.domain.stock.entity.StockItems;
+import com.example.antsimulate.domain.stock.entity.StockPriceDaily;
+import com.example.antsimulate.domain.stock.repository.LikeStockItemsRepository;
+import com.example.antsimulate.domain.stock.repository.StockItemsRepository;
+import com.example.antsimulate.domain.stock.repository.StockPriceDailyRepository;
+import com.example.antsimulate.domain.stock.service.PricingCache;
+import com.example.antsimulate.domain.stock.service.StockService;
+import com.example.antsimulate.domain.transaction.entity.TransactionType;
+import com.example.antsimulate.domain.transaction.repository.TransactionsRepository;
+import com.example.antsimulate.domain.transaction.service.TransactionService;
+import com.example.antsimulate.domain.user.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 매수 주문 한 건 처리량 (가격 캐시 전/후, 초당 주문 수)
+ * - 실행: ./gradlew jmh -Pjmh.includes=TransactionPricingBenchmark
+ * - 저장소는 쿼리마다 roundTripMicros 만큼 쉬는 스텁 (0이면 순수 CPU 비용)
+ * - uncached: 주문마다 캐시를 비워 예전처럼 계좌/종가/종목(/환율) 조회가 모두 DB로 간다
+ * - cached: 계좌 조회와 insert(거래내역, 보유 종목 upsert)만 DB로 간다
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionPricingBenchmark {
+    private static final long STOCK_ITEM_ID = 1L;
+
+    @Param({"0", "100"})
+    public int roundTripMicros;
+
+    @Param({"KR", "US"})
+    public String country;
+
+    private PricingCache pricingCache;
+    private TransactionService transactionService;
+
+    @Setup
+    public void setUp() {
+        StockItems stockItems = StockItems.builder()
+                .id(STOCK_ITEM_ID).stockSymbol("005930").stockName("삼성전자").stockType("STOCK").stockCountry(country)
+                .build();
+        StockPriceDaily daily = StockPriceDaily.builder()
+                .stockItems(stockItems).tradeDate(LocalDate.now()).closePrice(new BigDecimal(country.equals("US") ? "180.25" : "71500"))
+                .build();
+        ExchangeRateDaily fx = ExchangeRateDaily.builder()
+                .baseCurrency("USD").quoteCurrency("KRW").rateDate(LocalDate.now()).rate(new BigDecimal("1385.50"))
+                .build();
+        Account account = Account.builder().id(1L).totalAsset(Long.MAX_VALUE / 2).accountName("bench").build();
+
+        StockService stockService = new StockService(
+                stub(StockPriceDailyRepository.class, Optional.of(daily)),
+                stub(LikeStockItemsRepository.class, null),
+                stub(StockItemsRepository.class, Optional.of(stockItems)),
+                stub(UserRepository.class, null),
+                event -> { });
+        ExchangeRateDailyService exchangeRateDailyService =
+                new ExchangeRateDailyService(stub(ExchangeRateDailyRepository.class, Optional.of(fx)));
+
+        pricingCache = new PricingCache(stockService, exchangeRateDailyService, 3600);
+        transactionService = new TransactionService(
+                pricingCache,
+                stub(AccountRepository.class, Optional.of(account)),
+                stub(TransactionsRepository.class, null),
+                new PortfolioService(stub(PortfolioRepository.class, null), new PortfolioQueryRepository(null) {
+                    @Override
+                    public void upsertBuy(long accountId, long stockItemId, long price, int quantity) {
+                        roundTrip();
+                    }
+                }, stub(AccountRepository.class, null)),
+                new JdbcTemplate());
+    }
+
+    @Benchmark
+    public void uncached() {
+        pricingCache.evictAll();
+        transactionService.createTransaction(1L, STOCK_ITEM_ID, TransactionType.BUY, 1);
+    }
+
+    @Benchmark
+    public void cached() {
+        transactionService.createTransaction(1L, STOCK_ITEM_ID, TransactionType.BUY, 1);
+    }
+
+    /**
+     * 모든 조회가 result를, save가 인자를 돌려주는 저장소 스텁 (호출마다 왕복 지연)
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T stub(Class<T> repository, Object result) {
+        return (T) Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode": return System.identityHashCode(proxy);
+                case "equals": return proxy == args[0];
+                case "toString": return repository.getSimpleName() + "Stub";
+                default:
+            }
+            roundTrip();
+            return method.getName().startsWith("save") ? args[0] : result;
+        });
+    }
+
+    private void roundTrip() {
+        if (roundTripMicros > 0) {
+            LockSupport.parkNanos(roundTripMicros * 1_000L);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.antsimulate.kiwoom.message;
+
+import com.example.antsimulate.kiwoom.dto.KiwoomDepthDto;
+import com.example.antsimulate.kiwoom.dto.KiwoomQuoteDto;
+import com.example.antsimulate.kiwoom.symbol.SymbolDictionary;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.CharBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 트리 파서(기존 onText 경로) vs 스트리밍 파서 비교
+ * - 실행: ./gradlew jmh -Pjmh.includes=KiwoomWsParserBenchmark
+ * - -prof gc 결과의 gc.alloc.rate.norm 으로 메시지당 할당량을 비교한다
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KiwoomWsParserBenchmark {
+    private static final String REAL_FRAME = """
+            {"trnm":"REAL","data":[\
+            {"type":"0B","name":"주식체결","item":"005930","values":{"20":"165208","10":"-20800","11":"-50","12":"-0.24","27":"-20800","28":"-20700","15":"+82","13":"30265","14":"631","16":"20900","17":"21000","18":"20700"}},\
+            {"type":"0B","name":"주식체결","item":"000660","values":{"20":"165208","10":"+185300","11":"+1300","12":"+0.71","27":"+185300","28":"+185200","15":"-3","13":"1052","14":"195","16":"184000","17":"186000","18":"183500"}},\
+            {"type":"0B","name":"주식체결","item":"035420","values":{"20":"165209","10":"-171200","11":"-800","12":"-0.47","27":"-171200","28":"-171100","15":"+10","13":"4021","14":"689","16":"172000","17":"172500","18":"170800"}}\
+            ]}""";
+
+    private static final String DEPTH_FRAME = """
+            {"trnm":"REAL","data":[\
+            {"type":"0D","name":"주식호가잔량","item":"005930","values":{"21":"165208",\
+            "41":"+20850","42":"+20900","43":"+20950","44":"+21000","45":"+21050","46":"+21100","47":"+21150","48":"+21200","49":"+21250","50":"+21300",\
+            "51":"-20800","52":"-20750","53":"-20700","54":"-20650","55":"-20600","56":"-20550","57":"-20500","58":"-20450","59":"-20400","60":"-20350",\
+            "61":"1203","62":"5521","63":"3310","64":"9021","65":"1200","66":"780","67":"4410","68":"2301","69":"1999","70":"8800",\
+            "71":"2210","72":"1301","73":"6620","74":"4400","75":"3030","76":"1180","77":"920","78":"5010","79":"2222","80":"7310",\
+            "121":"38545","125":"34203"}}\
+            ]}""";
+
+    private static final String PING_FRAME = "{\"trnm\":\"PING\"}";
+
+    private CharSequence realFrame;
+    private CharSequence pingFrame;
+    private CharSequence depthFrame;
+
+    private KiwoomWsMessageParser treeParser;
+    private KiwoomWsStreamParser streamParser;
+    private KiwoomFrame frame;
+
+    @Setup
+    public void setUp() {
+        // JDK WebSocket 리스너가 넘겨주는 것과 같은 CharBuffer 형태로 입력
+        realFrame = CharBuffer.wrap(REAL_FRAME);
+        pingFrame = CharBuffer.wrap(PING_FRAME);
+        depthFrame = CharBuffer.wrap(DEPTH_FRAME);
+
+        treeParser = new KiwoomWsMessageParser();
+        streamParser = new KiwoomWsStreamParser(new SymbolDictionary(List.of("005930", "000660", "035420"), 1024));
+        frame = new KiwoomFrame();
+    }
+
+    @Benchmark
+    public void treeReal(Blackhole bh) {
+        bh.consume(legacyOnText(realFrame));
+    }
+
+    @Benchmark
+    public void streamReal(Blackhole bh) {
+        streamParser.parse(realFrame, frame);
+        for (int i = 0; i < frame.size(); i++) {
+            KiwoomQuoteDto quote = frame.getQuote(i);
+            bh.consume(quote.getSymbol());
+            bh.consume(quote.getPrice());
+        }
+    }
+
+    @Benchmark
+    public void streamDepth(Blackhole bh) {
+        streamParser.parse(depthFrame, frame);
+        for (int i = 0; i < frame.depthSize(); i++) {
+            KiwoomDepthDto depth = frame.getDepth(i);
+            bh.consume(depth.getAskPrices()[0]);
+            bh.consume(depth.getBidSizes()[0]);
+        }
+    }
+
+    @Benchmark
+    public void treePing(Blackhole bh) {
+        bh.consume(legacyOnText(pingFrame));
+    }
+
+    @Benchmark
+    public void streamPing(Blackhole bh) {
+        streamParser.parse(pingFrame, frame);
+        bh.consume(frame.getType());
+    }
+
+    /**
+     * 기존 KiwoomWsClient.onText 의 toString + contains + readTree 경로
+     */
+    private KiwoomQuoteDto legacyOnText(CharSequence data) {
+        String raw = data.toString();
+        if (raw.contains("\"trnm\":\"PING\"")) {
+            return null;
+        }
+        if (raw.contains("\"trnm\":\"LOGIN\"") && raw.contains("\"return_code\":0")) {
+            return null;
+        }
+        return treeParser.parse(raw);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.antsimulate.kiwoom.message;
+
+import com.example.antsimulate.kiwoom.dto.KiwoomQuoteDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 시세 한 건 인코딩 비용: JSON(기본) vs compact 델타 배열
+ * - 실행: ./gradlew jmh -Pjmh.includes=QuoteEncodingBenchmark
+ * - 메시지 크기는 setUp에서 한 번 출력한다
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuoteEncodingBenchmark {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private KiwoomQuoteDto dto;
+    private QuoteFrame[] frames;
+    private CompactQuoteEncoder.Cursor cursor;
+    private int index;
+
+    @Setup
+    public void setUp() throws Exception {
+        dto = new KiwoomQuoteDto();
+        dto.setSymbol("005930");
+        dto.setPrice(71500);
+        dto.setVolume(120);
+        dto.setTime("093015");
+
+        // 가격/시각이 조금씩 움직이는 틱 열
+        frames = new QuoteFrame[1024];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = new QuoteFrame(71500 + (i % 7 - 3) * 100L, 50 + i % 300, 9 * 3600 + 30 * 60 + i / 4);
+        }
+        cursor = new CompactQuoteEncoder.Cursor();
+        CompactQuoteEncoder.encode(frames[0], cursor);
+
+        System.out.printf("%njson=%d bytes, compact key=%d bytes, compact delta=%d bytes%n",
+                objectMapper.writeValueAsBytes(dto).length,
+                CompactQuoteEncoder.encode(frames[0], new CompactQuoteEncoder.Cursor()).length,
+                CompactQuoteEncoder.encode(frames[1], cursor).length);
+    }
+
+    @Benchmark
+    public byte[] json() throws Exception {
+        dto.setPrice(frames[index++ & 1023].price());
+        return objectMapper.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public byte[] compact() {
+        return CompactQuoteEncoder.encode(frames[index++ & 1023], cursor);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.antsimulate.kiwoom.pipeline;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 틱 하나당 지연 기록 비용
+ * - 실행: ./gradlew jmh -Pjmh.includes=PipelineLatencyRecorderBenchmark
+ * - tick: 소비 스레드 경로와 같이 nanoTime 4번 + 프레임 구간 4개 + 종목 구간 3개 기록
+ * - 소비 스레드 여러 개가 같은 Recorder에 기록하는 경우를 @Threads로 함께 본다
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineLatencyRecorderBenchmark {
+    private PipelineLatencyRecorder recorder;
+
+    @Setup
+    public void setUp() {
+        recorder = new PipelineLatencyRecorder(true);
+    }
+
+    @Benchmark
+    public void recordOne() {
+        recorder.record(PipelineStage.PARSE, 850);
+    }
+
+    @Benchmark
+    public long tick() {
+        long received = System.nanoTime();
+        recorder.record(PipelineStage.RECEIVE, System.nanoTime() - received);
+        long dequeued = System.nanoTime();
+        recorder.record(PipelineStage.QUEUE, dequeued - received);
+        long parsed = System.nanoTime();
+        recorder.record(PipelineStage.PARSE, parsed - dequeued);
+        long sent = System.nanoTime();
+        recorder.record(PipelineStage.BROADCAST, sent - parsed);
+        recorder.record(PipelineStage.CONFLATION, SymbolTier.HOT, sent - dequeued);
+        recorder.record(PipelineStage.DISPATCH, SymbolTier.HOT, sent - parsed);
+        recorder.record(PipelineStage.END_TO_END, SymbolTier.HOT, sent - received);
+        return sent;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long tickContended() {
+        return tick();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.antsimulate.kiwoom.symbol;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 틱 하나당 종목 조회 비용 (문자열 키 맵 vs 정수 id 사전)
+ * - 실행: ./gradlew jmh -Pjmh.includes=SymbolDictionaryBenchmark
+ * - stringKeys: 파서가 String을 만들고, 단계마다 ConcurrentHashMap 조회 + "/topic/" 연결
+ * - dictionary: 원본 구간에서 id를 한 번 찾고, 단계마다 배열 인덱싱 + 미리 만든 목적지
+ * - -prof gc 로 틱당 할당량도 함께 비교한다
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SymbolDictionaryBenchmark {
+    private static final int SYMBOLS = 2500;
+
+    // 틱마다 종목을 찾는 단계 수 (브로드캐스트 / 봉 집계 / 관심종목)
+    private static final int STAGES = 3;
+
+    private CharSequence[] frames;
+    private int[] itemStart;
+    private int[] itemEnd;
+    private int cursor;
+
+    private final ConcurrentHashMap<String, long[]>[] stringStages = newStages();
+    private SymbolDictionary dictionary;
+    private long[][] idStages;
+
+    @Setup
+    public void setUp() {
+        List<String> symbols = new ArrayList<>(SYMBOLS);
+        frames = new CharSequence[SYMBOLS];
+        itemStart = new int[SYMBOLS];
+        itemEnd = new int[SYMBOLS];
+        for (int i = 0; i < SYMBOLS; i++) {
+            String symbol = String.format("%06d", i * 7 + 5930);
+            symbols.add(symbol);
+            String frame = "{\"type\":\"0B\",\"item\":\"" + symbol + "\"}";
+            frames[i] = CharBuffer.wrap(frame);
+            itemStart[i] = frame.indexOf(symbol);
+            itemEnd[i] = itemStart[i] + symbol.length();
+            for (ConcurrentHashMap<String, long[]> stage : stringStages) {
+                stage.put(symbol, new long[1]);
+            }
+        }
+
+        dictionary = new SymbolDictionary(symbols, 8192);
+        idStages = new long[STAGES][dictionary.capacity()];
+    }
+
+    @Benchmark
+    public void stringKeys(Blackhole bh) {
+        int i = next();
+        String symbol = frames[i].subSequence(itemStart[i], itemEnd[i]).toString();
+        for (ConcurrentHashMap<String, long[]> stage : stringStages) {
+            stage.get(symbol)[0]++;
+        }
+        bh.consume("/topic/" + symbol);
+    }
+
+    @Benchmark
+    public void dictionary(Blackhole bh) {
+        int i = next();
+        int id = dictionary.idOf(frames[i], itemStart[i], itemEnd[i]);
+        for (long[] stage : idStages) {
+            stage[id]++;
+        }
+        bh.consume(dictionary.destination(id));
+    }
+
+    private int next() {
+        int i = cursor;
+        cursor = i + 1 == SYMBOLS ? 0 : i + 1;
+        return i;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConcurrentHashMap<String, long[]>[] newStages() {
+        ConcurrentHashMap<String, long[]>[] stages = new ConcurrentHashMap[STAGES];
+        for (int i = 0; i < STAGES; i++) {
+            stages[i] = new ConcurrentHashMap<>();
+        }
+        return stages;
+    }
+}
@@ -37,6 +37,11 @@ public class Account {
     @Column(nullable = false, name = "created_at")
     private OffsetDateTime createdAt;
 
+    // 잔고 갱신 충돌 감지용 (낙관적 락)
+    @Version
+    @Column(nullable = false, name = "version")
+    private long version;
+
     @PrePersist
     void onCreate(){
         this.createdAt = OffsetDateTime.now(ZoneOffset.UTC);
@@ -45,17 +50,17 @@ public class Account {
     /**
      * 매수
      */
-    public void buy(int price){
+    public void buy(long price){
         if(this.totalAsset < price){
             throw new BusinessException(ErrorCode.INSUFFICIENT_BALANCE);
         }
-        this.totalAsset -= price;
+        this.totalAsset = Math.subtractExact(this.totalAsset, price);
     }
 
     /**
-     * 매도
+     * 매도 (넘치면 조용히 음수가 되지 않고 ArithmeticException)
      */
-    public void sell(int price){
-        this.totalAsset += price;
+    public void sell(long price){
+        this.totalAsset = Math.addExact(this.totalAsset, price);
     }
 }
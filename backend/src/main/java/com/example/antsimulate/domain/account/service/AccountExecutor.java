@@ -0,0 +1,138 @@
+package com.example.antsimulate.domain.account.service;
+
+import com.example.antsimulate.global.exception.BusinessException;
+import com.example.antsimulate.global.exception.ErrorCode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * 계좌 단위 순차 실행 (계좌당 mailbox 하나)
+ * - 같은 계좌의 작업은 들어온 순서대로 하나씩, 다른 계좌는 가상 스레드에서 병렬로 처리한다
+ * - mailbox에 할 일이 생길 때만 가상 스레드를 하나 띄워 비울 때까지 돌리므로, 쉬는 계좌는 스레드를 잡지 않는다
+ * - mailbox는 drain 중일 때만 맵에 있다: 적재와 빈 mailbox 제거를 같은 키의 compute로 직렬화해,
+ *   제거와 동시에 들어온 작업이 지워진 mailbox에 남거나 한 계좌에 drain이 둘 생기지 않는다
+ * - 즉시 매매, 주문 접수/취소, 체결 반영이 모두 여기를 거친다
+ * - 시작 자산 변경처럼 mailbox 밖에서 계좌를 바꾸는 쪽과는 Account @Version으로 부딪히고, 그때는 작업을 다시 실행한다
+ * - 계좌는 사용자당 하나이므로 키는 userId를 쓴다
+ */
+@Slf4j
+@Component
+public class AccountExecutor {
+    private final ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+
+    // userId → 처리 중인 mailbox (비면 drain이 지운다)
+    private final Map<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    // 낙관적 락 충돌 시 같은 작업을 다시 실행하는 최대 횟수
+    private final int maxAttempts;
+
+    public AccountExecutor(@Value("${account.executor.max-attempts:3}") int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * 계좌 mailbox에서 작업을 실행하고 끝날 때까지 기다린다 (작업의 예외는 그대로 다시 던진다)
+     */
+    public <T> T execute(Long userId, Supplier<T> task){
+        try {
+            return submit(userId, task).join();
+        } catch (CompletionException e) {
+            if(e.getCause() instanceof RuntimeException cause){
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 계좌 mailbox에 작업을 넣고 기다리지 않는다 (여러 계좌에 나눠 넣고 한꺼번에 기다릴 때)
+     */
+    public <T> CompletableFuture<T> submit(Long userId, Supplier<T> task){
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable job = () -> {
+            try {
+                result.complete(runWithRetry(userId, task));
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        };
+
+        // 새로 만든 mailbox일 때만 drain을 띄운다 (맵에 있으면 이미 누군가 비우는 중)
+        boolean[] created = new boolean[1];
+        Mailbox mailbox = mailboxes.compute(userId, (id, current) -> {
+            if(current == null){
+                current = new Mailbox();
+                created[0] = true;
+            }
+            current.tasks.offer(job);
+            return current;
+        });
+        if(created[0]){
+            virtualThreads.execute(() -> drain(userId, mailbox));
+        }
+        return result;
+    }
+
+    public void run(Long userId, Runnable task){
+        execute(userId, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * 처리 중인 mailbox 수
+     */
+    int mailboxCount(){
+        return mailboxes.size();
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        virtualThreads.close();
+    }
+
+    private <T> T runWithRetry(Long userId, Supplier<T> task){
+        for(int attempt = 1; ; attempt++){
+            try {
+                return task.get();
+            } catch (OptimisticLockingFailureException e) {
+                if(attempt >= maxAttempts){
+                    log.warn("[ACCOUNT] version conflict, giving up. user={}, attempts={}", userId, attempt);
+                    throw new BusinessException(ErrorCode.ACCOUNT_UPDATE_CONFLICT);
+                }
+                log.debug("[ACCOUNT] version conflict, retrying. user={}, attempt={}", userId, attempt);
+            }
+        }
+    }
+
+    private void drain(Long userId, Mailbox mailbox){
+        while(true){
+            Runnable task;
+            while((task = mailbox.tasks.poll()) != null){
+                task.run();
+            }
+            // 비었으면 지우고 끝낸다, 그 사이 들어온 작업이 있으면 남겨 두고 계속 비운다
+            if(mailboxes.computeIfPresent(userId, (id, current) -> current.tasks.isEmpty() ? null : current) == null){
+                return;
+            }
+        }
+    }
+
+    private static final class Mailbox {
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.antsimulate.domain.alert.controller;
+
+import com.example.antsimulate.domain.alert.dto.CreatePriceAlertRequest;
+import com.example.antsimulate.domain.alert.dto.PriceAlertResponse;
+import com.example.antsimulate.domain.alert.service.PriceAlertService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/alert")
+@RequiredArgsConstructor
+public class PriceAlertController {
+    private final PriceAlertService priceAlertService;
+
+    @GetMapping("/{userId}")
+    public ResponseEntity<List<PriceAlertResponse>> getPriceAlerts(@PathVariable Long userId){
+        List<PriceAlertResponse> response = priceAlertService.getPriceAlerts(userId);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/{userId}/{stockItemId}")
+    public ResponseEntity<PriceAlertResponse> createPriceAlert(@PathVariable Long userId,
+                                                               @PathVariable Long stockItemId,
+                                                               @RequestBody CreatePriceAlertRequest request){
+        PriceAlertResponse response = priceAlertService.createPriceAlert(userId, stockItemId, request.getDirection(), request.getTargetPrice());
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/{userId}/{alertId}")
+    public ResponseEntity<Void> deletePriceAlert(@PathVariable Long userId, @PathVariable Long alertId){
+        priceAlertService.deletePriceAlert(userId, alertId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.antsimulate.domain.alert.dto;
+
+import com.example.antsimulate.domain.alert.entity.AlertDirection;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+public class CreatePriceAlertRequest {
+    private AlertDirection direction;
+    private long targetPrice;
+}
@@ -0,0 +1,21 @@
+package com.example.antsimulate.domain.alert.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.OffsetDateTime;
+
+@Getter
+@AllArgsConstructor
+public class PriceAlertResponse {
+    private Long id;
+    private Long stockItemId;
+    private String stockSymbol;
+    private String stockName;
+    private String direction;
+    private long targetPrice;
+    private String status;
+    private Long triggeredPrice;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime triggeredAt;
+}
@@ -0,0 +1,11 @@
+package com.example.antsimulate.domain.alert.dto;
+
+public record PriceAlertTriggeredResponse(
+        Long alertId,
+        String stockSymbol,
+        String direction,    // ABOVE / BELOW
+        long targetPrice,
+        long price,          // 발동시킨 체결가
+        String time          // 체결 시각 HHmmss
+) {
+}
@@ -0,0 +1,8 @@
+package com.example.antsimulate.domain.alert.entity;
+
+/**
+ * ABOVE: 현재가가 목표가 이상이 되면 알림, BELOW: 목표가 이하가 되면 알림
+ */
+public enum AlertDirection {
+    ABOVE, BELOW
+}
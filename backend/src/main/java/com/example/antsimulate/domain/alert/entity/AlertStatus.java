@@ -0,0 +1,5 @@
+package com.example.antsimulate.domain.alert.entity;
+
+public enum AlertStatus {
+    ACTIVE, TRIGGERED
+}
@@ -0,0 +1,60 @@
+package com.example.antsimulate.domain.alert.entity;
+
+import com.example.antsimulate.domain.stock.entity.StockItems;
+import com.example.antsimulate.domain.user.entity.User;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+@Entity
+@Table(name = "price_alert")
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+public class PriceAlert {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(nullable = false, name = "user_id")
+    private User user;
+
+    @ManyToOne
+    @JoinColumn(nullable = false, name = "stock_item_id")
+    private StockItems stockItems;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, name = "direction")
+    private AlertDirection direction;
+
+    @Column(nullable = false, name = "target_price")
+    private long targetPrice;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, name = "status")
+    private AlertStatus status;
+
+    @Column(name = "triggered_price")
+    private Long triggeredPrice;
+
+    @Column(nullable = false, name = "created_at")
+    private OffsetDateTime createdAt;
+
+    @Column(name = "triggered_at")
+    private OffsetDateTime triggeredAt;
+
+    @PrePersist
+    void onCreate(){
+        this.createdAt = OffsetDateTime.now(ZoneOffset.UTC);
+        if(this.status == null){
+            this.status = AlertStatus.ACTIVE;
+        }
+    }
+}
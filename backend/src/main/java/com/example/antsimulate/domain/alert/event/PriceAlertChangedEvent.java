@@ -0,0 +1,16 @@
+package com.example.antsimulate.domain.alert.event;
+
+import com.example.antsimulate.domain.alert.entity.AlertDirection;
+
+/**
+ * 가격 알림 등록/삭제 (커밋 후 실시간 알림 인덱스 갱신용)
+ */
+public record PriceAlertChangedEvent(
+        Long alertId,
+        Long userId,
+        String stockSymbol,
+        AlertDirection direction,
+        long targetPrice,
+        boolean active      // true: 등록, false: 삭제
+) {
+}
@@ -0,0 +1,30 @@
+package com.example.antsimulate.domain.alert.repository;
+
+import com.example.antsimulate.domain.alert.entity.AlertStatus;
+import com.example.antsimulate.domain.alert.entity.PriceAlert;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface PriceAlertRepository extends JpaRepository<PriceAlert, Long> {
+    List<PriceAlert> findByUserIdOrderByIdDesc(Long userId);
+
+    Optional<PriceAlert> findByIdAndUserId(Long id, Long userId);
+
+    @Query("select a from PriceAlert a join fetch a.stockItems where a.status = :status")
+    List<PriceAlert> findAllWithStockItemsByStatus(@Param("status") AlertStatus status);
+
+    /**
+     * 활성 상태일 때만 발동 처리 (그 사이 삭제된 알림이면 0)
+     */
+    @Modifying
+    @Query("update PriceAlert a set a.status = com.example.antsimulate.domain.alert.entity.AlertStatus.TRIGGERED, " +
+            "a.triggeredPrice = :price, a.triggeredAt = :triggeredAt " +
+            "where a.id = :id and a.status = com.example.antsimulate.domain.alert.entity.AlertStatus.ACTIVE")
+    int markTriggered(@Param("id") Long id, @Param("price") long price, @Param("triggeredAt") OffsetDateTime triggeredAt);
+}
@@ -0,0 +1,120 @@
+package com.example.antsimulate.domain.alert.service;
+
+import com.example.antsimulate.domain.alert.dto.PriceAlertResponse;
+import com.example.antsimulate.domain.alert.entity.AlertDirection;
+import com.example.antsimulate.domain.alert.entity.AlertStatus;
+import com.example.antsimulate.domain.alert.entity.PriceAlert;
+import com.example.antsimulate.domain.alert.event.PriceAlertChangedEvent;
+import com.example.antsimulate.domain.alert.repository.PriceAlertRepository;
+import com.example.antsimulate.domain.stock.entity.StockItems;
+import com.example.antsimulate.domain.stock.service.StockService;
+import com.example.antsimulate.domain.user.repository.UserRepository;
+import com.example.antsimulate.global.exception.BusinessException;
+import com.example.antsimulate.global.exception.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class PriceAlertService {
+    // 키움 실시간 시세가 들어오는 종목만 알림 가능
+    private static final String DOMESTIC_COUNTRY = "KR";
+
+    private final PriceAlertRepository priceAlertRepository;
+    private final StockService stockService;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 가격 알림 등록
+     */
+    @Transactional
+    public PriceAlertResponse createPriceAlert(Long userId, Long stockItemId, AlertDirection direction, long targetPrice){
+        if(direction == null || targetPrice <= 0){
+            throw new BusinessException(ErrorCode.INVALID_PRICE_ALERT);
+        }
+        StockItems stockItems = stockService.getStockItems(stockItemId);
+        if(!DOMESTIC_COUNTRY.equals(stockItems.getStockCountry())){
+            throw new BusinessException(ErrorCode.PRICE_ALERT_UNSUPPORTED_STOCK);
+        }
+        if(!userRepository.existsById(userId)){
+            throw new BusinessException(ErrorCode.USER_NOT_FOUND);
+        }
+
+        PriceAlert priceAlert = PriceAlert.builder()
+                .user(userRepository.getReferenceById(userId))
+                .stockItems(stockItems)
+                .direction(direction)
+                .targetPrice(targetPrice)
+                .status(AlertStatus.ACTIVE)
+                .build();
+        priceAlertRepository.save(priceAlert);
+
+        eventPublisher.publishEvent(new PriceAlertChangedEvent(
+                priceAlert.getId(), userId, stockItems.getStockSymbol(), direction, targetPrice, true));
+        return toResponse(priceAlert);
+    }
+
+    /**
+     * 가격 알림 삭제 (발동된 알림도 삭제 가능)
+     */
+    @Transactional
+    public void deletePriceAlert(Long userId, Long alertId){
+        PriceAlert priceAlert = priceAlertRepository.findByIdAndUserId(alertId, userId)
+                .orElseThrow(() -> new BusinessException(ErrorCode.PRICE_ALERT_NOT_FOUND));
+        priceAlertRepository.delete(priceAlert);
+
+        if(priceAlert.getStatus() == AlertStatus.ACTIVE){
+            eventPublisher.publishEvent(new PriceAlertChangedEvent(
+                    alertId, userId, priceAlert.getStockItems().getStockSymbol(),
+                    priceAlert.getDirection(), priceAlert.getTargetPrice(), false));
+        }
+    }
+
+    /**
+     * 사용자의 가격 알림 목록 (최근 등록 순)
+     */
+    public List<PriceAlertResponse> getPriceAlerts(Long userId){
+        return priceAlertRepository.findByUserIdOrderByIdDesc(userId)
+                .stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    /**
+     * 활성 알림 전체 (시작 시 실시간 인덱스 적재용)
+     */
+    public List<PriceAlert> getActivePriceAlerts(){
+        return priceAlertRepository.findAllWithStockItemsByStatus(AlertStatus.ACTIVE);
+    }
+
+    /**
+     * 발동 처리, 그 사이 삭제되었으면 false
+     */
+    @Transactional
+    public boolean markTriggered(Long alertId, long price){
+        return priceAlertRepository.markTriggered(alertId, price, OffsetDateTime.now(ZoneOffset.UTC)) == 1;
+    }
+
+    private PriceAlertResponse toResponse(PriceAlert priceAlert){
+        StockItems stockItems = priceAlert.getStockItems();
+        return new PriceAlertResponse(
+                priceAlert.getId(),
+                stockItems.getId(),
+                stockItems.getStockSymbol(),
+                stockItems.getStockName(),
+                priceAlert.getDirection().name(),
+                priceAlert.getTargetPrice(),
+                priceAlert.getStatus().name(),
+                priceAlert.getTriggeredPrice(),
+                priceAlert.getCreatedAt(),
+                priceAlert.getTriggeredAt()
+        );
+    }
+}
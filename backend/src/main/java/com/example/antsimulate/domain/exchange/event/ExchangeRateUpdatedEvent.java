@@ -0,0 +1,10 @@
+package com.example.antsimulate.domain.exchange.event;
+
+/**
+ * 환율 적재 완료 (커밋 후 가격 캐시 무효화용, exchange_rate_daily에 쓰는 쪽에서 발행)
+ */
+public record ExchangeRateUpdatedEvent(
+        String baseCurrency,
+        String quoteCurrency
+) {
+}
@@ -0,0 +1,41 @@
+package com.example.antsimulate.domain.order.controller;
+
+import com.example.antsimulate.domain.account.service.AccountExecutor;
+import com.example.antsimulate.domain.order.dto.CreateOrderRequest;
+import com.example.antsimulate.domain.order.dto.OrderResponse;
+import com.example.antsimulate.domain.order.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/order")
+@RequiredArgsConstructor
+public class OrderController {
+    private final OrderService orderService;
+    private final AccountExecutor accountExecutor;
+
+    @GetMapping("/{userId}")
+    public ResponseEntity<List<OrderResponse>> getOrders(@PathVariable Long userId){
+        List<OrderResponse> response = orderService.getOrders(userId);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/{userId}/{stockItemId}")
+    public ResponseEntity<OrderResponse> createOrder(@PathVariable Long userId,
+                                                     @PathVariable Long stockItemId,
+                                                     @RequestBody CreateOrderRequest request){
+        OrderResponse response = accountExecutor.execute(userId, () ->
+                orderService.createOrder(userId, stockItemId, request.getSide(), request.getOrderType(),
+                        request.getLimitPrice(), request.getQuantity()));
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/{userId}/{orderId}")
+    public ResponseEntity<Void> cancelOrder(@PathVariable Long userId, @PathVariable Long orderId){
+        accountExecutor.run(userId, () -> orderService.cancelOrder(userId, orderId));
+        return ResponseEntity.noContent().build();
+    }
+}
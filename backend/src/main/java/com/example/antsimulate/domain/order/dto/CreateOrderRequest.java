@@ -0,0 +1,15 @@
+package com.example.antsimulate.domain.order.dto;
+
+import com.example.antsimulate.domain.order.entity.OrderType;
+import com.example.antsimulate.domain.transaction.entity.TransactionType;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+public class CreateOrderRequest {
+    private TransactionType side;
+    private OrderType orderType;
+    private long limitPrice;    // 지정가일 때만 사용
+    private int quantity;
+}
@@ -0,0 +1,13 @@
+package com.example.antsimulate.domain.order.dto;
+
+import java.time.OffsetDateTime;
+
+/**
+ * 매칭 엔진이 만든 체결 한 건 (DB 반영 전)
+ */
+public record OrderFill(
+        Long orderId,
+        long price,             // 체결시킨 실시간 체결가
+        OffsetDateTime filledAt
+) {
+}
@@ -0,0 +1,23 @@
+package com.example.antsimulate.domain.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.OffsetDateTime;
+
+@Getter
+@AllArgsConstructor
+public class OrderResponse {
+    private Long id;
+    private Long stockItemId;
+    private String stockSymbol;
+    private String stockName;
+    private String side;
+    private String orderType;
+    private long limitPrice;
+    private int quantity;
+    private String status;
+    private Long filledPrice;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime closedAt;
+}
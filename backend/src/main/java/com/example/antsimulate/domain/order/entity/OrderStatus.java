@@ -0,0 +1,5 @@
+package com.example.antsimulate.domain.order.entity;
+
+public enum OrderStatus {
+    OPEN, FILLED, CANCELLED
+}
@@ -0,0 +1,90 @@
+package com.example.antsimulate.domain.order.entity;
+
+import com.example.antsimulate.domain.account.entity.Account;
+import com.example.antsimulate.domain.stock.entity.StockItems;
+import com.example.antsimulate.domain.transaction.entity.TransactionType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+@Entity
+@Table(name = "orders")
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+public class Orders {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(nullable = false, name = "account_id")
+    private Account account;
+
+    @ManyToOne
+    @JoinColumn(nullable = false, name = "stock_item_id")
+    private StockItems stockItems;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, name = "side")
+    private TransactionType side;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, name = "order_type")
+    private OrderType orderType;
+
+    // 지정가 (시장가는 가격제한폭 끝값)
+    @Column(nullable = false, name = "limit_price")
+    private long limitPrice;
+
+    @Column(nullable = false, name = "quantity")
+    private int quantity;
+
+    // 매수 주문 시 미리 빼 둔 금액 (체결 시 차액, 취소 시 전액 환급)
+    @Column(nullable = false, name = "reserved_amount")
+    private long reservedAmount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, name = "status")
+    private OrderStatus status;
+
+    @Column(name = "filled_price")
+    private Long filledPrice;
+
+    @Column(nullable = false, name = "created_at")
+    private OffsetDateTime createdAt;
+
+    @Column(name = "closed_at")
+    private OffsetDateTime closedAt;
+
+    @PrePersist
+    void onCreate(){
+        this.createdAt = OffsetDateTime.now(ZoneOffset.UTC);
+        if(this.status == null){
+            this.status = OrderStatus.OPEN;
+        }
+    }
+
+    /**
+     * 체결
+     */
+    public void fill(long price, OffsetDateTime filledAt){
+        this.status = OrderStatus.FILLED;
+        this.filledPrice = price;
+        this.closedAt = filledAt;
+    }
+
+    /**
+     * 취소
+     */
+    public void cancel(OffsetDateTime cancelledAt){
+        this.status = OrderStatus.CANCELLED;
+        this.closedAt = cancelledAt;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.antsimulate.domain.order.event;
+
+import com.example.antsimulate.domain.transaction.entity.TransactionType;
+
+/**
+ * 주문 접수/취소 (커밋 후 매칭 엔진 대기열 갱신용)
+ */
+public record OrderChangedEvent(
+        Long orderId,
+        Long userId,            // AccountExecutor mailbox 키
+        String stockSymbol,
+        TransactionType side,
+        long limitPrice,
+        boolean open        // true: 접수, false: 취소
+) {
+}
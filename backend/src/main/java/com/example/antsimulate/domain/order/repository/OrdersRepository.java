@@ -0,0 +1,38 @@
+package com.example.antsimulate.domain.order.repository;
+
+import com.example.antsimulate.domain.order.entity.OrderStatus;
+import com.example.antsimulate.domain.order.entity.Orders;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface OrdersRepository extends JpaRepository<Orders, Long> {
+    List<Orders> findByAccountIdOrderByIdDesc(Long accountId);
+
+    Optional<Orders> findByIdAndAccountId(Long id, Long accountId);
+
+    @Query("select o from Orders o join fetch o.account join fetch o.stockItems where o.status = :status")
+    List<Orders> findAllWithStockItemsByStatus(@Param("status") OrderStatus status);
+
+    /**
+     * 체결 반영 대상 (미체결만, 같은 계좌의 취소와는 AccountExecutor mailbox에서 순서가 정해진다)
+     */
+    @Query("select o from Orders o join fetch o.account join fetch o.stockItems " +
+            "where o.id in :ids and o.status = com.example.antsimulate.domain.order.entity.OrderStatus.OPEN")
+    List<Orders> findOpenByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 미체결일 때만 취소 처리 (그 사이 체결되었으면 0)
+     */
+    @Modifying
+    @Query("update Orders o set o.status = com.example.antsimulate.domain.order.entity.OrderStatus.CANCELLED, " +
+            "o.closedAt = :closedAt " +
+            "where o.id = :id and o.status = com.example.antsimulate.domain.order.entity.OrderStatus.OPEN")
+    int markCancelled(@Param("id") Long id, @Param("closedAt") OffsetDateTime closedAt);
+}
@@ -0,0 +1,247 @@
+package com.example.antsimulate.domain.order.service;
+
+import com.example.antsimulate.domain.account.entity.Account;
+import com.example.antsimulate.domain.account.repository.AccountRepository;
+import com.example.antsimulate.domain.order.dto.OrderFill;
+import com.example.antsimulate.domain.order.dto.OrderResponse;
+import com.example.antsimulate.domain.order.entity.OrderStatus;
+import com.example.antsimulate.domain.order.entity.OrderType;
+import com.example.antsimulate.domain.order.entity.Orders;
+import com.example.antsimulate.domain.order.event.OrderChangedEvent;
+import com.example.antsimulate.domain.order.repository.OrdersRepository;
+import com.example.antsimulate.domain.portfolio.service.PortfolioService;
+import com.example.antsimulate.domain.stock.entity.StockItems;
+import com.example.antsimulate.domain.stock.service.PricingCache;
+import com.example.antsimulate.domain.transaction.entity.TransactionType;
+import com.example.antsimulate.global.exception.BusinessException;
+import com.example.antsimulate.global.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 실시간 체결 주문 (시장가/지정가)
+ * - 접수 시 매수 금액을 계좌에서 미리 빼 두고, 체결은 매칭 엔진이 실시간 체결가로 만든다
+ * - 시장가는 전일 종가 기준 가격제한폭 끝값을 지정가로 삼아 다음 틱에 바로 체결되게 한다
+ * - 체결은 엔진이 모아서 계좌별로 settleFills 한 트랜잭션에 반영한다 (거래내역은 JDBC batch insert)
+ * - 접수/취소/체결 반영은 모두 AccountExecutor의 계좌 mailbox에서 돌아 같은 계좌끼리는 겹치지 않는다
+ */
+@Slf4j
+@Service
+public class OrderService {
+    // 키움 실시간 시세가 들어오는 종목만 주문 가능
+    private static final String DOMESTIC_COUNTRY = "KR";
+
+    private static final String INSERT_TRANSACTION =
+            "insert into transactions (account_id, stock_item_id, type, price, quantity, created_at) values (?, ?, ?, ?, ?, ?)";
+
+    private final OrdersRepository ordersRepository;
+    private final AccountRepository accountRepository;
+    private final PricingCache pricingCache;
+    private final PortfolioService portfolioService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // 가격제한폭(%)
+    private final int priceLimitPct;
+
+    public OrderService(OrdersRepository ordersRepository,
+                        AccountRepository accountRepository,
+                        PricingCache pricingCache,
+                        PortfolioService portfolioService,
+                        JdbcTemplate jdbcTemplate,
+                        ApplicationEventPublisher eventPublisher,
+                        @Value("${kiwoom.order.price-limit-pct:30}") int priceLimitPct) {
+        this.ordersRepository = ordersRepository;
+        this.accountRepository = accountRepository;
+        this.pricingCache = pricingCache;
+        this.portfolioService = portfolioService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.priceLimitPct = priceLimitPct;
+    }
+
+    /**
+     * 주문 접수
+     */
+    @Transactional
+    public OrderResponse createOrder(Long userId, Long stockItemId, TransactionType side, OrderType orderType, long limitPrice, int quantity){
+        if(side == null || orderType == null || quantity <= 0 || (orderType == OrderType.LIMIT && limitPrice <= 0)){
+            throw new BusinessException(ErrorCode.INVALID_ORDER);
+        }
+        Account account = accountRepository.findByUserId(userId).orElseThrow(() -> new BusinessException(ErrorCode.ACCOUNT_NOT_FOUND));
+        StockItems stockItems = pricingCache.getStockItems(stockItemId);
+        if(!DOMESTIC_COUNTRY.equals(stockItems.getStockCountry())){
+            throw new BusinessException(ErrorCode.ORDER_UNSUPPORTED_STOCK);
+        }
+
+        if(orderType == OrderType.MARKET){
+            long closePrice = pricingCache.getLastClosePrice(stockItemId).longValue();
+            limitPrice = side == TransactionType.BUY
+                    ? closePrice * (100 + priceLimitPct) / 100
+                    : Math.max(1, closePrice * (100 - priceLimitPct) / 100);
+        }
+
+        // 매도 수량은 잡아 두지 않으므로 체결 시 다시 확인한다
+        if(side == TransactionType.SELL && portfolioService.getQuantity(account.getId(), stockItemId) < quantity){
+            throw new BusinessException(ErrorCode.INSUFFICIENT_HOLDINGS);
+        }
+
+        // 가격은 거래내역에 int로 남고 주문 금액도 그 범위로 제한한다 (매수/매도 모두)
+        if(limitPrice > Integer.MAX_VALUE || limitPrice * quantity > Integer.MAX_VALUE){
+            throw new BusinessException(ErrorCode.INVALID_ORDER);
+        }
+        long reservedAmount = 0;
+        if(side == TransactionType.BUY){
+            reservedAmount = limitPrice * quantity;
+            account.buy(reservedAmount);
+        }
+
+        Orders order = Orders.builder()
+                .account(account)
+                .stockItems(stockItems)
+                .side(side)
+                .orderType(orderType)
+                .limitPrice(limitPrice)
+                .quantity(quantity)
+                .reservedAmount(reservedAmount)
+                .status(OrderStatus.OPEN)
+                .build();
+        ordersRepository.save(order);
+
+        eventPublisher.publishEvent(new OrderChangedEvent(order.getId(), userId, stockItems.getStockSymbol(), side, limitPrice, true));
+        return toResponse(order);
+    }
+
+    /**
+     * 주문 취소 (미체결만 가능, 매수는 잡아 둔 금액 환급)
+     */
+    @Transactional
+    public void cancelOrder(Long userId, Long orderId){
+        Account account = accountRepository.findByUserId(userId).orElseThrow(() -> new BusinessException(ErrorCode.ACCOUNT_NOT_FOUND));
+        Orders order = ordersRepository.findByIdAndAccountId(orderId, account.getId())
+                .orElseThrow(() -> new BusinessException(ErrorCode.ORDER_NOT_FOUND));
+        // 체결 반영과는 같은 mailbox에서 차례로 돌므로, 먼저 반영된 체결이 있으면 0건 갱신
+        if(ordersRepository.markCancelled(orderId, OffsetDateTime.now(ZoneOffset.UTC)) == 0){
+            throw new BusinessException(ErrorCode.ORDER_NOT_CANCELLABLE);
+        }
+        if(order.getReservedAmount() > 0){
+            account.sell(order.getReservedAmount());
+        }
+
+        eventPublisher.publishEvent(new OrderChangedEvent(orderId, userId, order.getStockItems().getStockSymbol(),
+                order.getSide(), order.getLimitPrice(), false));
+    }
+
+    /**
+     * 사용자의 주문 목록 (최근 접수 순)
+     */
+    public List<OrderResponse> getOrders(Long userId){
+        Account account = accountRepository.findByUserId(userId).orElseThrow(() -> new BusinessException(ErrorCode.ACCOUNT_NOT_FOUND));
+        return ordersRepository.findByAccountIdOrderByIdDesc(account.getId())
+                .stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    /**
+     * 미체결 주문 전체 (시작 시 매칭 엔진 적재용)
+     */
+    public List<Orders> getOpenOrders(){
+        return ordersRepository.findAllWithStockItemsByStatus(OrderStatus.OPEN);
+    }
+
+    /**
+     * 엔진이 만든 한 계좌의 체결을 한 번에 반영 (엔진이 그 계좌 mailbox에서 호출)
+     * - 그 사이 취소된 주문의 체결은 버린다
+     * - mailbox 밖의 계좌 변경과 부딪히면 Account @Version 충돌로 롤백되고 mailbox가 다시 실행한다
+     * - 보유 종목은 체결마다 같은 트랜잭션에서 갱신하고, 매도 수량이 모자라면 그 주문은 취소한다
+     * - 매수는 잡아 둔 금액과 체결 금액의 차액을 환급, 매도는 체결 금액을 입금
+     *
+     * @return 반영한 체결 수
+     */
+    @Transactional
+    public int settleFills(List<OrderFill> fills){
+        Map<Long, OrderFill> fillById = new HashMap<>(fills.size() * 2);
+        for(OrderFill fill : fills){
+            fillById.put(fill.orderId(), fill);
+        }
+
+        List<Object[]> rows = new ArrayList<>(fills.size());
+        for(Orders order : ordersRepository.findOpenByIdIn(fillById.keySet())){
+            OrderFill fill = fillById.get(order.getId());
+            Account account = order.getAccount();
+            if(!portfolioService.createOrUpdatePortfolio(account.getId(), order.getStockItems().getId(), order.getSide(),
+                    fill.price(), order.getQuantity())){
+                // 접수 후 다른 매도로 보유 수량이 줄었으면 체결 대신 취소
+                order.cancel(fill.filledAt());
+                log.warn("[ORDER] sell cancelled, insufficient holdings. order={}", order.getId());
+                continue;
+            }
+            // 매도는 지정가보다 비싸게 체결될 수 있으므로 넘치면 그 체결만 실패시킨다
+            long amount = Math.multiplyExact(fill.price(), order.getQuantity());
+            if(order.getSide() == TransactionType.BUY){
+                account.sell(order.getReservedAmount() - amount);
+            } else {
+                account.sell(amount);
+            }
+            order.fill(fill.price(), fill.filledAt());
+
+            rows.add(new Object[]{account.getId(), order.getStockItems().getId(), order.getSide().name(),
+                    Math.toIntExact(fill.price()), order.getQuantity(), fill.filledAt()});
+        }
+
+        if(!rows.isEmpty()){
+            jdbcTemplate.batchUpdate(INSERT_TRANSACTION, rows);
+        }
+        return rows.size();
+    }
+
+    /**
+     * 반영할 수 없는 체결의 주문을 취소 (매수는 잡아 둔 금액 환급)
+     * - 금액 범위 초과처럼 몇 번을 다시 해도 실패하는 체결을 엔진이 대기열에 되돌리지 않고 끝낼 때 쓴다
+     *
+     * @return 취소했으면 true (그 사이 취소되었으면 false)
+     */
+    @Transactional
+    public boolean cancelUnsettled(Long orderId, OffsetDateTime cancelledAt){
+        List<Orders> open = ordersRepository.findOpenByIdIn(List.of(orderId));
+        if(open.isEmpty()){
+            return false;
+        }
+        Orders order = open.get(0);
+        order.cancel(cancelledAt);
+        if(order.getReservedAmount() > 0){
+            order.getAccount().sell(order.getReservedAmount());
+        }
+        return true;
+    }
+
+    private OrderResponse toResponse(Orders order){
+        StockItems stockItems = order.getStockItems();
+        return new OrderResponse(
+                order.getId(),
+                stockItems.getId(),
+                stockItems.getStockSymbol(),
+                stockItems.getStockName(),
+                order.getSide().name(),
+                order.getOrderType().name(),
+                order.getLimitPrice(),
+                order.getQuantity(),
+                order.getStatus().name(),
+                order.getFilledPrice(),
+                order.getCreatedAt(),
+                order.getClosedAt()
+        );
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.antsimulate.domain.portfolio.controller;
+
+import com.example.antsimulate.domain.portfolio.dto.PortfolioCheckResponse;
+import com.example.antsimulate.domain.portfolio.dto.PortfolioResponse;
+import com.example.antsimulate.domain.portfolio.service.PortfolioConsistencyChecker;
+import com.example.antsimulate.domain.portfolio.service.PortfolioService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class PortfolioController {
+    private final PortfolioService portfolioService;
+    private final PortfolioConsistencyChecker portfolioConsistencyChecker;
+
+    @GetMapping("/api/portfolio/{userId}")
+    public ResponseEntity<List<PortfolioResponse>> getHoldings(@PathVariable Long userId){
+        List<PortfolioResponse> response = portfolioService.getHoldings(userId);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 거래내역으로 보유 종목을 다시 계산해 어긋난 종목 조회
+     */
+    @GetMapping("/debug/portfolio/check")
+    public PortfolioCheckResponse check(){
+        return portfolioConsistencyChecker.check();
+    }
+}
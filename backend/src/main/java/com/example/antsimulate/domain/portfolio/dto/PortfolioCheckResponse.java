@@ -0,0 +1,11 @@
+package com.example.antsimulate.domain.portfolio.dto;
+
+import java.util.List;
+
+public record PortfolioCheckResponse(
+        int accounts,
+        int chunks,
+        long elapsedMs,
+        List<PortfolioDrift> drifts
+) {
+}
@@ -0,0 +1,14 @@
+package com.example.antsimulate.domain.portfolio.dto;
+
+/**
+ * 거래내역 재계산 결과와 저장된 보유 종목이 다른 경우 하나
+ */
+public record PortfolioDrift(
+        long accountId,
+        long stockItemId,
+        int expectedQuantity,   // 거래내역으로 다시 계산한 값
+        long expectedAvgPrice,
+        int actualQuantity,     // portfolio 테이블 값 (행이 없으면 0)
+        long actualAvgPrice
+) {
+}
@@ -0,0 +1,17 @@
+package com.example.antsimulate.domain.portfolio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.OffsetDateTime;
+
+@Getter
+@AllArgsConstructor
+public class PortfolioResponse {
+    private Long stockItemId;
+    private String stockSymbol;
+    private String stockName;
+    private int totalQuantity;
+    private long avgPrice;
+    private OffsetDateTime updatedAt;
+}
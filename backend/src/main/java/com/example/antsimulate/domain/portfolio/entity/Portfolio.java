@@ -26,7 +26,7 @@ public class Portfolio {
     @JoinColumn(nullable = false, name = "account_id")
     private Account account;
 
-    @OneToOne
+    @ManyToOne
     @JoinColumn(nullable = false, name = "stock_item_id")
     private StockItems stockItems;
 
@@ -34,7 +34,7 @@ public class Portfolio {
     private int totalQuantity;
 
     @Column(nullable = false, name = "avg_price")
-    private int avgPrice;
+    private long avgPrice;
 
     @Column(nullable = false, name = "created_at")
     private OffsetDateTime createdAt;
@@ -0,0 +1,122 @@
+package com.example.antsimulate.domain.portfolio.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class PortfolioQueryRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 매수 반영 (없으면 생성, 있으면 수량 합산 + 가중 평균단가, 원 단위 반올림)
+     */
+    public void upsertBuy(long accountId, long stockItemId, long price, int quantity){
+        String sql = """
+                INSERT INTO portfolio (account_id, stock_item_id, total_quantity, avg_price, created_at, updated_at)
+                VALUES (?, ?, ?, ?, now(), now())
+                ON CONFLICT (account_id, stock_item_id) DO UPDATE SET
+                    avg_price = (portfolio.avg_price * portfolio.total_quantity
+                                 + EXCLUDED.avg_price * EXCLUDED.total_quantity
+                                 + (portfolio.total_quantity + EXCLUDED.total_quantity) / 2)
+                                / (portfolio.total_quantity + EXCLUDED.total_quantity),
+                    total_quantity = portfolio.total_quantity + EXCLUDED.total_quantity,
+                    updated_at = now()
+                """;
+        jdbcTemplate.update(sql, accountId, stockItemId, quantity, price);
+    }
+
+    /**
+     * 매도 반영 (보유 수량이 충분할 때만, 전량 매도 시 평균단가 0)
+     *
+     * @return 반영한 행 수 (보유 수량 부족이면 0)
+     */
+    public int applySell(long accountId, long stockItemId, int quantity){
+        String sql = """
+                UPDATE portfolio SET
+                    avg_price = CASE WHEN total_quantity = ? THEN 0 ELSE avg_price END,
+                    total_quantity = total_quantity - ?,
+                    updated_at = now()
+                WHERE account_id = ? AND stock_item_id = ? AND total_quantity >= ?
+                """;
+        return jdbcTemplate.update(sql, quantity, quantity, accountId, stockItemId, quantity);
+    }
+
+    public List<Long> findAccountIds(){
+        return jdbcTemplate.queryForList("SELECT id FROM account ORDER BY id", Long.class);
+    }
+
+    /**
+     * 계좌 구간 [fromAccountId, toAccountId]의 거래내역을 계좌/종목/시간 순으로 흘려보낸다
+     */
+    public void streamTransactions(long fromAccountId, long toAccountId, RowCallbackHandler handler){
+        String sql = """
+                SELECT account_id, stock_item_id, type, price, quantity
+                FROM transactions
+                WHERE account_id BETWEEN ? AND ?
+                ORDER BY account_id, stock_item_id, created_at, id
+                """;
+        jdbcTemplate.query(sql, handler, fromAccountId, toAccountId);
+    }
+
+    /**
+     * 계좌 구간 [fromAccountId, toAccountId]의 저장된 보유 종목
+     */
+    public List<PositionRow> findPositions(long fromAccountId, long toAccountId){
+        String sql = """
+                SELECT account_id, stock_item_id, total_quantity, avg_price
+                FROM portfolio
+                WHERE account_id BETWEEN ? AND ?
+                """;
+        return jdbcTemplate.query(
+                sql,
+                (rs, rowNum) -> new PositionRow(
+                        rs.getLong("account_id"),
+                        rs.getLong("stock_item_id"),
+                        rs.getInt("total_quantity"),
+                        rs.getLong("avg_price")
+                ),
+                fromAccountId, toAccountId
+        );
+    }
+
+    /**
+     * 거래내역에는 있는데 portfolio에 행이 없는 (계좌, 종목)을 가진 계좌 (portfolio 도입 전 거래, 백필 대상)
+     */
+    public List<BackfillTarget> findBackfillTargets(){
+        String sql = """
+                SELECT a.id AS account_id, a.user_id
+                FROM account a
+                WHERE EXISTS (
+                    SELECT 1 FROM transactions t
+                    WHERE t.account_id = a.id
+                      AND NOT EXISTS (SELECT 1 FROM portfolio p
+                                      WHERE p.account_id = t.account_id AND p.stock_item_id = t.stock_item_id)
+                )
+                ORDER BY a.id
+                """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new BackfillTarget(rs.getLong("account_id"), rs.getLong("user_id")));
+    }
+
+    /**
+     * 계좌의 보유 종목을 통째로 바꾼다 (백필용, 호출하는 쪽 트랜잭션에 참여)
+     */
+    public void replacePositions(long accountId, List<PositionRow> rows){
+        jdbcTemplate.update("DELETE FROM portfolio WHERE account_id = ?", accountId);
+        String sql = """
+                INSERT INTO portfolio (account_id, stock_item_id, total_quantity, avg_price, created_at, updated_at)
+                VALUES (?, ?, ?, ?, now(), now())
+                """;
+        jdbcTemplate.batchUpdate(sql, rows.stream()
+                .map(row -> new Object[]{row.accountId(), row.stockItemId(), row.totalQuantity(), row.avgPrice()})
+                .toList());
+    }
+
+    public record BackfillTarget(long accountId, long userId){}
+
+    public record PositionRow(long accountId, long stockItemId, int totalQuantity, long avgPrice){}
+}
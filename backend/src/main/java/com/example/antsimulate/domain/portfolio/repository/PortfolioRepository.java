@@ -2,6 +2,16 @@ package com.example.antsimulate.domain.portfolio.repository;
 
 import com.example.antsimulate.domain.portfolio.entity.Portfolio;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface PortfolioRepository extends JpaRepository<Portfolio, Long> {
+    @Query("select p from Portfolio p join fetch p.stockItems " +
+            "where p.account.id = :accountId and p.totalQuantity > 0 order by p.id")
+    List<Portfolio> findHoldings(@Param("accountId") Long accountId);
+
+    Optional<Portfolio> findByAccountIdAndStockItemsId(Long accountId, Long stockItemId);
 }
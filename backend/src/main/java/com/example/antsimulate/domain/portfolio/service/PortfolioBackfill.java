@@ -0,0 +1,75 @@
+package com.example.antsimulate.domain.portfolio.service;
+
+import com.example.antsimulate.domain.account.service.AccountExecutor;
+import com.example.antsimulate.domain.portfolio.repository.PortfolioQueryRepository;
+import com.example.antsimulate.domain.portfolio.service.PositionReplay.PositionKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * portfolio 백필
+ * - portfolio가 거래마다 갱신되기 전에 쌓인 거래내역으로 보유 종목을 다시 만든다
+ * - 거래내역에 있는 (계좌, 종목)의 portfolio 행이 없는 계좌만 대상이므로, 한 번 채우고 나면 다음 시작부터는 할 일이 없다
+ * - 계좌마다 AccountExecutor mailbox에서 돌려 그 계좌의 매매/체결 반영과 겹치지 않게 하고,
+ *   그 시점까지의 거래내역 전체로 계좌의 portfolio 행을 통째로 바꾼다
+ */
+@Slf4j
+@Component
+public class PortfolioBackfill {
+    private final PortfolioQueryRepository portfolioQueryRepository;
+    private final AccountExecutor accountExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    public PortfolioBackfill(PortfolioQueryRepository portfolioQueryRepository,
+                             AccountExecutor accountExecutor,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${portfolio.backfill.enabled:true}") boolean enabled) {
+        this.portfolioQueryRepository = portfolioQueryRepository;
+        this.accountExecutor = accountExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(){
+        if(enabled){
+            backfill();
+        }
+    }
+
+    /**
+     * @return 다시 만든 계좌 수
+     */
+    public int backfill(){
+        List<PortfolioQueryRepository.BackfillTarget> targets = portfolioQueryRepository.findBackfillTargets();
+        for(PortfolioQueryRepository.BackfillTarget target : targets){
+            accountExecutor.run(target.userId(), () -> transactionTemplate.executeWithoutResult(status -> rebuild(target.accountId())));
+        }
+        if(!targets.isEmpty()){
+            log.info("[PORTFOLIO] backfilled {} accounts from transactions", targets.size());
+        }
+        return targets.size();
+    }
+
+    private void rebuild(long accountId){
+        PositionReplay replay = new PositionReplay();
+        portfolioQueryRepository.streamTransactions(accountId, accountId, replay);
+
+        List<PortfolioQueryRepository.PositionRow> rows = new ArrayList<>(replay.positions().size());
+        for(Map.Entry<PositionKey, long[]> position : replay.positions().entrySet()){
+            rows.add(new PortfolioQueryRepository.PositionRow(accountId, position.getKey().stockItemId(),
+                    (int) position.getValue()[0], position.getValue()[1]));
+        }
+        portfolioQueryRepository.replacePositions(accountId, rows);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.antsimulate.domain.portfolio.service;
+
+import com.example.antsimulate.domain.portfolio.dto.PortfolioCheckResponse;
+import com.example.antsimulate.domain.portfolio.dto.PortfolioDrift;
+import com.example.antsimulate.domain.portfolio.repository.PortfolioQueryRepository;
+import com.example.antsimulate.domain.portfolio.service.PositionReplay.PositionKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 보유 종목 정합성 점검
+ * - 계좌를 chunk-size개씩 나눠 구간마다 거래내역을 시간순으로 다시 계산하고, portfolio 테이블과 비교한다
+ * - 구간은 parallelism개 스레드에서 동시에 돌린다 (구간 하나가 쿼리 두 번, DB 커넥션 하나)
+ * - 구간의 두 쿼리는 REPEATABLE READ 읽기 전용 트랜잭션 하나로 묶어 같은 스냅샷을 본다
+ *   (따로 커밋하면 사이에 들어온 체결 때문에 멀쩡한 종목도 어긋난 것으로 잡힌다)
+ * - 고치지는 않고 어긋난 종목만 모아 돌려준다
+ */
+@Slf4j
+@Component
+public class PortfolioConsistencyChecker {
+    private final PortfolioQueryRepository portfolioQueryRepository;
+    private final TransactionTemplate snapshotTx;
+    private final int chunkSize;
+    private final int parallelism;
+
+    public PortfolioConsistencyChecker(PortfolioQueryRepository portfolioQueryRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${portfolio.check.chunk-size:500}") int chunkSize,
+                                       @Value("${portfolio.check.parallelism:4}") int parallelism) {
+        this.portfolioQueryRepository = portfolioQueryRepository;
+        this.snapshotTx = new TransactionTemplate(transactionManager);
+        this.snapshotTx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTx.setReadOnly(true);
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    public PortfolioCheckResponse check(){
+        long startedAt = System.currentTimeMillis();
+        List<Long> accountIds = portfolioQueryRepository.findAccountIds();
+
+        List<Future<List<PortfolioDrift>>> futures = new ArrayList<>();
+        List<PortfolioDrift> drifts = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(parallelism)) {
+            for(int i = 0; i < accountIds.size(); i += chunkSize){
+                long from = accountIds.get(i);
+                long to = accountIds.get(Math.min(i + chunkSize, accountIds.size()) - 1);
+                futures.add(pool.submit(() -> snapshotTx.execute(status -> checkChunk(from, to))));
+            }
+            for(Future<List<PortfolioDrift>> future : futures){
+                drifts.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("portfolio check interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("portfolio check failed", e.getCause());
+        }
+
+        long elapsedMs = System.currentTimeMillis() - startedAt;
+        log.info("[PORTFOLIO] check finished. accounts={}, chunks={}, drifts={}, elapsed={}ms",
+                accountIds.size(), futures.size(), drifts.size(), elapsedMs);
+        return new PortfolioCheckResponse(accountIds.size(), futures.size(), elapsedMs, drifts);
+    }
+
+    private List<PortfolioDrift> checkChunk(long fromAccountId, long toAccountId){
+        PositionReplay replay = new PositionReplay();
+        portfolioQueryRepository.streamTransactions(fromAccountId, toAccountId, replay);
+        Map<PositionKey, long[]> expected = replay.positions();
+
+        Map<PositionKey, PortfolioQueryRepository.PositionRow> actual = new HashMap<>();
+        for(PortfolioQueryRepository.PositionRow row : portfolioQueryRepository.findPositions(fromAccountId, toAccountId)){
+            actual.put(new PositionKey(row.accountId(), row.stockItemId()), row);
+        }
+
+        Set<PositionKey> keys = new HashSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+
+        List<PortfolioDrift> drifts = new ArrayList<>();
+        for(PositionKey key : keys){
+            long[] e = expected.getOrDefault(key, new long[2]);
+            PortfolioQueryRepository.PositionRow a = actual.get(key);
+            int actualQuantity = a == null ? 0 : a.totalQuantity();
+            long actualAvgPrice = a == null ? 0 : a.avgPrice();
+            if(e[0] != actualQuantity || e[1] != actualAvgPrice){
+                PortfolioDrift drift = new PortfolioDrift(key.accountId(), key.stockItemId(),
+                        (int) e[0], e[1], actualQuantity, actualAvgPrice);
+                log.warn("[PORTFOLIO] drift {}", drift);
+                drifts.add(drift);
+            }
+        }
+        return drifts;
+    }
+}
@@ -1,15 +1,70 @@
 package com.example.antsimulate.domain.portfolio.service;
 
+import com.example.antsimulate.domain.account.entity.Account;
+import com.example.antsimulate.domain.account.repository.AccountRepository;
+import com.example.antsimulate.domain.portfolio.dto.PortfolioResponse;
+import com.example.antsimulate.domain.portfolio.entity.Portfolio;
+import com.example.antsimulate.domain.portfolio.repository.PortfolioQueryRepository;
 import com.example.antsimulate.domain.portfolio.repository.PortfolioRepository;
+import com.example.antsimulate.domain.transaction.entity.TransactionType;
+import com.example.antsimulate.global.exception.BusinessException;
+import com.example.antsimulate.global.exception.ErrorCode;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
+/**
+ * 보유 종목 (portfolio)
+ * - 거래내역이 쌓일 때마다 같은 트랜잭션 안에서 해당 종목 한 행만 upsert 한다
+ * - 조회는 보유 종목 수만큼만 읽고 거래내역은 다시 보지 않는다
+ */
 @Service
 @RequiredArgsConstructor
 public class PortfolioService {
     private final PortfolioRepository portfolioRepository;
+    private final PortfolioQueryRepository portfolioQueryRepository;
+    private final AccountRepository accountRepository;
+
+    /**
+     * 거래 한 건을 보유 종목에 반영 (호출하는 쪽 트랜잭션에 참여)
+     * - 매수: 수량 합산, 평균단가는 가중 평균
+     * - 매도: 수량 차감, 전량 매도 시 평균단가 0
+     *
+     * @return 매도 수량이 보유 수량보다 많아 반영하지 못했으면 false
+     */
+    public boolean createOrUpdatePortfolio(Long accountId, Long stockItemId, TransactionType transactionType, long price, int quantity){
+        if(transactionType == TransactionType.BUY){
+            portfolioQueryRepository.upsertBuy(accountId, stockItemId, price, quantity);
+            return true;
+        }
+        return portfolioQueryRepository.applySell(accountId, stockItemId, quantity) == 1;
+    }
 
-    public void createOrUpdatePortfolio(){
+    /**
+     * 보유 수량 (보유하지 않으면 0)
+     */
+    public int getQuantity(Long accountId, Long stockItemId){
+        return portfolioRepository.findByAccountIdAndStockItemsId(accountId, stockItemId)
+                .map(Portfolio::getTotalQuantity)
+                .orElse(0);
+    }
 
+    /**
+     * 사용자의 보유 종목 목록
+     */
+    public List<PortfolioResponse> getHoldings(Long userId){
+        Account account = accountRepository.findByUserId(userId).orElseThrow(() -> new BusinessException(ErrorCode.ACCOUNT_NOT_FOUND));
+        return portfolioRepository.findHoldings(account.getId())
+                .stream()
+                .map(p -> new PortfolioResponse(
+                        p.getStockItems().getId(),
+                        p.getStockItems().getStockSymbol(),
+                        p.getStockItems().getStockName(),
+                        p.getTotalQuantity(),
+                        p.getAvgPrice(),
+                        p.getUpdatedAt()
+                ))
+                .toList();
     }
 }
@@ -0,0 +1,43 @@
+package com.example.antsimulate.domain.portfolio.service;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 거래내역을 시간순으로 다시 계산한 보유 종목 (정합성 점검과 백필이 같이 쓴다)
+ * - 매수 평균단가는 PortfolioQueryRepository.upsertBuy 와 같은 정수 반올림
+ * - 보유 수량보다 많이 판 과거 거래는 0에서 멈춘다
+ */
+final class PositionReplay implements RowCallbackHandler {
+    // (계좌, 종목) → [수량, 평균단가]
+    private final Map<PositionKey, long[]> positions = new HashMap<>();
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+        PositionKey key = new PositionKey(rs.getLong("account_id"), rs.getLong("stock_item_id"));
+        long[] position = positions.computeIfAbsent(key, k -> new long[2]);
+        long price = rs.getLong("price");
+        long quantity = rs.getInt("quantity");
+        if("BUY".equals(rs.getString("type"))){
+            long total = position[0] + quantity;
+            position[1] = (position[1] * position[0] + price * quantity + total / 2) / total;
+            position[0] = total;
+        } else {
+            position[0] = Math.max(0, position[0] - quantity);
+            if(position[0] == 0){
+                position[1] = 0;
+            }
+        }
+    }
+
+    Map<PositionKey, long[]> positions(){
+        return positions;
+    }
+
+    record PositionKey(long accountId, long stockItemId) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.antsimulate.domain.stock.event;
+
+/**
+ * 관심종목 추가/삭제 (커밋 후 관심종목 실시간 피드 갱신용)
+ */
+public record LikeStockItemsToggledEvent(
+        Long userId,
+        String stockSymbol,
+        String stockCountry,
+        boolean liked       // true: 추가, false: 삭제
+) {
+}
@@ -0,0 +1,9 @@
+package com.example.antsimulate.domain.stock.event;
+
+/**
+ * 일봉 적재 완료 (커밋 후 가격 캐시 무효화용)
+ */
+public record StockPriceDailyIngestedEvent(
+        Long stockItemId
+) {
+}
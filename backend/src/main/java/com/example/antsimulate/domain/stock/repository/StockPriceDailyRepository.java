@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,4 +32,22 @@ public interface StockPriceDailyRepository extends JpaRepository<StockPriceDaily
     List<GetStockPriceDailyResponse> findDailyPricesList(@Param("stockItemId") Long stockItemId);
 
     Optional<StockPriceDaily> findTop1ByStockItems_IdOrderByTradeDateDesc(Long StockItemId);
+
+    /**
+     * 여러 종목의 최근 종가를 한 번에 조회
+     */
+    @Query(value = """
+            SELECT DISTINCT ON (stock_item_id)
+                stock_item_id AS "stockItemId",
+                close_price AS "closePrice"
+            FROM stock_price_daily
+            WHERE stock_item_id IN (:stockItemIds)
+            ORDER BY stock_item_id, trade_date DESC
+        """, nativeQuery = true)
+    List<LastClosePrice> findLastClosePrices(@Param("stockItemIds") Collection<Long> stockItemIds);
+
+    interface LastClosePrice {
+        Long getStockItemId();
+        BigDecimal getClosePrice();
+    }
 }
@@ -0,0 +1,176 @@
+package com.example.antsimulate.domain.stock.service;
+
+import com.example.antsimulate.domain.exchange.event.ExchangeRateUpdatedEvent;
+import com.example.antsimulate.domain.exchange.service.ExchangeRateDailyService;
+import com.example.antsimulate.domain.stock.entity.StockItems;
+import com.example.antsimulate.domain.stock.event.StockPriceDailyIngestedEvent;
+import com.example.antsimulate.global.exception.BusinessException;
+import com.example.antsimulate.global.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 주문 가격 계산용 read-through 캐시
+ * - 종목 정보(불변), 종목별 최근 종가, 최근 USD/KRW 환율을 들고 있어 주문 한 건이 계좌 조회와 insert만 DB에 보낸다
+ * - 종가는 일봉 적재 커밋 직후 해당 종목만, 환율은 환율 적재 커밋 직후 비운다 (환율은 TTL도 함께 둔다)
+ * - 조회는 computeIfAbsent 안에서 하므로 적재 중 무효화가 먼저 끝나도 옛 값이 남지 않는다
+ */
+@Slf4j
+@Component
+public class PricingCache {
+    private static final String USD = "USD";
+    private static final String KRW = "KRW";
+
+    private final StockService stockService;
+    private final ExchangeRateDailyService exchangeRateDailyService;
+
+    private final long fxTtlNanos;
+
+    private final Map<Long, StockItems> itemsById = new ConcurrentHashMap<>();
+    private final Map<Long, BigDecimal> closeById = new ConcurrentHashMap<>();
+
+    // 종가 무효화 횟수 (여러 종목을 한 번에 채우는 동안 무효화가 끼었는지 확인용)
+    private final AtomicLong closeVersion = new AtomicLong();
+
+    private volatile FxRate usdKrw;
+    // 무효화할 때마다 올려서, 조회 도중 무효화된 환율은 저장하지 않는다
+    private final AtomicLong fxVersion = new AtomicLong();
+
+    public PricingCache(StockService stockService,
+                        ExchangeRateDailyService exchangeRateDailyService,
+                        @Value("${pricing.fx-ttl-sec:3600}") long fxTtlSec) {
+        this.stockService = stockService;
+        this.exchangeRateDailyService = exchangeRateDailyService;
+        this.fxTtlNanos = fxTtlSec * 1_000_000_000L;
+    }
+
+    /**
+     * 종목 정보 (분리된 엔티티이므로 연관관계 참조로만 쓴다)
+     */
+    public StockItems getStockItems(Long stockItemId){
+        return itemsById.computeIfAbsent(stockItemId, stockService::getStockItems);
+    }
+
+    /**
+     * 종목의 최근 종가
+     */
+    public BigDecimal getLastClosePrice(Long stockItemId){
+        return closeById.computeIfAbsent(stockItemId, id -> stockService.getStockPriceDaily(id).getClosePrice());
+    }
+
+    /**
+     * 여러 종목 정보 (캐시에 없는 것만 한 번의 쿼리로 채운다), 없는 종목이 있으면 예외
+     */
+    public Map<Long, StockItems> getStockItems(Collection<Long> stockItemIds){
+        Map<Long, StockItems> result = new HashMap<>(stockItemIds.size() * 2);
+        List<Long> missing = new ArrayList<>();
+        for(Long id : stockItemIds){
+            StockItems cached = itemsById.get(id);
+            if(cached != null){
+                result.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if(!missing.isEmpty()){
+            for(StockItems stockItems : stockService.getStockItemsList(missing)){
+                itemsById.putIfAbsent(stockItems.getId(), stockItems);
+                result.put(stockItems.getId(), stockItems);
+            }
+        }
+        if(result.size() != stockItemIds.size()){
+            throw new BusinessException(ErrorCode.STOCK_ITEMS_NOT_FOUND);
+        }
+        return result;
+    }
+
+    /**
+     * 여러 종목의 최근 종가 (캐시에 없는 것만 한 번의 쿼리로 채운다), 일봉이 없는 종목이 있으면 예외
+     */
+    public Map<Long, BigDecimal> getLastClosePrices(Collection<Long> stockItemIds){
+        Map<Long, BigDecimal> result = new HashMap<>(stockItemIds.size() * 2);
+        List<Long> missing = new ArrayList<>();
+        for(Long id : stockItemIds){
+            BigDecimal cached = closeById.get(id);
+            if(cached != null){
+                result.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if(!missing.isEmpty()){
+            long version = closeVersion.get();
+            Map<Long, BigDecimal> loaded = stockService.getLastClosePrices(missing);
+            closeById.putAll(loaded);
+            // 조회 도중 무효화가 있었으면 방금 넣은 값은 옛 값일 수 있어 되돌린다
+            if(closeVersion.get() != version){
+                loaded.keySet().forEach(closeById::remove);
+            }
+            result.putAll(loaded);
+        }
+        if(result.size() != stockItemIds.size()){
+            throw new BusinessException(ErrorCode.STOCK_PRICE_DAILY_DESC1_NOT_FOUND);
+        }
+        return result;
+    }
+
+    /**
+     * 최근 USD/KRW 환율
+     */
+    public BigDecimal getUsdKrwRate(){
+        FxRate cached = usdKrw;
+        if(cached != null && System.nanoTime() - cached.loadedAt() < fxTtlNanos){
+            return cached.rate();
+        }
+        long version = fxVersion.get();
+        BigDecimal rate = exchangeRateDailyService.getLastExchangeRate(USD, KRW).getRate();
+        if(fxVersion.get() == version){
+            usdKrw = new FxRate(rate, System.nanoTime());
+        }
+        return rate;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockPriceDailyIngested(StockPriceDailyIngestedEvent event){
+        closeVersion.incrementAndGet();
+        closeById.remove(event.stockItemId());
+        log.debug("[PRICING] close evicted. stockItemId={}", event.stockItemId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExchangeRateUpdated(ExchangeRateUpdatedEvent event){
+        if(USD.equals(event.baseCurrency()) && KRW.equals(event.quoteCurrency())){
+            evictExchangeRate();
+        }
+    }
+
+    public void evictExchangeRate(){
+        fxVersion.incrementAndGet();
+        usdKrw = null;
+        log.debug("[PRICING] USD/KRW evicted");
+    }
+
+    /**
+     * 전체 비우기 (벤치마크/운영 점검용)
+     */
+    public void evictAll(){
+        itemsById.clear();
+        closeVersion.incrementAndGet();
+        closeById.clear();
+        evictExchangeRate();
+    }
+
+    private record FxRate(BigDecimal rate, long loadedAt) {
+    }
+}
@@ -5,6 +5,7 @@ import com.example.antsimulate.domain.stock.dto.LikeStockItemsResponse;
 import com.example.antsimulate.domain.stock.entity.LikeStockItems;
 import com.example.antsimulate.domain.stock.entity.StockItems;
 import com.example.antsimulate.domain.stock.entity.StockPriceDaily;
+import com.example.antsimulate.domain.stock.event.LikeStockItemsToggledEvent;
 import com.example.antsimulate.domain.stock.repository.LikeStockItemsRepository;
 import com.example.antsimulate.domain.stock.repository.StockItemsRepository;
 import com.example.antsimulate.domain.stock.repository.StockPriceDailyRepository;
@@ -13,10 +14,15 @@ import com.example.antsimulate.domain.user.repository.UserRepository;
 import com.example.antsimulate.global.exception.BusinessException;
 import com.example.antsimulate.global.exception.ErrorCode;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +31,7 @@ public class StockService {
     private final LikeStockItemsRepository likeStockItemsRepository;
     private final StockItemsRepository stockItemsRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 종목 정보 조회
@@ -41,6 +48,24 @@ public class StockService {
                 .orElseThrow(() -> new BusinessException(ErrorCode.STOCK_PRICE_DAILY_DESC1_NOT_FOUND));
     }
 
+    /**
+     * 여러 종목 정보 한 번에 조회 (없는 id는 빠진다)
+     */
+    public List<StockItems> getStockItemsList(Collection<Long> stockItemIds){
+        return stockItemsRepository.findAllById(stockItemIds);
+    }
+
+    /**
+     * 여러 종목의 최근 종가 한 번에 조회 (일봉이 없는 종목은 빠진다)
+     */
+    public Map<Long, BigDecimal> getLastClosePrices(Collection<Long> stockItemIds){
+        Map<Long, BigDecimal> closes = new HashMap<>(stockItemIds.size() * 2);
+        for(StockPriceDailyRepository.LastClosePrice row : stockPriceDailyRepository.findLastClosePrices(stockItemIds)){
+            closes.put(row.getStockItemId(), row.getClosePrice());
+        }
+        return closes;
+    }
+
     /**
      *  차트 리스트 조회
      **/
@@ -72,12 +97,19 @@ public class StockService {
                                                 .build();
             
             likeStockItemsRepository.save(likeStockItems);
+            publishToggled(userId, stockItems, true);
             return new LikeStockItemsResponse("create");
         }
 
+        publishToggled(userId, stockItems, false);
         return new LikeStockItemsResponse("delete");
     }
 
+    private void publishToggled(Long userId, StockItems stockItems, boolean liked){
+        eventPublisher.publishEvent(new LikeStockItemsToggledEvent(
+                userId, stockItems.getStockSymbol(), stockItems.getStockCountry(), liked));
+    }
+
     /**
      *  관심종목 목록 조회
      **/
@@ -1,5 +1,7 @@
 package com.example.antsimulate.domain.transaction.controller;
 
+import com.example.antsimulate.domain.account.service.AccountExecutor;
+import com.example.antsimulate.domain.transaction.dto.CreateBasketRequest;
 import com.example.antsimulate.domain.transaction.dto.CreateTransactionRequest;
 import com.example.antsimulate.domain.transaction.dto.GetTransactionResponse;
 import com.example.antsimulate.domain.transaction.entity.TransactionType;
@@ -15,6 +17,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TransactionController {
     private final TransactionService transactionService;
+    private final AccountExecutor accountExecutor;
 
     @GetMapping("/{userId}")
     public ResponseEntity<List<GetTransactionResponse>> getTransactionList(@PathVariable Long userId){
@@ -26,7 +29,16 @@ public class TransactionController {
     public ResponseEntity<Void> createTransaction(@PathVariable Long userId,
                                               @PathVariable Long stockItemId,
                                               @RequestBody CreateTransactionRequest request){
-        transactionService.createTransaction(userId, stockItemId, request.getTransactionType(), request.getQuantity());
+        accountExecutor.run(userId, () ->
+                transactionService.createTransaction(userId, stockItemId, request.getTransactionType(), request.getQuantity()));
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/{userId}/basket")
+    public ResponseEntity<List<GetTransactionResponse>> createBasketTransaction(@PathVariable Long userId,
+                                                                                @RequestBody CreateBasketRequest request){
+        List<GetTransactionResponse> response = accountExecutor.execute(userId, () ->
+                transactionService.createBasketTransaction(userId, request.getLegs()));
+        return ResponseEntity.ok(response);
+    }
 }
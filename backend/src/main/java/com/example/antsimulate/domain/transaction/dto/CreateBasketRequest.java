@@ -0,0 +1,21 @@
+package com.example.antsimulate.domain.transaction.dto;
+
+import com.example.antsimulate.domain.transaction.entity.TransactionType;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+public class CreateBasketRequest {
+    private List<Leg> legs;
+
+    @Getter
+    @NoArgsConstructor
+    public static class Leg {
+        private Long stockItemId;
+        private TransactionType transactionType;
+        private int quantity;
+    }
+}
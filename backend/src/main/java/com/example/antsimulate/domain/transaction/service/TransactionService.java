@@ -2,10 +2,10 @@ package com.example.antsimulate.domain.transaction.service;
 
 import com.example.antsimulate.domain.account.entity.Account;
 import com.example.antsimulate.domain.account.repository.AccountRepository;
-import com.example.antsimulate.domain.exchange.service.ExchangeRateDailyService;
+import com.example.antsimulate.domain.portfolio.service.PortfolioService;
 import com.example.antsimulate.domain.stock.entity.StockItems;
-import com.example.antsimulate.domain.stock.entity.StockPriceDaily;
-import com.example.antsimulate.domain.stock.service.StockService;
+import com.example.antsimulate.domain.stock.service.PricingCache;
+import com.example.antsimulate.domain.transaction.dto.CreateBasketRequest;
 import com.example.antsimulate.domain.transaction.dto.GetTransactionResponse;
 import com.example.antsimulate.domain.transaction.entity.TransactionType;
 import com.example.antsimulate.domain.transaction.entity.Transactions;
@@ -14,19 +14,33 @@ import com.example.antsimulate.global.exception.BusinessException;
 import com.example.antsimulate.global.exception.ErrorCode;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
-    private final StockService stockService;
-    private final ExchangeRateDailyService exchangeRateDailyService;
+    // 바스켓 한 번에 담을 수 있는 최대 종목 수
+    private static final int MAX_BASKET_LEGS = 100;
+
+    private static final String INSERT_TRANSACTION =
+            "insert into transactions (account_id, stock_item_id, type, price, quantity, exchange_rate, created_at) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private final PricingCache pricingCache;
     private final AccountRepository accountRepository;
     private final TransactionsRepository transactionsRepository;
+    private final PortfolioService portfolioService;
+    private final JdbcTemplate jdbcTemplate;
 
     /**
      * 거래내역 조회
@@ -55,16 +69,16 @@ public class TransactionService {
     @Transactional
     public void createTransaction(Long userId, Long stockItemId, TransactionType transactionType, int quantity){
         Account account = accountRepository.findByUserId(userId).orElseThrow(() -> new BusinessException(ErrorCode.ACCOUNT_NOT_FOUND));
-        StockPriceDaily stockPriceDaily = stockService.getStockPriceDaily(stockItemId);
-        StockItems stockItems = stockService.getStockItems(stockItemId);
+        // 종목 정보, 종가, 환율은 캐시에서 (DB는 계좌 조회와 insert만)
+        BigDecimal closePrice = pricingCache.getLastClosePrice(stockItemId);
+        StockItems stockItems = pricingCache.getStockItems(stockItemId);
 
         int price = 0;
         int totalPrice = 0;
         BigDecimal rate = null;
-        BigDecimal closePrice = stockPriceDaily.getClosePrice();
 
         if("US".equals(stockItems.getStockCountry())){
-            rate = exchangeRateDailyService.getLastExchangeRate("USD", "KRW").getRate();
+            rate = pricingCache.getUsdKrwRate();
             price = rate.multiply(closePrice)
                     .setScale(0, RoundingMode.HALF_UP)
                     .intValueExact();
@@ -75,8 +89,8 @@ public class TransactionService {
                     .intValueExact();
 
         }else if("KR".equals(stockItems.getStockCountry())){
-            price = stockPriceDaily.getClosePrice().intValueExact();
-            totalPrice = price * quantity;
+            price = closePrice.intValueExact();
+            totalPrice = Math.multiplyExact(price, quantity);
         }
 
         if(transactionType == TransactionType.BUY){
@@ -85,6 +99,11 @@ public class TransactionService {
             account.sell(totalPrice);
         }
 
+        // 보유 종목도 같은 트랜잭션에서 갱신
+        if(!portfolioService.createOrUpdatePortfolio(account.getId(), stockItemId, transactionType, price, quantity)){
+            throw new BusinessException(ErrorCode.INSUFFICIENT_HOLDINGS);
+        }
+
         Transactions transactions = Transactions.builder()
                 .account(account)
                 .stockItems(stockItems)
@@ -97,4 +116,91 @@ public class TransactionService {
         transactionsRepository.save(transactions);
     }
 
+    /**
+     * 바스켓 매수, 매도 (여러 종목을 한 트랜잭션으로, 하나라도 실패하면 전부 취소)
+     * - 종목 정보, 종가는 종목 묶음당 쿼리 한 번씩 (캐시에 있으면 생략), 환율은 미국 종목이 있을 때만
+     * - 잔고는 메모리에서 바스켓 전체(매도 금액 포함)로 먼저 검증하고, 거래내역은 JDBC batch로 한 번에 넣는다
+     */
+    @Transactional
+    public List<GetTransactionResponse> createBasketTransaction(Long userId, List<CreateBasketRequest.Leg> legs){
+        if(legs == null || legs.isEmpty() || legs.size() > MAX_BASKET_LEGS){
+            throw new BusinessException(ErrorCode.INVALID_BASKET);
+        }
+        Set<Long> stockItemIds = new HashSet<>();
+        for(CreateBasketRequest.Leg leg : legs){
+            if(leg.getStockItemId() == null || leg.getTransactionType() == null || leg.getQuantity() <= 0){
+                throw new BusinessException(ErrorCode.INVALID_BASKET);
+            }
+            stockItemIds.add(leg.getStockItemId());
+        }
+
+        Account account = accountRepository.findByUserId(userId).orElseThrow(() -> new BusinessException(ErrorCode.ACCOUNT_NOT_FOUND));
+        Map<Long, StockItems> stockItemsById = pricingCache.getStockItems(stockItemIds);
+        Map<Long, BigDecimal> closeById = pricingCache.getLastClosePrices(stockItemIds);
+        BigDecimal usdKrw = stockItemsById.values().stream().anyMatch(s -> "US".equals(s.getStockCountry()))
+                ? pricingCache.getUsdKrwRate()
+                : null;
+
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        long buyTotal = 0;
+        long sellTotal = 0;
+        List<Object[]> rows = new ArrayList<>(legs.size());
+        List<GetTransactionResponse> responses = new ArrayList<>(legs.size());
+
+        for(CreateBasketRequest.Leg leg : legs){
+            StockItems stockItems = stockItemsById.get(leg.getStockItemId());
+            BigDecimal closePrice = closeById.get(leg.getStockItemId());
+            int quantity = leg.getQuantity();
+
+            int price = 0;
+            long totalPrice = 0;
+            BigDecimal rate = null;
+
+            if("US".equals(stockItems.getStockCountry())){
+                rate = usdKrw;
+                price = rate.multiply(closePrice)
+                        .setScale(0, RoundingMode.HALF_UP)
+                        .intValueExact();
+
+                totalPrice = rate.multiply(closePrice)
+                        .multiply(new BigDecimal(quantity))
+                        .setScale(0, RoundingMode.HALF_UP)
+                        .longValueExact();
+
+            }else if("KR".equals(stockItems.getStockCountry())){
+                price = closePrice.intValueExact();
+                totalPrice = (long) price * quantity;
+            }
+
+            if(leg.getTransactionType() == TransactionType.BUY){
+                buyTotal += totalPrice;
+            }else if(leg.getTransactionType() == TransactionType.SELL){
+                sellTotal += totalPrice;
+            }
+
+            rows.add(new Object[]{account.getId(), stockItems.getId(), leg.getTransactionType().name(),
+                    price, quantity, rate, now});
+            responses.add(new GetTransactionResponse(stockItems.getStockSymbol(), stockItems.getStockName(),
+                    leg.getTransactionType().name(), price, quantity, now));
+        }
+
+        // 매도 대금까지 합쳐 바스켓 전체로 잔고 검증
+        if(account.getTotalAsset() + sellTotal < buyTotal){
+            throw new BusinessException(ErrorCode.INSUFFICIENT_BALANCE);
+        }
+        account.sell(sellTotal);
+        account.buy(buyTotal);
+
+        // 보유 종목은 다리 순서대로 반영 (매도 수량이 모자라면 전체 취소)
+        for(int i = 0; i < legs.size(); i++){
+            CreateBasketRequest.Leg leg = legs.get(i);
+            if(!portfolioService.createOrUpdatePortfolio(account.getId(), leg.getStockItemId(), leg.getTransactionType(),
+                    responses.get(i).getPrice(), leg.getQuantity())){
+                throw new BusinessException(ErrorCode.INSUFFICIENT_HOLDINGS);
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION, rows);
+        return responses;
+    }
 }
@@ -1,14 +1,22 @@
 package com.example.antsimulate.global.config;
 
+import com.example.antsimulate.global.websocket.SessionOutboundPolicy;
+import com.example.antsimulate.global.websocket.StompUserInterceptor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    private final SessionOutboundPolicy sessionOutboundPolicy;
+    private final StompUserInterceptor stompUserInterceptor;
 
     /**
      * 프론트 켜질 때
@@ -20,10 +28,32 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     }
 
     /**
-     * 종목 화면 켜질 때
+     * 종목 화면 켜질 때 (/topic/{symbol}), 관심종목 화면 켜질 때 (/user/queue/watchlist)
      */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry){
-        registry.enableSimpleBroker("/topic");
+        registry.enableSimpleBroker("/topic", "/queue");
+        registry.setUserDestinationPrefix("/user");
+    }
+
+    /**
+     * CONNECT 헤더 userId → 세션 사용자
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration){
+        registration.interceptors(stompUserInterceptor);
+    }
+
+    /**
+     * 세션별 송신 대기열 (느린 클라이언트가 다른 세션 전송을 막지 않게)
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration){
+        registration.interceptors(sessionOutboundPolicy);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration){
+        registration.addDecoratorFactory(sessionOutboundPolicy);
     }
 }
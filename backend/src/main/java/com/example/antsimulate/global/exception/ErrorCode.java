@@ -18,6 +18,8 @@ public enum ErrorCode {
     // Account
     ACCOUNT_NOT_FOUND(HttpStatus.NOT_FOUND, "계좌를 찾을 수 없습니다."),
     INSUFFICIENT_BALANCE(HttpStatus.BAD_REQUEST, "잔고가 부족합니다."),
+    INSUFFICIENT_HOLDINGS(HttpStatus.BAD_REQUEST, "보유 수량이 부족합니다."),
+    ACCOUNT_UPDATE_CONFLICT(HttpStatus.CONFLICT, "계좌가 동시에 변경되었습니다. 다시 시도해 주세요."),
     // StockItems
     STOCK_ITEMS_NOT_FOUND(HttpStatus.NOT_FOUND, "종목 정보를 찾을 수 없습니다."),
 
@@ -30,8 +32,27 @@ public enum ErrorCode {
     // Backtest
     BACKTEST_API_ERROR(HttpStatus.BAD_GATEWAY, "백테스트 서버 통신 중 오류가 발생했습니다."),
 
+    // PriceAlert
+    PRICE_ALERT_NOT_FOUND(HttpStatus.NOT_FOUND, "가격 알림을 찾을 수 없습니다."),
+    INVALID_PRICE_ALERT(HttpStatus.BAD_REQUEST, "알림 방향과 0보다 큰 목표가를 입력해야 합니다."),
+    PRICE_ALERT_UNSUPPORTED_STOCK(HttpStatus.BAD_REQUEST, "실시간 시세를 제공하지 않는 종목입니다."),
+
+    // Transaction
+    INVALID_BASKET(HttpStatus.BAD_REQUEST, "바스켓에는 1~100개의 종목과 매수/매도 구분, 0보다 큰 수량이 필요합니다."),
+
+    // Order
+    ORDER_NOT_FOUND(HttpStatus.NOT_FOUND, "주문을 찾을 수 없습니다."),
+    INVALID_ORDER(HttpStatus.BAD_REQUEST, "주문 구분과 0보다 큰 수량(지정가는 가격)을 입력해야 합니다."),
+    ORDER_UNSUPPORTED_STOCK(HttpStatus.BAD_REQUEST, "실시간 주문을 지원하지 않는 종목입니다."),
+    ORDER_NOT_CANCELLABLE(HttpStatus.CONFLICT, "이미 체결되었거나 취소된 주문입니다."),
+
+    // Quote
+    INVALID_BAR_INTERVAL(HttpStatus.BAD_REQUEST, "지원하지 않는 봉 주기입니다. (1m, 5m, 15m, 30m, 1h)"),
+    SYMBOL_DICTIONARY_FULL(HttpStatus.SERVICE_UNAVAILABLE, "실시간 종목 수가 한도를 넘었습니다."),
+
     // Infra
     KIWOOM_TOKEN_ISSUE_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, "키움 access token 발급에 실패했습니다."),
+    KIWOOM_POOL_FULL(HttpStatus.SERVICE_UNAVAILABLE, "키움 연결마다 등록할 수 있는 실시간 종목 수를 모두 사용했습니다."),
     KIWOOM_WS_SERIALIZATION_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, "키움 웹소켓 메시지 직렬화에 실패했습니다."),
     EXTERNAL_DATA_RESPONSE_ERROR(HttpStatus.BAD_GATEWAY, "외부 데이터 응답 오류가 발생했습니다.");
 
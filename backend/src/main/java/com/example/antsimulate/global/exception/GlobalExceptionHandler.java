@@ -1,6 +1,7 @@
 package com.example.antsimulate.global.exception;
 
 import com.example.antsimulate.global.exception.dto.ErrorResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -16,4 +17,13 @@ public class GlobalExceptionHandler {
         ErrorCode errorCode = e.getErrorCode();
         return ResponseEntity.status(errorCode.getHttpStatus()).body(ErrorResponse.of(errorCode));
     }
+
+    /**
+     * 낙관적 락 충돌 (계좌 mailbox 밖에서 동시에 바뀐 경우)
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(OptimisticLockingFailureException e){
+        ErrorCode errorCode = ErrorCode.ACCOUNT_UPDATE_CONFLICT;
+        return ResponseEntity.status(errorCode.getHttpStatus()).body(ErrorResponse.of(errorCode));
+    }
 }
@@ -0,0 +1,243 @@
+package com.example.antsimulate.global.websocket;
+
+import com.example.antsimulate.global.websocket.dto.SessionLagResponse;
+import com.example.antsimulate.kiwoom.message.CompactQuoteEncoder;
+import com.example.antsimulate.kiwoom.message.QuoteFrame;
+import io.micrometer.core.instrument.Counter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * STOMP 세션 하나의 송신 대기열
+ * - 평소에는 capacity까지 순서대로 쌓는다
+ * - 가득 차면(밀림 상태) 시세 토픽 메시지는 구독별 마지막 값 하나만 남기고 중간 값은 버린다
+ * - 합칠 수 없는 메시지는 계속 쌓되 maxQueued를 넘으면 적재를 멈추고 overflowed로 표시한다 (정책이 연결을 끊는다)
+ * - 전송 스레드는 세션당 최대 하나 (draining 플래그로 보장)
+ * - compact 인코딩을 요청한 구독은 전송 직전에 본문을 바꾼다 (버려진 중간 값이 델타 기준이 되지 않도록)
+ * - 전송 스레드가 가상 스레드라 synchronized 대신 락 사용 (캐리어 스레드 고정 방지)
+ */
+final class SessionOutboundLane {
+    private final WebSocketSession session;
+    private final int capacity;
+    private final int maxQueued;
+    private final Counter conflatedCounter;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // 순서대로 보낼 메시지
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+
+    // 밀림 상태에서 들어온 시세 (구독 → 마지막 메시지, 처음 들어온 순서 유지)
+    private final LinkedHashMap<String, Pending> conflated = new LinkedHashMap<>();
+
+    private boolean draining;
+
+    // 대기열이 maxQueued를 넘어 더 받지 않는 상태
+    private boolean overflowed;
+
+    // 밀림 상태가 시작된 시점 (System.nanoTime), 정상이면 0
+    private long behindSinceNanos;
+
+    private long sent;
+    private long dropped;
+
+    // compact 인코딩 구독 subscriptionId → 직전 전송 값 (커서는 전송 스레드만 갱신)
+    private final ConcurrentHashMap<String, CompactQuoteEncoder.Cursor> compactCursors = new ConcurrentHashMap<>();
+
+    SessionOutboundLane(WebSocketSession session, int capacity, int maxQueued, Counter conflatedCounter) {
+        this.session = session;
+        this.capacity = capacity;
+        this.maxQueued = maxQueued;
+        this.conflatedCounter = conflatedCounter;
+    }
+
+    WebSocketSession session() {
+        return session;
+    }
+
+    /**
+     * 메시지 적재
+     * @param conflationKey 구독별 최신값만 남겨도 되는 메시지면 구독 키, 아니면 null
+     * @return 전송 스레드를 새로 시작해야 하면 true (overflowed면 버리고 false)
+     */
+    boolean offer(Message<?> message, String conflationKey, long nowNanos) {
+        lock.lock();
+        try {
+            if (overflowed) {
+                dropped++;
+                return false;
+            }
+            if (queue.size() >= capacity && behindSinceNanos == 0) {
+                behindSinceNanos = nowNanos;
+            }
+
+            if (conflationKey != null && behindSinceNanos != 0) {
+                Pending existing = conflated.get(conflationKey);
+                if (existing != null) {
+                    // 대기 시간은 처음 밀린 시점 기준으로 유지
+                    existing.message = message;
+                    dropped++;
+                    conflatedCounter.increment();
+                } else {
+                    conflated.put(conflationKey, new Pending(message, nowNanos));
+                }
+            } else if (queue.size() >= maxQueued) {
+                overflowed = true;
+                dropped++;
+                return false;
+            } else {
+                queue.add(new Pending(message, nowNanos));
+            }
+
+            if (draining) {
+                return false;
+            }
+            draining = true;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 다음에 보낼 메시지, 비었으면 전송 스레드 종료 표시 후 null
+     */
+    Message<?> poll() {
+        lock.lock();
+        try {
+            Pending next = queue.poll();
+            if (next == null && !conflated.isEmpty()) {
+                Iterator<Pending> iterator = conflated.values().iterator();
+                next = iterator.next();
+                iterator.remove();
+            }
+            if (next == null) {
+                draining = false;
+                behindSinceNanos = 0;
+                return null;
+            }
+            if (behindSinceNanos != 0 && conflated.isEmpty() && queue.size() < capacity) {
+                behindSinceNanos = 0;
+            }
+            sent++;
+            return next.message;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void useCompact(String subscriptionId) {
+        compactCursors.put(subscriptionId, new CompactQuoteEncoder.Cursor());
+    }
+
+    void release(String subscriptionId) {
+        compactCursors.remove(subscriptionId);
+    }
+
+    /**
+     * compact 구독으로 가는 시세면 본문을 compact 인코딩으로 교체 (전송 스레드 전용)
+     */
+    Message<?> encode(Message<?> message) {
+        if (compactCursors.isEmpty()) {
+            return message;
+        }
+        MessageHeaders headers = message.getHeaders();
+        String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(headers);
+        CompactQuoteEncoder.Cursor cursor = subscriptionId == null ? null : compactCursors.get(subscriptionId);
+        if (cursor == null || !(headers.get(QuoteFrame.HEADER) instanceof QuoteFrame quote)) {
+            return message;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        accessor.setNativeHeader(CompactQuoteEncoder.ENCODING_HEADER, CompactQuoteEncoder.COMPACT);
+        return MessageBuilder.createMessage(CompactQuoteEncoder.encode(quote, cursor), accessor.getMessageHeaders());
+    }
+
+    boolean isOverflowed() {
+        lock.lock();
+        try {
+            return overflowed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 밀림 상태가 이어진 시간 (정상이면 0)
+     */
+    long behindNanos(long nowNanos) {
+        lock.lock();
+        try {
+            return behindSinceNanos == 0 ? 0 : nowNanos - behindSinceNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 가장 오래 기다린 메시지의 대기 시간 (비었으면 0)
+     */
+    long lagNanos(long nowNanos) {
+        lock.lock();
+        try {
+            return lagNanosLocked(nowNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void clear() {
+        lock.lock();
+        try {
+            queue.clear();
+            conflated.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    SessionLagResponse stats(long nowNanos) {
+        lock.lock();
+        try {
+            return new SessionLagResponse(
+                    session.getId(),
+                    queue.size(),
+                    conflated.size(),
+                    TimeUnit.NANOSECONDS.toMillis(lagNanosLocked(nowNanos)),
+                    behindSinceNanos == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(nowNanos - behindSinceNanos),
+                    sent,
+                    dropped
+            );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long lagNanosLocked(long nowNanos) {
+        Pending oldest = queue.peek();
+        if (oldest == null && !conflated.isEmpty()) {
+            oldest = conflated.values().iterator().next();
+        }
+        return oldest == null ? 0 : nowNanos - oldest.enqueuedNanos;
+    }
+
+    private static final class Pending {
+        private Message<?> message;
+        private final long enqueuedNanos;
+
+        private Pending(Message<?> message, long enqueuedNanos) {
+            this.message = message;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.antsimulate.global.websocket;
+
+import com.example.antsimulate.global.websocket.dto.SessionLagResponse;
+import com.example.antsimulate.kiwoom.message.CompactQuoteEncoder;
+import com.example.antsimulate.kiwoom.service.QuoteTopics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * clientOutboundChannel 세션별 송신 정책 (느린 클라이언트 보호)
+ * - 세션으로 가는 MESSAGE 프레임을 채널 스레드 풀 대신 세션별 대기열(SessionOutboundLane)에 넣고,
+ *   세션마다 하나뿐인 가상 스레드가 순서대로 보낸다 → 느린 세션은 자기 대기열만 밀린다
+ * - 대기열이 가득 차면 시세 토픽(/topic/{symbol})은 구독별 최신값만 남긴다
+ * - 밀림 상태가 max-behind-ms 넘게 이어지거나, 합칠 수 없는 메시지가 max-queued를 넘게 쌓이면 연결을 끊는다
+ * - SUBSCRIBE 헤더 x-quote-encoding: compact 인 구독은 보내기 직전에 compact 인코딩으로 바꾼다 (CompactQuoteEncoder)
+ * - 연결/종료 시점을 알기 위해 WebSocket 핸들러 데코레이터도 겸한다
+ */
+@Slf4j
+@Component
+public class SessionOutboundPolicy implements ChannelInterceptor, WebSocketHandlerDecoratorFactory {
+    private final int queueCapacity;
+    private final int maxQueued;
+    private final long maxBehindNanos;
+
+    // sessionId → 대기열
+    private final ConcurrentHashMap<String, SessionOutboundLane> lanes = new ConcurrentHashMap<>();
+
+    // 대기열에서 꺼낸 메시지를 실제로 세션에 쓰는 핸들러 (SubProtocolWebSocketHandler)
+    private volatile MessageHandler messageHandler;
+
+    private final Counter conflatedCounter;
+    private final Counter slowDisconnectCounter;
+    private final Counter overflowDisconnectCounter;
+
+    public SessionOutboundPolicy(MeterRegistry meterRegistry,
+                                 @Value("${stomp.outbound.queue-capacity:256}") int queueCapacity,
+                                 @Value("${stomp.outbound.max-queued:1024}") int maxQueued,
+                                 @Value("${stomp.outbound.max-behind-ms:10000}") long maxBehindMs) {
+        this.queueCapacity = queueCapacity;
+        this.maxQueued = Math.max(maxQueued, queueCapacity);
+        this.maxBehindNanos = TimeUnit.MILLISECONDS.toNanos(maxBehindMs);
+
+        this.conflatedCounter = Counter.builder("stomp.outbound.conflated")
+                .description("밀린 세션에서 최신값으로 덮어써 버린 시세 수")
+                .register(meterRegistry);
+        this.slowDisconnectCounter = Counter.builder("stomp.outbound.slow.disconnects")
+                .description("오래 밀려 연결을 끊은 세션 수")
+                .register(meterRegistry);
+        this.overflowDisconnectCounter = Counter.builder("stomp.outbound.overflow.disconnects")
+                .description("대기열이 max-queued를 넘어 연결을 끊은 세션 수")
+                .register(meterRegistry);
+        Gauge.builder("stomp.outbound.sessions", lanes, ConcurrentHashMap::size)
+                .description("송신 대기열이 있는 STOMP 세션 수")
+                .register(meterRegistry);
+        Gauge.builder("stomp.outbound.sessions.behind", this, SessionOutboundPolicy::behindSessionCount)
+                .description("대기열이 가득 차 밀림 상태인 세션 수")
+                .register(meterRegistry);
+        Gauge.builder("stomp.outbound.lag.max", this, SessionOutboundPolicy::maxLagMillis)
+                .description("세션 대기열에서 가장 오래 기다린 메시지의 대기 시간")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 세션으로 가는 MESSAGE 프레임을 대기열로 옮기고 채널 전송은 멈춘다 (null 반환)
+     * - CONNECTED, 하트비트 등 나머지 프레임은 그대로 통과
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel){
+        MessageHeaders headers = message.getHeaders();
+        if(SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE || messageHandler == null){
+            return message;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        SessionOutboundLane lane = sessionId == null ? null : lanes.get(sessionId);
+        if(lane == null){
+            return message;
+        }
+
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        // 같은 세션이 같은 종목을 여러 번 구독할 수 있으므로 구독 단위로 합친다
+        String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(headers);
+        String conflationKey = QuoteTopics.symbolOf(destination) == null ? null
+                : subscriptionId != null ? subscriptionId : destination;
+        if(lane.offer(message, conflationKey, System.nanoTime())){
+            Thread.ofVirtual().name("stomp-outbound-" + sessionId).start(() -> drain(lane));
+        } else if(lane.isOverflowed() && lanes.remove(sessionId, lane)){
+            log.warn("[STOMP] outbound queue overflow disconnected. session={}, maxQueued={}", sessionId, maxQueued);
+            overflowDisconnectCounter.increment();
+            close(lane);
+        }
+        return null;
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler){
+        if(WebSocketHandlerDecorator.unwrap(handler) instanceof MessageHandler subProtocolHandler){
+            this.messageHandler = subProtocolHandler;
+        }
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                lanes.put(session.getId(), new SessionOutboundLane(session, queueCapacity, maxQueued, conflatedCounter));
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                SessionOutboundLane lane = lanes.remove(session.getId());
+                if(lane != null){
+                    lane.clear();
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    /**
+     * compact 인코딩 요청 등록
+     * - 구독 직후 스냅샷(QuoteSnapshotService)보다 먼저 등록되도록 가장 앞 순서로 처리
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onSubscribe(SessionSubscribeEvent event){
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        if(!CompactQuoteEncoder.COMPACT.equals(accessor.getFirstNativeHeader(CompactQuoteEncoder.ENCODING_HEADER))){
+            return;
+        }
+        SessionOutboundLane lane = accessor.getSessionId() == null ? null : lanes.get(accessor.getSessionId());
+        if(lane != null && accessor.getSubscriptionId() != null){
+            lane.useCompact(accessor.getSubscriptionId());
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event){
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        SessionOutboundLane lane = accessor.getSessionId() == null ? null : lanes.get(accessor.getSessionId());
+        if(lane != null && accessor.getSubscriptionId() != null){
+            lane.release(accessor.getSubscriptionId());
+        }
+    }
+
+    /**
+     * 밀림 상태가 오래 이어진 세션 연결 종료
+     */
+    @Scheduled(fixedRateString = "${stomp.outbound.check-interval-ms:1000}")
+    public void disconnectSlowSessions(){
+        long now = System.nanoTime();
+        for(SessionOutboundLane lane : lanes.values()){
+            long behindNanos = lane.behindNanos(now);
+            if(behindNanos <= maxBehindNanos){
+                continue;
+            }
+
+            log.warn("[STOMP] slow consumer disconnected. session={}, behindMs={}",
+                    lane.session().getId(), TimeUnit.NANOSECONDS.toMillis(behindNanos));
+            lanes.remove(lane.session().getId());
+            slowDisconnectCounter.increment();
+            close(lane);
+        }
+    }
+
+    /**
+     * 세션별 대기 현황 (대기 시간이 긴 순)
+     */
+    public List<SessionLagResponse> stats(){
+        long now = System.nanoTime();
+        List<SessionLagResponse> result = new ArrayList<>(lanes.size());
+        for(SessionOutboundLane lane : lanes.values()){
+            result.add(lane.stats(now));
+        }
+        result.sort(Comparator.comparingLong(SessionLagResponse::lagMs).reversed());
+        return result;
+    }
+
+    private void close(SessionOutboundLane lane){
+        WebSocketSession session = lane.session();
+        lane.clear();
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.debug("[STOMP] close failed. session={}", session.getId(), e);
+        }
+    }
+
+    private void drain(SessionOutboundLane lane){
+        Message<?> message;
+        while((message = lane.poll()) != null){
+            try {
+                messageHandler.handleMessage(lane.encode(message));
+            } catch (Exception e) {
+                log.debug("[STOMP] outbound send failed. session={}", lane.session().getId(), e);
+            }
+        }
+    }
+
+    private int behindSessionCount(){
+        long now = System.nanoTime();
+        int count = 0;
+        for(SessionOutboundLane lane : lanes.values()){
+            if(lane.behindNanos(now) > 0){
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private double maxLagMillis(){
+        long now = System.nanoTime();
+        long max = 0;
+        for(SessionOutboundLane lane : lanes.values()){
+            max = Math.max(max, lane.lagNanos(now));
+        }
+        return TimeUnit.NANOSECONDS.toMillis(max);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.antsimulate.global.websocket;
+
+import com.example.antsimulate.global.websocket.dto.SessionLagResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class StompSessionController {
+    private final SessionOutboundPolicy sessionOutboundPolicy;
+
+    /**
+     * 세션별 송신 대기 현황 (느린 세션 확인용)
+     */
+    @GetMapping("/debug/stomp/sessions")
+    public List<SessionLagResponse> sessions(){
+        return sessionOutboundPolicy.stats();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.antsimulate.global.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * CONNECT 프레임의 userId 헤더로 세션 사용자를 정한다
+ * - REST API와 같이 로그인 응답의 userId를 그대로 쓴다
+ * - 사용자가 있는 세션만 /user/queue/** 개인 목적지를 받을 수 있다
+ */
+@Slf4j
+@Component
+public class StompUserInterceptor implements ChannelInterceptor {
+    public static final String USER_ID_HEADER = "userId";
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel){
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if(accessor == null || accessor.getCommand() != StompCommand.CONNECT){
+            return message;
+        }
+
+        String userId = accessor.getFirstNativeHeader(USER_ID_HEADER);
+        if(userId == null){
+            return message;
+        }
+        try {
+            accessor.setUser(new StompUserPrincipal(Long.parseLong(userId.trim())));
+        } catch (NumberFormatException e) {
+            log.debug("[STOMP] invalid userId header. value={}", userId);
+        }
+        return message;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.antsimulate.global.websocket;
+
+import java.security.Principal;
+
+/**
+ * STOMP 세션 사용자 (CONNECT 헤더 userId)
+ */
+public record StompUserPrincipal(Long userId) implements Principal {
+    @Override
+    public String getName() {
+        return String.valueOf(userId);
+    }
+}
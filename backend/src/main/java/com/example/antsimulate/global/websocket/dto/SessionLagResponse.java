@@ -0,0 +1,12 @@
+package com.example.antsimulate.global.websocket.dto;
+
+public record SessionLagResponse(
+        String sessionId,
+        int queued,          // 순서대로 보낼 대기 메시지 수
+        int conflated,       // 밀림 상태에서 구독별 최신값만 남긴 대기 메시지 수
+        long lagMs,          // 가장 오래 기다린 메시지의 대기 시간
+        long behindMs,       // 밀림 상태가 이어진 시간 (정상이면 0)
+        long sent,
+        long dropped         // 최신값으로 덮어써 버린 시세 수
+) {
+}
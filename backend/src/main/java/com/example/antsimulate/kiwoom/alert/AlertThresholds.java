@@ -0,0 +1,83 @@
+package com.example.antsimulate.kiwoom.alert;
+
+import com.example.antsimulate.domain.alert.entity.AlertDirection;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * 종목 하나의 가격 알림 인덱스
+ * - 상향(ABOVE)과 하향(BELOW) 알림을 목표가 순으로 정렬해 두고, 체결가가 넘어선 알림만 앞/뒤에서 꺼낸다 (O(log n + k))
+ * - 가장 낮은 상향 목표가 / 가장 높은 하향 목표가를 volatile로 따로 들고 있어,
+ *   아무것도 넘지 않는 대부분의 틱은 락 없이 비교 두 번으로 끝난다
+ * - add / remove / pollCrossed 동기화는 호출하는 쪽에서 한다
+ */
+public final class AlertThresholds {
+    private static final Comparator<PriceAlertEntry> BY_TARGET =
+            Comparator.comparingLong(PriceAlertEntry::targetPrice).thenComparingLong(PriceAlertEntry::alertId);
+
+    // 목표가 오름차순 (상향은 앞에서부터, 하향은 뒤에서부터 발동)
+    private final TreeSet<PriceAlertEntry> above = new TreeSet<>(BY_TARGET);
+    private final TreeSet<PriceAlertEntry> below = new TreeSet<>(BY_TARGET);
+
+    private volatile long lowestAbove = Long.MAX_VALUE;
+    private volatile long highestBelow = Long.MIN_VALUE;
+
+    /**
+     * 이 체결가로 발동할 알림이 있을 수 있는지 (락 없이 호출)
+     */
+    public boolean mayTrigger(long price) {
+        return price >= lowestAbove || price <= highestBelow;
+    }
+
+    public void add(PriceAlertEntry entry) {
+        setOf(entry).add(entry);
+        refreshBounds();
+    }
+
+    public boolean remove(PriceAlertEntry entry) {
+        boolean removed = setOf(entry).remove(entry);
+        refreshBounds();
+        return removed;
+    }
+
+    /**
+     * 체결가가 넘어선 알림을 인덱스에서 빼서 out에 담는다
+     * - 상향: 목표가 <= 체결가, 하향: 목표가 >= 체결가
+     *
+     * @return 발동한 알림 수
+     */
+    public int pollCrossed(long price, List<PriceAlertEntry> out) {
+        int count = 0;
+        while (!above.isEmpty() && above.first().targetPrice() <= price) {
+            out.add(above.pollFirst());
+            count++;
+        }
+        while (!below.isEmpty() && below.last().targetPrice() >= price) {
+            out.add(below.pollLast());
+            count++;
+        }
+        if (count > 0) {
+            refreshBounds();
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return above.isEmpty() && below.isEmpty();
+    }
+
+    public int size() {
+        return above.size() + below.size();
+    }
+
+    private TreeSet<PriceAlertEntry> setOf(PriceAlertEntry entry) {
+        return entry.direction() == AlertDirection.ABOVE ? above : below;
+    }
+
+    private void refreshBounds() {
+        lowestAbove = above.isEmpty() ? Long.MAX_VALUE : above.first().targetPrice();
+        highestBelow = below.isEmpty() ? Long.MIN_VALUE : below.last().targetPrice();
+    }
+}
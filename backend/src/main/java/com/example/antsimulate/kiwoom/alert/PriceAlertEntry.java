@@ -0,0 +1,15 @@
+package com.example.antsimulate.kiwoom.alert;
+
+import com.example.antsimulate.domain.alert.entity.AlertDirection;
+
+/**
+ * 실시간 인덱스에 올라간 활성 가격 알림 하나
+ */
+public record PriceAlertEntry(
+        long alertId,
+        long userId,
+        String stockSymbol,
+        AlertDirection direction,
+        long targetPrice
+) {
+}
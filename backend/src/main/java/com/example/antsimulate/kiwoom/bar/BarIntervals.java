@@ -0,0 +1,59 @@
+package com.example.antsimulate.kiwoom.bar;
+
+import com.example.antsimulate.domain.backtest.dto.BacktestRequest.Interval;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 실시간 분봉 집계에 쓰는 봉 주기
+ * - 백테스트 요청과 같은 BacktestRequest.Interval을 그대로 쓰고, 표기("1m", "5m" ...)도 그 JSON 이름을 따른다
+ * - 일봉(1d)은 stock_price_daily에서 오므로 장중 집계 대상에서 뺀다
+ */
+public final class BarIntervals {
+    public static final Interval[] INTRADAY = {Interval.M1, Interval.M5, Interval.M15, Interval.M30, Interval.H1};
+
+    private static final Map<Interval, String> LABELS = new EnumMap<>(Interval.class);
+
+    static {
+        for (Interval interval : Interval.values()) {
+            try {
+                JsonProperty property = Interval.class.getField(interval.name()).getAnnotation(JsonProperty.class);
+                LABELS.put(interval, property != null ? property.value() : interval.name());
+            } catch (NoSuchFieldException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private BarIntervals() {
+    }
+
+    public static int seconds(Interval interval) {
+        return switch (interval) {
+            case M1 -> 60;
+            case M5 -> 5 * 60;
+            case M15 -> 15 * 60;
+            case M30 -> 30 * 60;
+            case H1 -> 60 * 60;
+            case D1 -> 24 * 60 * 60;
+        };
+    }
+
+    public static String label(Interval interval) {
+        return LABELS.get(interval);
+    }
+
+    /**
+     * "1m" 같은 표기로 장중 주기를 찾는다, 없으면 -1
+     */
+    public static int indexOf(String label) {
+        for (int i = 0; i < INTRADAY.length; i++) {
+            if (LABELS.get(INTRADAY[i]).equals(label)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.antsimulate.kiwoom.bar;
+
+/**
+ * 종목 하나, 주기 하나의 장중 OHLCV 봉을 담는 고정 크기 원형 버퍼
+ * - 봉 필드를 원시 배열로 나눠 두어 틱 반영 시 객체를 만들지 않는다
+ * - 가장 최근 봉(head)만 진행 중일 수 있고 나머지는 모두 마감된 봉이다
+ * - 동기화는 호출하는 쪽에서 한다
+ */
+public final class BarSeries {
+    // 이보다 더 과거의 틱이 오면 날짜가 바뀐 것으로 보고 비운다
+    private static final int DAY_ROLLOVER_SEC = 60 * 60;
+
+    private final int intervalSec;
+    private final int[] startSec;
+    private final long[] open;
+    private final long[] high;
+    private final long[] low;
+    private final long[] close;
+    private final long[] volume;
+
+    private int head = -1;
+    private int count;
+
+    // head 봉이 아직 진행 중인지 여부
+    private boolean headOpen;
+
+    public BarSeries(int intervalSec, int capacity) {
+        this.intervalSec = intervalSec;
+        this.startSec = new int[capacity];
+        this.open = new long[capacity];
+        this.high = new long[capacity];
+        this.low = new long[capacity];
+        this.close = new long[capacity];
+        this.volume = new long[capacity];
+    }
+
+    /**
+     * 틱 반영
+     * - 새 구간의 첫 틱이면 진행 중이던 봉을 마감하고 새 봉을 연다
+     *
+     * @return 이번 틱으로 마감된 봉의 인덱스, 없으면 -1
+     */
+    public int update(int sec, long price, long qty) {
+        int bucket = sec - sec % intervalSec;
+
+        if (count > 0) {
+            int current = startSec[head];
+            if (bucket == current) {
+                if (headOpen) {
+                    if (price > high[head]) high[head] = price;
+                    if (price < low[head]) low[head] = price;
+                    close[head] = price;
+                }
+                // 이미 마감된 봉이면 거래량만 반영 (마감 이벤트는 다시 보내지 않음)
+                volume[head] += qty;
+                return -1;
+            }
+            if (bucket < current) {
+                if (current - bucket < DAY_ROLLOVER_SEC) {
+                    // 늦게 도착한 틱은 가격 흐름을 되돌리지 않도록 거래량만 반영
+                    volume[head] += qty;
+                    return -1;
+                }
+                clear();
+            }
+        }
+
+        int closed = headOpen ? head : -1;
+        head = (head + 1) % startSec.length;
+        if (count < startSec.length) count++;
+
+        startSec[head] = bucket;
+        open[head] = price;
+        high[head] = price;
+        low[head] = price;
+        close[head] = price;
+        volume[head] = qty;
+        headOpen = true;
+        return closed;
+    }
+
+    /**
+     * 벽시계 기준으로 구간이 끝난 진행 중 봉을 마감 (거래가 뜸한 종목용)
+     *
+     * @return 마감된 봉의 인덱스, 없으면 -1
+     */
+    public int closeIfExpired(int nowSec) {
+        if (!headOpen || startSec[head] + intervalSec > nowSec) {
+            return -1;
+        }
+        headOpen = false;
+        return head;
+    }
+
+    public void clear() {
+        head = -1;
+        count = 0;
+        headOpen = false;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * 오래된 순서로 i번째 봉의 버퍼 인덱스
+     */
+    public int indexAt(int i) {
+        return Math.floorMod(head - count + 1 + i, startSec.length);
+    }
+
+    public boolean isOpen(int index) {
+        return headOpen && index == head;
+    }
+
+    public int startSec(int index) {
+        return startSec[index];
+    }
+
+    public long open(int index) {
+        return open[index];
+    }
+
+    public long high(int index) {
+        return high[index];
+    }
+
+    public long low(int index) {
+        return low[index];
+    }
+
+    public long close(int index) {
+        return close[index];
+    }
+
+    public long volume(int index) {
+        return volume[index];
+    }
+}
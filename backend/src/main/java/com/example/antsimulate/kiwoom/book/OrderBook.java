@@ -0,0 +1,140 @@
+package com.example.antsimulate.kiwoom.book;
+
+import com.example.antsimulate.kiwoom.dto.DepthLevelResponse;
+import com.example.antsimulate.kiwoom.dto.DepthResponse;
+import com.example.antsimulate.kiwoom.dto.KiwoomDepthDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 종목 하나의 고정 깊이 호가창 (매도 / 매수 각 levels 단계)
+ * - 가격과 잔량을 원시 배열로 나눠 두고 호가 수신 시 제자리에서 덮어쓴다 (객체를 만들지 않음)
+ * - 마지막으로 내보낸 상태를 따로 들고 있어, 바뀐 단계만 diff로 내보내고 스냅샷도 그 시점(seq) 기준으로 만든다
+ * - 동기화는 호출하는 쪽에서 한다
+ */
+public final class OrderBook {
+    private final int levels;
+
+    private final long[] askPrice;
+    private final long[] askSize;
+    private final long[] bidPrice;
+    private final long[] bidSize;
+    private String time;
+
+    // 마지막으로 내보낸 상태
+    private final long[] publishedAskPrice;
+    private final long[] publishedAskSize;
+    private final long[] publishedBidPrice;
+    private final long[] publishedBidSize;
+    private String publishedTime;
+    private long seq;
+
+    // 마지막으로 내보낸 뒤 바뀐 단계 (비트 = 단계 인덱스)
+    private int changedAsks;
+    private int changedBids;
+
+    public OrderBook(int levels) {
+        if (levels < 1 || levels > KiwoomDepthDto.MAX_LEVELS) {
+            throw new IllegalArgumentException("levels must be 1.." + KiwoomDepthDto.MAX_LEVELS);
+        }
+        this.levels = levels;
+        this.askPrice = new long[levels];
+        this.askSize = new long[levels];
+        this.bidPrice = new long[levels];
+        this.bidSize = new long[levels];
+        this.publishedAskPrice = new long[levels];
+        this.publishedAskSize = new long[levels];
+        this.publishedBidPrice = new long[levels];
+        this.publishedBidSize = new long[levels];
+    }
+
+    /**
+     * 호가 수신분 반영 (메시지에 있는 필드만 덮어씀)
+     *
+     * @return 내보내지 않은 변경이 있으면 true
+     */
+    public boolean apply(KiwoomDepthDto depth) {
+        long[] askPrices = depth.getAskPrices();
+        long[] askSizes = depth.getAskSizes();
+        long[] bidPrices = depth.getBidPrices();
+        long[] bidSizes = depth.getBidSizes();
+
+        for (int level = 0; level < levels; level++) {
+            int bit = 1 << level;
+            if (depth.has(KiwoomDepthDto.ASK_PRICE_BIT + level) && askPrice[level] != askPrices[level]) {
+                askPrice[level] = askPrices[level];
+                changedAsks |= bit;
+            }
+            if (depth.has(KiwoomDepthDto.ASK_SIZE_BIT + level) && askSize[level] != askSizes[level]) {
+                askSize[level] = askSizes[level];
+                changedAsks |= bit;
+            }
+            if (depth.has(KiwoomDepthDto.BID_PRICE_BIT + level) && bidPrice[level] != bidPrices[level]) {
+                bidPrice[level] = bidPrices[level];
+                changedBids |= bit;
+            }
+            if (depth.has(KiwoomDepthDto.BID_SIZE_BIT + level) && bidSize[level] != bidSizes[level]) {
+                bidSize[level] = bidSizes[level];
+                changedBids |= bit;
+            }
+        }
+        if (depth.getTime() != null) {
+            time = depth.getTime();
+        }
+        return hasChanges();
+    }
+
+    public boolean hasChanges() {
+        return (changedAsks | changedBids) != 0;
+    }
+
+    /**
+     * 바뀐 단계만 담은 diff를 만들고 현재 상태를 내보낸 상태로 확정
+     */
+    public DepthResponse publishDiff(String symbol) {
+        List<DepthLevelResponse> asks = changedLevels(changedAsks, askPrice, askSize);
+        List<DepthLevelResponse> bids = changedLevels(changedBids, bidPrice, bidSize);
+
+        System.arraycopy(askPrice, 0, publishedAskPrice, 0, levels);
+        System.arraycopy(askSize, 0, publishedAskSize, 0, levels);
+        System.arraycopy(bidPrice, 0, publishedBidPrice, 0, levels);
+        System.arraycopy(bidSize, 0, publishedBidSize, 0, levels);
+        publishedTime = time;
+        changedAsks = 0;
+        changedBids = 0;
+        seq++;
+
+        return new DepthResponse(symbol, DepthResponse.DIFF, seq, publishedTime, asks, bids);
+    }
+
+    /**
+     * 마지막으로 내보낸 시점의 전체 호가, 아직 내보낸 적이 없으면 null
+     */
+    public DepthResponse snapshot(String symbol) {
+        if (seq == 0) {
+            return null;
+        }
+        return new DepthResponse(symbol, DepthResponse.SNAPSHOT, seq, publishedTime,
+                allLevels(publishedAskPrice, publishedAskSize),
+                allLevels(publishedBidPrice, publishedBidSize));
+    }
+
+    private List<DepthLevelResponse> changedLevels(int changed, long[] price, long[] size) {
+        List<DepthLevelResponse> result = new ArrayList<>(Integer.bitCount(changed));
+        for (int level = 0; level < levels; level++) {
+            if ((changed & (1 << level)) != 0) {
+                result.add(new DepthLevelResponse(level + 1, price[level], size[level]));
+            }
+        }
+        return result;
+    }
+
+    private List<DepthLevelResponse> allLevels(long[] price, long[] size) {
+        List<DepthLevelResponse> result = new ArrayList<>(levels);
+        for (int level = 0; level < levels; level++) {
+            result.add(new DepthLevelResponse(level + 1, price[level], size[level]));
+        }
+        return result;
+    }
+}
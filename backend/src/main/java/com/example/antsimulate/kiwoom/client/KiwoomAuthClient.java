@@ -2,12 +2,17 @@ package com.example.antsimulate.kiwoom.client;
 
 import com.example.antsimulate.kiwoom.dto.KiwoomTokenRequest;
 import com.example.antsimulate.kiwoom.dto.KiwoomTokenResponse;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @Slf4j
 @Component
 public class KiwoomAuthClient {
@@ -20,12 +25,30 @@ public class KiwoomAuthClient {
     @Value("${kiwoom.secretkey}")
     private String secretkey;
 
+    @Value("${kiwoom.auth.timeout-ms:5000}")
+    private long timeoutMs;
+
+    // 발급 요청마다 새로 만들지 않고 커넥션을 재사용
+    private RestClient restClient;
+
+    @PostConstruct
+    void init(){
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(timeoutMs))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(timeoutMs));
+
+        this.restClient = RestClient.builder()
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
+                .build();
+    }
+
     /**
      * 키움 REST API로 access token 발급 요청
      */
     public KiwoomTokenResponse issueAccessToken() {
-        RestClient restClient = RestClient.builder().baseUrl(baseUrl).build();
-
         KiwoomTokenRequest request = KiwoomTokenRequest.builder()
                 .grantType("client_credentials")
                 .appkey(appkey)
@@ -0,0 +1,21 @@
+package com.example.antsimulate.kiwoom.client;
+
+import com.example.antsimulate.kiwoom.pipeline.OverflowPolicy;
+
+import java.net.URI;
+
+/**
+ * 업스트림 연결 하나에 공통으로 적용하는 설정 (kiwoom.ring.*, kiwoom.ws.*)
+ */
+public record KiwoomConnectionOptions(
+        URI wsUri,
+        int ringCapacity,
+        int ringConsumers,
+        String waitStrategy,
+        OverflowPolicy overflowPolicy,
+        int requestBatch,
+        int maxItemsPerFrame,
+        long reconnectBaseDelayMs,
+        long reconnectMaxDelayMs
+) {
+}
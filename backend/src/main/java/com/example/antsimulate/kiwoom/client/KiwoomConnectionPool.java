@@ -0,0 +1,426 @@
+package com.example.antsimulate.kiwoom.client;
+
+import com.example.antsimulate.global.exception.BusinessException;
+import com.example.antsimulate.global.exception.ErrorCode;
+import com.example.antsimulate.kiwoom.dto.KiwoomConnectionStatsResponse;
+import com.example.antsimulate.kiwoom.journal.KiwoomFrameJournal;
+import com.example.antsimulate.kiwoom.message.KiwoomWsMessageFactory;
+import com.example.antsimulate.kiwoom.message.KiwoomWsStreamParser;
+import com.example.antsimulate.kiwoom.pipeline.OverflowPolicy;
+import com.example.antsimulate.kiwoom.pipeline.PipelineLatencyRecorder;
+import com.example.antsimulate.kiwoom.service.KiwoomTokenService;
+import com.example.antsimulate.kiwoom.service.QuoteListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 키움 업스트림 연결 풀
+ * - 연결마다 grp_no를 groups-per-connection개씩 나눠 맡기고, 종목은 일관 해시 링(가상 노드)으로 연결에 배정한다
+ * - 배정 대상 연결이 가득 찼거나(종목 수/링 버퍼 적재율) 끊겨 있으면 링의 다음 연결로 넘어간다
+ * - 주기 점검에서 장시간 끊긴 연결의 종목은 다른 연결로 옮기고, 복구되면 원래 연결로 되돌린다
+ * - 모든 연결이 종목 수 한도에 차 있으면 등록을 거절한다 (한도를 넘겨 REG하면 키움이 조용히 무시한다)
+ * - 배정/이동은 모두 풀 락 안에서만 일어난다 (구독 변경은 드물기 때문)
+ */
+@Slf4j
+@Component
+public class KiwoomConnectionPool {
+    private final KiwoomTokenService kiwoomTokenService;
+    private final KiwoomWsStreamParser kiwoomWsStreamParser;
+    private final List<QuoteListener> quoteListeners;
+    private final KiwoomWsMessageFactory kiwoomWsMessageFactory;
+    private final PipelineLatencyRecorder pipelineLatencyRecorder;
+    private final TaskScheduler taskScheduler;
+    private final MeterRegistry meterRegistry;
+
+    // 연결마다 같은 값으로 넘기는 업스트림/링 버퍼 설정
+    private final KiwoomConnectionOptions options;
+
+    private final int connectionCount;
+    private final int groupsPerConnection;
+    private final int maxSymbolsPerConnection;
+    private final int virtualNodes;
+    private final long failoverAfterMs;
+    private final double saturationRatio;
+    private final boolean journalEnabled;
+    private final String journalDir;
+    private final int journalSegmentMb;
+
+    private final List<KiwoomWsClient> connections = new ArrayList<>();
+
+    // 해시 → 연결 (가상 노드)
+    private final TreeMap<Integer, KiwoomWsClient> hashRing = new TreeMap<>();
+
+    // 종목 → 현재 담당 연결
+    private final Map<String, KiwoomWsClient> ownerBySymbol = new HashMap<>();
+
+    // 연결별 상태 (점검 스레드와 풀 락 안에서만 접근)
+    private final Map<KiwoomWsClient, ConnectionState> states = new HashMap<>();
+
+    private final Counter rebalanceCounter;
+
+    public KiwoomConnectionPool(KiwoomTokenService kiwoomTokenService,
+                                KiwoomWsStreamParser kiwoomWsStreamParser,
+                                List<QuoteListener> quoteListeners,
+                                KiwoomWsMessageFactory kiwoomWsMessageFactory,
+                                PipelineLatencyRecorder pipelineLatencyRecorder,
+                                TaskScheduler taskScheduler,
+                                MeterRegistry meterRegistry,
+                                @Value("${kiwoom.ws-url}") String wsUrl,
+                                @Value("${kiwoom.pool.connections:1}") int connectionCount,
+                                @Value("${kiwoom.pool.groups-per-connection:1}") int groupsPerConnection,
+                                @Value("${kiwoom.pool.max-symbols-per-connection:100}") int maxSymbolsPerConnection,
+                                @Value("${kiwoom.pool.virtual-nodes:64}") int virtualNodes,
+                                @Value("${kiwoom.pool.failover-after-ms:5000}") long failoverAfterMs,
+                                @Value("${kiwoom.pool.saturation-ratio:0.75}") double saturationRatio,
+                                @Value("${kiwoom.journal.enabled:false}") boolean journalEnabled,
+                                @Value("${kiwoom.journal.dir:./journal}") String journalDir,
+                                @Value("${kiwoom.journal.segment-mb:64}") int journalSegmentMb,
+                                @Value("${kiwoom.ring.capacity:4096}") int ringCapacity,
+                                @Value("${kiwoom.ring.consumers:1}") int ringConsumers,
+                                @Value("${kiwoom.ring.wait-strategy:sleeping}") String ringWaitStrategy,
+                                @Value("${kiwoom.ring.overflow-policy:backpressure}") String ringOverflowPolicy,
+                                @Value("${kiwoom.ring.request-batch:64}") int requestBatch,
+                                @Value("${kiwoom.ws.max-items-per-frame:100}") int maxItemsPerFrame,
+                                @Value("${kiwoom.ws.reconnect.base-delay-ms:500}") long reconnectBaseDelayMs,
+                                @Value("${kiwoom.ws.reconnect.max-delay-ms:30000}") long reconnectMaxDelayMs) {
+        this.kiwoomTokenService = kiwoomTokenService;
+        this.kiwoomWsStreamParser = kiwoomWsStreamParser;
+        this.quoteListeners = quoteListeners;
+        this.kiwoomWsMessageFactory = kiwoomWsMessageFactory;
+        this.pipelineLatencyRecorder = pipelineLatencyRecorder;
+        this.taskScheduler = taskScheduler;
+        this.meterRegistry = meterRegistry;
+        this.connectionCount = connectionCount;
+        this.groupsPerConnection = groupsPerConnection;
+        this.maxSymbolsPerConnection = maxSymbolsPerConnection;
+        this.virtualNodes = virtualNodes;
+        this.failoverAfterMs = failoverAfterMs;
+        this.saturationRatio = saturationRatio;
+        this.journalEnabled = journalEnabled;
+        this.journalDir = journalDir;
+        this.journalSegmentMb = journalSegmentMb;
+
+        OverflowPolicy overflowPolicy = OverflowPolicy.valueOf(ringOverflowPolicy.toUpperCase(Locale.ROOT).replace('-', '_'));
+        this.options = new KiwoomConnectionOptions(
+                URI.create(wsUrl), ringCapacity, ringConsumers, ringWaitStrategy, overflowPolicy, requestBatch,
+                maxItemsPerFrame, reconnectBaseDelayMs, reconnectMaxDelayMs);
+
+        this.rebalanceCounter = Counter.builder("kiwoom.pool.rebalanced")
+                .description("연결 간에 옮겨진 종목 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init(){
+        for(int id = 0; id < connectionCount; id++){
+            // grp_no는 1부터 연결 순서대로 연속 배정
+            List<String> groups = new ArrayList<>();
+            for(int g = 0; g < groupsPerConnection; g++){
+                groups.add(String.valueOf(id * groupsPerConnection + g + 1));
+            }
+
+            KiwoomFrameJournal journal = journalEnabled
+                    ? new KiwoomFrameJournal(Path.of(journalDir), id, journalSegmentMb * 1024L * 1024L)
+                    : null;
+
+            KiwoomWsClient client = new KiwoomWsClient(id, groups, options, kiwoomTokenService,
+                    kiwoomWsStreamParser, quoteListeners, kiwoomWsMessageFactory, journal, pipelineLatencyRecorder,
+                    taskScheduler, meterRegistry);
+            client.start();
+            connections.add(client);
+            states.put(client, new ConnectionState());
+
+            for(int v = 0; v < virtualNodes; v++){
+                hashRing.put(hash("kiwoom-" + id + "#" + v), client);
+            }
+        }
+
+        log.info("[KIWOOM-POOL] {} connections, {} groups each, max {} symbols per connection, journal={}",
+                connectionCount, groupsPerConnection, maxSymbolsPerConnection, journalEnabled ? journalDir : "off");
+    }
+
+    @PreDestroy
+    void shutdown(){
+        connections.forEach(KiwoomWsClient::shutdown);
+    }
+
+    /**
+     * 풀의 모든 연결을 시작
+     */
+    public void connect(){
+        connections.forEach(KiwoomWsClient::connect);
+    }
+
+    /**
+     * 종목을 담당 연결에 등록
+     * - 받아줄 연결이 없으면 KIWOOM_POOL_FULL
+     */
+    public synchronized void register(String symbol){
+        if(ownerBySymbol.containsKey(symbol)){
+            return;
+        }
+        KiwoomWsClient owner = select(symbol, null);
+        if(owner == null){
+            log.warn("[KIWOOM-POOL] all {} connections full ({} symbols each) - reject symbol={}",
+                    connections.size(), maxSymbolsPerConnection, symbol);
+            throw new BusinessException(ErrorCode.KIWOOM_POOL_FULL);
+        }
+        ownerBySymbol.put(symbol, owner);
+        owner.register(symbol);
+        log.debug("[KIWOOM-POOL] symbol={} -> #{}", symbol, owner.getConnectionId());
+    }
+
+    /**
+     * 종목을 담당 연결에서 해제
+     */
+    public synchronized void remove(String symbol){
+        KiwoomWsClient owner = ownerBySymbol.remove(symbol);
+        if(owner != null){
+            owner.remove(symbol);
+        }
+    }
+
+    /**
+     * 담당 연결에 등록된 종목에 호가(0D) 실시간 추가 (register 이후에만 의미가 있다)
+     */
+    public synchronized void registerDepth(String symbol){
+        KiwoomWsClient owner = ownerBySymbol.get(symbol);
+        if(owner != null){
+            owner.registerDepth(symbol);
+        }
+    }
+
+    /**
+     * 종목의 호가(0D) 실시간만 해제
+     */
+    public synchronized void removeDepth(String symbol){
+        KiwoomWsClient owner = ownerBySymbol.get(symbol);
+        if(owner != null){
+            owner.removeDepth(symbol);
+        }
+    }
+
+    /**
+     * 주기 점검
+     * - 연결별 메시지 속도 갱신
+     * - failover-after-ms 이상 끊긴 연결의 종목을 다른 연결로 이동, 복구되면 되돌림
+     * - 링 버퍼 적재율이 saturation-ratio를 넘은 연결은 일부 종목을 덜어낸다
+     */
+    @Scheduled(fixedDelayString = "${kiwoom.pool.check-interval-ms:1000}")
+    public synchronized void rebalance(){
+        long now = System.nanoTime();
+
+        for(KiwoomWsClient client : connections){
+            ConnectionState state = states.get(client);
+            state.updateRate(client.receivedCount(), now);
+
+            if(client.isAuthenticated()){
+                state.downSinceNanos = 0;
+                if(state.failedOver){
+                    state.failedOver = false;
+                    restoreHome(client);
+                }
+                if(isRingSaturated(client)){
+                    shed(client);
+                }
+                continue;
+            }
+
+            if(state.downSinceNanos == 0){
+                state.downSinceNanos = now;
+            } else if(!state.failedOver && now - state.downSinceNanos >= failoverAfterMs * 1_000_000L){
+                if(failover(client)){
+                    state.failedOver = true;
+                }
+            }
+        }
+    }
+
+    public synchronized List<KiwoomConnectionStatsResponse> stats(){
+        List<KiwoomConnectionStatsResponse> result = new ArrayList<>();
+        for(KiwoomWsClient client : connections){
+            ConnectionState state = states.get(client);
+            result.add(new KiwoomConnectionStatsResponse(
+                    client.getConnectionId(),
+                    client.getGroups(),
+                    client.isAuthenticated(),
+                    state.failedOver,
+                    client.symbolCount(),
+                    client.ringSize(),
+                    client.ringCapacity(),
+                    state.messagesPerSec
+            ));
+        }
+        return result;
+    }
+
+    /**
+     * 끊긴 연결의 종목을 살아 있는 연결로 이동
+     * - 받아줄 연결이 하나도 없으면 그대로 둔다 (재연결 후 재등록으로 복구)
+     */
+    private boolean failover(KiwoomWsClient dead){
+        List<String> symbols = dead.symbols();
+        if(symbols.isEmpty()){
+            return true;
+        }
+
+        int moved = 0;
+        for(String symbol : symbols){
+            KiwoomWsClient target = select(symbol, dead);
+            if(target == null || !target.isAuthenticated()){
+                continue;
+            }
+            move(symbol, dead, target);
+            moved++;
+        }
+
+        log.warn("[KIWOOM-POOL] #{} down - moved {}/{} symbols", dead.getConnectionId(), moved, symbols.size());
+        return moved > 0;
+    }
+
+    /**
+     * 복구된 연결이 원래 맡아야 할 종목을 되돌려 받는다
+     */
+    private void restoreHome(KiwoomWsClient recovered){
+        int moved = 0;
+        for(Map.Entry<String, KiwoomWsClient> entry : new ArrayList<>(ownerBySymbol.entrySet())){
+            String symbol = entry.getKey();
+            KiwoomWsClient owner = entry.getValue();
+            if(owner != recovered && select(symbol, null) == recovered){
+                move(symbol, owner, recovered);
+                moved++;
+            }
+        }
+        log.info("[KIWOOM-POOL] #{} recovered - restored {} symbols", recovered.getConnectionId(), moved);
+    }
+
+    /**
+     * 링 버퍼가 밀리는 연결에서 종목 일부(10%, 최소 1개)를 다른 연결로 덜어낸다
+     */
+    private void shed(KiwoomWsClient saturated){
+        List<String> symbols = saturated.symbols();
+        int count = Math.max(1, symbols.size() / 10);
+        int moved = 0;
+        for(String symbol : symbols){
+            if(moved >= count){
+                break;
+            }
+            KiwoomWsClient target = select(symbol, saturated);
+            if(target == null || !target.isAuthenticated()){
+                continue;
+            }
+            move(symbol, saturated, target);
+            moved++;
+        }
+        if(moved > 0){
+            log.warn("[KIWOOM-POOL] #{} saturated (ring {}/{}) - shed {} symbols",
+                    saturated.getConnectionId(), saturated.ringSize(), saturated.ringCapacity(), moved);
+        }
+    }
+
+    private void move(String symbol, KiwoomWsClient from, KiwoomWsClient to){
+        boolean depth = from.hasDepth(symbol);
+        from.remove(symbol);
+        ownerBySymbol.put(symbol, to);
+        to.register(symbol);
+        if(depth){
+            to.registerDepth(symbol);
+        }
+        rebalanceCounter.increment();
+    }
+
+    /**
+     * 해시 링에서 종목 위치부터 시계 방향으로 돌며 받아줄 수 있는 첫 연결을 고른다
+     * - 1순위: 로그인돼 있고 종목 수/링 적재율 여유가 있는 연결
+     * - 없으면 종목 수 여유만 있는 연결, 그것도 없으면 null
+     * - exclude는 후보에서 뺀다 (이동 시 원래 연결 제외)
+     */
+    private KiwoomWsClient select(String symbol, KiwoomWsClient exclude){
+        int h = hash(symbol);
+        KiwoomWsClient fallback = null;
+
+        for(KiwoomWsClient client : walk(h)){
+            if(client == exclude){
+                continue;
+            }
+            boolean hasRoom = client.symbolCount() < maxSymbolsPerConnection;
+            if(hasRoom && client.isAuthenticated() && !isRingSaturated(client)){
+                return client;
+            }
+            if(hasRoom && fallback == null){
+                fallback = client;
+            }
+        }
+
+        return fallback;
+    }
+
+    /**
+     * 해시 위치부터 링을 한 바퀴 돌며 만나는 연결을 중복 없이 순서대로 반환
+     */
+    private List<KiwoomWsClient> walk(int h){
+        List<KiwoomWsClient> order = new ArrayList<>(connections.size());
+        for(KiwoomWsClient client : hashRing.tailMap(h, true).values()){
+            if(!order.contains(client)){
+                order.add(client);
+                if(order.size() == connections.size()) return order;
+            }
+        }
+        for(KiwoomWsClient client : hashRing.headMap(h, false).values()){
+            if(!order.contains(client)){
+                order.add(client);
+                if(order.size() == connections.size()) return order;
+            }
+        }
+        return order;
+    }
+
+    private boolean isRingSaturated(KiwoomWsClient client){
+        return client.ringSize() >= client.ringCapacity() * saturationRatio;
+    }
+
+    /**
+     * String.hashCode는 비슷한 종목코드끼리 값이 몰리므로 murmur3 finalizer로 섞는다
+     */
+    private static int hash(String key){
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static final class ConnectionState {
+        private long downSinceNanos;
+        private boolean failedOver;
+        private long lastCount;
+        private long lastNanos;
+        private volatile double messagesPerSec;
+
+        private void updateRate(long count, long now){
+            if(lastNanos != 0 && now > lastNanos){
+                messagesPerSec = (count - lastCount) * 1_000_000_000.0 / (now - lastNanos);
+            }
+            lastCount = count;
+            lastNanos = now;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.antsimulate.kiwoom.client;
+
+import com.example.antsimulate.kiwoom.message.KiwoomWsMessageFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.WebSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 키움 WebSocket 송신 큐
+ * - JDK WebSocket은 이전 sendText가 끝나기 전에 다시 보내면 예외가 나므로 송신을 한 줄로 세운다
+ * - 어느 스레드에서든 enqueue 할 수 있고, 실제 송신은 한 번에 하나의 writer만 이전 전송 완료 뒤에 이어서 수행한다
+ * - 큐에 연속으로 쌓인 같은 grp_no, 같은 실시간 항목의 REG(또는 REMOVE)는 하나의 다건 메시지로 합쳐 보낸다
+ */
+@Slf4j
+public class KiwoomOutboundQueue {
+    private final Supplier<WebSocket> webSocketSupplier;
+    private final KiwoomWsMessageFactory kiwoomWsMessageFactory;
+    private final int maxItemsPerFrame;
+
+    private final ConcurrentLinkedQueue<Item> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+
+    // writer 역할을 가진 스레드가 있는지 여부
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private final Timer sendTimer;
+
+    public KiwoomOutboundQueue(Supplier<WebSocket> webSocketSupplier,
+                               KiwoomWsMessageFactory kiwoomWsMessageFactory,
+                               int maxItemsPerFrame,
+                               MeterRegistry meterRegistry,
+                               Tags tags) {
+        this.webSocketSupplier = webSocketSupplier;
+        this.kiwoomWsMessageFactory = kiwoomWsMessageFactory;
+        this.maxItemsPerFrame = maxItemsPerFrame;
+
+        Gauge.builder("kiwoom.ws.outbound.queue", depth, AtomicInteger::get)
+                .description("키움 WebSocket 송신 대기 메시지 수")
+                .tags(tags)
+                .register(meterRegistry);
+        this.sendTimer = Timer.builder("kiwoom.ws.outbound.send")
+                .description("키움 WebSocket sendText 완료까지 걸린 시간")
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 원문 그대로 보낼 메시지 (LOGIN, PING 응답 등)
+     */
+    public void enqueueText(String text) {
+        enqueue(new Item(null, null, null, null, text));
+    }
+
+    public void enqueueReg(String grpNo, String symbol, List<String> types) {
+        enqueue(new Item("REG", grpNo, types, symbol, null));
+    }
+
+    public void enqueueRemove(String grpNo, String symbol, List<String> types) {
+        enqueue(new Item("REMOVE", grpNo, types, symbol, null));
+    }
+
+    /**
+     * 여러 종목을 최대 maxItemsPerFrame개씩 묶은 REG 메시지로 한꺼번에 등록 (재연결 후 재구독용)
+     */
+    public void enqueueRegBatch(String grpNo, List<String> symbols, List<String> types) {
+        for (int from = 0; from < symbols.size(); from += maxItemsPerFrame) {
+            List<String> chunk = symbols.subList(from, Math.min(symbols.size(), from + maxItemsPerFrame));
+            enqueueText(kiwoomWsMessageFactory.buildReg(grpNo, chunk, types));
+        }
+    }
+
+    public int depth() {
+        return depth.get();
+    }
+
+    private void enqueue(Item item) {
+        queue.offer(item);
+        depth.incrementAndGet();
+        drain();
+    }
+
+    /**
+     * writer 역할을 얻은 경우에만 송신 루프를 돈다
+     */
+    private void drain() {
+        if (draining.compareAndSet(false, true)) {
+            pump();
+        }
+    }
+
+    private void pump() {
+        while (true) {
+            String text = nextFrame();
+            if (text == null) {
+                draining.set(false);
+                // 역할을 내려놓는 사이에 들어온 메시지가 있으면 다시 가져간다
+                if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+
+            WebSocket ws = webSocketSupplier.get();
+            if (ws == null) {
+                log.warn("[KIWOOM-WS] send failed - not connected. message={}", text);
+                continue;
+            }
+
+            long start = System.nanoTime();
+            CompletableFuture<WebSocket> future;
+            try {
+                future = ws.sendText(text, true);
+            } catch (Exception e) {
+                log.error("[KIWOOM-WS] send failed. message={}", text, e);
+                continue;
+            }
+
+            if (future.isDone()) {
+                // 이미 끝난 전송이면 콜백이 즉시 실행되므로 재귀 없이 루프를 계속 돈다
+                future.whenComplete((result, error) -> onSent(start, text, error));
+                continue;
+            }
+
+            // 이전 전송이 끝난 뒤에 다음 메시지를 보낸다
+            future.whenComplete((result, error) -> {
+                onSent(start, text, error);
+                pump();
+            });
+            return;
+        }
+    }
+
+    private void onSent(long start, String text, Throwable error) {
+        sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (error != null) {
+            log.error("[KIWOOM-WS] send failed. message={}", text, error);
+        }
+    }
+
+    /**
+     * 큐 맨 앞에서 보낼 메시지 하나를 만든다
+     * - REG/REMOVE는 뒤따르는 같은 종류, 같은 grp_no, 같은 실시간 항목을 최대 maxItemsPerFrame개까지 합친다
+     * - 연속된 항목만 합치므로 REG → REMOVE → REG 같은 순서는 그대로 유지된다
+     */
+    private String nextFrame() {
+        Item first = queue.poll();
+        if (first == null) {
+            return null;
+        }
+        depth.decrementAndGet();
+
+        if (first.text() != null) {
+            return first.text();
+        }
+
+        List<String> symbols = new ArrayList<>();
+        symbols.add(first.symbol());
+
+        Item next;
+        while (symbols.size() < maxItemsPerFrame && (next = queue.peek()) != null && first.sameGroup(next)) {
+            // writer는 하나뿐이므로 peek 한 항목이 그대로 poll 된다
+            queue.poll();
+            depth.decrementAndGet();
+            if (!symbols.contains(next.symbol())) {
+                symbols.add(next.symbol());
+            }
+        }
+
+        if (symbols.size() > 1) {
+            log.debug("[KIWOOM-WS] coalesced {} {} items. grp_no={}", first.trnm(), symbols.size(), first.grpNo());
+        }
+
+        return "REG".equals(first.trnm())
+                ? kiwoomWsMessageFactory.buildReg(first.grpNo(), symbols, first.types())
+                : kiwoomWsMessageFactory.buildRemove(first.grpNo(), symbols, first.types());
+    }
+
+    private record Item(String trnm, String grpNo, List<String> types, String symbol, String text) {
+        boolean sameGroup(Item other) {
+            return other.text() == null
+                    && trnm.equals(other.trnm())
+                    && grpNo.equals(other.grpNo())
+                    && types.equals(other.types());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.antsimulate.kiwoom.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 키움 WebSocket 재연결 관리
+ * - 연결이 끊기면 지수 백오프 + 지터(equal jitter) 간격으로 재연결을 시도한다
+ * - 재연결 후 LOGIN 성공(onRecovered)까지 걸린 시간을 복구 시간 지표로 기록한다
+ */
+@Slf4j
+public class KiwoomReconnectSupervisor {
+    private final TaskScheduler taskScheduler;
+    private final Runnable connector;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    // 재연결 예약이 이미 걸려 있는지 여부 (중복 예약 방지)
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    // 복구될 때까지 누적된 시도 횟수 (백오프 지수)
+    private final AtomicInteger attempt = new AtomicInteger();
+
+    // 연결이 끊긴 시각, 정상 상태면 0
+    private volatile long disconnectedAtNanos;
+
+    private volatile boolean stopped;
+
+    private final Timer recoveryTimer;
+    private final Counter attemptCounter;
+
+    public KiwoomReconnectSupervisor(TaskScheduler taskScheduler,
+                                     Runnable connector,
+                                     long baseDelayMs,
+                                     long maxDelayMs,
+                                     MeterRegistry meterRegistry,
+                                     Tags tags) {
+        this.taskScheduler = taskScheduler;
+        this.connector = connector;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+
+        this.recoveryTimer = Timer.builder("kiwoom.ws.recovery")
+                .description("키움 WebSocket 끊김부터 재로그인/재구독까지 걸린 시간")
+                .tags(tags)
+                .register(meterRegistry);
+        this.attemptCounter = Counter.builder("kiwoom.ws.reconnect.attempts")
+                .description("키움 WebSocket 재연결 시도 수")
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 연결 종료/오류/연결 실패 시 호출
+     */
+    public void onDisconnected(String reason) {
+        if (stopped) {
+            return;
+        }
+        if (disconnectedAtNanos == 0) {
+            disconnectedAtNanos = System.nanoTime();
+        }
+        if (!scheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        int n = attempt.getAndIncrement();
+        long delayMs = nextDelayMs(n);
+        log.warn("[KIWOOM-WS] reconnect scheduled. reason={}, attempt={}, delayMs={}", reason, n + 1, delayMs);
+
+        taskScheduler.schedule(this::reconnect, Instant.now().plusMillis(delayMs));
+    }
+
+    /**
+     * 재연결 후 LOGIN과 재구독까지 끝났을 때 호출
+     */
+    public void onRecovered() {
+        long disconnectedAt = disconnectedAtNanos;
+        attempt.set(0);
+        if (disconnectedAt == 0) {
+            return;
+        }
+        disconnectedAtNanos = 0;
+
+        long elapsed = System.nanoTime() - disconnectedAt;
+        recoveryTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("[KIWOOM-WS] recovered in {} ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    private void reconnect() {
+        scheduled.set(false);
+        if (stopped) {
+            return;
+        }
+        attemptCounter.increment();
+        connector.run();
+    }
+
+    /**
+     * base * 2^n 을 maxDelay로 자른 뒤, 그 절반 + [0, 절반) 난수
+     */
+    private long nextDelayMs(int n) {
+        long exp = baseDelayMs << Math.min(n, 20);
+        long capped = Math.min(maxDelayMs, exp);
+        long half = Math.max(1, capped / 2);
+        return half + ThreadLocalRandom.current().nextLong(half);
+    }
+}
@@ -1,44 +1,189 @@
 package com.example.antsimulate.kiwoom.client;
 
+import com.example.antsimulate.kiwoom.dto.KiwoomDepthDto;
 import com.example.antsimulate.kiwoom.dto.KiwoomQuoteDto;
-import com.example.antsimulate.kiwoom.message.KiwoomWsMessageParser;
+import com.example.antsimulate.kiwoom.journal.KiwoomFrameJournal;
+import com.example.antsimulate.kiwoom.message.KiwoomFrame;
+import com.example.antsimulate.kiwoom.message.KiwoomWsMessageFactory;
+import com.example.antsimulate.kiwoom.message.KiwoomWsStreamParser;
+import com.example.antsimulate.kiwoom.pipeline.KiwoomFrameRingBuffer;
+import com.example.antsimulate.kiwoom.pipeline.OverflowPolicy;
+import com.example.antsimulate.kiwoom.pipeline.PipelineLatencyRecorder;
+import com.example.antsimulate.kiwoom.pipeline.PipelineStage;
+import com.example.antsimulate.kiwoom.pipeline.WaitStrategy;
 import com.example.antsimulate.kiwoom.service.KiwoomTokenService;
-import com.example.antsimulate.kiwoom.service.QuoteBroadcastService;
-import lombok.RequiredArgsConstructor;
+import com.example.antsimulate.kiwoom.service.QuoteListener;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
+import org.springframework.scheduling.TaskScheduler;
 
-import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.WebSocket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * 키움 업스트림 WebSocket 연결 하나
+ * - KiwoomConnectionPool이 연결 수만큼 생성하며, 연결마다 링 버퍼/송신 큐/재연결 관리를 따로 가진다
+ * - 연결에 배정된 종목은 이 연결이 맡은 grp_no 중 하나에 등록된다
+ * - 체결(0B)은 배정된 모든 종목에, 호가(0D)는 registerDepth로 요청된 종목에만 등록한다
+ */
 @Slf4j
-@Component
-@RequiredArgsConstructor
 public class KiwoomWsClient implements WebSocket.Listener{
-    // TODO: 키움 REST API 실제 엔드포인트로 교체
-    private static final URI WS_URI =
-            URI.create("wss://api.kiwoom.com:10000/api/dostk/websocket");
-
     // java 표준 WebSocket 클라이언트 생성용
     private final HttpClient httpClient = HttpClient.newHttpClient();
 
+    // 풀 안에서의 연결 번호 (로그/지표 태그용)
+    private final int connectionId;
+
+    // 이 연결이 맡은 grp_no 목록
+    private final List<String> groups;
+
+    private final KiwoomConnectionOptions options;
+
     // 키움 access token 관리 서비스
     private final KiwoomTokenService kiwoomTokenService;
 
-    // 현재 연결된 WebSocket 인스턴스
-    private WebSocket webSocket;
+    // 현재 연결된 WebSocket 인스턴스 (수신/소비 스레드에서 함께 읽음)
+    private volatile WebSocket webSocket;
 
     // 키움 원본 메시지를 DTO로 변환
-    private final KiwoomWsMessageParser kiwoomWsMessageParser;
+    private final KiwoomWsStreamParser kiwoomWsStreamParser;
+
+    // 파싱된 시세를 받아갈 곳 (STOMP 브로드캐스트, 분봉 집계 등)
+    private final List<QuoteListener> quoteListeners;
+
+    // 이 연결에 등록된 종목 → grp_no (재연결 후 재등록용)
+    private final ConcurrentHashMap<String, String> groupBySymbol = new ConcurrentHashMap<>();
+
+    // 호가(0D)까지 등록된 종목 (groupBySymbol의 부분집합)
+    private final Set<String> depthSymbols = ConcurrentHashMap.newKeySet();
+
+    // last=false로 쪼개져 들어온 메시지 조각 누적용 (수신 스레드 전용)
+    private final StringBuilder partial = new StringBuilder();
 
-    // 변환된 DTO를 STOMP로 브로드캐스트
-    private final QuoteBroadcastService quoteBroadcastService;
+    // 조각난 메시지의 첫 조각 수신 시점 (수신 스레드 전용)
+    private long partialStartedNanos;
+
+    // request(n)으로 요청했지만 아직 onText 처리(링 버퍼 발행)가 끝나지 않은 메시지 수
+    private final AtomicLong outstanding = new AtomicLong();
 
     // 토큰 인증 성공 여부
-    private boolean authenticated = false;
+    private volatile boolean authenticated = false;
+
+    // 수신한 전체 메시지 수 (수신 스레드 전용 기록)
+    private final LongAdder receivedMessages = new LongAdder();
+
+    // 연결 끊김 시 재연결 담당
+    private final KiwoomReconnectSupervisor reconnectSupervisor;
+
+    // 모든 송신을 한 줄로 세우는 송신 큐
+    private final KiwoomOutboundQueue outboundQueue;
+
+    // 수신 스레드 → 파싱/브로드캐스트 스레드 전달용 링 버퍼
+    private final KiwoomFrameRingBuffer ringBuffer;
+
+    // 원본 프레임 저널 (kiwoom.journal.enabled=false면 null)
+    private final KiwoomFrameJournal journal;
+
+    // 구간별 지연 기록
+    private final PipelineLatencyRecorder latencyRecorder;
+
+    public KiwoomWsClient(int connectionId,
+                          List<String> groups,
+                          KiwoomConnectionOptions options,
+                          KiwoomTokenService kiwoomTokenService,
+                          KiwoomWsStreamParser kiwoomWsStreamParser,
+                          List<QuoteListener> quoteListeners,
+                          KiwoomWsMessageFactory kiwoomWsMessageFactory,
+                          KiwoomFrameJournal journal,
+                          PipelineLatencyRecorder latencyRecorder,
+                          TaskScheduler taskScheduler,
+                          MeterRegistry meterRegistry){
+        this.connectionId = connectionId;
+        this.groups = List.copyOf(groups);
+        this.options = options;
+        this.kiwoomTokenService = kiwoomTokenService;
+        this.kiwoomWsStreamParser = kiwoomWsStreamParser;
+        this.quoteListeners = List.copyOf(quoteListeners);
+        this.journal = journal;
+        this.latencyRecorder = latencyRecorder;
+
+        Tags tags = Tags.of("connection", String.valueOf(connectionId));
+        this.outboundQueue = new KiwoomOutboundQueue(() -> webSocket, kiwoomWsMessageFactory,
+                options.maxItemsPerFrame(), meterRegistry, tags);
+        this.reconnectSupervisor = new KiwoomReconnectSupervisor(taskScheduler, this::connect,
+                options.reconnectBaseDelayMs(), options.reconnectMaxDelayMs(), meterRegistry, tags);
+        this.ringBuffer = new KiwoomFrameRingBuffer(options.ringCapacity(), WaitStrategy.of(options.waitStrategy()),
+                options.overflowPolicy(), this::replenish);
+
+        Gauge.builder("kiwoom.ring.size", ringBuffer, KiwoomFrameRingBuffer::size)
+                .description("처리 대기 중인 키움 메시지 수")
+                .tags(tags)
+                .register(meterRegistry);
+        FunctionCounter.builder("kiwoom.ring.dropped", ringBuffer, KiwoomFrameRingBuffer::droppedCount)
+                .description("링 버퍼가 가득 차 버린 키움 메시지 수")
+                .tags(tags)
+                .register(meterRegistry);
+        FunctionCounter.builder("kiwoom.ws.received", receivedMessages, LongAdder::sum)
+                .description("키움 WebSocket 수신 메시지 수")
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder("kiwoom.ws.symbols", groupBySymbol, Map::size)
+                .description("연결에 등록된 종목 수")
+                .tags(tags)
+                .register(meterRegistry);
+        if(journal != null){
+            FunctionCounter.builder("kiwoom.journal.bytes", journal, KiwoomFrameJournal::writtenBytes)
+                    .description("저널에 기록한 바이트 수")
+                    .tags(tags)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * 링 버퍼 소비 스레드 시작
+     */
+    void start(){
+        // 소비 스레드마다 파싱 결과 버퍼를 따로 둔다
+        // 저널은 브로드캐스트가 끝난 뒤 기록해 해당 프레임의 지연에 포함되지 않게 한다
+        ringBuffer.start("kiwoom-frame-" + connectionId, options.ringConsumers(), () -> {
+            KiwoomFrame frame = new KiwoomFrame();
+            return slot -> {
+                handleMessage(slot, slot.receivedNanos(), frame);
+                if(journal != null){
+                    journal.append(slot, slot.receivedNanos());
+                }
+            };
+        });
+
+        log.info("[KIWOOM-WS] #{} started. groups={}, ring capacity={}, consumers={}, wait={}, overflow={}",
+                connectionId, groups, options.ringCapacity(), options.ringConsumers(),
+                options.waitStrategy(), options.overflowPolicy());
+    }
+
+    void shutdown(){
+        reconnectSupervisor.stop();
+        WebSocket ws = this.webSocket;
+        if(ws != null){
+            ws.sendClose(WebSocket.NORMAL_CLOSURE, "shutdown");
+        }
+        ringBuffer.stop();
+        if(journal != null){
+            journal.close();
+        }
+    }
 
     /**
      *  키움 WebSocket 서버에 연결을 시작하는 메서드
@@ -46,72 +191,264 @@ public class KiwoomWsClient implements WebSocket.Listener{
      *  - 실제 실시간 통신의 시작점
      */
     public void connect(){
-        log.info("[KIWOOM-WS] connecting...");
+        log.info("[KIWOOM-WS] #{} connecting to {}", connectionId, options.wsUri());
         httpClient.newWebSocketBuilder()
-                .buildAsync(WS_URI, this)
-                .thenAccept(ws ->{
+                .buildAsync(options.wsUri(), this)
+                .whenComplete((ws, error) ->{
+                    if(error != null){
+                        log.error("[KIWOOM-WS] #{} connect failed", connectionId, error);
+                        reconnectSupervisor.onDisconnected("connect failed");
+                        return;
+                    }
                     this.webSocket = ws;
-                    log.info("[KIWOOM-WS] connected");
+                    log.info("[KIWOOM-WS] #{} connected", connectionId);
                 });
     }
 
     /**
      * 키움 WebSocket 서버로 텍스트 메시지를 전송하는 메서드
-     * - 이후 REG / REMOVE 같은 구독 메시지를 보내는 용도로 사용
+     * - 송신 큐를 거쳐 이전 전송이 끝난 뒤 순서대로 전송된다
      */
     public void send(String text){
-        if(webSocket == null){
-            log.warn("[KIWOOM-WS] send failed - not connected");
+        outboundQueue.enqueueText(text);
+    }
+
+    /**
+     * 종목 실시간 등록 (큐에 함께 쌓인 REG는 한 메시지로 합쳐 전송)
+     * - 연결이 맡은 grp_no 중 종목 해시로 하나를 고른다
+     * - 로그인 전이면 기록만 해두고 LOGIN 성공 후 재등록 때 함께 보낸다
+     */
+    public void register(String symbol){
+        String grpNo = groups.get(Math.floorMod(symbol.hashCode(), groups.size()));
+        if(groupBySymbol.putIfAbsent(symbol, grpNo) != null){
+            return;
+        }
+        if(authenticated){
+            outboundQueue.enqueueReg(grpNo, symbol, KiwoomWsMessageFactory.TRADE_TYPES);
+        }
+    }
+
+    /**
+     * 종목 실시간 해제 (큐에 함께 쌓인 REMOVE는 한 메시지로 합쳐 전송)
+     * - 호가까지 등록된 종목이면 0B/0D를 함께 해제한다
+     */
+    public void remove(String symbol){
+        String grpNo = groupBySymbol.remove(symbol);
+        boolean depth = depthSymbols.remove(symbol);
+        if(grpNo != null && authenticated){
+            outboundQueue.enqueueRemove(grpNo, symbol,
+                    depth ? KiwoomWsMessageFactory.ALL_TYPES : KiwoomWsMessageFactory.TRADE_TYPES);
+        }
+    }
+
+    /**
+     * 이미 등록된 종목에 호가(0D) 실시간을 추가 등록
+     */
+    public void registerDepth(String symbol){
+        String grpNo = groupBySymbol.get(symbol);
+        if(grpNo == null || !depthSymbols.add(symbol)){
             return;
         }
-        webSocket.sendText(text, true);
+        if(authenticated){
+            outboundQueue.enqueueReg(grpNo, symbol, KiwoomWsMessageFactory.DEPTH_TYPES);
+        }
+    }
+
+    /**
+     * 종목의 호가(0D) 실시간만 해제 (체결 등록은 유지)
+     */
+    public void removeDepth(String symbol){
+        if(!depthSymbols.remove(symbol)){
+            return;
+        }
+        String grpNo = groupBySymbol.get(symbol);
+        if(grpNo != null && authenticated){
+            outboundQueue.enqueueRemove(grpNo, symbol, KiwoomWsMessageFactory.DEPTH_TYPES);
+        }
+    }
+
+    public boolean hasDepth(String symbol){
+        return depthSymbols.contains(symbol);
+    }
+
+    public int getConnectionId(){
+        return connectionId;
+    }
+
+    public List<String> getGroups(){
+        return groups;
+    }
+
+    public boolean isAuthenticated(){
+        return authenticated;
+    }
+
+    public int symbolCount(){
+        return groupBySymbol.size();
+    }
+
+    /**
+     * 이 연결에 등록된 종목 (스냅샷)
+     */
+    public List<String> symbols(){
+        return List.copyOf(groupBySymbol.keySet());
+    }
+
+    public long receivedCount(){
+        return receivedMessages.sum();
+    }
+
+    public int ringSize(){
+        return ringBuffer.size();
+    }
+
+    public int ringCapacity(){
+        return ringBuffer.capacity();
     }
 
     /**
      * WebSocket 연결이 성공적으로 수립되었을 때 자동으로 호출
-     * - 이후 메시지를 계속 수신하기 위해 request(1)을 반드시 호출해야 함
+     * - 이후 메시지를 계속 수신하기 위해 request(n)을 반드시 호출해야 함
      */
     @Override
     public void onOpen(WebSocket webSocket){
-        log.info("[KIWOOM-WS] on open");
+        log.info("[KIWOOM-WS] #{} on open", connectionId);
 
         this.webSocket = webSocket;
+        this.authenticated = false;
+        outstanding.set(0);
+        partial.setLength(0);
 
         String token = kiwoomTokenService.getAccessToken();
         sendTokenMessage(token);
 
-        webSocket.request(1);
+        replenish();
     }
 
     /**
      * 키움 서버로부터 텍스트 메시지를 수신했을 때 호출
      * - 실시간 시세 데이터가 이 메서드로 들어옴
+     * - 수신 스레드는 링 버퍼에 복사만 하고, 파싱/브로드캐스트는 소비 스레드가 처리
      */
     @Override
     public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last){
-        log.debug("[KIWOOM-WS] recv={}", data);
-        String raw = data.toString();
-
-        if(isPing(raw)){
-            echoPong(webSocket, raw);
-            webSocket.request(1);
-            return CompletableFuture.completedFuture(null);
-        }
-
-        if(!authenticated && isLoginSuccess(raw)){
-            authenticated = true;
-            log.info("[KIWOOM-WS] token authenticated");
-            webSocket.request(1);
-            return CompletableFuture.completedFuture(null);
-        } else if (authenticated){
-            KiwoomQuoteDto dto = kiwoomWsMessageParser.parse(raw);
-            if(dto != null){
-                quoteBroadcastService.broadcast(dto);
+        long enteredNanos = System.nanoTime();
+
+        if(log.isTraceEnabled()){
+            log.trace("[KIWOOM-WS] recv={}", data);
+        }
+
+        if(!last){
+            if(partial.length() == 0){
+                partialStartedNanos = enteredNanos;
             }
+            partial.append(data);
+            outstanding.decrementAndGet();
+            replenish();
+            return null;
         }
 
-        webSocket.request(1);
-        return CompletableFuture.completedFuture(null);
+        CharSequence message = data;
+        long receivedNanos = enteredNanos;
+        if(partial.length() > 0){
+            message = partial.append(data);
+            receivedNanos = partialStartedNanos;
+        }
+
+        receivedMessages.increment();
+        if(!ringBuffer.publish(message, receivedNanos)){
+            log.debug("[KIWOOM-WS] ring buffer full - message dropped");
+        }
+        partial.setLength(0);
+        latencyRecorder.record(PipelineStage.RECEIVE, System.nanoTime() - enteredNanos);
+
+        // 링 버퍼에 넣은 뒤에 요청 수를 줄인다 (먼저 줄이면 그 사이 소비 스레드의 replenish가 이 메시지 몫의 슬롯까지 요청함)
+        outstanding.decrementAndGet();
+        replenish();
+        // null 반환: data 버퍼를 즉시 회수해도 됨 (이미 링 버퍼에 복사함)
+        return null;
+    }
+
+    /**
+     * 요청해 둔 메시지가 배치의 절반 이하로 떨어지면 다음 배치를 request(n)
+     * - BACKPRESSURE: 링 버퍼 빈 슬롯 수를 넘지 않게 요청하므로 소비가 밀리면 상류 수신도 멈춘다
+     * - 수신 스레드(onText)와 소비 스레드(슬롯 반환) 양쪽에서 호출된다
+     */
+    private void replenish(){
+        WebSocket ws = this.webSocket;
+        if(ws == null) return;
+
+        while(true){
+            long inFlight = outstanding.get();
+            if(inFlight > options.requestBatch() / 2) return;
+
+            long n = options.requestBatch();
+            if(ringBuffer.getOverflowPolicy() == OverflowPolicy.BACKPRESSURE){
+                long free = ringBuffer.capacity() - ringBuffer.size() - inFlight;
+                n = Math.min(free, options.requestBatch());
+                if(n <= 0) return;
+            }
+
+            if(outstanding.compareAndSet(inFlight, inFlight + n)){
+                ws.request(n);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 링 버퍼 소비 스레드에서 메시지 하나를 처리
+     * - 대기(queue) / 파싱(parse) / 리스너 전달(broadcast) 구간 지연을 기록한다
+     */
+    private void handleMessage(CharSequence message, long receivedNanos, KiwoomFrame frame){
+        long dequeuedNanos = System.nanoTime();
+        latencyRecorder.record(PipelineStage.QUEUE, dequeuedNanos - receivedNanos);
+
+        if(!kiwoomWsStreamParser.parse(message, frame)){
+            log.warn("[KIWOOM-WS] parse failed. raw={}", message);
+            return;
+        }
+        long parsedNanos = System.nanoTime();
+        latencyRecorder.record(PipelineStage.PARSE, parsedNanos - dequeuedNanos);
+
+        switch (frame.getType()){
+            case PING -> echoPong(message.toString());
+            case LOGIN -> {
+                if(frame.getReturnCode() == 0){
+                    authenticated = true;
+                    log.info("[KIWOOM-WS] #{} token authenticated", connectionId);
+                    resubscribeAll();
+                    reconnectSupervisor.onRecovered();
+                } else {
+                    log.error("[KIWOOM-WS] #{} login failed. return_code={}", connectionId, frame.getReturnCode());
+                    // 토큰 문제일 수 있으므로 폐기하고 연결을 끊어 재연결 시 새로 발급받는다
+                    kiwoomTokenService.invalidate();
+                    WebSocket ws = this.webSocket;
+                    if(ws != null){
+                        ws.abort();
+                        handleDisconnect(ws, "login failed");
+                    }
+                }
+            }
+            case REAL -> {
+                if(!authenticated) return;
+                for(int i = 0; i < frame.size(); i++){
+                    KiwoomQuoteDto quote = frame.getQuote(i);
+                    quote.setReceivedNanos(receivedNanos);
+                    for(QuoteListener listener : quoteListeners){
+                        listener.onQuote(quote);
+                    }
+                }
+                for(int i = 0; i < frame.depthSize(); i++){
+                    KiwoomDepthDto depth = frame.getDepth(i);
+                    for(QuoteListener listener : quoteListeners){
+                        listener.onDepth(depth);
+                    }
+                }
+                latencyRecorder.record(PipelineStage.BROADCAST, System.nanoTime() - parsedNanos);
+            }
+            default -> log.debug("[KIWOOM-WS] recv trnm={} return_code={}", frame.getType(), frame.getReturnCode());
+        }
     }
 
     /**
@@ -120,7 +457,8 @@ public class KiwoomWsClient implements WebSocket.Listener{
      */
     @Override
     public void onError(WebSocket webSocket, Throwable error){
-        log.error("[KIWOOM-WS] error", error);
+        log.error("[KIWOOM-WS] #{} error", connectionId, error);
+        handleDisconnect(webSocket, "error");
     }
 
     /**
@@ -129,10 +467,48 @@ public class KiwoomWsClient implements WebSocket.Listener{
      */
     @Override
     public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason){
-        log.warn("[KIWOOM-WS] closed {} {}", statusCode, reason);
+        log.warn("[KIWOOM-WS] #{} closed {} {}", connectionId, statusCode, reason);
+        handleDisconnect(webSocket, "closed " + statusCode);
         return CompletableFuture.completedFuture(null);
     }
 
+    /**
+     * 현재 연결이 끊겼을 때 상태를 비우고 재연결을 예약
+     * - 이미 교체된 이전 연결에서 늦게 온 콜백은 무시
+     */
+    private void handleDisconnect(WebSocket ws, String reason){
+        if(ws != this.webSocket){
+            return;
+        }
+        this.webSocket = null;
+        this.authenticated = false;
+        reconnectSupervisor.onDisconnected(reason);
+    }
+
+    /**
+     * LOGIN 성공 직후 이 연결에 배정된 전체 종목을 grp_no별 최소 개수의 REG 메시지로 다시 등록
+     * - 체결(0B)을 먼저 모두 등록한 뒤 호가 구독 중인 종목에 0D를 더한다
+     */
+    private void resubscribeAll(){
+        if(groupBySymbol.isEmpty()){
+            return;
+        }
+        Map<String, List<String>> symbolsByGroup = new HashMap<>();
+        Map<String, List<String>> depthSymbolsByGroup = new HashMap<>();
+        groupBySymbol.forEach((symbol, grpNo) -> {
+            symbolsByGroup.computeIfAbsent(grpNo, k -> new ArrayList<>()).add(symbol);
+            if(depthSymbols.contains(symbol)){
+                depthSymbolsByGroup.computeIfAbsent(grpNo, k -> new ArrayList<>()).add(symbol);
+            }
+        });
+        symbolsByGroup.forEach((grpNo, symbols) ->
+                outboundQueue.enqueueRegBatch(grpNo, symbols, KiwoomWsMessageFactory.TRADE_TYPES));
+        depthSymbolsByGroup.forEach((grpNo, symbols) ->
+                outboundQueue.enqueueRegBatch(grpNo, symbols, KiwoomWsMessageFactory.DEPTH_TYPES));
+        log.info("[KIWOOM-WS] #{} resubscribed {} symbols ({} with depth)",
+                connectionId, groupBySymbol.size(), depthSymbols.size());
+    }
+
     private void sendTokenMessage(String token){
         String payload = """
                 {
@@ -140,26 +516,15 @@ public class KiwoomWsClient implements WebSocket.Listener{
                     "token" : "%s"
                 }
                 """.formatted(token);
-        webSocket.sendText(payload, true);
-        log.info("[KIWOOM-WS] token message sent");
-    }
-
-    private boolean isLoginSuccess(String message){
-        return message.contains("\"trnm\":\"LOGIN\"") && message.contains("\"return_code\":0");
-    }
-
-    /**
-     * 연결 시 메시지 PING 확인
-     */
-    private boolean isPing(String message){
-        return message.contains("\"trnm\":\"PING\"");
+        send(payload);
+        log.info("[KIWOOM-WS] token message queued");
     }
 
     /**
      * 연결유지 메시지 전송
      */
-    private void echoPong(WebSocket webSocket, String pingMessage){
-        webSocket.sendText(pingMessage, true);
+    private void echoPong(String pingMessage){
+        send(pingMessage);
         log.debug("[KIWOOM-WS] ping echoed");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package com.example.antsimulate.kiwoom.controller;
+
+import com.example.antsimulate.kiwoom.dto.BarResponse;
+import com.example.antsimulate.kiwoom.dto.DepthResponse;
+import com.example.antsimulate.kiwoom.dto.KiwoomQuoteDto;
+import com.example.antsimulate.kiwoom.service.BarAggregationService;
+import com.example.antsimulate.kiwoom.service.OrderBookService;
+import com.example.antsimulate.kiwoom.service.QuoteBroadcastService;
+import com.example.antsimulate.kiwoom.service.SubscriptionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/quote")
+public class QuoteController {
+    private final QuoteBroadcastService quoteBroadcastService;
+    private final BarAggregationService barAggregationService;
+    private final OrderBookService orderBookService;
+    private final SubscriptionService subscriptionService;
+
+    /**
+     * 여러 종목의 마지막 실시간 시세 (?symbols=005930,000660)
+     * - 실시간 수신 이력이 없는 종목은 응답에서 빠진다
+     */
+    @GetMapping("/last")
+    public ResponseEntity<?> getLastQuotes(@RequestParam List<String> symbols){
+        List<KiwoomQuoteDto> response = quoteBroadcastService.getLastQuotes(symbols);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 종목의 오늘 장중 봉 목록 (?interval=1m|5m|15m|30m|1h)
+     */
+    @GetMapping("/{symbol}/bars")
+    public ResponseEntity<?> getBars(@PathVariable String symbol,
+                                     @RequestParam(defaultValue = "1m") String interval){
+        List<BarResponse> response = barAggregationService.getSeries(symbol, interval);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 종목의 호가 snapshot (/topic/depth/{symbol} diff의 seq 기준점)
+     * - 실시간 호가 수신 이력이 없으면 204
+     * - 조회하면 kiwoom.depth.rest-lease-ms 동안 호가(0D) 등록을 유지하므로 처음 조회한 종목은 204일 수 있다
+     */
+    @GetMapping("/{symbol}/depth")
+    public ResponseEntity<?> getDepth(@PathVariable String symbol){
+        subscriptionService.touchDepth(symbol);
+        DepthResponse response = orderBookService.getSnapshot(symbol);
+        if(response == null){
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.antsimulate.kiwoom.dto;
+
+public record BarResponse(
+        String symbol,
+        String interval,     // "1m", "5m" ... (BacktestRequest.Interval 표기)
+        String time,         // 봉 시작 시각 HHmmss
+        long open,
+        long high,
+        long low,
+        long close,
+        long volume,
+        boolean closed       // false면 진행 중인 봉
+) {
+}
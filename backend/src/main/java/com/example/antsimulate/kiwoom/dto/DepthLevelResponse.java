@@ -0,0 +1,8 @@
+package com.example.antsimulate.kiwoom.dto;
+
+public record DepthLevelResponse(
+        int level,      // 1이 최우선 호가
+        long price,
+        long size
+) {
+}
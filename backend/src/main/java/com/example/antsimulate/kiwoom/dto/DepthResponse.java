@@ -0,0 +1,15 @@
+package com.example.antsimulate.kiwoom.dto;
+
+import java.util.List;
+
+public record DepthResponse(
+        String symbol,
+        String type,                     // "snapshot" 전체 단계 / "diff" 바뀐 단계만
+        long seq,                        // diff마다 1씩 증가, snapshot은 마지막으로 내보낸 diff의 seq
+        String time,                     // 호가 시각 HHmmss
+        List<DepthLevelResponse> asks,
+        List<DepthLevelResponse> bids
+) {
+    public static final String SNAPSHOT = "snapshot";
+    public static final String DIFF = "diff";
+}
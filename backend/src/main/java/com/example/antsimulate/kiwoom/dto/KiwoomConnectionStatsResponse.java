@@ -0,0 +1,15 @@
+package com.example.antsimulate.kiwoom.dto;
+
+import java.util.List;
+
+public record KiwoomConnectionStatsResponse(
+        int connectionId,
+        List<String> groups,     // 이 연결이 맡은 grp_no
+        boolean authenticated,
+        boolean failedOver,      // 장시간 끊겨 종목을 다른 연결로 넘긴 상태
+        int symbolCount,
+        int ringSize,
+        int ringCapacity,
+        double messagesPerSec    // 직전 점검 구간의 수신 메시지 속도
+) {
+}
@@ -0,0 +1,54 @@
+package com.example.antsimulate.kiwoom.dto;
+
+import com.example.antsimulate.kiwoom.symbol.SymbolDictionary;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 실시간 호가잔량(0D) 한 건
+ * - 스트리밍 파서가 재사용하는 풀 객체이므로 수신 콜백 밖으로 참조를 보관하지 않는다
+ * - 메시지에 들어 있던 필드만 presentMask에 표시된다 (없는 필드는 직전 값 유지)
+ */
+@Getter
+@Setter
+public class KiwoomDepthDto {
+    public static final int MAX_LEVELS = 10;
+
+    // presentMask 비트 위치: 매도호가 0~9, 매수호가 10~19, 매도잔량 20~29, 매수잔량 30~39
+    public static final int ASK_PRICE_BIT = 0;
+    public static final int BID_PRICE_BIT = 10;
+    public static final int ASK_SIZE_BIT = 20;
+    public static final int BID_SIZE_BIT = 30;
+
+    private String symbol;
+    private int symbolId = SymbolDictionary.UNKNOWN;
+
+    // 호가 시간 HHmmss
+    private String time;
+
+    private final long[] askPrices = new long[MAX_LEVELS];
+    private final long[] askSizes = new long[MAX_LEVELS];
+    private final long[] bidPrices = new long[MAX_LEVELS];
+    private final long[] bidSizes = new long[MAX_LEVELS];
+
+    private long presentMask;
+
+    public void clear() {
+        presentMask = 0;
+    }
+
+    public boolean has(int bit) {
+        return (presentMask & (1L << bit)) != 0;
+    }
+
+    public void set(int bit, long value) {
+        int level = bit % MAX_LEVELS;
+        switch (bit / MAX_LEVELS) {
+            case 0 -> askPrices[level] = value;
+            case 1 -> bidPrices[level] = value;
+            case 2 -> askSizes[level] = value;
+            default -> bidSizes[level] = value;
+        }
+        presentMask |= 1L << bit;
+    }
+}
@@ -1,12 +1,27 @@
 package com.example.antsimulate.kiwoom.dto;
 
+import com.example.antsimulate.kiwoom.symbol.SymbolDictionary;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.Setter;
 
+/**
+ * 실시간 체결 시세
+ * - 스트리밍 파서가 재사용하는 풀 객체이므로 수신 콜백 밖으로 참조를 보관하지 않는다
+ */
 @Getter
 @Setter
 public class KiwoomQuoteDto {
     private String symbol;
-    private Long price;
+
+    // SymbolDictionary id (사전이 가득 차 id가 없으면 SymbolDictionary.UNKNOWN)
+    @JsonIgnore
+    private int symbolId = SymbolDictionary.UNKNOWN;
+    private long price;
+    private long volume;
     private String time;
+
+    // 원본 프레임 수신 시점 (System.nanoTime, 지연 측정용)
+    @JsonIgnore
+    private long receivedNanos;
 }
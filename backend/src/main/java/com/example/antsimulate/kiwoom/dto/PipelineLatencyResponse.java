@@ -0,0 +1,14 @@
+package com.example.antsimulate.kiwoom.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record PipelineLatencyResponse(
+        boolean enabled,
+        Instant windowStart,             // 직전에 마감된 구간 시작
+        Instant windowEnd,               // 직전에 마감된 구간 끝 (= 진행 중 구간 시작)
+        Instant totalSince,              // 마지막 reset 시각
+        List<StageLatencyResponse> window,
+        List<StageLatencyResponse> total
+) {
+}
@@ -0,0 +1,14 @@
+package com.example.antsimulate.kiwoom.dto;
+
+public record StageLatencyResponse(
+        String stage,        // receive, queue, parse, broadcast, conflation, dispatch, end_to_end
+        String tier,         // hot, warm, cold, all
+        long count,
+        double meanUs,
+        double p50Us,
+        double p90Us,
+        double p99Us,
+        double p999Us,
+        double maxUs
+) {
+}
@@ -0,0 +1,205 @@
+package com.example.antsimulate.kiwoom.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 키움 원본 프레임을 메모리 맵 파일에 그대로 이어 쓰는 저널 (연결 하나당 하나)
+ * - 파일: {dir}/kiwoom-{connectionId}-{yyyyMMdd}.journal, 날짜(KST)가 바뀌면 새 파일로 넘어간다
+ * - 헤더(32바이트) 뒤에 [int 길이][long 수신 시각(epoch ns)][UTF-8 본문] 항목이 이어진다
+ * - 파일은 세그먼트 단위로 미리 늘려 매핑하므로 끝에는 0이 채워져 있고, 길이 0이 곧 끝 표시다
+ * - 수신 스레드가 아닌 링 버퍼 소비 스레드에서 처리가 끝난 프레임을 기록한다
+ */
+@Slf4j
+public class KiwoomFrameJournal implements AutoCloseable {
+    public static final int MAGIC = 0x4B574A31; // "KWJ1"
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int ENTRY_HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final Path dir;
+    private final int connectionId;
+    private final long segmentSize;
+
+    // System.nanoTime → epoch ns 변환 기준
+    private final long anchorEpochNanos;
+    private final long anchorNanoTime;
+
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+
+    // 현재 매핑 구간이 파일에서 시작하는 위치
+    private long mappedOffset;
+
+    // 다음 날짜로 넘어가는 시각 (epoch ms)
+    private long rollAtMillis;
+
+    private long writtenBytes;
+
+    public KiwoomFrameJournal(Path dir, int connectionId, long segmentSize) {
+        this.dir = dir;
+        this.connectionId = connectionId;
+        this.segmentSize = segmentSize;
+        this.anchorEpochNanos = System.currentTimeMillis() * 1_000_000L;
+        this.anchorNanoTime = System.nanoTime();
+    }
+
+    /**
+     * 프레임 하나 기록
+     *
+     * @param receivedNanos 수신 시점의 System.nanoTime
+     */
+    public synchronized void append(CharSequence frame, long receivedNanos) {
+        long epochNanos = anchorEpochNanos + (receivedNanos - anchorNanoTime);
+        try {
+            if (channel == null || epochNanos / 1_000_000L >= rollAtMillis) {
+                roll(epochNanos / 1_000_000L);
+            }
+
+            int len = frame.length();
+            // UTF-8은 char 하나당 최대 3바이트 (서로게이트 쌍은 2 char → 4바이트)
+            int maxBytes = ENTRY_HEADER_SIZE + len * 3;
+            if (mapped.remaining() < maxBytes + Integer.BYTES) {
+                remap(Math.max(segmentSize, maxBytes + Integer.BYTES));
+            }
+
+            int start = mapped.position();
+            mapped.position(start + ENTRY_HEADER_SIZE);
+            encodeUtf8(frame, len);
+            int bytes = mapped.position() - start - ENTRY_HEADER_SIZE;
+
+            // 본문을 다 쓴 뒤에 길이를 기록해야 중간에 죽어도 읽는 쪽이 반쪽 항목을 보지 않는다
+            mapped.putLong(start + Integer.BYTES, epochNanos);
+            mapped.putInt(start, bytes);
+            writtenBytes += ENTRY_HEADER_SIZE + bytes;
+        } catch (IOException e) {
+            log.error("[KIWOOM-JOURNAL] #{} append failed", connectionId, e);
+        }
+    }
+
+    public long writtenBytes() {
+        return writtenBytes;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            mapped.force();
+            channel.close();
+        } catch (IOException e) {
+            log.warn("[KIWOOM-JOURNAL] #{} close failed", connectionId, e);
+        }
+        channel = null;
+        mapped = null;
+    }
+
+    /**
+     * 날짜에 해당하는 파일을 열고 마지막 항목 뒤로 이동
+     */
+    private void roll(long epochMillis) throws IOException {
+        close();
+
+        LocalDate date = Instant.ofEpochMilli(epochMillis).atZone(KST).toLocalDate();
+        rollAtMillis = date.plusDays(1).atStartOfDay(KST).toInstant().toEpochMilli();
+
+        Files.createDirectories(dir);
+        Path file = dir.resolve(fileName(connectionId, date));
+        boolean exists = Files.exists(file) && Files.size(file) >= HEADER_SIZE;
+
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mappedOffset = 0;
+        map(Math.max(segmentSize, channel.size()));
+
+        if (exists) {
+            mapped.position(findEnd());
+            log.info("[KIWOOM-JOURNAL] #{} reopened {} at {}", connectionId, file, mappedOffset + mapped.position());
+        } else {
+            writeHeader(date);
+            log.info("[KIWOOM-JOURNAL] #{} created {}", connectionId, file);
+        }
+    }
+
+    private void writeHeader(LocalDate date) {
+        mapped.putInt(0, MAGIC);
+        mapped.putShort(4, VERSION);
+        mapped.putShort(6, (short) HEADER_SIZE);
+        mapped.putInt(8, connectionId);
+        mapped.putInt(12, Integer.parseInt(date.format(FILE_DATE)));
+        mapped.putLong(16, anchorEpochNanos);
+        mapped.position(HEADER_SIZE);
+    }
+
+    /**
+     * 기존 파일에서 마지막 항목의 끝 위치 (재기동 후 같은 날짜 파일에 이어 쓰기)
+     */
+    private int findEnd() {
+        int pos = HEADER_SIZE;
+        while (pos + ENTRY_HEADER_SIZE <= mapped.limit()) {
+            int len = mapped.getInt(pos);
+            if (len <= 0 || pos + ENTRY_HEADER_SIZE + len > mapped.limit()) {
+                break;
+            }
+            pos += ENTRY_HEADER_SIZE + len;
+        }
+        return pos;
+    }
+
+    /**
+     * 현재 쓰기 위치부터 새 구간을 매핑
+     */
+    private void remap(long size) throws IOException {
+        long position = mappedOffset + mapped.position();
+        mapped.force();
+        mappedOffset = position;
+        map(size);
+    }
+
+    private void map(long size) throws IOException {
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, mappedOffset, size);
+        mapped.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    private void encodeUtf8(CharSequence frame, int len) {
+        MappedByteBuffer out = mapped;
+        for (int i = 0; i < len; i++) {
+            char c = frame.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(frame.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, frame.charAt(++i));
+                out.put((byte) (0xF0 | (cp >> 18)));
+                out.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (cp & 0x3F)));
+            } else {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    public static String fileName(int connectionId, LocalDate date) {
+        return "kiwoom-" + connectionId + "-" + date.format(FILE_DATE) + ".journal";
+    }
+}
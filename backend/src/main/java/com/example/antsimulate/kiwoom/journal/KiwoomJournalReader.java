@@ -0,0 +1,62 @@
+package com.example.antsimulate.kiwoom.journal;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * KiwoomFrameJournal 파일을 처음부터 순서대로 읽는다 (사후 분석, 재생, 벤치마크 입력용)
+ */
+public final class KiwoomJournalReader {
+
+    @FunctionalInterface
+    public interface EntryHandler {
+        /**
+         * @param receivedEpochNanos 수신 시각 (epoch ns)
+         * @param frame              원본 프레임
+         */
+        void onEntry(long receivedEpochNanos, String frame);
+    }
+
+    private KiwoomJournalReader() {
+    }
+
+    /**
+     * 파일의 모든 항목을 기록 순서대로 전달하고 읽은 항목 수를 반환
+     */
+    public static long read(Path file, EntryHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.BIG_ENDIAN);
+
+            if (buffer.limit() < KiwoomFrameJournal.HEADER_SIZE || buffer.getInt(0) != KiwoomFrameJournal.MAGIC) {
+                throw new IOException("not a kiwoom journal: " + file);
+            }
+            int headerSize = buffer.getShort(6);
+
+            long count = 0;
+            int pos = headerSize;
+            byte[] bytes = new byte[4096];
+            while (pos + KiwoomFrameJournal.ENTRY_HEADER_SIZE <= buffer.limit()) {
+                int len = buffer.getInt(pos);
+                if (len <= 0 || pos + KiwoomFrameJournal.ENTRY_HEADER_SIZE + len > buffer.limit()) {
+                    break;
+                }
+                long receivedEpochNanos = buffer.getLong(pos + Integer.BYTES);
+                if (len > bytes.length) {
+                    bytes = new byte[Math.max(len, bytes.length * 2)];
+                }
+                buffer.get(pos + KiwoomFrameJournal.ENTRY_HEADER_SIZE, bytes, 0, len);
+                handler.onEntry(receivedEpochNanos, new String(bytes, 0, len, StandardCharsets.UTF_8));
+
+                pos += KiwoomFrameJournal.ENTRY_HEADER_SIZE + len;
+                count++;
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.antsimulate.kiwoom.message;
+
+import java.util.Arrays;
+
+/**
+ * 시세 compact 인코딩 (SUBSCRIBE 헤더 x-quote-encoding: compact 로 선택, 기본은 JSON)
+ * - 필드 이름 없이 위치로만 구분하는 JSON 배열, 종목은 구독으로 알 수 있으므로 뺀다
+ *   키 프레임: [0,가격,시각,체결량]          (구독 후 첫 메시지, 시각을 알 수 없을 때)
+ *   델타 프레임: [1,가격 변화,시각 변화,체결량] (같은 구독으로 직전에 보낸 값 기준)
+ * - 시각은 0시 기준 초(KST), 체결량은 틱 단위 값이라 델타를 쓰지 않는다
+ * - 델타 기준(Cursor)은 실제로 보낸 값이어야 하므로 세션 송신 스레드에서 전송 직전에 인코딩한다
+ */
+public final class CompactQuoteEncoder {
+    public static final String ENCODING_HEADER = "x-quote-encoding";
+    public static final String COMPACT = "compact";
+
+    private static final byte KEY = '0';
+    private static final byte DELTA = '1';
+
+    private CompactQuoteEncoder() {
+    }
+
+    /**
+     * 구독 하나가 마지막으로 받은 값 (송신 스레드 전용)
+     */
+    public static final class Cursor {
+        private boolean started;
+        private long price;
+        private int timeSec;
+    }
+
+    public static byte[] encode(QuoteFrame quote, Cursor cursor) {
+        // "[1," + long 2개(부호 포함 최대 20자) + int + 구분자
+        byte[] buffer = new byte[64];
+        int pos = 0;
+        buffer[pos++] = '[';
+
+        if (!cursor.started || cursor.timeSec < 0 || quote.timeSec() < 0) {
+            buffer[pos++] = KEY;
+            buffer[pos++] = ',';
+            pos = writeLong(buffer, pos, quote.price());
+            buffer[pos++] = ',';
+            pos = writeLong(buffer, pos, quote.timeSec());
+        } else {
+            buffer[pos++] = DELTA;
+            buffer[pos++] = ',';
+            pos = writeLong(buffer, pos, quote.price() - cursor.price);
+            buffer[pos++] = ',';
+            pos = writeLong(buffer, pos, quote.timeSec() - cursor.timeSec);
+        }
+        buffer[pos++] = ',';
+        pos = writeLong(buffer, pos, quote.volume());
+        buffer[pos++] = ']';
+
+        cursor.started = true;
+        cursor.price = quote.price();
+        cursor.timeSec = quote.timeSec();
+        return Arrays.copyOf(buffer, pos);
+    }
+
+    private static int writeLong(byte[] buffer, int pos, long value) {
+        if (value == Long.MIN_VALUE) {
+            byte[] min = Long.toString(value).getBytes();
+            System.arraycopy(min, 0, buffer, pos, min.length);
+            return pos + min.length;
+        }
+        if (value < 0) {
+            buffer[pos++] = '-';
+            value = -value;
+        }
+        if (value == 0) {
+            buffer[pos++] = '0';
+            return pos;
+        }
+        int end = pos + digits(value);
+        for (int i = end - 1; i >= pos; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    private static int digits(long value) {
+        int n = 1;
+        while (value >= 10) {
+            value /= 10;
+            n++;
+        }
+        return n;
+    }
+}
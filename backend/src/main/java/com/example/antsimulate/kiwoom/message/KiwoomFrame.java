@@ -0,0 +1,116 @@
+package com.example.antsimulate.kiwoom.message;
+
+import com.example.antsimulate.kiwoom.dto.KiwoomDepthDto;
+import com.example.antsimulate.kiwoom.dto.KiwoomQuoteDto;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * 스트리밍 파서의 파싱 결과를 담는 재사용 프레임
+ * - 한 스레드에서만 사용하며 parse 호출마다 내용이 덮어써진다
+ * - data[] 항목 수만큼 시세(0B) / 호가(0D) 객체를 풀에서 꺼내 쓰고, 풀은 필요할 때만 늘어난다
+ */
+public class KiwoomFrame {
+    private static final int INITIAL_CAPACITY = 8;
+
+    @Getter
+    private KiwoomFrameType type = KiwoomFrameType.UNKNOWN;
+
+    @Getter
+    private int returnCode = -1;
+
+    private KiwoomQuoteDto[] quotes = new KiwoomQuoteDto[INITIAL_CAPACITY];
+    private int size;
+
+    private KiwoomDepthDto[] depths = new KiwoomDepthDto[INITIAL_CAPACITY];
+    private int depthSize;
+
+    public KiwoomFrame() {
+        for (int i = 0; i < quotes.length; i++) {
+            quotes[i] = new KiwoomQuoteDto();
+        }
+        for (int i = 0; i < depths.length; i++) {
+            depths[i] = new KiwoomDepthDto();
+        }
+    }
+
+    /**
+     * 파싱된 시세 개수
+     */
+    public int size() {
+        return size;
+    }
+
+    public KiwoomQuoteDto getQuote(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return quotes[index];
+    }
+
+    /**
+     * 파싱된 호가 개수
+     */
+    public int depthSize() {
+        return depthSize;
+    }
+
+    public KiwoomDepthDto getDepth(int index) {
+        if (index >= depthSize) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return depths[index];
+    }
+
+    void reset() {
+        type = KiwoomFrameType.UNKNOWN;
+        returnCode = -1;
+        size = 0;
+        depthSize = 0;
+    }
+
+    void setType(KiwoomFrameType type) {
+        this.type = type;
+    }
+
+    void setReturnCode(int returnCode) {
+        this.returnCode = returnCode;
+    }
+
+    /**
+     * 다음에 채울 시세 슬롯 (commit 전까지는 size에 포함되지 않음)
+     */
+    KiwoomQuoteDto pending() {
+        if (size == quotes.length) {
+            int oldLength = quotes.length;
+            quotes = Arrays.copyOf(quotes, oldLength * 2);
+            for (int i = oldLength; i < quotes.length; i++) {
+                quotes[i] = new KiwoomQuoteDto();
+            }
+        }
+        return quotes[size];
+    }
+
+    void commit() {
+        size++;
+    }
+
+    /**
+     * 다음에 채울 호가 슬롯 (commitDepth 전까지는 depthSize에 포함되지 않음)
+     */
+    KiwoomDepthDto pendingDepth() {
+        if (depthSize == depths.length) {
+            int oldLength = depths.length;
+            depths = Arrays.copyOf(depths, oldLength * 2);
+            for (int i = oldLength; i < depths.length; i++) {
+                depths[i] = new KiwoomDepthDto();
+            }
+        }
+        return depths[depthSize];
+    }
+
+    void commitDepth() {
+        depthSize++;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.antsimulate.kiwoom.message;
+
+/**
+ * 키움 WebSocket 메시지 trnm 구분
+ */
+public enum KiwoomFrameType {
+    LOGIN, PING, REAL, REG, REMOVE, UNKNOWN
+}
@@ -16,15 +16,38 @@ import java.util.Map;
 public class KiwoomWsMessageFactory {
     private final ObjectMapper objectmapper = new ObjectMapper();
 
+    public static final String DEFAULT_GRP_NO = "1";
+
+    // 실시간 항목: 주식체결 / 주식호가잔량
+    public static final String TYPE_TRADE = "0B";
+    public static final String TYPE_DEPTH = "0D";
+
+    // REG / REMOVE에 싣는 실시간 항목 조합 (호가는 구독자가 있는 종목만 따로 등록)
+    public static final List<String> TRADE_TYPES = List.of(TYPE_TRADE);
+    public static final List<String> DEPTH_TYPES = List.of(TYPE_DEPTH);
+    public static final List<String> ALL_TYPES = List.of(TYPE_TRADE, TYPE_DEPTH);
+
     public String buildReg(String symbol){
+        return buildReg(DEFAULT_GRP_NO, List.of(symbol), TRADE_TYPES);
+    }
+
+    public String buildRemove(String symbol){
+        return buildRemove(DEFAULT_GRP_NO, List.of(symbol), TRADE_TYPES);
+    }
+
+    /**
+     * 여러 종목을 한 번에 등록하는 REG 메시지
+     * - refresh=1이라 이미 등록된 종목에 다른 실시간 항목만 더해도 기존 등록은 유지된다
+     */
+    public String buildReg(String grpNo, List<String> symbols, List<String> types){
         Map<String, Object> message = Map.of(
                 "trnm", "REG",
-                "grp_no", "1",
+                "grp_no", grpNo,
                 "refresh", "1",
                 "data", List.of(
                         Map.of(
-                                "item", List.of(symbol),
-                                "type", List.of("0B")
+                                "item", symbols,
+                                "type", types
                         )
                 )
         );
@@ -32,14 +55,17 @@ public class KiwoomWsMessageFactory {
         return toJson(message);
     }
 
-    public String buildRemove(String symbol){
+    /**
+     * 여러 종목의 지정한 실시간 항목을 한 번에 해제하는 REMOVE 메시지
+     */
+    public String buildRemove(String grpNo, List<String> symbols, List<String> types){
         Map<String, Object> message = Map.of(
                 "trnm", "REMOVE",
-                "grp_no", "1",
+                "grp_no", grpNo,
                 "data", List.of(
                         Map.of(
-                                "item", List.of(symbol),
-                                "type", List.of("0B")
+                                "item", symbols,
+                                "type", types
                         )
                 )
         );
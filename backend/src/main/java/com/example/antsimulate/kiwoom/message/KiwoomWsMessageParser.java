@@ -6,6 +6,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+/**
+ * Jackson 트리 기반 파서
+ * - 실시간 수신 경로는 KiwoomWsStreamParser를 사용하고, 이 클래스는 벤치마크 비교 기준으로 남겨둔다
+ */
 @Slf4j
 @Component
 public class KiwoomWsMessageParser {
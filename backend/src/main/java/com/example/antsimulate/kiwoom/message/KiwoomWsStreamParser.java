@@ -0,0 +1,527 @@
+package com.example.antsimulate.kiwoom.message;
+
+import com.example.antsimulate.kiwoom.dto.KiwoomDepthDto;
+import com.example.antsimulate.kiwoom.dto.KiwoomQuoteDto;
+import com.example.antsimulate.kiwoom.symbol.SymbolDictionary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 키움 WebSocket 원본 메시지를 토큰 단위로 한 번만 훑어서 KiwoomFrame에 채우는 파서
+ * - JsonNode 트리나 중간 String을 만들지 않고 CharSequence를 직접 읽는다
+ * - LOGIN / PING / REAL(data[] 다건, 체결 0B / 호가 0D) 메시지를 같은 경로로 처리한다
+ * - 종목코드는 SymbolDictionary에서 String을 만들지 않고 id를 찾아, 사전의 String 인스턴스와 id를 함께 채운다
+ *   (사전에 없는 종목은 id UNKNOWN으로 채우고 사전에 추가하지 않는다)
+ */
+@Slf4j
+@Component
+public class KiwoomWsStreamParser {
+    private static final String TYPE_TRADE = KiwoomWsMessageFactory.TYPE_TRADE;
+    private static final String TYPE_DEPTH = KiwoomWsMessageFactory.TYPE_DEPTH;
+
+    // 실시간 체결(0B) values 필드 번호
+    private static final String FID_PRICE = "10";
+    private static final String FID_TIME = "20";
+    private static final String FID_VOLUME = "15";
+
+    // 실시간 호가잔량(0D) 필드 번호 (41부터 40개가 KiwoomDepthDto 비트 순서와 같다)
+    private static final int FID_DEPTH_FIRST = 41;
+    private static final int FID_DEPTH_LAST = 80;
+    private static final int FID_DEPTH_TIME = 21;
+
+    private final SymbolDictionary symbolDictionary;
+
+    public KiwoomWsStreamParser(SymbolDictionary symbolDictionary) {
+        this.symbolDictionary = symbolDictionary;
+    }
+
+    /**
+     * 원본 메시지를 파싱해 frame에 채운다
+     * - 형식이 잘못된 메시지면 false
+     */
+    public boolean parse(CharSequence in, KiwoomFrame frame) {
+        frame.reset();
+        int len = in.length();
+
+        int i = skipWs(in, 0, len);
+        if (i >= len || in.charAt(i) != '{') {
+            return false;
+        }
+        i++;
+
+        while (true) {
+            i = skipWs(in, i, len);
+            if (i >= len) {
+                return false;
+            }
+            char c = in.charAt(i);
+            if (c == '}') {
+                return true;
+            }
+            if (c == ',') {
+                i++;
+                continue;
+            }
+            if (c != '"') {
+                return false;
+            }
+
+            int keyStart = i + 1;
+            int keyEnd = scanString(in, keyStart, len);
+            if (keyEnd < 0) {
+                return false;
+            }
+            i = skipColon(in, keyEnd + 1, len);
+            if (i < 0) {
+                return false;
+            }
+
+            if (regionEquals(in, keyStart, keyEnd, "trnm")) {
+                i = parseTrnm(in, i, len, frame);
+            } else if (regionEquals(in, keyStart, keyEnd, "return_code")) {
+                i = parseReturnCode(in, i, len, frame);
+            } else if (regionEquals(in, keyStart, keyEnd, "data")) {
+                i = parseData(in, i, len, frame);
+            } else {
+                i = skipValue(in, i, len);
+            }
+
+            if (i < 0) {
+                return false;
+            }
+        }
+    }
+
+    private int parseTrnm(CharSequence in, int i, int len, KiwoomFrame frame) {
+        if (in.charAt(i) != '"') {
+            return -1;
+        }
+        int start = i + 1;
+        int end = scanString(in, start, len);
+        if (end < 0) {
+            return -1;
+        }
+
+        if (regionEquals(in, start, end, "REAL")) {
+            frame.setType(KiwoomFrameType.REAL);
+        } else if (regionEquals(in, start, end, "PING")) {
+            frame.setType(KiwoomFrameType.PING);
+        } else if (regionEquals(in, start, end, "LOGIN")) {
+            frame.setType(KiwoomFrameType.LOGIN);
+        } else if (regionEquals(in, start, end, "REG")) {
+            frame.setType(KiwoomFrameType.REG);
+        } else if (regionEquals(in, start, end, "REMOVE")) {
+            frame.setType(KiwoomFrameType.REMOVE);
+        }
+        return end + 1;
+    }
+
+    private int parseReturnCode(CharSequence in, int i, int len, KiwoomFrame frame) {
+        // 숫자 또는 문자열("0") 모두 허용
+        if (in.charAt(i) == '"') {
+            int start = i + 1;
+            int end = scanString(in, start, len);
+            if (end < 0) {
+                return -1;
+            }
+            frame.setReturnCode((int) parseSignedLong(in, start, end));
+            return end + 1;
+        }
+
+        int end = scanNumber(in, i, len);
+        frame.setReturnCode((int) parseSignedLong(in, i, end));
+        return end;
+    }
+
+    /**
+     * "data": [ { "type": "0B", "item": "005930", "values": { "10": "-20800", "20": "165208" } }, ... ]
+     */
+    private int parseData(CharSequence in, int i, int len, KiwoomFrame frame) {
+        if (in.charAt(i) != '[') {
+            return skipValue(in, i, len);
+        }
+        i++;
+
+        while (true) {
+            i = skipWs(in, i, len);
+            if (i >= len) {
+                return -1;
+            }
+            char c = in.charAt(i);
+            if (c == ']') {
+                return i + 1;
+            }
+            if (c == ',') {
+                i++;
+                continue;
+            }
+            if (c != '{') {
+                i = skipValue(in, i, len);
+            } else {
+                i = parseDataItem(in, i + 1, len, frame);
+            }
+            if (i < 0) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * data[] 항목 하나 (0B는 시세, 0D는 호가로 채움)
+     * - 키움은 type을 values보다 먼저 보내므로 type을 본 뒤 values를 어디에 채울지 정한다
+     */
+    private int parseDataItem(CharSequence in, int i, int len, KiwoomFrame frame) {
+        KiwoomQuoteDto quote = frame.pending();
+        // 풀 객체이므로 이전 프레임 값이 남지 않게 비운다 (시간 String은 같으면 다시 쓰려고 따로 들고 있는다)
+        String previousTime = quote.getTime();
+        quote.setPrice(0L);
+        quote.setVolume(0L);
+        quote.setTime(null);
+        KiwoomDepthDto depth = null;
+        boolean trade = true;
+        String symbol = null;
+        int symbolId = SymbolDictionary.UNKNOWN;
+        boolean hasPrice = false;
+
+        while (true) {
+            i = skipWs(in, i, len);
+            if (i >= len) {
+                return -1;
+            }
+            char c = in.charAt(i);
+            if (c == '}') {
+                if (symbol != null && depth != null && depth.getPresentMask() != 0) {
+                    depth.setSymbol(symbol);
+                    depth.setSymbolId(symbolId);
+                    frame.commitDepth();
+                } else if (symbol != null && trade && hasPrice) {
+                    quote.setSymbol(symbol);
+                    quote.setSymbolId(symbolId);
+                    frame.commit();
+                }
+                return i + 1;
+            }
+            if (c == ',') {
+                i++;
+                continue;
+            }
+            if (c != '"') {
+                return -1;
+            }
+
+            int keyStart = i + 1;
+            int keyEnd = scanString(in, keyStart, len);
+            if (keyEnd < 0) {
+                return -1;
+            }
+            i = skipColon(in, keyEnd + 1, len);
+            if (i < 0) {
+                return -1;
+            }
+
+            if (regionEquals(in, keyStart, keyEnd, "item") && in.charAt(i) == '"') {
+                int start = i + 1;
+                int end = scanString(in, start, len);
+                if (end < 0) {
+                    return -1;
+                }
+                if (end > start) {
+                    symbolId = symbolDictionary.idOf(in, start, end);
+                    symbol = symbolId == SymbolDictionary.UNKNOWN
+                            ? in.subSequence(start, end).toString()
+                            : symbolDictionary.symbol(symbolId);
+                }
+                i = end + 1;
+            } else if (regionEquals(in, keyStart, keyEnd, "type") && in.charAt(i) == '"') {
+                int start = i + 1;
+                int end = scanString(in, start, len);
+                if (end < 0) {
+                    return -1;
+                }
+                trade = regionEquals(in, start, end, TYPE_TRADE);
+                if (regionEquals(in, start, end, TYPE_DEPTH)) {
+                    depth = frame.pendingDepth();
+                    // 이 항목은 시세 슬롯을 쓰지 않으므로 시세 슬롯 시간은 되돌려 둔다
+                    quote.setTime(previousTime);
+                    previousTime = depth.getTime();
+                    depth.clear();
+                    depth.setTime(null);
+                }
+                i = end + 1;
+            } else if (regionEquals(in, keyStart, keyEnd, "values") && in.charAt(i) == '{' && depth != null) {
+                i = parseDepthValues(in, i + 1, len, depth, previousTime);
+            } else if (regionEquals(in, keyStart, keyEnd, "values") && in.charAt(i) == '{') {
+                i = parseValues(in, i + 1, len, quote, previousTime);
+                if (i < 0) {
+                    return -1;
+                }
+                hasPrice = quote.getPrice() > 0;
+            } else {
+                i = skipValue(in, i, len);
+            }
+
+            if (i < 0) {
+                return -1;
+            }
+        }
+    }
+
+    private int parseValues(CharSequence in, int i, int len, KiwoomQuoteDto quote, String previousTime) {
+        while (true) {
+            i = skipWs(in, i, len);
+            if (i >= len) {
+                return -1;
+            }
+            char c = in.charAt(i);
+            if (c == '}') {
+                return i + 1;
+            }
+            if (c == ',') {
+                i++;
+                continue;
+            }
+            if (c != '"') {
+                return -1;
+            }
+
+            int keyStart = i + 1;
+            int keyEnd = scanString(in, keyStart, len);
+            if (keyEnd < 0) {
+                return -1;
+            }
+            i = skipColon(in, keyEnd + 1, len);
+            if (i < 0) {
+                return -1;
+            }
+
+            if (in.charAt(i) != '"') {
+                i = skipValue(in, i, len);
+                if (i < 0) {
+                    return -1;
+                }
+                continue;
+            }
+
+            int start = i + 1;
+            int end = scanString(in, start, len);
+            if (end < 0) {
+                return -1;
+            }
+
+            if (regionEquals(in, keyStart, keyEnd, FID_PRICE)) {
+                // 키움 현재가는 등락 부호(+/-)가 붙어서 오므로 절대값 사용
+                quote.setPrice(Math.abs(parseSignedLong(in, start, end)));
+            } else if (regionEquals(in, keyStart, keyEnd, FID_VOLUME)) {
+                // 체결량도 매수(+)/매도(-) 부호가 붙어서 온다
+                quote.setVolume(Math.abs(parseSignedLong(in, start, end)));
+            } else if (regionEquals(in, keyStart, keyEnd, FID_TIME)) {
+                quote.setTime(previousTime != null && regionEquals(in, start, end, previousTime)
+                        ? previousTime
+                        : in.subSequence(start, end).toString());
+            }
+            i = end + 1;
+        }
+    }
+
+    /**
+     * 호가잔량(0D) values
+     * - 41~50 매도호가1~10, 51~60 매수호가1~10, 61~70 매도잔량1~10, 71~80 매수잔량1~10, 21 호가시간
+     */
+    private int parseDepthValues(CharSequence in, int i, int len, KiwoomDepthDto depth, String previousTime) {
+        while (true) {
+            i = skipWs(in, i, len);
+            if (i >= len) {
+                return -1;
+            }
+            char c = in.charAt(i);
+            if (c == '}') {
+                return i + 1;
+            }
+            if (c == ',') {
+                i++;
+                continue;
+            }
+            if (c != '"') {
+                return -1;
+            }
+
+            int keyStart = i + 1;
+            int keyEnd = scanString(in, keyStart, len);
+            if (keyEnd < 0) {
+                return -1;
+            }
+            i = skipColon(in, keyEnd + 1, len);
+            if (i < 0) {
+                return -1;
+            }
+
+            if (in.charAt(i) != '"') {
+                i = skipValue(in, i, len);
+                if (i < 0) {
+                    return -1;
+                }
+                continue;
+            }
+
+            int start = i + 1;
+            int end = scanString(in, start, len);
+            if (end < 0) {
+                return -1;
+            }
+
+            int fid = twoDigitKey(in, keyStart, keyEnd);
+            if (fid >= FID_DEPTH_FIRST && fid <= FID_DEPTH_LAST) {
+                // 호가도 전일 대비 부호(+/-)가 붙어서 온다
+                depth.set(fid - FID_DEPTH_FIRST, Math.abs(parseSignedLong(in, start, end)));
+            } else if (fid == FID_DEPTH_TIME) {
+                depth.setTime(previousTime != null && regionEquals(in, start, end, previousTime)
+                        ? previousTime
+                        : in.subSequence(start, end).toString());
+            }
+            i = end + 1;
+        }
+    }
+
+    private static int twoDigitKey(CharSequence in, int start, int end) {
+        if (end - start != 2) {
+            return -1;
+        }
+        char tens = in.charAt(start);
+        char ones = in.charAt(start + 1);
+        if (tens < '0' || tens > '9' || ones < '0' || ones > '9') {
+            return -1;
+        }
+        return (tens - '0') * 10 + (ones - '0');
+    }
+
+    private static int skipWs(CharSequence in, int i, int len) {
+        while (i < len) {
+            char c = in.charAt(i);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipColon(CharSequence in, int i, int len) {
+        i = skipWs(in, i, len);
+        if (i >= len || in.charAt(i) != ':') {
+            return -1;
+        }
+        i = skipWs(in, i + 1, len);
+        return i < len ? i : -1;
+    }
+
+    /**
+     * 여는 따옴표 다음 위치에서 시작해 닫는 따옴표 위치를 반환
+     */
+    private static int scanString(CharSequence in, int i, int len) {
+        while (i < len) {
+            char c = in.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '"') {
+                return i;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static int scanNumber(CharSequence in, int i, int len) {
+        while (i < len) {
+            char c = in.charAt(i);
+            if ((c < '0' || c > '9') && c != '-' && c != '+' && c != '.' && c != 'e' && c != 'E') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * 값 하나(문자열/숫자/객체/배열/리터럴)를 건너뛰고 다음 위치를 반환
+     */
+    private static int skipValue(CharSequence in, int i, int len) {
+        if (i >= len) {
+            return -1;
+        }
+        char c = in.charAt(i);
+        if (c == '"') {
+            int end = scanString(in, i + 1, len);
+            return end < 0 ? -1 : end + 1;
+        }
+        if (c == '{' || c == '[') {
+            int depth = 0;
+            while (i < len) {
+                char ch = in.charAt(i);
+                if (ch == '"') {
+                    int end = scanString(in, i + 1, len);
+                    if (end < 0) {
+                        return -1;
+                    }
+                    i = end + 1;
+                    continue;
+                }
+                if (ch == '{' || ch == '[') {
+                    depth++;
+                } else if (ch == '}' || ch == ']') {
+                    depth--;
+                    if (depth == 0) {
+                        return i + 1;
+                    }
+                }
+                i++;
+            }
+            return -1;
+        }
+        // 숫자, true/false/null
+        while (i < len) {
+            char ch = in.charAt(i);
+            if (ch == ',' || ch == '}' || ch == ']' || ch == ' ' || ch == '\n' || ch == '\r' || ch == '\t') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * "+165208", "-20800", "0" 형태의 정수 파싱 (소수점 이하는 버림)
+     */
+    private static long parseSignedLong(CharSequence in, int start, int end) {
+        boolean negative = false;
+        int i = start;
+        if (i < end && (in.charAt(i) == '-' || in.charAt(i) == '+')) {
+            negative = in.charAt(i) == '-';
+            i++;
+        }
+
+        long value = 0;
+        for (; i < end; i++) {
+            char c = in.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private static boolean regionEquals(CharSequence in, int start, int end, String expected) {
+        int length = expected.length();
+        if (end - start != length) {
+            return false;
+        }
+        for (int k = 0; k < length; k++) {
+            if (in.charAt(start + k) != expected.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.antsimulate.kiwoom.message;
+
+/**
+ * STOMP 시세 메시지에 함께 실어 보내는 원본 값 (STOMP 프레임 헤더로는 나가지 않는 내부 헤더)
+ * - 세션 송신 대기열이 compact 구독자에게 보낼 때 JSON을 다시 읽지 않고 이 값으로 인코딩한다
+ * - timeSec: 체결 시각 HHmmss를 0시 기준 초로 바꾼 값, 형식이 다르면 -1
+ */
+public record QuoteFrame(long price, long volume, int timeSec) {
+    public static final String HEADER = "quoteFrame";
+
+    public static QuoteFrame of(long price, long volume, String time) {
+        return new QuoteFrame(price, volume, toSecondOfDay(time));
+    }
+
+    static int toSecondOfDay(String time) {
+        if (time == null || time.length() != 6) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < 6; i++) {
+            char c = time.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        int hh = value / 10000;
+        int mm = value / 100 % 100;
+        int ss = value % 100;
+        if (hh > 23 || mm > 59 || ss > 59) {
+            return -1;
+        }
+        return hh * 3600 + mm * 60 + ss;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.antsimulate.kiwoom.order;
+
+import com.example.antsimulate.domain.transaction.entity.TransactionType;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 종목 하나의 미체결 주문 대기열
+ * - 지정가별 FIFO 큐를 가격순 맵에 두고, 체결가가 닿은 가격대만 꺼낸다 (O(log n + k))
+ *   매수는 지정가 >= 체결가, 매도는 지정가 <= 체결가면 체결
+ * - 가장 높은 매수 지정가 / 가장 낮은 매도 지정가를 volatile로 따로 들고 있어,
+ *   아무것도 체결되지 않는 대부분의 틱은 락 없이 비교 두 번으로 끝난다
+ * - add / remove / pollCrossed 동기화는 호출하는 쪽에서 한다
+ */
+public final class OrderQueues {
+    // 지정가 → 접수 순 큐
+    private final TreeMap<Long, ArrayDeque<RestingOrder>> bids = new TreeMap<>();
+    private final TreeMap<Long, ArrayDeque<RestingOrder>> asks = new TreeMap<>();
+
+    private volatile long highestBid = Long.MIN_VALUE;
+    private volatile long lowestAsk = Long.MAX_VALUE;
+
+    private int size;
+
+    /**
+     * 이 체결가로 체결될 주문이 있을 수 있는지 (락 없이 호출)
+     */
+    public boolean mayMatch(long price) {
+        return price <= highestBid || price >= lowestAsk;
+    }
+
+    public void add(RestingOrder order) {
+        sideOf(order).computeIfAbsent(order.limitPrice(), p -> new ArrayDeque<>()).addLast(order);
+        size++;
+        refreshBounds();
+    }
+
+    public boolean remove(RestingOrder order) {
+        TreeMap<Long, ArrayDeque<RestingOrder>> side = sideOf(order);
+        ArrayDeque<RestingOrder> queue = side.get(order.limitPrice());
+        if (queue == null || !queue.remove(order)) {
+            return false;
+        }
+        if (queue.isEmpty()) {
+            side.remove(order.limitPrice());
+        }
+        size--;
+        refreshBounds();
+        return true;
+    }
+
+    /**
+     * 체결가가 닿은 주문을 가격 우선, 같은 가격은 접수 순으로 빼서 out에 담는다
+     *
+     * @return 체결된 주문 수
+     */
+    public int pollCrossed(long price, List<RestingOrder> out) {
+        int count = drain(bids.tailMap(price, true).descendingMap(), out)
+                + drain(asks.headMap(price, true), out);
+        if (count > 0) {
+            size -= count;
+            refreshBounds();
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static int drain(Map<Long, ArrayDeque<RestingOrder>> crossed, List<RestingOrder> out) {
+        int count = 0;
+        Iterator<ArrayDeque<RestingOrder>> levels = crossed.values().iterator();
+        while (levels.hasNext()) {
+            ArrayDeque<RestingOrder> queue = levels.next();
+            count += queue.size();
+            out.addAll(queue);
+            levels.remove();
+        }
+        return count;
+    }
+
+    private TreeMap<Long, ArrayDeque<RestingOrder>> sideOf(RestingOrder order) {
+        return order.side() == TransactionType.BUY ? bids : asks;
+    }
+
+    private void refreshBounds() {
+        highestBid = bids.isEmpty() ? Long.MIN_VALUE : bids.lastKey();
+        lowestAsk = asks.isEmpty() ? Long.MAX_VALUE : asks.firstKey();
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.antsimulate.kiwoom.order;
+
+import com.example.antsimulate.domain.transaction.entity.TransactionType;
+
+/**
+ * 매칭 엔진 대기열에 올라간 미체결 주문 하나
+ */
+public record RestingOrder(
+        long orderId,
+        long userId,
+        String stockSymbol,
+        TransactionType side,
+        long limitPrice
+) {
+}
@@ -0,0 +1,11 @@
+package com.example.antsimulate.kiwoom.pipeline;
+
+/**
+ * 링 버퍼 소비 스레드가 슬롯마다 호출하는 처리기
+ * - 소비 스레드마다 인스턴스가 하나씩 만들어지므로 내부 상태를 스레드 로컬처럼 써도 된다
+ * - 슬롯은 onFrame이 반환된 뒤 재사용되므로 참조를 보관하지 않는다
+ */
+@FunctionalInterface
+public interface FrameHandler {
+    void onFrame(FrameSlot slot);
+}
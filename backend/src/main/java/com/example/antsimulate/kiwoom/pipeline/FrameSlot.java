@@ -0,0 +1,69 @@
+package com.example.antsimulate.kiwoom.pipeline;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * 링 버퍼 슬롯
+ * - 수신한 원본 메시지를 재사용 char[]에 복사해 두고 CharSequence로 그대로 파서에 넘긴다
+ * - 버퍼는 더 긴 메시지가 들어올 때만 늘어난다
+ */
+public final class FrameSlot implements CharSequence {
+    private static final int INITIAL_SIZE = 1024;
+
+    // 링 버퍼의 슬롯 상태 시퀀스 (KiwoomFrameRingBuffer 참고)
+    volatile long sequence;
+
+    private char[] chars = new char[INITIAL_SIZE];
+    private int length;
+
+    // 수신 스레드가 발행한 시점 (System.nanoTime)
+    private long receivedNanos;
+
+    FrameSlot(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public long receivedNanos() {
+        return receivedNanos;
+    }
+
+    void copyFrom(CharSequence data, long receivedNanos) {
+        this.receivedNanos = receivedNanos;
+        int len = data.length();
+        if (len > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(len, chars.length * 2));
+        }
+
+        if (data instanceof CharBuffer buffer) {
+            buffer.get(buffer.position(), chars, 0, len);
+        } else if (data instanceof String string) {
+            string.getChars(0, len, chars, 0);
+        } else {
+            for (int i = 0; i < len; i++) {
+                chars[i] = data.charAt(i);
+            }
+        }
+        this.length = len;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return chars[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new String(chars, start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+}
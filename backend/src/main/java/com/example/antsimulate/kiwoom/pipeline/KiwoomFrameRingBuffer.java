@@ -0,0 +1,172 @@
+package com.example.antsimulate.kiwoom.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * WebSocket 수신 스레드(단일 프로듀서)와 파싱/브로드캐스트 스레드(다중 소비자) 사이의 고정 크기 링 버퍼
+ * - 슬롯마다 시퀀스를 두는 방식: sequence == n 이면 n번째 발행 가능, n + 1 이면 n번째 소비 가능
+ * - 소비자는 head를 CAS로 선점하고, 처리가 끝나야 슬롯을 (n + capacity)로 돌려준다
+ * - 소비자가 여러 명이면 같은 종목의 틱 처리 순서가 바뀔 수 있으므로 기본값은 1명
+ */
+@Slf4j
+public class KiwoomFrameRingBuffer {
+    private final FrameSlot[] slots;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final OverflowPolicy overflowPolicy;
+
+    // 소비자가 다음에 선점할 시퀀스
+    private final AtomicLong head = new AtomicLong();
+
+    // 프로듀서가 다음에 발행할 시퀀스 (프로듀서 스레드만 기록)
+    private volatile long tail;
+
+    // 처리가 끝나 반환된 슬롯 누적 수
+    private final AtomicLong released = new AtomicLong();
+
+    private final LongAdder dropped = new LongAdder();
+
+    // 슬롯이 반환될 때마다 호출 (request(n) 재충전용)
+    private final Runnable onRelease;
+
+    private final List<Thread> consumers = new ArrayList<>();
+    private volatile boolean running;
+
+    public KiwoomFrameRingBuffer(int capacity, WaitStrategy waitStrategy, OverflowPolicy overflowPolicy, Runnable onRelease) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        this.slots = new FrameSlot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new FrameSlot(i);
+        }
+        this.mask = capacity - 1;
+        this.waitStrategy = waitStrategy;
+        this.overflowPolicy = overflowPolicy;
+        this.onRelease = onRelease;
+    }
+
+    /**
+     * 소비 스레드 시작
+     * - handlerFactory는 스레드마다 한 번 호출된다
+     */
+    public synchronized void start(String name, int consumerCount, Supplier<FrameHandler> handlerFactory) {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < consumerCount; i++) {
+            FrameHandler handler = handlerFactory.get();
+            Thread thread = new Thread(() -> consume(handler), name + "-" + i);
+            thread.setDaemon(true);
+            consumers.add(thread);
+            thread.start();
+        }
+    }
+
+    public synchronized void stop() {
+        running = false;
+        for (Thread thread : consumers) {
+            thread.interrupt();
+        }
+        consumers.clear();
+    }
+
+    /**
+     * 원본 메시지를 슬롯에 복사해 발행 (프로듀서 스레드 전용)
+     * - 가득 찼으면 DROP_NEWEST는 버리고 false, BACKPRESSURE는 빈 슬롯이 생길 때까지 대기
+     */
+    public boolean publish(CharSequence data) {
+        // 대기 시간까지 지연에 포함되도록 진입 시점에 수신 시각을 찍는다
+        return publish(data, System.nanoTime());
+    }
+
+    /**
+     * 수신 시각(System.nanoTime)을 호출 측에서 넘기는 발행
+     */
+    public boolean publish(CharSequence data, long receivedNanos) {
+        long sequence = tail;
+        FrameSlot slot = slots[(int) (sequence & mask)];
+
+        if (slot.sequence != sequence) {
+            if (overflowPolicy == OverflowPolicy.DROP_NEWEST) {
+                dropped.increment();
+                return false;
+            }
+            // request(n)을 빈 슬롯 수 이내로만 하므로 정상적으로는 여기 오지 않는다
+            int spins = 0;
+            while (slot.sequence != sequence) {
+                if (!running) {
+                    return false;
+                }
+                if (++spins < 100) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+        }
+
+        slot.copyFrom(data, receivedNanos);
+        slot.sequence = sequence + 1;
+        tail = sequence + 1;
+        waitStrategy.signal();
+        return true;
+    }
+
+    private void consume(FrameHandler handler) {
+        int idle = 0;
+        while (running) {
+            long sequence = head.get();
+            FrameSlot slot = slots[(int) (sequence & mask)];
+
+            if (slot.sequence == sequence + 1) {
+                if (head.compareAndSet(sequence, sequence + 1)) {
+                    try {
+                        handler.onFrame(slot);
+                    } catch (Exception e) {
+                        log.error("[KIWOOM-RING] frame handler failed", e);
+                    } finally {
+                        slot.sequence = sequence + slots.length;
+                        released.incrementAndGet();
+                        onRelease.run();
+                    }
+                }
+                idle = 0;
+                continue;
+            }
+
+            try {
+                idle = waitStrategy.idle(idle);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * 발행됐지만 아직 처리가 끝나지 않은 슬롯 수
+     */
+    public int size() {
+        return (int) (tail - released.get());
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.antsimulate.kiwoom.pipeline;
+
+/**
+ * 링 버퍼가 가득 찼을 때의 처리 정책
+ */
+public enum OverflowPolicy {
+    /**
+     * 빈 슬롯만큼만 WebSocket.request(n)으로 요청해 상류를 멈춘다 (유실 없음)
+     */
+    BACKPRESSURE,
+
+    /**
+     * 상류는 계속 읽고, 가득 찬 상태에서 들어온 메시지는 버린다 (유실 수 집계)
+     */
+    DROP_NEWEST
+}
@@ -0,0 +1,218 @@
+package com.example.antsimulate.kiwoom.pipeline;
+
+import com.example.antsimulate.kiwoom.dto.PipelineLatencyResponse;
+import com.example.antsimulate.kiwoom.dto.StageLatencyResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.SingleWriterRecorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 실시간 시세 경로 구간별 지연 기록
+ * - 기록 스레드마다 구간(PipelineStage) × 종목 구간(SymbolTier)별 SingleWriterRecorder를 따로 둔다
+ *   (수신/소비/flush 스레드가 같은 카운터를 두고 경합하지 않게 하고, 기록은 락 없이 wait-free)
+ * - window-ms마다 직전 구간을 마감해 보관하고, reset 이후 누적값도 함께 유지한다
+ * - 단위는 ns로 기록하고 조회 시 us로 환산한다
+ */
+@Slf4j
+@Component
+public class PipelineLatencyRecorder {
+    // 이보다 큰 값은 최대값으로 잘라 기록 (Recorder는 범위 밖 값에서 예외)
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private static final PipelineStage[] STAGES = PipelineStage.values();
+    private static final SymbolTier[] TIERS = SymbolTier.values();
+
+    private final boolean enabled;
+
+    // 기록 스레드별 [stage][tier] Recorder, 프레임 단위 구간은 tier 자리가 1개
+    private final ThreadLocal<SingleWriterRecorder[][]> localRecorders = ThreadLocal.withInitial(this::newRecorders);
+
+    // 조회 시 합치기 위한 전체 스레드의 Recorder 목록
+    private final List<SingleWriterRecorder[][]> allRecorders = new CopyOnWriteArrayList<>();
+
+    // 진행 중인 구간 / 직전에 마감한 구간 / reset 이후 누적
+    private final Histogram[][] current = new Histogram[STAGES.length][];
+    private final Histogram[][] previous = new Histogram[STAGES.length][];
+    private final Histogram[][] total = new Histogram[STAGES.length][];
+
+    // Recorder에서 꺼낸 구간 히스토그램 재사용
+    private Histogram interval;
+
+    private Instant currentStart = Instant.now();
+    private Instant previousStart = currentStart;
+    private Instant totalStart = currentStart;
+
+    public PipelineLatencyRecorder(@Value("${kiwoom.latency.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        for (PipelineStage stage : STAGES) {
+            int tiers = stage.perSymbol() ? TIERS.length : 1;
+            int i = stage.ordinal();
+            current[i] = new Histogram[tiers];
+            previous[i] = new Histogram[tiers];
+            total[i] = new Histogram[tiers];
+            for (int t = 0; t < tiers; t++) {
+                current[i][t] = newHistogram();
+                previous[i][t] = newHistogram();
+                total[i][t] = newHistogram();
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 프레임 단위 구간 기록
+     */
+    public void record(PipelineStage stage, long nanos) {
+        if (enabled) {
+            localRecorders.get()[stage.ordinal()][0].recordValue(clamp(nanos));
+        }
+    }
+
+    /**
+     * 종목 단위 구간 기록
+     */
+    public void record(PipelineStage stage, SymbolTier tier, long nanos) {
+        if (enabled) {
+            SingleWriterRecorder[] byTier = localRecorders.get()[stage.ordinal()];
+            byTier[byTier.length == 1 ? 0 : tier.ordinal()].recordValue(clamp(nanos));
+        }
+    }
+
+    /**
+     * 진행 중인 구간을 마감하고 새 구간 시작
+     */
+    @Scheduled(fixedRateString = "${kiwoom.latency.window-ms:60000}")
+    public synchronized void rollWindow() {
+        drain();
+        Instant now = Instant.now();
+        for (int i = 0; i < STAGES.length; i++) {
+            Histogram[] swap = previous[i];
+            previous[i] = current[i];
+            current[i] = swap;
+            for (Histogram histogram : current[i]) {
+                histogram.reset();
+            }
+        }
+        previousStart = currentStart;
+        currentStart = now;
+    }
+
+    /**
+     * 누적값 초기화 (진행 중 구간과 직전 구간은 유지)
+     */
+    public synchronized void reset() {
+        drain();
+        for (Histogram[] byTier : total) {
+            for (Histogram histogram : byTier) {
+                histogram.reset();
+            }
+        }
+        totalStart = Instant.now();
+        log.info("[LATENCY] cumulative histograms reset");
+    }
+
+    public synchronized PipelineLatencyResponse snapshot() {
+        drain();
+        return new PipelineLatencyResponse(
+                enabled,
+                previousStart,
+                currentStart,
+                totalStart,
+                summarize(previous),
+                summarize(total)
+        );
+    }
+
+    /**
+     * Recorder에 쌓인 값을 진행 중 구간과 누적에 합친다
+     */
+    private void drain() {
+        for (SingleWriterRecorder[][] recorders : allRecorders) {
+            for (int i = 0; i < STAGES.length; i++) {
+                for (int t = 0; t < recorders[i].length; t++) {
+                    interval = recorders[i][t].getIntervalHistogram(interval);
+                    current[i][t].add(interval);
+                    total[i][t].add(interval);
+                }
+            }
+        }
+    }
+
+    /**
+     * 스레드가 처음 기록할 때 그 스레드 전용 Recorder 묶음을 만들어 등록
+     * - 연결 수 × (수신 + 소비) + flush 정도라 스레드 수만큼만 생긴다
+     */
+    private SingleWriterRecorder[][] newRecorders() {
+        SingleWriterRecorder[][] recorders = new SingleWriterRecorder[STAGES.length][];
+        for (PipelineStage stage : STAGES) {
+            int tiers = stage.perSymbol() ? TIERS.length : 1;
+            recorders[stage.ordinal()] = new SingleWriterRecorder[tiers];
+            for (int t = 0; t < tiers; t++) {
+                recorders[stage.ordinal()][t] = new SingleWriterRecorder(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+            }
+        }
+        allRecorders.add(recorders);
+        return recorders;
+    }
+
+    /**
+     * 구간별 요약, 종목 단위 구간은 tier별 행과 합친 "all" 행을 함께 만든다
+     */
+    private List<StageLatencyResponse> summarize(Histogram[][] histograms) {
+        List<StageLatencyResponse> result = new ArrayList<>();
+        for (PipelineStage stage : STAGES) {
+            Histogram[] byTier = histograms[stage.ordinal()];
+            if (!stage.perSymbol()) {
+                result.add(toResponse(stage, "all", byTier[0]));
+                continue;
+            }
+            Histogram merged = newHistogram();
+            for (SymbolTier tier : TIERS) {
+                Histogram histogram = byTier[tier.ordinal()];
+                merged.add(histogram);
+                result.add(toResponse(stage, tier.label(), histogram));
+            }
+            result.add(toResponse(stage, "all", merged));
+        }
+        return result;
+    }
+
+    private static StageLatencyResponse toResponse(PipelineStage stage, String tier, Histogram histogram) {
+        return new StageLatencyResponse(
+                stage.label(),
+                tier,
+                histogram.getTotalCount(),
+                toMicros(histogram.getMean()),
+                toMicros(histogram.getValueAtPercentile(50)),
+                toMicros(histogram.getValueAtPercentile(90)),
+                toMicros(histogram.getValueAtPercentile(99)),
+                toMicros(histogram.getValueAtPercentile(99.9)),
+                toMicros(histogram.getMaxValue())
+        );
+    }
+
+    private static double toMicros(double nanos) {
+        return Math.round(nanos / 100.0) / 10.0;
+    }
+
+    private static long clamp(long nanos) {
+        return nanos < 0 ? 0 : Math.min(nanos, HIGHEST_TRACKABLE_NANOS);
+    }
+
+    private static Histogram newHistogram() {
+        return new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.antsimulate.kiwoom.pipeline;
+
+/**
+ * 실시간 시세 경로의 지연 측정 구간
+ * - 프레임 단위 구간은 종목 구분 없이, 종목 단위 구간은 SymbolTier별로 기록한다
+ */
+public enum PipelineStage {
+    // onText 진입 → 링 버퍼 복사 완료
+    RECEIVE("receive", false),
+    // 링 버퍼 발행 → 소비 스레드가 꺼낸 시점
+    QUEUE("queue", false),
+    // 스트리밍 파서 한 프레임
+    PARSE("parse", false),
+    // 한 프레임의 시세를 모든 QuoteListener에 전달 (conflation 슬롯 기록, 분봉 집계)
+    BROADCAST("broadcast", false),
+    // conflation 슬롯이 갱신된 뒤 flush가 꺼낼 때까지
+    CONFLATION("conflation", true),
+    // 브로커로 convertAndSend (구독 세션별 전송 큐 적재까지)
+    DISPATCH("dispatch", true),
+    // 마지막 틱 수신 → 브로커 전달 완료
+    END_TO_END("end_to_end", true);
+
+    private final String label;
+    private final boolean perSymbol;
+
+    PipelineStage(String label, boolean perSymbol) {
+        this.label = label;
+        this.perSymbol = perSymbol;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public boolean perSymbol() {
+        return perSymbol;
+    }
+}
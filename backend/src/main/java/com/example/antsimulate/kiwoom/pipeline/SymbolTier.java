@@ -0,0 +1,20 @@
+package com.example.antsimulate.kiwoom.pipeline;
+
+/**
+ * 종목 틱 빈도 구간 (QuoteBroadcastService가 주기적으로 다시 분류)
+ */
+public enum SymbolTier {
+    HOT("hot"),
+    WARM("warm"),
+    COLD("cold");
+
+    private final String label;
+
+    SymbolTier(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+}
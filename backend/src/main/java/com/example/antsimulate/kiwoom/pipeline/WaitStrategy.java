@@ -0,0 +1,128 @@
+package com.example.antsimulate.kiwoom.pipeline;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 링 버퍼가 비어 있을 때 소비 스레드의 대기 방식
+ * - busy-spin: 지연 최소, 코어 하나를 계속 점유
+ * - yielding: 잠깐 spin 후 Thread.yield
+ * - sleeping: spin → yield → parkNanos 순으로 물러남 (기본값)
+ * - blocking: 프로듀서가 깨워줄 때까지 Condition 대기
+ */
+public interface WaitStrategy {
+
+    /**
+     * 꺼낼 슬롯이 없을 때 호출
+     * - counter: 연속으로 비어 있던 횟수, 반환값이 다음 호출의 counter
+     */
+    int idle(int counter) throws InterruptedException;
+
+    /**
+     * 프로듀서가 슬롯을 발행한 직후 호출
+     */
+    void signal();
+
+    static WaitStrategy of(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "busy-spin" -> new BusySpin();
+            case "yielding" -> new Yielding();
+            case "sleeping" -> new Sleeping();
+            case "blocking" -> new Blocking();
+            default -> throw new IllegalArgumentException("unknown wait strategy: " + name);
+        };
+    }
+
+    final class BusySpin implements WaitStrategy {
+        @Override
+        public int idle(int counter) {
+            Thread.onSpinWait();
+            return counter + 1;
+        }
+
+        @Override
+        public void signal() {
+        }
+    }
+
+    final class Yielding implements WaitStrategy {
+        private static final int SPIN_TRIES = 100;
+
+        @Override
+        public int idle(int counter) {
+            if (counter < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+            return counter + 1;
+        }
+
+        @Override
+        public void signal() {
+        }
+    }
+
+    final class Sleeping implements WaitStrategy {
+        private static final int SPIN_TRIES = 100;
+        private static final int YIELD_TRIES = 200;
+        private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+        @Override
+        public int idle(int counter) {
+            if (counter < SPIN_TRIES) {
+                Thread.onSpinWait();
+                return counter + 1;
+            }
+            if (counter < YIELD_TRIES) {
+                Thread.yield();
+                return counter + 1;
+            }
+            LockSupport.parkNanos(PARK_NANOS);
+            return counter;
+        }
+
+        @Override
+        public void signal() {
+        }
+    }
+
+    final class Blocking implements WaitStrategy {
+        // signal과 idle 사이 경합으로 신호를 놓쳐도 이 시간 안에는 다시 확인한다
+        private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        @Override
+        public int idle(int counter) throws InterruptedException {
+            lock.lock();
+            try {
+                waiters.incrementAndGet();
+                notEmpty.awaitNanos(MAX_WAIT_NANOS);
+            } finally {
+                waiters.decrementAndGet();
+                lock.unlock();
+            }
+            return counter + 1;
+        }
+
+        @Override
+        public void signal() {
+            if (waiters.get() == 0) {
+                return;
+            }
+            lock.lock();
+            try {
+                notEmpty.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -1,21 +1,47 @@
 package com.example.antsimulate.kiwoom.runner;
 
-import com.example.antsimulate.kiwoom.client.KiwoomWsClient;
+import com.example.antsimulate.kiwoom.client.KiwoomConnectionPool;
+import com.example.antsimulate.kiwoom.dto.KiwoomConnectionStatsResponse;
+import com.example.antsimulate.kiwoom.dto.PipelineLatencyResponse;
+import com.example.antsimulate.kiwoom.pipeline.PipelineLatencyRecorder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 public class KiwoomWsStartController {
-    private final KiwoomWsClient kiwoomWsClient;
+    private final KiwoomConnectionPool kiwoomConnectionPool;
+    private final PipelineLatencyRecorder pipelineLatencyRecorder;
 
     @GetMapping("/debug/kiwoom-ws/connect")
     public String connect(){
         log.info("[BOOT] start Kiwoom WebSocket");
-        kiwoomWsClient.connect();
+        kiwoomConnectionPool.connect();
         return "start";
     }
+
+    @GetMapping("/debug/kiwoom-ws/connections")
+    public List<KiwoomConnectionStatsResponse> connections(){
+        return kiwoomConnectionPool.stats();
+    }
+
+    /**
+     * 구간별 지연 백분위 (직전 마감 구간 + reset 이후 누적, us)
+     */
+    @GetMapping("/debug/kiwoom-ws/latency")
+    public PipelineLatencyResponse latency(){
+        return pipelineLatencyRecorder.snapshot();
+    }
+
+    @PostMapping("/debug/kiwoom-ws/latency/reset")
+    public PipelineLatencyResponse resetLatency(){
+        pipelineLatencyRecorder.reset();
+        return pipelineLatencyRecorder.snapshot();
+    }
 }
@@ -1,6 +1,6 @@
 /*package com.example.antsimulate.kiwoom.runner;
 
-import com.example.antsimulate.kiwoom.client.KiwoomWsClient;
+import com.example.antsimulate.kiwoom.client.KiwoomConnectionPool;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.ApplicationArguments;
@@ -11,11 +11,11 @@ import org.springframework.stereotype.Component;
 @Component
 @RequiredArgsConstructor
 public class KiwoomWsStarter implements ApplicationRunner {
-    private final KiwoomWsClient kiwoomWsClient;
+    private final KiwoomConnectionPool kiwoomConnectionPool;
 
     @Override
     public void run(ApplicationArguments args){
         log.info("[BOOT] start Kiwoom WebSocket");
-        kiwoomWsClient.connect();
+        kiwoomConnectionPool.connect();
     }
 }*/
@@ -0,0 +1,222 @@
+package com.example.antsimulate.kiwoom.service;
+
+import com.example.antsimulate.domain.backtest.dto.BacktestRequest.Interval;
+import com.example.antsimulate.global.exception.BusinessException;
+import com.example.antsimulate.global.exception.ErrorCode;
+import com.example.antsimulate.kiwoom.bar.BarIntervals;
+import com.example.antsimulate.kiwoom.bar.BarSeries;
+import com.example.antsimulate.kiwoom.dto.BarResponse;
+import com.example.antsimulate.kiwoom.dto.KiwoomQuoteDto;
+import com.example.antsimulate.kiwoom.symbol.SymbolDictionary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 실시간 체결 틱으로 장중 OHLCV 봉(1m/5m/15m/30m/1h)을 집계
+ * - 종목마다 주기별 BarSeries(원시 배열 원형 버퍼)를 두고 틱마다 값만 갱신한다
+ * - 봉이 마감되면 /topic/bar/{interval}/{symbol} 로 마감된 봉을 전송
+ * - 거래가 뜸해 다음 틱이 늦게 오는 종목은 스케줄러가 벽시계 기준으로 마감시킨다
+ * - 종목별 봉은 SymbolDictionary id로 인덱싱하는 배열에 둔다
+ */
+@Slf4j
+@Service
+public class BarAggregationService implements QuoteListener {
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final SymbolDictionary symbolDictionary;
+
+    // 종목 id → 봉 (첫 틱에 생성)
+    private final AtomicReferenceArray<SymbolBars> barsById;
+
+    private final int capacity;
+    private final int closeGraceSec;
+
+    public BarAggregationService(SimpMessagingTemplate simpMessagingTemplate,
+                                 SymbolDictionary symbolDictionary,
+                                 @Value("${kiwoom.bar.capacity:600}") int capacity,
+                                 @Value("${kiwoom.bar.close-grace-sec:2}") int closeGraceSec) {
+        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.symbolDictionary = symbolDictionary;
+        this.barsById = new AtomicReferenceArray<>(symbolDictionary.capacity());
+        this.capacity = capacity;
+        this.closeGraceSec = closeGraceSec;
+    }
+
+    @Override
+    public void onQuote(KiwoomQuoteDto quote){
+        int sec = secondOfDay(quote.getTime());
+        if(sec < 0){
+            return;
+        }
+
+        int id = quote.getSymbolId();
+        if(id == SymbolDictionary.UNKNOWN){
+            id = symbolDictionary.idOf(quote.getSymbol());
+            if(id == SymbolDictionary.UNKNOWN){
+                return;
+            }
+        }
+        String symbol = symbolDictionary.symbol(id);
+        SymbolBars bars = barsById.get(id);
+        if(bars == null){
+            bars = barsFor(id);
+        }
+
+        List<BarResponse> closedBars = null;
+        synchronized (bars) {
+            for(int i = 0; i < bars.series.length; i++){
+                int closed = bars.series[i].update(sec, quote.getPrice(), quote.getVolume());
+                if(closed >= 0){
+                    // 마감은 주기당 분에 한 번 이하이므로 여기서만 객체를 만든다
+                    if(closedBars == null) closedBars = new ArrayList<>(bars.series.length);
+                    closedBars.add(toResponse(symbol, i, bars.series[i], closed));
+                }
+            }
+        }
+
+        if(closedBars != null){
+            publish(bars, closedBars);
+        }
+    }
+
+    /**
+     * 구간이 끝났는데 다음 틱이 오지 않은 봉을 마감
+     */
+    @Scheduled(fixedRateString = "${kiwoom.bar.sweep-interval-ms:1000}")
+    public void closeExpired(){
+        int nowSec = LocalTime.now(KST).toSecondOfDay() - closeGraceSec;
+        if(nowSec < 0){
+            return;
+        }
+
+        for(int id = 0, size = symbolDictionary.size(); id < size; id++){
+            SymbolBars bars = barsById.get(id);
+            if(bars == null){
+                continue;
+            }
+            List<BarResponse> closedBars = null;
+            synchronized (bars) {
+                for(int i = 0; i < bars.series.length; i++){
+                    int closed = bars.series[i].closeIfExpired(nowSec);
+                    if(closed >= 0){
+                        if(closedBars == null) closedBars = new ArrayList<>(bars.series.length);
+                        closedBars.add(toResponse(bars.symbol, i, bars.series[i], closed));
+                    }
+                }
+            }
+            if(closedBars != null){
+                publish(bars, closedBars);
+            }
+        }
+    }
+
+    /**
+     * 종목의 오늘 봉 목록 (오래된 순, 마지막 봉은 진행 중일 수 있음)
+     */
+    public List<BarResponse> getSeries(String symbol, String interval){
+        int index = BarIntervals.indexOf(interval);
+        if(index < 0){
+            throw new BusinessException(ErrorCode.INVALID_BAR_INTERVAL);
+        }
+
+        int id = symbolDictionary.idOf(symbol);
+        SymbolBars bars = id == SymbolDictionary.UNKNOWN ? null : barsById.get(id);
+        if(bars == null){
+            return List.of();
+        }
+
+        synchronized (bars) {
+            BarSeries series = bars.series[index];
+            List<BarResponse> result = new ArrayList<>(series.size());
+            for(int i = 0; i < series.size(); i++){
+                result.add(toResponse(symbol, index, series, series.indexAt(i)));
+            }
+            return result;
+        }
+    }
+
+    private void publish(SymbolBars bars, List<BarResponse> closedBars){
+        for(BarResponse bar : closedBars){
+            String destination = bars.destinations[BarIntervals.indexOf(bar.interval())];
+            simpMessagingTemplate.convertAndSend(destination, bar);
+            log.debug("[BAR] closed destination={}, time={}, close={}", destination, bar.time(), bar.close());
+        }
+    }
+
+    private BarResponse toResponse(String symbol, int intervalIndex, BarSeries series, int index){
+        return new BarResponse(
+                symbol,
+                BarIntervals.label(BarIntervals.INTRADAY[intervalIndex]),
+                formatTime(series.startSec(index)),
+                series.open(index),
+                series.high(index),
+                series.low(index),
+                series.close(index),
+                series.volume(index),
+                !series.isOpen(index)
+        );
+    }
+
+    /**
+     * 키움 체결시간(HHmmss)을 자정 기준 초로 변환, 형식이 다르면 -1
+     */
+    private static int secondOfDay(String time){
+        if(time == null || time.length() != 6){
+            return -1;
+        }
+        int value = 0;
+        for(int i = 0; i < 6; i++){
+            int d = time.charAt(i) - '0';
+            if(d < 0 || d > 9) return -1;
+            value = value * 10 + d;
+        }
+        int h = value / 10000;
+        int m = value / 100 % 100;
+        int s = value % 100;
+        if(h > 23 || m > 59 || s > 59){
+            return -1;
+        }
+        return h * 3600 + m * 60 + s;
+    }
+
+    private static String formatTime(int sec){
+        int hhmmss = sec / 3600 * 10000 + sec / 60 % 60 * 100 + sec % 60;
+        String digits = Integer.toString(hhmmss);
+        return "000000".substring(digits.length()) + digits;
+    }
+
+    private SymbolBars barsFor(int id){
+        SymbolBars created = new SymbolBars(symbolDictionary.symbol(id));
+        if(barsById.compareAndSet(id, null, created)){
+            return created;
+        }
+        return barsById.get(id);
+    }
+
+    private final class SymbolBars {
+        private final String symbol;
+        private final BarSeries[] series = new BarSeries[BarIntervals.INTRADAY.length];
+        private final String[] destinations = new String[BarIntervals.INTRADAY.length];
+
+        private SymbolBars(String symbol) {
+            this.symbol = symbol;
+            for(int i = 0; i < series.length; i++){
+                Interval interval = BarIntervals.INTRADAY[i];
+                int intervalSec = BarIntervals.seconds(interval);
+                // 하루치 봉 수보다 크게 잡을 필요는 없다
+                series[i] = new BarSeries(intervalSec, Math.min(capacity, 24 * 60 * 60 / intervalSec));
+                destinations[i] = "/topic/bar/" + BarIntervals.label(interval) + "/" + symbol;
+            }
+        }
+    }
+}
@@ -4,53 +4,221 @@ import com.example.antsimulate.kiwoom.client.KiwoomAuthClient;
 import com.example.antsimulate.kiwoom.dto.KiwoomTokenResponse;
 import com.example.antsimulate.global.exception.BusinessException;
 import com.example.antsimulate.global.exception.ErrorCode;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * 키움 access token 관리
+ * - 동시에 여러 곳에서 만료를 발견해도 발급 요청은 하나만 나가고 나머지는 그 결과를 함께 기다린다 (single-flight)
+ * - 발급 후 expires_dt - refresh-margin 시점에 백그라운드로 미리 재발급해, 재연결/LOGIN이 발급을 기다리지 않게 한다
+ *   (TTL이 margin보다 짧게 오면 최소 max(TTL/2, retry-delay) 뒤로 미룬다)
+ * - 백그라운드 재발급이 실패하면 retry-delay 간격으로 다시 시도하며, 그동안은 만료 전까지 기존 토큰을 계속 쓴다
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class KiwoomTokenService {
+    private static final DateTimeFormatter EXPIRES_DT_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
     private final KiwoomAuthClient kiwoomAuthClient;
-    private String accessToken;
-    private Instant expiresAt;
+    private final TaskScheduler taskScheduler;
+    private final Duration refreshMargin;
+    private final Duration retryDelay;
+
+    // 현재 토큰 (값과 만료 시각을 한 번에 교체)
+    private volatile IssuedToken current;
+
+    // 진행 중인 발급 요청, 없으면 null (this 락 안에서만 교체)
+    private CompletableFuture<IssuedToken> inFlight;
+
+    // 예약된 사전 재발급 (this 락 안에서만 교체)
+    private ScheduledFuture<?> scheduledRefresh;
+
+    private final Timer issueSuccessTimer;
+    private final Timer issueFailureTimer;
+    private final Counter coalescedCounter;
+
+    public KiwoomTokenService(KiwoomAuthClient kiwoomAuthClient,
+                              TaskScheduler taskScheduler,
+                              MeterRegistry meterRegistry,
+                              @Value("${kiwoom.auth.refresh-margin-sec:600}") long refreshMarginSec,
+                              @Value("${kiwoom.auth.retry-delay-sec:30}") long retryDelaySec) {
+        this.kiwoomAuthClient = kiwoomAuthClient;
+        this.taskScheduler = taskScheduler;
+        this.refreshMargin = Duration.ofSeconds(refreshMarginSec);
+        this.retryDelay = Duration.ofSeconds(retryDelaySec);
+
+        this.issueSuccessTimer = Timer.builder("kiwoom.auth.issue")
+                .description("키움 access token 발급 요청 시간")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.issueFailureTimer = Timer.builder("kiwoom.auth.issue")
+                .description("키움 access token 발급 요청 시간")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("kiwoom.auth.issue.coalesced")
+                .description("진행 중인 발급에 합류해 따로 요청하지 않은 호출 수")
+                .register(meterRegistry);
+        Gauge.builder("kiwoom.auth.token.ttl", this, KiwoomTokenService::remainingSeconds)
+                .description("현재 토큰 만료까지 남은 시간(초)")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
 
+    /**
+     * 유효한 토큰이 있으면 바로 반환하고, 없거나 만료됐으면 발급을 기다린다
+     */
     public String getAccessToken(){
-        if(isExpired()) issueNewToken();
-        return accessToken;
+        IssuedToken token = current;
+        if(token != null && Instant.now().isBefore(token.expiresAt())){
+            return token.value();
+        }
+        try {
+            return refresh().join().value();
+        } catch (CompletionException e) {
+            if(e.getCause() instanceof RuntimeException cause){
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 보유 토큰을 폐기하고 백그라운드로 바로 재발급 (LOGIN 거절 시)
+     * - 재연결 백오프 동안 새 토큰이 준비되므로 다음 onOpen은 대개 기다리지 않는다
+     */
+    public void invalidate(){
+        log.info("[KIWOOM-AUTH] access token invalidated");
+        this.current = null;
+        scheduleRefresh(Instant.now());
+    }
+
+    /**
+     * 발급 요청 (single-flight)
+     * - 진행 중인 발급이 있으면 같은 future를 돌려주고, 없으면 호출한 스레드가 직접 발급한다
+     */
+    private CompletableFuture<IssuedToken> refresh(){
+        CompletableFuture<IssuedToken> future;
+        synchronized (this) {
+            if(inFlight != null){
+                coalescedCounter.increment();
+                return inFlight;
+            }
+            future = new CompletableFuture<>();
+            inFlight = future;
+        }
+
+        try {
+            IssuedToken token = issue();
+            this.current = token;
+            scheduleRefresh(refreshAt(token));
+            future.complete(token);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        } finally {
+            synchronized (this) {
+                inFlight = null;
+            }
+        }
+        return future;
     }
 
-    private boolean isExpired(){
-        if(accessToken == null || expiresAt == null){
-            return true;
+    /**
+     * 사전 재발급 시각 = expires_dt - refresh-margin
+     * - TTL이 margin보다 짧으면 바로 다시 발급하는 루프가 되므로 최소 max(TTL/2, retry-delay)는 기다린다
+     *   (그 사이 만료되면 getAccessToken이 직접 발급한다)
+     */
+    private Instant refreshAt(IssuedToken token){
+        Instant now = Instant.now();
+        Duration halfTtl = Duration.between(now, token.expiresAt()).dividedBy(2);
+        Instant earliest = now.plus(halfTtl.compareTo(retryDelay) > 0 ? halfTtl : retryDelay);
+        Instant at = token.expiresAt().minus(refreshMargin);
+        if(at.isBefore(earliest)){
+            log.warn("[KIWOOM-AUTH] token ttl shorter than refresh margin {}s (expiresAt={}) - refresh at {}",
+                    refreshMargin.toSeconds(), token.expiresAt(), earliest);
+            return earliest;
         }
-        return Instant.now().isAfter(expiresAt);
+        return at;
     }
 
-    private void issueNewToken(){
-        log.info("[KIWOOM-AUTH] issue new access token");
+    /**
+     * 사전 재발급 예약 (기존 예약은 취소)
+     * - 발급 HTTP 호출이 스케줄러 스레드를 붙잡지 않도록 가상 스레드에서 실행
+     */
+    private synchronized void scheduleRefresh(Instant at){
+        if(scheduledRefresh != null){
+            scheduledRefresh.cancel(false);
+        }
+        Instant earliest = Instant.now();
+        scheduledRefresh = taskScheduler.schedule(
+                () -> Thread.ofVirtual().name("kiwoom-token-refresh").start(this::refreshInBackground),
+                at.isBefore(earliest) ? earliest : at);
+        log.debug("[KIWOOM-AUTH] token refresh scheduled at {}", at);
+    }
 
-        KiwoomTokenResponse response = kiwoomAuthClient.issueAccessToken();
-        log.info("[KIWOOM-RESPONSE] response code={} msg={}", response.getReturnCode(), response.getReturnMsg());
-        if (response == null || response.getToken() == null){
-            throw new BusinessException(ErrorCode.KIWOOM_TOKEN_ISSUE_FAILED);
+    private void refreshInBackground(){
+        try {
+            refresh().join();
+        } catch (CompletionException e) {
+            IssuedToken token = current;
+            log.warn("[KIWOOM-AUTH] background refresh failed, retry in {}s (current expiresAt={})",
+                    retryDelay.toSeconds(), token == null ? null : token.expiresAt(), e.getCause());
+            scheduleRefresh(Instant.now().plus(retryDelay));
         }
+    }
 
-        this.accessToken = response.getToken();
-        this.expiresAt = parseExpiresDt(response.getExpiresDt());
+    private IssuedToken issue(){
+        log.info("[KIWOOM-AUTH] issue new access token");
+        long start = System.nanoTime();
+        try {
+            KiwoomTokenResponse response = kiwoomAuthClient.issueAccessToken();
+            if (response == null || response.getToken() == null){
+                log.error("[KIWOOM-RESPONSE] token missing. code={} msg={}",
+                        response == null ? null : response.getReturnCode(),
+                        response == null ? null : response.getReturnMsg());
+                throw new BusinessException(ErrorCode.KIWOOM_TOKEN_ISSUE_FAILED);
+            }
+            log.info("[KIWOOM-RESPONSE] response code={} msg={}", response.getReturnCode(), response.getReturnMsg());
 
-        log.info("[KIWOOM-AUTH] token issued (expiresAt={})", expiresAt);
+            IssuedToken token = new IssuedToken(response.getToken(), parseExpiresDt(response.getExpiresDt()));
+            issueSuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.info("[KIWOOM-AUTH] token issued (expiresAt={})", token.expiresAt());
+            return token;
+        } catch (RuntimeException e) {
+            issueFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private double remainingSeconds(){
+        IssuedToken token = current;
+        if(token == null){
+            return 0;
+        }
+        return Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toSeconds());
     }
 
     private Instant parseExpiresDt(String expiresDt){
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
-        LocalDateTime localDateTime = LocalDateTime.parse(expiresDt, formatter);
-        return localDateTime.atZone(ZoneId.of("Asia/Seoul")).toInstant();
+        LocalDateTime localDateTime = LocalDateTime.parse(expiresDt, EXPIRES_DT_FORMAT);
+        return localDateTime.atZone(KST).toInstant();
+    }
+
+    private record IssuedToken(String value, Instant expiresAt) {
     }
 }
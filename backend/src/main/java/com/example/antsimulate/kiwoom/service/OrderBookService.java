@@ -0,0 +1,200 @@
+package com.example.antsimulate.kiwoom.service;
+
+import com.example.antsimulate.kiwoom.book.OrderBook;
+import com.example.antsimulate.kiwoom.dto.DepthResponse;
+import com.example.antsimulate.kiwoom.dto.KiwoomDepthDto;
+import com.example.antsimulate.kiwoom.dto.KiwoomQuoteDto;
+import com.example.antsimulate.kiwoom.symbol.SymbolDictionary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 실시간 호가(0D) 호가창 유지와 STOMP 전송 (/topic/depth/{symbol})
+ * - 종목마다 고정 깊이 OrderBook을 SymbolDictionary id 배열에 두고 호가 수신 시 제자리에서 갱신한다
+ *   (메모리는 levels × 호가를 받은 종목 수로 제한되고, 수신 한 건당 객체를 만들지 않는다)
+ * - conflation 구간마다 바뀐 단계만 diff로 보내고, 구독 직후에는 해당 세션에만 snapshot을 보낸다
+ * - 클라이언트는 snapshot을 적용한 뒤 seq가 그 이하인 diff는 버리고, seq가 건너뛰면 다시 구독해 snapshot을 받는다
+ * - 호가 토픽은 세션 송신 대기열에서 conflation 대상이 아니므로 diff가 중간에 버려지지 않는다
+ */
+@Slf4j
+@Service
+public class OrderBookService implements QuoteListener {
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final SymbolDictionary symbolDictionary;
+
+    // 특정 세션으로만 snapshot을 보내기 위해 브로커 대신 clientOutboundChannel 사용
+    private final MessageChannel clientOutboundChannel;
+    private final MessageConverter brokerMessageConverter;
+
+    private final int levels;
+
+    // 종목 id → 호가창 (첫 호가에 생성)
+    private final AtomicReferenceArray<BookSlot> slotsById;
+
+    // 이번 구간에 갱신된 슬롯 (슬롯당 최대 1번만 들어감)
+    private final ConcurrentLinkedQueue<BookSlot> dirtyBooks = new ConcurrentLinkedQueue<>();
+
+    private final Counter receivedCounter;
+    private final Counter sentCounter;
+
+    public OrderBookService(SimpMessagingTemplate simpMessagingTemplate,
+                            SymbolDictionary symbolDictionary,
+                            @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+                            @Qualifier("brokerMessageConverter") MessageConverter brokerMessageConverter,
+                            MeterRegistry meterRegistry,
+                            @Value("${kiwoom.depth.levels:10}") int levels) {
+        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.symbolDictionary = symbolDictionary;
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.brokerMessageConverter = brokerMessageConverter;
+        this.levels = levels;
+        this.slotsById = new AtomicReferenceArray<>(symbolDictionary.capacity());
+        this.receivedCounter = Counter.builder("kiwoom.depth.received")
+                .description("수신한 실시간 호가 수")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("kiwoom.depth.sent")
+                .description("STOMP로 전송한 호가 diff 수")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onQuote(KiwoomQuoteDto quote){
+    }
+
+    @Override
+    public void onDepth(KiwoomDepthDto depth){
+        int id = depth.getSymbolId();
+        if(id == SymbolDictionary.UNKNOWN){
+            log.debug("[DEPTH] skip (not in dictionary). symbol={}", depth.getSymbol());
+            return;
+        }
+
+        receivedCounter.increment();
+
+        BookSlot slot = slotsById.get(id);
+        if(slot == null){
+            slot = slotFor(id);
+        }
+
+        boolean becameDirty;
+        synchronized (slot) {
+            becameDirty = slot.book.apply(depth) && !slot.queued;
+            if(becameDirty){
+                slot.queued = true;
+            }
+        }
+
+        if(becameDirty){
+            dirtyBooks.offer(slot);
+        }
+    }
+
+    /**
+     * conflation 구간마다 바뀐 호가 단계를 diff로 전송
+     */
+    @Scheduled(fixedRateString = "${kiwoom.depth.conflation-window-ms:200}")
+    public void flush(){
+        BookSlot slot;
+        while((slot = dirtyBooks.poll()) != null){
+            DepthResponse diff;
+            synchronized (slot) {
+                slot.queued = false;
+                diff = slot.book.hasChanges() ? slot.book.publishDiff(slot.symbol) : null;
+            }
+            if(diff == null){
+                continue;
+            }
+
+            simpMessagingTemplate.convertAndSend(slot.destination, diff);
+            sentCounter.increment();
+            log.debug("[DEPTH] diff destination={}, seq={}", slot.destination, diff.seq());
+        }
+    }
+
+    /**
+     * /topic/depth/{symbol} 구독 직후 해당 세션에만 snapshot 전송
+     */
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event){
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        String symbol = QuoteTopics.depthSymbolOf(destination);
+        if(symbol == null){
+            return;
+        }
+
+        DepthResponse snapshot = getSnapshot(symbol);
+        if(snapshot == null){
+            log.debug("[DEPTH] no snapshot yet. symbol={}", symbol);
+            return;
+        }
+
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(accessor.getSessionId());
+        headers.setSubscriptionId(accessor.getSubscriptionId());
+        headers.setDestination(destination);
+        headers.setLeaveMutable(true);
+
+        Message<?> message = brokerMessageConverter.toMessage(snapshot, headers.getMessageHeaders());
+        if(message == null){
+            log.warn("[DEPTH] snapshot conversion failed. symbol={}", symbol);
+            return;
+        }
+        clientOutboundChannel.send(message);
+        log.debug("[DEPTH] snapshot sent. session={}, symbol={}, seq={}", accessor.getSessionId(), symbol, snapshot.seq());
+    }
+
+    /**
+     * 마지막으로 내보낸 시점의 전체 호가, 수신 이력이 없으면 null
+     */
+    public DepthResponse getSnapshot(String symbol){
+        int id = symbolDictionary.idOf(symbol);
+        BookSlot slot = id == SymbolDictionary.UNKNOWN ? null : slotsById.get(id);
+        if(slot == null){
+            return null;
+        }
+        synchronized (slot) {
+            return slot.book.snapshot(slot.symbol);
+        }
+    }
+
+    private BookSlot slotFor(int id){
+        String symbol = symbolDictionary.symbol(id);
+        BookSlot created = new BookSlot(symbol, QuoteTopics.depthDestination(symbol), new OrderBook(levels));
+        if(slotsById.compareAndSet(id, null, created)){
+            return created;
+        }
+        return slotsById.get(id);
+    }
+
+    private static final class BookSlot {
+        private final String symbol;
+        private final String destination;
+        private final OrderBook book;
+
+        // dirtyBooks에 들어가 있는지
+        private boolean queued;
+
+        private BookSlot(String symbol, String destination, OrderBook book) {
+            this.symbol = symbol;
+            this.destination = destination;
+            this.book = book;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.antsimulate.kiwoom.service;
+
+import com.example.antsimulate.domain.account.service.AccountExecutor;
+import com.example.antsimulate.domain.order.dto.OrderFill;
+import com.example.antsimulate.domain.order.entity.Orders;
+import com.example.antsimulate.domain.order.event.OrderChangedEvent;
+import com.example.antsimulate.domain.order.service.OrderService;
+import com.example.antsimulate.global.exception.BusinessException;
+import com.example.antsimulate.kiwoom.dto.KiwoomQuoteDto;
+import com.example.antsimulate.kiwoom.order.OrderQueues;
+import com.example.antsimulate.kiwoom.order.RestingOrder;
+import com.example.antsimulate.kiwoom.symbol.SymbolDictionary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 실시간 체결가 기반 주문 매칭
+ * - 종목 id마다 OrderQueues(지정가별 대기열)를 두고, 틱마다 체결가가 닿은 주문만 꺼낸다
+ * - 틱 경로는 대기열에서 빼서 체결 큐에 넣는 것까지만 하고, DB 반영은 settle 스케줄러가 모아서 한다
+ *   (배치를 계좌별로 나눠 각 계좌 mailbox에 넣으므로 계좌끼리는 병렬, 같은 계좌의 매매/취소와는 순서대로 반영된다)
+ *   (계좌 하나가 롤백되면 그 계좌는 체결 하나씩 다시 반영해, 매번 실패하는 체결 하나가 나머지를 막지 않게 한다)
+ * - 시작 시 DB의 미체결 주문으로 대기열을 다시 만들고, 접수/취소는 커밋 직후 반영한다
+ *   (체결됐지만 반영 전에 내려가면 그 주문은 미체결로 남아 재시작 후 다시 대기한다)
+ * - 미체결 주문 하나당 SubscriptionService 참조 하나를 잡아 키움 등록을 유지한다
+ */
+@Slf4j
+@Service
+public class OrderMatchingEngine implements QuoteListener {
+    // DB 반영이 이 횟수만큼 실패한 체결은 버리고 주문을 취소한다 (취소도 실패하면 대기열에 되돌린다)
+    private static final int MAX_SETTLE_ATTEMPTS = 5;
+
+    private final OrderService orderService;
+    private final AccountExecutor accountExecutor;
+    private final SubscriptionService subscriptionService;
+    private final SymbolDictionary symbolDictionary;
+
+    private final int settleBatchSize;
+
+    // 종목 id → 주문 대기열 (첫 주문 접수 시 생성)
+    private final AtomicReferenceArray<OrderQueues> queuesById;
+
+    // 대기열에 올라간 미체결 주문 (체결과 취소 중 먼저 빼는 쪽이 처리)
+    private final Map<Long, RestingOrder> openById = new ConcurrentHashMap<>();
+
+    // 체결됐지만 아직 DB 반영 전인 주문
+    private final ConcurrentLinkedQueue<Matched> matched = new ConcurrentLinkedQueue<>();
+
+    private final Counter filledCounter;
+
+    public OrderMatchingEngine(OrderService orderService,
+                               AccountExecutor accountExecutor,
+                               SubscriptionService subscriptionService,
+                               SymbolDictionary symbolDictionary,
+                               MeterRegistry meterRegistry,
+                               @Value("${kiwoom.order.settle-batch-size:500}") int settleBatchSize) {
+        this.orderService = orderService;
+        this.accountExecutor = accountExecutor;
+        this.subscriptionService = subscriptionService;
+        this.symbolDictionary = symbolDictionary;
+        this.settleBatchSize = settleBatchSize;
+        this.queuesById = new AtomicReferenceArray<>(symbolDictionary.capacity());
+
+        Gauge.builder("kiwoom.order.open", openById, Map::size)
+                .description("매칭 대기열에 올라간 미체결 주문 수")
+                .register(meterRegistry);
+        this.filledCounter = Counter.builder("kiwoom.order.filled")
+                .description("DB에 반영한 체결 수")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onQuote(KiwoomQuoteDto quote){
+        int id = quote.getSymbolId();
+        if(id == SymbolDictionary.UNKNOWN){
+            return;
+        }
+        OrderQueues queues = queuesById.get(id);
+        long price = quote.getPrice();
+        if(queues == null || !queues.mayMatch(price)){
+            return;
+        }
+
+        List<RestingOrder> crossed = new ArrayList<>(2);
+        synchronized (queues) {
+            queues.pollCrossed(price, crossed);
+        }
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        for(RestingOrder order : crossed){
+            if(openById.remove(order.orderId()) != null){
+                matched.offer(new Matched(order, new OrderFill(order.orderId(), price, now), 0));
+            }
+        }
+    }
+
+    /**
+     * 체결을 모아 계좌별 트랜잭션으로 DB에 반영
+     */
+    @Scheduled(fixedDelayString = "${kiwoom.order.settle-interval-ms:200}")
+    public void settle(){
+        List<Matched> batch = new ArrayList<>();
+        Matched m;
+        while(!matched.isEmpty()){
+            batch.clear();
+            while(batch.size() < settleBatchSize && (m = matched.poll()) != null){
+                batch.add(m);
+            }
+            if(!settleBatch(batch)){
+                return;
+            }
+        }
+    }
+
+    /**
+     * 시작 시 DB의 미체결 주문으로 대기열 재구성
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load(){
+        List<Orders> orders = orderService.getOpenOrders();
+        for(Orders order : orders){
+            add(new RestingOrder(order.getId(), order.getAccount().getUser().getId(), order.getStockItems().getStockSymbol(),
+                    order.getSide(), order.getLimitPrice()));
+        }
+        log.info("[ORDER] queues rebuilt with {} open orders", openById.size());
+    }
+
+    /**
+     * 주문 접수/취소를 커밋 직후 대기열에 반영
+     */
+    @TransactionalEventListener
+    public void onChanged(OrderChangedEvent event){
+        if(event.open()){
+            add(new RestingOrder(event.orderId(), event.userId(), event.stockSymbol(), event.side(), event.limitPrice()));
+        } else {
+            remove(event.orderId());
+        }
+    }
+
+    private boolean settleBatch(List<Matched> batch){
+        Map<Long, List<Matched>> byUser = byUser(batch);
+        Deque<Settling> pending = new ArrayDeque<>(byUser.size());
+        for(List<Matched> group : byUser.values()){
+            pending.add(submit(group));
+        }
+
+        int settled = 0;
+        boolean settledAll = true;
+        Settling s;
+        while((s = pending.poll()) != null){
+            try {
+                settled += s.result().join();
+            } catch (CompletionException e) {
+                if(s.group().size() > 1){
+                    // 체결 하나 때문에 계좌 전체가 롤백됐을 수 있으므로 하나씩 다시 반영
+                    log.warn("[ORDER] settle failed, retry one by one. user={}, fills={}",
+                            s.group().get(0).order().userId(), s.group().size(), e.getCause());
+                    for(Matched m : s.group()){
+                        pending.add(submit(List.of(m)));
+                    }
+                } else {
+                    settledAll = false;
+                    failed(s.group().get(0), e.getCause());
+                }
+                continue;
+            }
+            for(Matched m : s.group()){
+                subscriptionService.unsubscribe(m.order().stockSymbol());
+            }
+        }
+        filledCounter.increment(settled);
+        log.info("[ORDER] settled {} fills for {} accounts ({} skipped as cancelled or failed)",
+                settled, byUser.size(), batch.size() - settled);
+        return settledAll;
+    }
+
+    private Settling submit(List<Matched> group){
+        List<OrderFill> fills = new ArrayList<>(group.size());
+        for(Matched m : group){
+            fills.add(m.fill());
+        }
+        return new Settling(group, accountExecutor.submit(group.get(0).order().userId(), () -> orderService.settleFills(fills)));
+    }
+
+    /**
+     * 반영에 실패한 체결 하나는 다음 settle에서 다시 하고, 계속 실패하면 주문을 취소한다
+     * - 대기열에 되돌리면 가격이 그대로인 한 다음 틱에 또 체결되어 같은 실패를 되풀이한다
+     */
+    private void failed(Matched m, Throwable cause){
+        if(m.attempts() + 1 < MAX_SETTLE_ATTEMPTS){
+            log.warn("[ORDER] settle failed. order={}, attempt={}", m.order().orderId(), m.attempts() + 1, cause);
+            matched.offer(new Matched(m.order(), m.fill(), m.attempts() + 1));
+            return;
+        }
+        try {
+            accountExecutor.execute(m.order().userId(), () -> orderService.cancelUnsettled(m.order().orderId(), m.fill().filledAt()));
+        } catch (RuntimeException e) {
+            // 취소도 못 하면 DB 자체가 안 되는 상황이므로 미체결로 되돌려 둔다
+            log.error("[ORDER] settle failed {} times and cancel failed, order back to queue. order={}, price={}",
+                    MAX_SETTLE_ATTEMPTS, m.order().orderId(), m.fill().price(), e);
+            restore(m.order());
+            return;
+        }
+        log.error("[ORDER] settle failed {} times, order cancelled. order={}, price={}",
+                MAX_SETTLE_ATTEMPTS, m.order().orderId(), m.fill().price(), cause);
+        subscriptionService.unsubscribe(m.order().stockSymbol());
+    }
+
+    private static Map<Long, List<Matched>> byUser(List<Matched> batch){
+        Map<Long, List<Matched>> groups = new LinkedHashMap<>();
+        for(Matched m : batch){
+            groups.computeIfAbsent(m.order().userId(), k -> new ArrayList<>()).add(m);
+        }
+        return groups;
+    }
+
+    /**
+     * 반영하지 못한 체결의 주문을 대기열에 되돌린다 (구독 참조는 그대로 잡고 있다)
+     * - 그 사이 취소가 커밋됐으면 다음 체결 때 settleFills가 건너뛰고 구독을 돌려준다
+     */
+    private void restore(RestingOrder order){
+        if(openById.putIfAbsent(order.orderId(), order) != null){
+            return;
+        }
+        OrderQueues queues = queuesById.get(symbolDictionary.idOf(order.stockSymbol()));
+        synchronized (queues) {
+            queues.add(order);
+        }
+    }
+
+    private void add(RestingOrder order){
+        if(openById.putIfAbsent(order.orderId(), order) != null){
+            return;
+        }
+        // 구독에서 사전 id가 부여되므로 먼저 구독한다
+        try {
+            subscriptionService.subscribe(order.stockSymbol());
+        } catch (BusinessException e) {
+            openById.remove(order.orderId());
+            log.warn("[ORDER] not queued. order={}, symbol={}, reason={}", order.orderId(), order.stockSymbol(), e.getErrorCode());
+            return;
+        }
+        int id = symbolDictionary.idOf(order.stockSymbol());
+        OrderQueues queues = queuesById.get(id);
+        if(queues == null){
+            queuesById.compareAndSet(id, null, new OrderQueues());
+            queues = queuesById.get(id);
+        }
+        synchronized (queues) {
+            queues.add(order);
+        }
+    }
+
+    private void remove(Long orderId){
+        RestingOrder order = openById.remove(orderId);
+        if(order == null){
+            // 이미 체결되어 settle 쪽에서 정리된다 (DB에서 취소가 먼저 커밋됐으므로 그 체결은 버려진다)
+            return;
+        }
+        OrderQueues queues = queuesById.get(symbolDictionary.idOf(order.stockSymbol()));
+        synchronized (queues) {
+            queues.remove(order);
+        }
+        subscriptionService.unsubscribe(order.stockSymbol());
+    }
+
+    private record Matched(RestingOrder order, OrderFill fill, int attempts) {
+    }
+
+    private record Settling(List<Matched> group, CompletableFuture<Integer> result) {
+    }
+}
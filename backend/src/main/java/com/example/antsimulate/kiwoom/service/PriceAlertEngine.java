@@ -0,0 +1,262 @@
+package com.example.antsimulate.kiwoom.service;
+
+import com.example.antsimulate.domain.alert.dto.PriceAlertTriggeredResponse;
+import com.example.antsimulate.domain.alert.entity.PriceAlert;
+import com.example.antsimulate.domain.alert.event.PriceAlertChangedEvent;
+import com.example.antsimulate.domain.alert.service.PriceAlertService;
+import com.example.antsimulate.global.exception.BusinessException;
+import com.example.antsimulate.kiwoom.alert.AlertThresholds;
+import com.example.antsimulate.kiwoom.alert.PriceAlertEntry;
+import com.example.antsimulate.kiwoom.dto.KiwoomQuoteDto;
+import com.example.antsimulate.kiwoom.symbol.SymbolDictionary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 가격 알림 실시간 평가 (/user/queue/alerts)
+ * - 종목 id마다 AlertThresholds(상향/하향 정렬 인덱스)를 두고, 틱마다 넘어선 알림만 꺼낸다
+ * - 틱 경로는 인덱스에서 빼는 것까지만 하고, DB 발동 처리와 전송은 dispatch 스케줄러가 한다
+ * - 시작 시 DB의 활성 알림으로 인덱스를 다시 만들고, 등록/삭제는 커밋 직후 반영한다
+ * - 활성 알림 하나당 SubscriptionService 참조 하나를 잡아 키움 등록을 유지한다
+ * - 알림은 한 번 발동하면 TRIGGERED로 바뀌고 인덱스에서 빠진다
+ * - DB 발동 처리가 실패하면 다음 dispatch에서 다시 시도하고, MAX_DISPATCH_ATTEMPTS를 넘기면 restore-backoff-ms 동안 빼 두었다가
+ *   인덱스에 되돌린다 (바로 되돌리면 가격이 그대로인 동안 틱마다 다시 발동해 실패를 반복하므로)
+ */
+@Slf4j
+@Service
+public class PriceAlertEngine implements QuoteListener {
+    public static final String DESTINATION = "/queue/alerts";
+
+    private static final int MAX_DISPATCH_ATTEMPTS = 5;
+
+    private final PriceAlertService priceAlertService;
+    private final SubscriptionService subscriptionService;
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final SymbolDictionary symbolDictionary;
+    private final long restoreBackoffMs;
+
+    // 종목 id → 알림 인덱스 (첫 알림 등록 시 생성)
+    private final AtomicReferenceArray<AlertThresholds> thresholdsById;
+
+    // 인덱스에 올라간 활성 알림 (발동과 삭제 중 먼저 빼는 쪽이 처리)
+    private final Map<Long, PriceAlertEntry> activeById = new ConcurrentHashMap<>();
+
+    // 발동했지만 아직 DB 반영/전송 전인 알림
+    private final ConcurrentLinkedQueue<Triggered> triggered = new ConcurrentLinkedQueue<>();
+
+    // 발동 처리에 계속 실패해 인덱스에서 빼 둔 알림 (구독 참조는 유지, 되돌리기와 삭제 중 먼저 빼는 쪽이 처리)
+    private final Map<Long, Parked> parkedById = new ConcurrentHashMap<>();
+
+    private final Counter triggeredCounter;
+
+    public PriceAlertEngine(PriceAlertService priceAlertService,
+                            SubscriptionService subscriptionService,
+                            SimpMessagingTemplate simpMessagingTemplate,
+                            SymbolDictionary symbolDictionary,
+                            MeterRegistry meterRegistry,
+                            @Value("${kiwoom.alert.restore-backoff-ms:60000}") long restoreBackoffMs) {
+        this.priceAlertService = priceAlertService;
+        this.subscriptionService = subscriptionService;
+        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.symbolDictionary = symbolDictionary;
+        this.restoreBackoffMs = restoreBackoffMs;
+        this.thresholdsById = new AtomicReferenceArray<>(symbolDictionary.capacity());
+
+        Gauge.builder("kiwoom.alert.active", activeById, Map::size)
+                .description("실시간 인덱스에 올라간 활성 가격 알림 수")
+                .register(meterRegistry);
+        Gauge.builder("kiwoom.alert.parked", parkedById, Map::size)
+                .description("발동 처리에 계속 실패해 인덱스에서 빼 둔 가격 알림 수")
+                .register(meterRegistry);
+        this.triggeredCounter = Counter.builder("kiwoom.alert.triggered")
+                .description("발동한 가격 알림 수")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onQuote(KiwoomQuoteDto quote){
+        int id = quote.getSymbolId();
+        if(id == SymbolDictionary.UNKNOWN){
+            return;
+        }
+        AlertThresholds thresholds = thresholdsById.get(id);
+        long price = quote.getPrice();
+        if(thresholds == null || !thresholds.mayTrigger(price)){
+            return;
+        }
+
+        List<PriceAlertEntry> crossed = new ArrayList<>(2);
+        synchronized (thresholds) {
+            thresholds.pollCrossed(price, crossed);
+        }
+        for(PriceAlertEntry entry : crossed){
+            if(activeById.remove(entry.alertId()) != null){
+                triggered.offer(new Triggered(entry, price, quote.getTime(), 0));
+            }
+        }
+    }
+
+    /**
+     * 발동한 알림을 DB에 반영하고 사용자에게 전송
+     */
+    @Scheduled(fixedDelayString = "${kiwoom.alert.dispatch-interval-ms:100}")
+    public void dispatch(){
+        restoreParked(System.currentTimeMillis());
+
+        List<Triggered> retries = new ArrayList<>();
+        Triggered t;
+        while((t = triggered.poll()) != null){
+            PriceAlertEntry entry = t.entry();
+            boolean marked;
+            try {
+                marked = priceAlertService.markTriggered(entry.alertId(), t.price());
+            } catch (Exception e) {
+                // 발동 처리 전이므로 구독은 유지한 채 다시 시도하거나 잠시 빼 두었다가 인덱스로 되돌린다
+                if(t.attempts() + 1 < MAX_DISPATCH_ATTEMPTS){
+                    log.warn("[ALERT] mark triggered failed, retry next dispatch. alert={}, attempt={}",
+                            entry.alertId(), t.attempts() + 1, e);
+                    retries.add(new Triggered(entry, t.price(), t.time(), t.attempts() + 1));
+                } else {
+                    log.error("[ALERT] mark triggered failed {} times, back to index in {}ms. alert={}",
+                            MAX_DISPATCH_ATTEMPTS, restoreBackoffMs, entry.alertId(), e);
+                    parkedById.put(entry.alertId(), new Parked(entry, System.currentTimeMillis() + restoreBackoffMs));
+                }
+                continue;
+            }
+
+            try {
+                if(marked){
+                    simpMessagingTemplate.convertAndSendToUser(String.valueOf(entry.userId()), DESTINATION,
+                            new PriceAlertTriggeredResponse(entry.alertId(), entry.stockSymbol(),
+                                    entry.direction().name(), entry.targetPrice(), t.price(), t.time()));
+                    triggeredCounter.increment();
+                    log.info("[ALERT] triggered. alert={}, user={}, symbol={}, {} {} at {}", entry.alertId(), entry.userId(),
+                            entry.stockSymbol(), entry.direction(), entry.targetPrice(), t.price());
+                }
+            } catch (Exception e) {
+                log.error("[ALERT] send failed. alert={}", entry.alertId(), e);
+            } finally {
+                subscriptionService.unsubscribe(entry.stockSymbol());
+            }
+        }
+        retries.forEach(triggered::offer);
+    }
+
+    /**
+     * 시작 시 DB의 활성 알림으로 인덱스 재구성
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load(){
+        List<PriceAlert> alerts = priceAlertService.getActivePriceAlerts();
+        for(PriceAlert alert : alerts){
+            add(new PriceAlertEntry(alert.getId(), alert.getUser().getId(), alert.getStockItems().getStockSymbol(),
+                    alert.getDirection(), alert.getTargetPrice()));
+        }
+        log.info("[ALERT] index rebuilt with {} active alerts", activeById.size());
+    }
+
+    /**
+     * 알림 등록/삭제를 커밋 직후 인덱스에 반영
+     */
+    @TransactionalEventListener
+    public void onChanged(PriceAlertChangedEvent event){
+        if(event.active()){
+            add(new PriceAlertEntry(event.alertId(), event.userId(), event.stockSymbol(),
+                    event.direction(), event.targetPrice()));
+        } else {
+            remove(event.alertId());
+        }
+    }
+
+    private void add(PriceAlertEntry entry){
+        if(activeById.putIfAbsent(entry.alertId(), entry) != null){
+            return;
+        }
+        // 구독에서 사전 id가 부여되므로 먼저 구독한다
+        try {
+            subscriptionService.subscribe(entry.stockSymbol());
+        } catch (BusinessException e) {
+            activeById.remove(entry.alertId());
+            log.warn("[ALERT] not indexed. alert={}, symbol={}, reason={}", entry.alertId(), entry.stockSymbol(), e.getErrorCode());
+            return;
+        }
+        int id = symbolDictionary.idOf(entry.stockSymbol());
+        AlertThresholds thresholds = thresholdsById.get(id);
+        if(thresholds == null){
+            thresholdsById.compareAndSet(id, null, new AlertThresholds());
+            thresholds = thresholdsById.get(id);
+        }
+        synchronized (thresholds) {
+            thresholds.add(entry);
+        }
+    }
+
+    /**
+     * 빼 둔 지 restore-backoff-ms가 지난 알림을 인덱스에 되돌린다 (구독 참조는 그대로 잡고 있다)
+     * - 활성 목록에 먼저 올린 뒤 빼 둔 목록에서 지워, 그 사이 삭제되면 remove 쪽이 활성 목록에서 정리한다
+     */
+    private void restoreParked(long nowMs){
+        for(Parked parked : parkedById.values()){
+            if(parked.restoreAtMs() > nowMs){
+                continue;
+            }
+            PriceAlertEntry entry = parked.entry();
+            if(activeById.putIfAbsent(entry.alertId(), entry) != null){
+                // 그 사이 다시 등록돼 구독 참조를 따로 잡았으므로 빼 둔 쪽 참조는 놓는다
+                if(parkedById.remove(entry.alertId(), parked)){
+                    subscriptionService.unsubscribe(entry.stockSymbol());
+                }
+                continue;
+            }
+            if(!parkedById.remove(entry.alertId(), parked)){
+                // 되돌리기 전에 삭제됨
+                activeById.remove(entry.alertId(), entry);
+                continue;
+            }
+            AlertThresholds thresholds = thresholdsById.get(symbolDictionary.idOf(entry.stockSymbol()));
+            synchronized (thresholds) {
+                thresholds.add(entry);
+            }
+            log.info("[ALERT] back to index. alert={}", entry.alertId());
+        }
+    }
+
+    private void remove(Long alertId){
+        PriceAlertEntry entry = activeById.remove(alertId);
+        if(entry == null){
+            Parked parked = parkedById.remove(alertId);
+            if(parked != null){
+                subscriptionService.unsubscribe(parked.entry().stockSymbol());
+            }
+            // 그 밖에는 이미 발동해 dispatch 쪽에서 정리된다
+            return;
+        }
+        AlertThresholds thresholds = thresholdsById.get(symbolDictionary.idOf(entry.stockSymbol()));
+        synchronized (thresholds) {
+            thresholds.remove(entry);
+        }
+        subscriptionService.unsubscribe(entry.stockSymbol());
+    }
+
+    private record Triggered(PriceAlertEntry entry, long price, String time, int attempts) {
+    }
+
+    private record Parked(PriceAlertEntry entry, long restoreAtMs) {
+    }
+}
@@ -1,17 +1,95 @@
 package com.example.antsimulate.kiwoom.service;
 
 import com.example.antsimulate.kiwoom.dto.KiwoomQuoteDto;
-import lombok.RequiredArgsConstructor;
+import com.example.antsimulate.kiwoom.message.QuoteFrame;
+import com.example.antsimulate.kiwoom.pipeline.PipelineLatencyRecorder;
+import com.example.antsimulate.kiwoom.pipeline.PipelineStage;
+import com.example.antsimulate.kiwoom.pipeline.SymbolTier;
+import com.example.antsimulate.kiwoom.symbol.SymbolDictionary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 실시간 시세 STOMP 브로드캐스트
+ * - 종목별로 conflation 구간 동안 마지막 시세만 남기고, 스케줄러가 구간마다 한 번씩 전송
+ * - 상류 틱이 아무리 빨라도 종목당 송신 프레임 수는 구간당 1개로 제한된다
+ * - 종목 슬롯은 전송 여부와 관계없이 마지막 시세를 계속 들고 있으므로 최신값 캐시로도 쓰인다
+ * - 슬롯은 SymbolDictionary id로 인덱싱하는 배열에 두고, 목적지는 사전이 미리 만든 문자열을 쓴다
+ * - 종목별 틱 수로 HOT / WARM / COLD 구간을 나눠 conflation / dispatch / end_to_end 지연을 구간별로 기록한다
+ * - JSON 본문과 함께 원본 값(QuoteFrame)을 내부 헤더로 실어, compact 구독자는 세션 송신 단계에서 따로 인코딩한다
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
-public class QuoteBroadcastService {
+public class QuoteBroadcastService implements QuoteListener {
     private final SimpMessagingTemplate simpMessagingTemplate;
+    private final PipelineLatencyRecorder latencyRecorder;
+    private final SymbolDictionary symbolDictionary;
+
+    // 초당 틱 수가 이 이상이면 HOT, warm 이상이면 WARM, 나머지는 COLD
+    private final double hotTicksPerSec;
+    private final double warmTicksPerSec;
+
+    // 직전 구간 분류 시점 (분류 스케줄러 전용)
+    private long lastClassifiedNanos = System.nanoTime();
+
+    // 종목 id → 최신 시세 슬롯 (틱마다 갱신되는 최신값 캐시, 첫 틱에 생성)
+    private final AtomicReferenceArray<ConflatedQuote> slotsById;
+
+    // 이번 구간에 갱신된 슬롯 (슬롯당 최대 1번만 들어감)
+    private final ConcurrentLinkedQueue<ConflatedQuote> dirtyQuotes = new ConcurrentLinkedQueue<>();
+
+    // flush 스레드 전용 송신 DTO
+    private final KiwoomQuoteDto outbound = new KiwoomQuoteDto();
+
+    private final Counter receivedCounter;
+    private final Counter conflatedCounter;
+    private final Counter sentCounter;
 
+    public QuoteBroadcastService(SimpMessagingTemplate simpMessagingTemplate,
+                                 PipelineLatencyRecorder latencyRecorder,
+                                 SymbolDictionary symbolDictionary,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${kiwoom.latency.hot-ticks-per-sec:5}") double hotTicksPerSec,
+                                 @Value("${kiwoom.latency.warm-ticks-per-sec:0.5}") double warmTicksPerSec) {
+        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.latencyRecorder = latencyRecorder;
+        this.symbolDictionary = symbolDictionary;
+        this.slotsById = new AtomicReferenceArray<>(symbolDictionary.capacity());
+        this.hotTicksPerSec = hotTicksPerSec;
+        this.warmTicksPerSec = warmTicksPerSec;
+        this.receivedCounter = Counter.builder("kiwoom.quote.received")
+                .description("수신한 실시간 시세 수")
+                .register(meterRegistry);
+        this.conflatedCounter = Counter.builder("kiwoom.quote.conflated")
+                .description("conflation으로 덮어써져 전송되지 않은 시세 수")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("kiwoom.quote.sent")
+                .description("STOMP로 전송한 시세 수")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onQuote(KiwoomQuoteDto quote){
+        broadcast(quote);
+    }
+
+    /**
+     * 시세를 종목 슬롯에 기록 (전송은 flush에서)
+     * - dto는 파서가 재사용하는 객체이므로 값만 복사한다
+     */
     public void broadcast(KiwoomQuoteDto dto){
         String symbol = dto.getSymbol();
         if(symbol == null || symbol.isBlank()) {
@@ -19,8 +97,176 @@ public class QuoteBroadcastService {
             return;
         }
 
-        String destination = "/topic/" + symbol;
-        simpMessagingTemplate.convertAndSend(destination, dto);
-        log.debug("[QUOTE] broadcast destination={}, dto={}", destination, dto);
+        int id = dto.getSymbolId();
+        if(id == SymbolDictionary.UNKNOWN){
+            // 사전은 SubscriptionService만 늘린다 (stock_items에 없는 종목은 버린다)
+            id = symbolDictionary.idOf(symbol);
+            if(id == SymbolDictionary.UNKNOWN){
+                log.debug("[QUOTE] skip broadcast (not in dictionary). symbol={}", symbol);
+                return;
+            }
+        }
+
+        receivedCounter.increment();
+
+        ConflatedQuote slot = slotsById.get(id);
+        if(slot == null){
+            slot = slotFor(id);
+        }
+
+        boolean becameDirty;
+        synchronized (slot) {
+            becameDirty = !slot.dirty;
+            slot.price = dto.getPrice();
+            slot.volume = dto.getVolume();
+            slot.time = dto.getTime();
+            slot.receivedNanos = dto.getReceivedNanos();
+            if(becameDirty){
+                slot.dirtySinceNanos = System.nanoTime();
+            }
+            slot.ticks++;
+            slot.dirty = true;
+        }
+
+        if(becameDirty){
+            dirtyQuotes.offer(slot);
+        } else {
+            conflatedCounter.increment();
+        }
+    }
+
+    /**
+     * conflation 구간마다 갱신된 종목의 마지막 시세를 전송
+     */
+    @Scheduled(fixedRateString = "${kiwoom.quote.conflation-window-ms:100}")
+    public void flush(){
+        ConflatedQuote slot;
+        while((slot = dirtyQuotes.poll()) != null){
+            long pickedNanos = System.nanoTime();
+            long dirtySinceNanos;
+            long receivedNanos;
+            SymbolTier tier;
+            synchronized (slot) {
+                outbound.setSymbol(slot.symbol);
+                outbound.setPrice(slot.price);
+                outbound.setVolume(slot.volume);
+                outbound.setTime(slot.time);
+                dirtySinceNanos = slot.dirtySinceNanos;
+                receivedNanos = slot.receivedNanos;
+                tier = slot.tier;
+                slot.dirty = false;
+            }
+
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            headers.setHeader(QuoteFrame.HEADER, QuoteFrame.of(outbound.getPrice(), outbound.getVolume(), outbound.getTime()));
+            headers.setLeaveMutable(true);
+
+            simpMessagingTemplate.convertAndSend(slot.destination, outbound, headers.getMessageHeaders());
+            sentCounter.increment();
+
+            long sentNanos = System.nanoTime();
+            latencyRecorder.record(PipelineStage.CONFLATION, tier, pickedNanos - dirtySinceNanos);
+            latencyRecorder.record(PipelineStage.DISPATCH, tier, sentNanos - pickedNanos);
+            if(receivedNanos != 0){
+                latencyRecorder.record(PipelineStage.END_TO_END, tier, sentNanos - receivedNanos);
+            }
+            log.debug("[QUOTE] broadcast destination={}, price={}", slot.destination, outbound.getPrice());
+        }
+    }
+
+    /**
+     * 직전 분류 이후 종목별 틱 수로 HOT / WARM / COLD 재분류
+     */
+    @Scheduled(fixedRateString = "${kiwoom.latency.tier-interval-ms:10000}")
+    public void classifyTiers(){
+        long now = System.nanoTime();
+        double elapsedSec = (now - lastClassifiedNanos) / 1_000_000_000.0;
+        lastClassifiedNanos = now;
+        if(elapsedSec <= 0){
+            return;
+        }
+
+        for(int id = 0, size = symbolDictionary.size(); id < size; id++){
+            ConflatedQuote slot = slotsById.get(id);
+            if(slot == null){
+                continue;
+            }
+            synchronized (slot) {
+                double ticksPerSec = slot.ticks / elapsedSec;
+                slot.tier = ticksPerSec >= hotTicksPerSec ? SymbolTier.HOT
+                        : ticksPerSec >= warmTicksPerSec ? SymbolTier.WARM
+                        : SymbolTier.COLD;
+                slot.ticks = 0;
+            }
+        }
+    }
+
+    /**
+     * 종목의 마지막 시세 사본, 한 번도 수신하지 못했으면 null
+     */
+    public KiwoomQuoteDto getLastQuote(String symbol){
+        return getLastQuote(symbolDictionary.idOf(symbol));
+    }
+
+    /**
+     * 종목 id의 마지막 시세 사본, 한 번도 수신하지 못했으면 null
+     */
+    public KiwoomQuoteDto getLastQuote(int id){
+        ConflatedQuote slot = id == SymbolDictionary.UNKNOWN ? null : slotsById.get(id);
+        if(slot == null){
+            return null;
+        }
+        KiwoomQuoteDto copy = new KiwoomQuoteDto();
+        synchronized (slot) {
+            copy.setSymbol(slot.symbol);
+            copy.setPrice(slot.price);
+            copy.setVolume(slot.volume);
+            copy.setTime(slot.time);
+        }
+        return copy;
+    }
+
+    /**
+     * 여러 종목의 마지막 시세 (수신 이력이 없는 종목은 제외)
+     */
+    public List<KiwoomQuoteDto> getLastQuotes(Collection<String> symbols){
+        List<KiwoomQuoteDto> result = new ArrayList<>(symbols.size());
+        for(String symbol : symbols){
+            KiwoomQuoteDto quote = getLastQuote(symbol);
+            if(quote != null){
+                result.add(quote);
+            }
+        }
+        return result;
+    }
+
+    private ConflatedQuote slotFor(int id){
+        ConflatedQuote created = new ConflatedQuote(symbolDictionary.symbol(id), symbolDictionary.destination(id));
+        if(slotsById.compareAndSet(id, null, created)){
+            return created;
+        }
+        return slotsById.get(id);
+    }
+
+    private static final class ConflatedQuote {
+        private final String symbol;
+        private final String destination;
+        private long price;
+        private long volume;
+        private String time;
+        private boolean dirty;
+
+        // 마지막 틱 수신 시점 / 이번 구간에 처음 갱신된 시점 (System.nanoTime)
+        private long receivedNanos;
+        private long dirtySinceNanos;
+
+        // 직전 분류 이후 틱 수와 현재 구간
+        private long ticks;
+        private SymbolTier tier = SymbolTier.COLD;
+
+        private ConflatedQuote(String symbol, String destination) {
+            this.symbol = symbol;
+            this.destination = destination;
+        }
     }
 }
@@ -0,0 +1,19 @@
+package com.example.antsimulate.kiwoom.service;
+
+import com.example.antsimulate.kiwoom.dto.KiwoomDepthDto;
+import com.example.antsimulate.kiwoom.dto.KiwoomQuoteDto;
+
+/**
+ * 업스트림 연결이 파싱한 실시간 체결 시세 / 호가를 받는 쪽
+ * - 링 버퍼 소비 스레드에서 호출되므로 오래 걸리는 작업을 하지 않는다
+ * - quote / depth는 파서가 재사용하는 객체이므로 필요한 값만 복사해 둔다
+ */
+public interface QuoteListener {
+    void onQuote(KiwoomQuoteDto quote);
+
+    /**
+     * 호가잔량(0D) 수신, 호가가 필요 없는 리스너는 구현하지 않는다
+     */
+    default void onDepth(KiwoomDepthDto depth) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.antsimulate.kiwoom.service;
+
+import com.example.antsimulate.kiwoom.dto.KiwoomQuoteDto;
+import com.example.antsimulate.kiwoom.message.QuoteFrame;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+/**
+ * 신규 구독자에게 마지막 시세를 즉시 전송
+ * - /topic/{symbol} SUBSCRIBE 시점에 최신값 캐시에 값이 있으면 해당 세션에만 스냅샷 프레임을 보낸다
+ * - 브로커를 거치지 않고 clientOutboundChannel로 바로 보내므로 같은 토픽의 다른 구독자는 받지 않는다
+ * - 스냅샷과 직후 틱의 도착 순서는 보장되지 않으므로 클라이언트는 time으로 오래된 값을 거른다
+ * - 세션 송신 대기열(SessionOutboundPolicy)이 채널 전송을 가로채 false가 반환되므로 템플릿 대신 채널에 직접 보낸다
+ */
+@Slf4j
+@Service
+public class QuoteSnapshotService {
+    private final QuoteBroadcastService quoteBroadcastService;
+
+    // 특정 세션으로만 보내기 위해 브로커 대신 clientOutboundChannel 사용
+    private final MessageChannel clientOutboundChannel;
+    private final MessageConverter brokerMessageConverter;
+
+    public QuoteSnapshotService(QuoteBroadcastService quoteBroadcastService,
+                                @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+                                @Qualifier("brokerMessageConverter") MessageConverter brokerMessageConverter) {
+        this.quoteBroadcastService = quoteBroadcastService;
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.brokerMessageConverter = brokerMessageConverter;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event){
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        String symbol = QuoteTopics.symbolOf(destination);
+        if(symbol == null){
+            return;
+        }
+
+        KiwoomQuoteDto quote = quoteBroadcastService.getLastQuote(symbol);
+        if(quote == null){
+            log.debug("[QUOTE] no snapshot yet. symbol={}", symbol);
+            return;
+        }
+
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(accessor.getSessionId());
+        headers.setSubscriptionId(accessor.getSubscriptionId());
+        headers.setDestination(destination);
+        headers.setHeader(QuoteFrame.HEADER, QuoteFrame.of(quote.getPrice(), quote.getVolume(), quote.getTime()));
+        headers.setLeaveMutable(true);
+
+        Message<?> message = brokerMessageConverter.toMessage(quote, headers.getMessageHeaders());
+        if(message == null){
+            log.warn("[QUOTE] snapshot conversion failed. symbol={}", symbol);
+            return;
+        }
+        clientOutboundChannel.send(message);
+        log.debug("[QUOTE] snapshot sent. session={}, symbol={}, price={}", accessor.getSessionId(), symbol, quote.getPrice());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.antsimulate.kiwoom.service;
+
+/**
+ * 실시간 시세 STOMP 토픽 규칙 (체결 /topic/{symbol}, 호가 /topic/depth/{symbol})
+ */
+public final class QuoteTopics {
+    public static final String PREFIX = "/topic/";
+    public static final String DEPTH_PREFIX = "/topic/depth/";
+
+    private QuoteTopics() {
+    }
+
+    public static String destination(String symbol) {
+        return PREFIX + symbol;
+    }
+
+    /**
+     * /topic/{symbol} 형태일 때만 종목코드를 반환 (/topic/bar/... 등은 null)
+     */
+    public static String symbolOf(String destination) {
+        if (destination == null || !destination.startsWith(PREFIX)) {
+            return null;
+        }
+        String symbol = destination.substring(PREFIX.length());
+        if (symbol.isEmpty() || symbol.indexOf('/') >= 0) {
+            return null;
+        }
+        return symbol;
+    }
+
+    public static String depthDestination(String symbol) {
+        return DEPTH_PREFIX + symbol;
+    }
+
+    /**
+     * /topic/depth/{symbol} 형태일 때만 종목코드를 반환
+     */
+    public static String depthSymbolOf(String destination) {
+        if (destination == null || !destination.startsWith(DEPTH_PREFIX)) {
+            return null;
+        }
+        String symbol = destination.substring(DEPTH_PREFIX.length());
+        if (symbol.isEmpty() || symbol.indexOf('/') >= 0) {
+            return null;
+        }
+        return symbol;
+    }
+}
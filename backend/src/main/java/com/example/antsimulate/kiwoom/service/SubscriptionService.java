@@ -1,57 +1,439 @@
 package com.example.antsimulate.kiwoom.service;
 
+import com.example.antsimulate.domain.stock.repository.StockItemsRepository;
+import com.example.antsimulate.global.exception.BusinessException;
+import com.example.antsimulate.global.exception.ErrorCode;
+import com.example.antsimulate.kiwoom.client.KiwoomConnectionPool;
+import com.example.antsimulate.kiwoom.symbol.SymbolDictionary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
 
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ScheduledFuture;
 
+/**
+ * 종목별 구독 참조 수를 관리하고 키움 REG / REMOVE 시점을 결정
+ * - STOMP 세션의 /topic/{symbol}, /topic/depth/{symbol} SUBSCRIBE / UNSUBSCRIBE / DISCONNECT 이벤트로 참조 수를 맞춘다
+ *   (탭을 그냥 닫아도 DISCONNECT에서 정리된다)
+ * - REST(POST/DELETE /api/subscription/{symbol}) 구독도 같은 참조 수에 합산한다
+ * - 마지막 구독자가 떠나도 linger-ms 동안은 등록을 유지하고, 그 사이 다시 구독되면 REMOVE/REG를 생략한다
+ * - 구독 변경은 틱에 비해 드물므로 모든 상태 변경은 이 객체의 락 하나로 직렬화한다
+ * - 참조 수와 예약된 REMOVE는 SymbolDictionary id로 인덱싱하는 배열에 둔다
+ * - 사전에 없는 종목은 stock_items에 있을 때만 id를 부여한다 (임의 문자열이 영구 id를 차지하지 않도록)
+ *   이 DB 조회는 락을 잡기 전에 하고, 없는 종목은 unknown-symbol-ttl-ms 동안 기억해 다시 조회하지 않는다
+ * - 호가(0D)는 /topic/depth/{symbol} 구독과 호가 REST 조회 lease를 별도 참조 수로 세어 1 이상인 동안만 등록한다
+ *   (호가 참조도 체결 참조를 하나 잡으므로 0D는 항상 0B 등록 위에 얹힌다)
+ */
 @Slf4j
 @Service
 public class SubscriptionService {
-    private final ConcurrentHashMap<String, AtomicInteger> refCountBySymbol = new ConcurrentHashMap<>();
+    // 기억해 두는 없는 종목 수 상한 (넘으면 비우고 다시 쌓는다)
+    private static final int MAX_UNKNOWN_SYMBOLS = 10_000;
+
+    private final KiwoomConnectionPool kiwoomConnectionPool;
+    private final TaskScheduler taskScheduler;
+    private final SymbolDictionary symbolDictionary;
+    private final StockItemsRepository stockItemsRepository;
+    private final long lingerMs;
+    private final boolean depthEnabled;
+    private final long depthLeaseMs;
+    private final long unknownSymbolTtlMs;
+
+    // stock_items에 없던 종목 → 다시 조회할 시각 (epoch ms)
+    private final Map<String, Long> unknownSymbols = new ConcurrentHashMap<>();
+
+    // 종목 id → 참조 수 (0이 되면 linger 후 제거)
+    private final int[] refCounts;
+
+    // 종목 id → 호가 참조 수 (0이 되면 바로 0D만 해제)
+    private final int[] depthRefCounts;
+
+    // 종목 id → 호가 REST lease 만료 시각 (epoch ms), lease가 없으면 0
+    private final long[] depthLeaseUntil;
+
+    // 키움에 등록된 종목 수 (linger 중 포함)
+    private int registeredCount;
+
+    // 세션 → (subscriptionId → 구독 토픽)
+    private final Map<String, Map<String, Topic>> subscriptionsBySession = new HashMap<>();
+
+    // linger 중인 종목 id → 예약된 REMOVE
+    private final ScheduledFuture<?>[] pendingRemoval;
+    private int lingeringCount;
+
+    private final Counter regCounter;
+    private final Counter removeCounter;
+    private final Counter lingerRescuedCounter;
+    private final Counter depthRegCounter;
+
+    /**
+     * 연결 풀은 QuoteListener 목록(WatchlistService 포함)을 주입받으므로 지연 주입으로 순환 참조를 끊는다
+     */
+    public SubscriptionService(@Lazy KiwoomConnectionPool kiwoomConnectionPool,
+                               TaskScheduler taskScheduler,
+                               SymbolDictionary symbolDictionary,
+                               StockItemsRepository stockItemsRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${kiwoom.subscription.linger-ms:30000}") long lingerMs,
+                               @Value("${kiwoom.depth.enabled:true}") boolean depthEnabled,
+                               @Value("${kiwoom.depth.rest-lease-ms:30000}") long depthLeaseMs,
+                               @Value("${kiwoom.subscription.unknown-symbol-ttl-ms:60000}") long unknownSymbolTtlMs) {
+        this.kiwoomConnectionPool = kiwoomConnectionPool;
+        this.taskScheduler = taskScheduler;
+        this.symbolDictionary = symbolDictionary;
+        this.stockItemsRepository = stockItemsRepository;
+        this.lingerMs = lingerMs;
+        this.depthEnabled = depthEnabled;
+        this.depthLeaseMs = depthLeaseMs;
+        this.unknownSymbolTtlMs = unknownSymbolTtlMs;
+        this.refCounts = new int[symbolDictionary.capacity()];
+        this.depthRefCounts = new int[symbolDictionary.capacity()];
+        this.depthLeaseUntil = new long[symbolDictionary.capacity()];
+        this.pendingRemoval = new ScheduledFuture<?>[symbolDictionary.capacity()];
+
+        Gauge.builder("kiwoom.subscription.symbols", this, SubscriptionService::registeredSymbolCount)
+                .description("키움에 등록된 종목 수 (linger 중 포함)")
+                .register(meterRegistry);
+        Gauge.builder("kiwoom.subscription.lingering", this, SubscriptionService::lingeringSymbolCount)
+                .description("구독자가 없어 제거 대기 중인 종목 수")
+                .register(meterRegistry);
+        this.regCounter = Counter.builder("kiwoom.subscription.reg")
+                .description("키움 REG 요청 수")
+                .register(meterRegistry);
+        this.removeCounter = Counter.builder("kiwoom.subscription.remove")
+                .description("키움 REMOVE 요청 수")
+                .register(meterRegistry);
+        this.lingerRescuedCounter = Counter.builder("kiwoom.subscription.linger.rescued")
+                .description("linger 중 다시 구독되어 REMOVE/REG를 생략한 횟수")
+                .register(meterRegistry);
+        this.depthRegCounter = Counter.builder("kiwoom.subscription.depth.reg")
+                .description("키움 호가(0D) REG 요청 수")
+                .register(meterRegistry);
+    }
 
     /**
      * 종목 구독을 증가시키고 이번 호출이 최초 구독인지 여부를 반환
+     * - 최초 구독이면 키움 REG까지 요청한다
      **/
     public boolean subscribe(String symbol){
-        AtomicInteger counter = refCountBySymbol.computeIfAbsent(symbol, k -> new AtomicInteger(0));
-        int after = counter.incrementAndGet();
+        admit(symbol);
+        return subscribeAdmitted(symbol);
+    }
 
-        if(after == 1){
-            log.info("subscribe first -> REG needed. symbol={}", symbol);
-            return true;
+    private synchronized boolean subscribeAdmitted(String symbol){
+        int id = resolve(symbol);
+
+        int after = ++refCounts[id];
+        if(after > 1){
+            log.debug("subscribe -> no REG. symbol={}, refCount={}", symbol, after);
+            return false;
         }
 
-        log.debug("subscribe -> no REG. symbol={}, refCount={}", symbol, after);
-        return false;
+        ScheduledFuture<?> pending = pendingRemoval[id];
+        if(pending != null){
+            pendingRemoval[id] = null;
+            lingeringCount--;
+            pending.cancel(false);
+            lingerRescuedCounter.increment();
+            log.debug("subscribe during linger -> keep REG. symbol={}", symbol);
+            return false;
+        }
+
+        log.info("subscribe first -> REG. symbol={}", symbol);
+        try {
+            kiwoomConnectionPool.register(symbol);
+        } catch (BusinessException e) {
+            // 풀이 가득 차 등록하지 못했으면 참조 수도 되돌린다
+            refCounts[id]--;
+            throw e;
+        }
+        registeredCount++;
+        regCounter.increment();
+        return true;
     }
 
     /**
      * 종목 구독을 감소시키고 이번 호출이 마지막 구독 해제인지 여부를 반환
+     * - 마지막 구독이면 linger-ms 뒤 키움 REMOVE를 예약한다
      **/
-    public boolean unsubscribe(String symbol){
-        AtomicInteger counter = refCountBySymbol.get(symbol);
-        if(counter == null) {
+    public synchronized boolean unsubscribe(String symbol){
+        int id = symbolDictionary.idOf(symbol);
+        if(id == SymbolDictionary.UNKNOWN || refCounts[id] == 0) {
             log.debug("unsubscribe ignored (no counter). symbol={}", symbol);
             return false;
         }
 
-        int after = counter.decrementAndGet();
+        int after = --refCounts[id];
+        if(after > 0){
+            log.debug("unsubscribe -> no REMOVE. symbol={}, refCount={}", symbol, after);
+            return false;
+        }
+
+        log.info("unsubscribe last -> REMOVE in {}ms. symbol={}", lingerMs, symbol);
+        if(lingerMs <= 0){
+            remove(id);
+        } else {
+            pendingRemoval[id] = taskScheduler.schedule(() -> expire(id), Instant.now().plusMillis(lingerMs));
+            lingeringCount++;
+        }
+        return true;
+    }
+
+    /**
+     * 호가 구독 증가 (체결 참조도 함께 하나 잡는다)
+     * - 최초 호가 구독이면 키움에 0D REG를 요청한다
+     */
+    public void subscribeDepth(String symbol){
+        admit(symbol);
+        subscribeDepthAdmitted(symbol);
+    }
+
+    private synchronized void subscribeDepthAdmitted(String symbol){
+        subscribeAdmitted(symbol);
+        if(!depthEnabled){
+            return;
+        }
+        int id = symbolDictionary.idOf(symbol);
+        if(++depthRefCounts[id] == 1){
+            log.info("depth subscribe first -> REG 0D. symbol={}", symbol);
+            kiwoomConnectionPool.registerDepth(symbol);
+            depthRegCounter.increment();
+        }
+    }
+
+    /**
+     * 호가 구독 감소, 마지막 호가 구독이면 0D만 바로 해제하고 체결 참조는 unsubscribe 규칙을 따른다
+     */
+    public synchronized void unsubscribeDepth(String symbol){
+        int id = symbolDictionary.idOf(symbol);
+        if(depthEnabled && id != SymbolDictionary.UNKNOWN && depthRefCounts[id] > 0 && --depthRefCounts[id] == 0){
+            log.info("depth unsubscribe last -> REMOVE 0D. symbol={}", symbol);
+            kiwoomConnectionPool.removeDepth(symbol);
+        }
+        unsubscribe(symbol);
+    }
+
+    /**
+     * 호가 REST 조회 시 rest-lease-ms 동안 호가 구독을 유지 (조회할 때마다 만료 시각만 연장)
+     */
+    public void touchDepth(String symbol){
+        admit(symbol);
+        touchDepthAdmitted(symbol);
+    }
+
+    private synchronized void touchDepthAdmitted(String symbol){
+        int id = resolve(symbol);
+        boolean first = depthLeaseUntil[id] == 0;
+        if(first){
+            subscribeDepthAdmitted(symbol);
+        }
+        depthLeaseUntil[id] = System.currentTimeMillis() + depthLeaseMs;
+        if(first){
+            taskScheduler.schedule(() -> expireDepthLease(id), Instant.ofEpochMilli(depthLeaseUntil[id]));
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event){
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Topic topic = Topic.of(accessor.getDestination());
+        if(topic == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null){
+            return;
+        }
+        try {
+            admit(topic.symbol());
+        } catch (BusinessException e) {
+            log.warn("subscribe rejected. symbol={}, session={}, reason={}",
+                    topic.symbol(), accessor.getSessionId(), e.getErrorCode());
+            return;
+        }
+
+        synchronized (this) {
+            Topic previous = subscriptionsBySession
+                    .computeIfAbsent(accessor.getSessionId(), k -> new HashMap<>())
+                    .put(accessor.getSubscriptionId(), topic);
+            if(previous != null){
+                // 같은 subscriptionId 재사용이면 이전 구독을 먼저 정리
+                release(previous);
+            }
+            try {
+                acquire(topic);
+            } catch (BusinessException e) {
+                // 참조 수에 들어가지 않았으므로 이후 UNSUBSCRIBE/DISCONNECT에서 빼지 않도록 매핑도 지운다
+                Map<String, Topic> subscriptions = subscriptionsBySession.get(accessor.getSessionId());
+                subscriptions.remove(accessor.getSubscriptionId());
+                if(subscriptions.isEmpty()){
+                    subscriptionsBySession.remove(accessor.getSessionId());
+                }
+                log.warn("subscribe rejected. symbol={}, session={}, reason={}",
+                        topic.symbol(), accessor.getSessionId(), e.getErrorCode());
+            }
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event){
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        if(accessor.getSessionId() == null || accessor.getSubscriptionId() == null){
+            return;
+        }
+
+        synchronized (this) {
+            Map<String, Topic> subscriptions = subscriptionsBySession.get(accessor.getSessionId());
+            if(subscriptions == null){
+                return;
+            }
+            Topic topic = subscriptions.remove(accessor.getSubscriptionId());
+            if(subscriptions.isEmpty()){
+                subscriptionsBySession.remove(accessor.getSessionId());
+            }
+            if(topic != null){
+                release(topic);
+            }
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event){
+        synchronized (this) {
+            Map<String, Topic> subscriptions = subscriptionsBySession.remove(event.getSessionId());
+            if(subscriptions == null){
+                return;
+            }
+            log.debug("session disconnected -> release {} subscriptions. session={}", subscriptions.size(), event.getSessionId());
+            for(Topic topic : subscriptions.values()){
+                release(topic);
+            }
+        }
+    }
+
+    /**
+     * 사전에 없는 종목이면 stock_items에 있을 때만 사전에 추가 (락 밖에서 호출)
+     * - 사전은 시작 시 stock_items 전체로 채워지므로 DB 조회는 이후 추가된 종목에서만 일어난다
+     * - 없는 종목은 unknown-symbol-ttl-ms 동안 DB를 다시 보지 않고 거절한다
+     */
+    private void admit(String symbol){
+        if(symbolDictionary.idOf(symbol) != SymbolDictionary.UNKNOWN){
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Long retryAt = unknownSymbols.get(symbol);
+        if(retryAt != null && retryAt > now){
+            throw new BusinessException(ErrorCode.STOCK_ITEMS_NOT_FOUND);
+        }
+        if(stockItemsRepository.findByStockSymbol(symbol).isEmpty()){
+            log.debug("subscribe rejected (unknown symbol). symbol={}", symbol);
+            if(unknownSymbols.size() >= MAX_UNKNOWN_SYMBOLS){
+                unknownSymbols.clear();
+            }
+            unknownSymbols.put(symbol, now + unknownSymbolTtlMs);
+            throw new BusinessException(ErrorCode.STOCK_ITEMS_NOT_FOUND);
+        }
+        unknownSymbols.remove(symbol);
+        if(symbolDictionary.register(symbol) == SymbolDictionary.UNKNOWN){
+            throw new BusinessException(ErrorCode.SYMBOL_DICTIONARY_FULL);
+        }
+    }
+
+    /**
+     * 종목 id (admit을 거친 종목만 오므로 사전에 없으면 거절)
+     */
+    private int resolve(String symbol){
+        int id = symbolDictionary.idOf(symbol);
+        if(id == SymbolDictionary.UNKNOWN){
+            throw new BusinessException(ErrorCode.STOCK_ITEMS_NOT_FOUND);
+        }
+        return id;
+    }
+
+    private void acquire(Topic topic){
+        if(topic.depth()){
+            subscribeDepthAdmitted(topic.symbol());
+        } else {
+            subscribeAdmitted(topic.symbol());
+        }
+    }
 
-        if(after == 0){
-            refCountBySymbol.remove(symbol);
-            log.info("unsubscribe last -> REMOVE needed. symbol={}", symbol);
-            return true;
+    private void release(Topic topic){
+        if(topic.depth()){
+            unsubscribeDepth(topic.symbol());
+        } else {
+            unsubscribe(topic.symbol());
         }
+    }
+
+    /**
+     * 호가 REST lease가 끝났을 때 그 사이 연장됐으면 다시 예약, 아니면 호가 구독 해제
+     */
+    private synchronized void expireDepthLease(int id){
+        long until = depthLeaseUntil[id];
+        if(until == 0){
+            return;
+        }
+        if(System.currentTimeMillis() < until){
+            taskScheduler.schedule(() -> expireDepthLease(id), Instant.ofEpochMilli(until));
+            return;
+        }
+        depthLeaseUntil[id] = 0;
+        unsubscribeDepth(symbolDictionary.symbol(id));
+    }
 
-        if(after < 0) {
-            refCountBySymbol.remove(symbol);
-            log.warn("unsubscribe underflow -> force remove. symbol={}, refCount={}", symbol, after);
-            return true;
+    /**
+     * linger가 끝났을 때 여전히 구독자가 없으면 REMOVE
+     */
+    private synchronized void expire(int id){
+        if(pendingRemoval[id] == null){
+            return;
+        }
+        pendingRemoval[id] = null;
+        lingeringCount--;
+        if(refCounts[id] > 0){
+            return;
         }
+        remove(id);
+    }
 
-        log.debug("unsubscreive -> no REMOVE. symbol={}, refCount={}", symbol, after);
-        return false;
+    private void remove(int id){
+        String symbol = symbolDictionary.symbol(id);
+        registeredCount--;
+        kiwoomConnectionPool.remove(symbol);
+        removeCounter.increment();
+        log.info("REMOVE. symbol={}", symbol);
+    }
+
+    private synchronized int registeredSymbolCount(){
+        return registeredCount;
+    }
+
+    private synchronized int lingeringSymbolCount(){
+        return lingeringCount;
+    }
+
+    /**
+     * STOMP 구독 하나가 잡은 참조 (체결 /topic/{symbol} 또는 호가 /topic/depth/{symbol})
+     */
+    private record Topic(String symbol, boolean depth) {
+        static Topic of(String destination){
+            String symbol = QuoteTopics.symbolOf(destination);
+            if(symbol != null){
+                return new Topic(symbol, false);
+            }
+            symbol = QuoteTopics.depthSymbolOf(destination);
+            return symbol == null ? null : new Topic(symbol, true);
+        }
     }
 }
@@ -0,0 +1,305 @@
+package com.example.antsimulate.kiwoom.service;
+
+import com.example.antsimulate.domain.stock.entity.LikeStockItems;
+import com.example.antsimulate.domain.stock.entity.StockItems;
+import com.example.antsimulate.domain.stock.event.LikeStockItemsToggledEvent;
+import com.example.antsimulate.domain.stock.repository.LikeStockItemsRepository;
+import com.example.antsimulate.global.websocket.StompUserPrincipal;
+import com.example.antsimulate.kiwoom.dto.KiwoomQuoteDto;
+import com.example.antsimulate.kiwoom.symbol.SymbolDictionary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 관심종목 실시간 피드 (/user/queue/watchlist)
+ * - 사용자의 like_stock_items 종목 중 flush 구간 동안 틱이 들어온 종목을 한 프레임(시세 배열)으로 묶어 보낸다
+ * - 첫 구독 시 관심종목 전체의 마지막 시세를 한 번 보내고, 관심종목 추가/삭제는 커밋 직후 바로 반영한다
+ * - 감시 중인 종목은 SubscriptionService 참조 수에 포함되어 키움 등록이 유지된다
+ * - 국내(KR) 종목만 대상 (키움 실시간 시세가 있는 종목)
+ * - 구독 변경은 드물므로 감시 상태는 이 객체의 락 하나로 직렬화하고, 틱 경로는 종목 id 배열 조회와 플래그 기록만 한다
+ */
+@Slf4j
+@Service
+public class WatchlistService implements QuoteListener {
+    public static final String DESTINATION = "/queue/watchlist";
+    private static final String SUBSCRIBE_DESTINATION = "/user" + DESTINATION;
+    private static final String DOMESTIC_COUNTRY = "KR";
+
+    private final LikeStockItemsRepository likeStockItemsRepository;
+    private final SubscriptionService subscriptionService;
+    private final QuoteBroadcastService quoteBroadcastService;
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final SymbolDictionary symbolDictionary;
+
+    // 종목 id → 감시 중인 사용자 (변경 시 통째로 교체하는 불변 Set, 감시자가 없으면 null)
+    private final AtomicReferenceArray<Set<Long>> watchersById;
+
+    // 종목 id → 이번 flush 구간에 틱이 들어왔는지 (1/0), 하나라도 있으면 anyDirty
+    private final AtomicIntegerArray dirty;
+    private volatile boolean anyDirty;
+
+    // 사용자 → 감시 상태 (this 락)
+    private final Map<Long, Watcher> watchers = new HashMap<>();
+
+    // 세션 → (subscriptionId → 사용자) (this 락)
+    private final Map<String, Map<String, Long>> subscriptionsBySession = new HashMap<>();
+
+    public WatchlistService(LikeStockItemsRepository likeStockItemsRepository,
+                            SubscriptionService subscriptionService,
+                            QuoteBroadcastService quoteBroadcastService,
+                            SimpMessagingTemplate simpMessagingTemplate,
+                            SymbolDictionary symbolDictionary) {
+        this.likeStockItemsRepository = likeStockItemsRepository;
+        this.subscriptionService = subscriptionService;
+        this.quoteBroadcastService = quoteBroadcastService;
+        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.symbolDictionary = symbolDictionary;
+        this.watchersById = new AtomicReferenceArray<>(symbolDictionary.capacity());
+        this.dirty = new AtomicIntegerArray(symbolDictionary.capacity());
+    }
+
+    @Override
+    public void onQuote(KiwoomQuoteDto quote){
+        int id = quote.getSymbolId();
+        if(id == SymbolDictionary.UNKNOWN || watchersById.get(id) == null){
+            return;
+        }
+        if(dirty.get(id) == 0 && dirty.compareAndSet(id, 0, 1)){
+            anyDirty = true;
+        }
+    }
+
+    /**
+     * 구간 동안 갱신된 종목을 사용자별로 모아 한 프레임씩 전송
+     */
+    @Scheduled(fixedRateString = "${kiwoom.watchlist.flush-interval-ms:200}")
+    public void flush(){
+        if(!anyDirty){
+            return;
+        }
+        anyDirty = false;
+
+        Map<Long, List<KiwoomQuoteDto>> frames = new HashMap<>();
+        for(int id = 0, size = symbolDictionary.size(); id < size; id++){
+            if(dirty.get(id) == 0){
+                continue;
+            }
+            dirty.set(id, 0);
+
+            Set<Long> users = watchersById.get(id);
+            KiwoomQuoteDto quote = users == null ? null : quoteBroadcastService.getLastQuote(id);
+            if(quote == null){
+                continue;
+            }
+            for(Long userId : users){
+                frames.computeIfAbsent(userId, k -> new ArrayList<>()).add(quote);
+            }
+        }
+
+        frames.forEach(this::send);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event){
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        if(!SUBSCRIBE_DESTINATION.equals(accessor.getDestination())){
+            return;
+        }
+        Long userId = userIdOf(event.getUser());
+        if(userId == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null){
+            log.debug("[WATCHLIST] subscribe without user. session={}", accessor.getSessionId());
+            return;
+        }
+
+        boolean first;
+        synchronized (this) {
+            subscriptionsBySession
+                    .computeIfAbsent(accessor.getSessionId(), k -> new HashMap<>())
+                    .put(accessor.getSubscriptionId(), userId);
+            Watcher watcher = watchers.computeIfAbsent(userId, k -> new Watcher());
+            first = watcher.subscriptions++ == 0;
+        }
+
+        if(first){
+            // DB 조회는 락 밖에서 하고, 그 사이 구독이 모두 해제됐으면 반영하지 않는다
+            List<String> symbols = loadSymbols(userId);
+            synchronized (this) {
+                Watcher watcher = watchers.get(userId);
+                if(watcher != null){
+                    symbols.forEach(symbol -> watch(userId, watcher, symbol));
+                }
+            }
+            log.info("[WATCHLIST] user={} watching {} symbols", userId, symbols.size());
+        }
+
+        sendSnapshot(userId);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event){
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        if(accessor.getSessionId() == null || accessor.getSubscriptionId() == null){
+            return;
+        }
+
+        synchronized (this) {
+            Map<String, Long> subscriptions = subscriptionsBySession.get(accessor.getSessionId());
+            if(subscriptions == null){
+                return;
+            }
+            Long userId = subscriptions.remove(accessor.getSubscriptionId());
+            if(subscriptions.isEmpty()){
+                subscriptionsBySession.remove(accessor.getSessionId());
+            }
+            if(userId != null){
+                release(userId);
+            }
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event){
+        synchronized (this) {
+            Map<String, Long> subscriptions = subscriptionsBySession.remove(event.getSessionId());
+            if(subscriptions == null){
+                return;
+            }
+            subscriptions.values().forEach(this::release);
+        }
+    }
+
+    /**
+     * 관심종목 추가/삭제를 감시 중인 사용자에게 바로 반영
+     */
+    @TransactionalEventListener
+    public void onLikeToggled(LikeStockItemsToggledEvent event){
+        if(!DOMESTIC_COUNTRY.equals(event.stockCountry())){
+            return;
+        }
+
+        synchronized (this) {
+            Watcher watcher = watchers.get(event.userId());
+            if(watcher == null){
+                return;
+            }
+            if(event.liked()){
+                watch(event.userId(), watcher, event.stockSymbol());
+            } else {
+                unwatch(event.userId(), watcher, event.stockSymbol());
+            }
+        }
+        log.debug("[WATCHLIST] user={} {} symbol={}", event.userId(), event.liked() ? "added" : "removed", event.stockSymbol());
+
+        if(event.liked()){
+            KiwoomQuoteDto quote = quoteBroadcastService.getLastQuote(event.stockSymbol());
+            if(quote != null){
+                send(event.userId(), List.of(quote));
+            }
+        }
+    }
+
+    private List<String> loadSymbols(Long userId){
+        return likeStockItemsRepository.findByUserId(userId)
+                .stream()
+                .map(LikeStockItems::getStockItems)
+                .filter(stockItems -> DOMESTIC_COUNTRY.equals(stockItems.getStockCountry()))
+                .map(StockItems::getStockSymbol)
+                .toList();
+    }
+
+    /**
+     * 관심종목 전체의 마지막 시세 (구독 직후 화면 채우기용)
+     */
+    private void sendSnapshot(Long userId){
+        List<String> symbols;
+        synchronized (this) {
+            Watcher watcher = watchers.get(userId);
+            if(watcher == null || watcher.symbols.isEmpty()){
+                return;
+            }
+            symbols = List.copyOf(watcher.symbols);
+        }
+        List<KiwoomQuoteDto> quotes = quoteBroadcastService.getLastQuotes(symbols);
+        if(!quotes.isEmpty()){
+            send(userId, quotes);
+        }
+    }
+
+    private void send(Long userId, List<KiwoomQuoteDto> quotes){
+        simpMessagingTemplate.convertAndSendToUser(String.valueOf(userId), DESTINATION, quotes);
+    }
+
+    /**
+     * 사용자의 watchlist 구독 하나 해제, 마지막이면 감시 종료 (this 락 안에서 호출)
+     */
+    private void release(Long userId){
+        Watcher watcher = watchers.get(userId);
+        if(watcher == null || --watcher.subscriptions > 0){
+            return;
+        }
+        watchers.remove(userId);
+        for(String symbol : List.copyOf(watcher.symbols)){
+            unwatch(userId, watcher, symbol);
+        }
+        log.info("[WATCHLIST] user={} stopped watching", userId);
+    }
+
+    private void watch(Long userId, Watcher watcher, String symbol){
+        if(watcher.symbols.contains(symbol)){
+            return;
+        }
+        // 구독에서 사전 id가 부여되므로 먼저 구독한다
+        subscriptionService.subscribe(symbol);
+        watcher.symbols.add(symbol);
+        int id = symbolDictionary.idOf(symbol);
+        Set<Long> users = new HashSet<>(watchersOf(id));
+        users.add(userId);
+        watchersById.set(id, Set.copyOf(users));
+    }
+
+    private void unwatch(Long userId, Watcher watcher, String symbol){
+        if(!watcher.symbols.remove(symbol)){
+            return;
+        }
+        int id = symbolDictionary.idOf(symbol);
+        Set<Long> users = new HashSet<>(watchersOf(id));
+        users.remove(userId);
+        watchersById.set(id, users.isEmpty() ? null : Set.copyOf(users));
+        subscriptionService.unsubscribe(symbol);
+    }
+
+    private Set<Long> watchersOf(int id){
+        Set<Long> users = watchersById.get(id);
+        return users == null ? Set.of() : users;
+    }
+
+    private static Long userIdOf(Principal principal){
+        if(principal instanceof StompUserPrincipal user){
+            return user.userId();
+        }
+        return null;
+    }
+
+    private static final class Watcher {
+        private final Set<String> symbols = new HashSet<>();
+        private int subscriptions;
+    }
+}
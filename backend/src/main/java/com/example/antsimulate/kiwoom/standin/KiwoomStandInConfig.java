@@ -0,0 +1,30 @@
+package com.example.antsimulate.kiwoom.standin;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * 키움 대역 서버 (kiwoom.stand-in.enabled=true 일 때만)
+ * - 실제 키움과 같은 경로 구조로 노출하므로 설정만 바꿔 백엔드를 붙일 수 있다
+ *   kiwoom.base-url: http://localhost:8080/stand-in/kiwoom
+ *   kiwoom.ws-url: ws://localhost:8080/stand-in/kiwoom/api/dostk/websocket
+ */
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "kiwoom.stand-in", name = "enabled", havingValue = "true")
+public class KiwoomStandInConfig implements WebSocketConfigurer {
+    public static final String BASE_PATH = "/stand-in/kiwoom";
+
+    private final KiwoomStandInHandler kiwoomStandInHandler;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry){
+        registry.addHandler(kiwoomStandInHandler, BASE_PATH + "/api/dostk/websocket")
+                .setAllowedOriginPatterns("*");
+    }
+}
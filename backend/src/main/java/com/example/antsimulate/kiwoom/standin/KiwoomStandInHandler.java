@@ -0,0 +1,273 @@
+package com.example.antsimulate.kiwoom.standin;
+
+import com.example.antsimulate.kiwoom.journal.KiwoomJournalReader;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 키움 WebSocket 대역 서버
+ * - LOGIN / REG / REMOVE 요청에 return_code 0으로 응답하고, 주기적으로 PING을 보낸다
+ * - LOGIN 성공한 세션마다 저널(KiwoomFrameJournal)에 기록된 REAL 프레임을 원래 간격대로 재생한다
+ *   speed: 1x(원래 속도), Nx(N배속), max(대기 없이 최대 속도)
+ * - 세션이 REG 한 종목이 들어 있는 프레임만 보낸다
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "kiwoom.stand-in", name = "enabled", havingValue = "true")
+public class KiwoomStandInHandler extends TextWebSocketHandler {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ConcurrentHashMap<String, StandInSession> sessions = new ConcurrentHashMap<>();
+
+    @Value("${kiwoom.stand-in.replay-file:}")
+    private String replayFile;
+
+    @Value("${kiwoom.stand-in.speed:1x}")
+    private String speed;
+
+    @Value("${kiwoom.stand-in.loop:true}")
+    private boolean loop;
+
+    // 재생할 REAL 프레임 (저널 순서)
+    private List<ReplayFrame> frames = List.of();
+
+    // 배속, 0이면 대기 없이 전송
+    private double speedFactor;
+
+    @PostConstruct
+    void init() throws IOException {
+        speedFactor = parseSpeed(speed);
+
+        if(replayFile == null || replayFile.isBlank()){
+            log.warn("[KIWOOM-STAND-IN] no replay-file - protocol only");
+            return;
+        }
+
+        Path file = Path.of(replayFile);
+        if(!Files.exists(file)){
+            log.warn("[KIWOOM-STAND-IN] replay-file not found: {}", file);
+            return;
+        }
+
+        List<ReplayFrame> loaded = new ArrayList<>();
+        long[] firstNanos = {-1};
+        KiwoomJournalReader.read(file, (receivedEpochNanos, frame) -> {
+            Set<String> symbols = realSymbols(frame);
+            if(symbols == null){
+                return;
+            }
+            if(firstNanos[0] < 0){
+                firstNanos[0] = receivedEpochNanos;
+            }
+            loaded.add(new ReplayFrame(receivedEpochNanos - firstNanos[0], frame, symbols));
+        });
+        frames = List.copyOf(loaded);
+
+        log.info("[KIWOOM-STAND-IN] loaded {} REAL frames from {} (speed={}, loop={})", frames.size(), file, speed, loop);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session){
+        sessions.put(session.getId(), new StandInSession(session));
+        log.info("[KIWOOM-STAND-IN] session opened. id={}", session.getId());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        StandInSession standIn = sessions.get(session.getId());
+        if(standIn == null){
+            return;
+        }
+
+        JsonNode root = objectMapper.readTree(message.getPayload());
+        String trnm = root.path("trnm").asText();
+
+        switch (trnm){
+            case "LOGIN" -> {
+                standIn.send(reply("LOGIN"));
+                standIn.startReplay();
+            }
+            case "REG" -> {
+                forEachItem(root, standIn.symbols::add);
+                standIn.send(reply("REG"));
+            }
+            case "REMOVE" -> {
+                forEachItem(root, standIn.symbols::remove);
+                standIn.send(reply("REMOVE"));
+            }
+            case "PING" -> log.trace("[KIWOOM-STAND-IN] pong. id={}", session.getId());
+            default -> log.debug("[KIWOOM-STAND-IN] unknown trnm={}", trnm);
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status){
+        StandInSession standIn = sessions.remove(session.getId());
+        if(standIn != null){
+            standIn.stopReplay();
+        }
+        log.info("[KIWOOM-STAND-IN] session closed. id={}, status={}", session.getId(), status);
+    }
+
+    /**
+     * 연결 유지 확인 (키움과 같이 서버가 PING을 보내고 클라이언트가 그대로 돌려준다)
+     */
+    @Scheduled(fixedRateString = "${kiwoom.stand-in.ping-interval-ms:10000}")
+    public void ping(){
+        for(StandInSession standIn : sessions.values()){
+            standIn.send("{\"trnm\":\"PING\"}");
+        }
+    }
+
+    private String reply(String trnm){
+        return "{\"trnm\":\"" + trnm + "\",\"return_code\":0,\"return_msg\":\"정상적으로 처리되었습니다\"}";
+    }
+
+    private void forEachItem(JsonNode root, Consumer<String> action){
+        for(JsonNode data : root.path("data")){
+            for(JsonNode item : data.path("item")){
+                action.accept(item.asText());
+            }
+        }
+    }
+
+    /**
+     * REAL 프레임이면 들어 있는 종목 목록, 아니면 null
+     */
+    private Set<String> realSymbols(String frame){
+        try {
+            JsonNode root = objectMapper.readTree(frame);
+            if(!"REAL".equals(root.path("trnm").asText())){
+                return null;
+            }
+            Set<String> symbols = new HashSet<>();
+            for(JsonNode data : root.path("data")){
+                symbols.add(data.path("item").asText());
+            }
+            return Set.copyOf(symbols);
+        } catch (IOException e) {
+            log.warn("[KIWOOM-STAND-IN] skip malformed frame");
+            return null;
+        }
+    }
+
+    private static double parseSpeed(String speed){
+        String value = speed.trim().toLowerCase(Locale.ROOT);
+        if(value.equals("max")){
+            return 0;
+        }
+        if(value.endsWith("x")){
+            value = value.substring(0, value.length() - 1);
+        }
+        double factor = Double.parseDouble(value);
+        if(factor <= 0){
+            throw new IllegalArgumentException("kiwoom.stand-in.speed must be positive or max: " + speed);
+        }
+        return factor;
+    }
+
+    private record ReplayFrame(long offsetNanos, String text, Set<String> symbols) {
+    }
+
+    private final class StandInSession {
+        private final WebSocketSession session;
+        private final Set<String> symbols = ConcurrentHashMap.newKeySet();
+
+        // 재생 스레드가 가상 스레드라 synchronized 대신 락 사용 (캐리어 스레드 고정 방지)
+        private final ReentrantLock sendLock = new ReentrantLock();
+        private Thread replayThread;
+
+        private StandInSession(WebSocketSession session) {
+            this.session = session;
+        }
+
+        /**
+         * WebSocketSession은 동시 전송을 허용하지 않으므로 세션 단위로 직렬화
+         * - 클라이언트가 request(n)으로 수신을 늦추면 여기서 막혀 재생도 같이 늦춰진다
+         */
+        private void send(String text){
+            sendLock.lock();
+            try {
+                if(session.isOpen()){
+                    session.sendMessage(new TextMessage(text));
+                }
+            } catch (IOException e) {
+                log.warn("[KIWOOM-STAND-IN] send failed. id={}", session.getId(), e);
+            } finally {
+                sendLock.unlock();
+            }
+        }
+
+        private synchronized void startReplay(){
+            if(frames.isEmpty() || replayThread != null){
+                return;
+            }
+            replayThread = Thread.ofVirtual()
+                    .name("kiwoom-stand-in-" + session.getId())
+                    .start(this::replay);
+        }
+
+        private synchronized void stopReplay(){
+            if(replayThread != null){
+                replayThread.interrupt();
+            }
+        }
+
+        private void replay(){
+            long sent = 0;
+            do {
+                long startNanos = System.nanoTime();
+                for(ReplayFrame frame : frames){
+                    if(Thread.currentThread().isInterrupted() || !session.isOpen()){
+                        log.info("[KIWOOM-STAND-IN] replay stopped. id={}, sent={}", session.getId(), sent);
+                        return;
+                    }
+                    if(speedFactor > 0){
+                        long due = startNanos + (long) (frame.offsetNanos() / speedFactor);
+                        long wait;
+                        while((wait = due - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted()){
+                            LockSupport.parkNanos(wait);
+                        }
+                    }
+                    if(containsAny(frame.symbols())){
+                        send(frame.text());
+                        sent++;
+                    }
+                }
+            } while(loop && session.isOpen() && !Thread.currentThread().isInterrupted());
+            log.info("[KIWOOM-STAND-IN] replay finished. id={}, sent={}", session.getId(), sent);
+        }
+
+        private boolean containsAny(Set<String> frameSymbols){
+            for(String symbol : frameSymbols){
+                if(symbols.contains(symbol)){
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
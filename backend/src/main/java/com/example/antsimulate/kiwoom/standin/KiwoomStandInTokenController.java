@@ -0,0 +1,39 @@
+package com.example.antsimulate.kiwoom.standin;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 키움 대역 서버의 토큰 발급 (/oauth2/token 흉내)
+ */
+@Slf4j
+@RestController
+@RequestMapping(KiwoomStandInConfig.BASE_PATH)
+@ConditionalOnProperty(prefix = "kiwoom.stand-in", name = "enabled", havingValue = "true")
+public class KiwoomStandInTokenController {
+    private static final DateTimeFormatter EXPIRES_DT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    @PostMapping("/oauth2/token")
+    public Map<String, Object> issueToken(){
+        String token = "stand-in-" + UUID.randomUUID();
+        String expiresDt = LocalDateTime.now(ZoneId.of("Asia/Seoul")).plusHours(24).format(EXPIRES_DT);
+        log.info("[KIWOOM-STAND-IN] token issued");
+
+        return Map.of(
+                "return_code", 0,
+                "return_msg", "정상적으로 처리되었습니다",
+                "token", token,
+                "token_type", "bearer",
+                "expires_dt", expiresDt
+        );
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.antsimulate.kiwoom.symbol;
+
+import com.example.antsimulate.domain.stock.entity.StockItems;
+import com.example.antsimulate.domain.stock.repository.StockItemsRepository;
+import com.example.antsimulate.kiwoom.service.QuoteTopics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 종목코드 ↔ 정수 id 사전
+ * - 시작 시 stock_items 종목코드를 0부터 촘촘한 id로 적재하고, /topic/{symbol} 목적지도 미리 만들어 둔다
+ * - 실시간 경로는 파서에서 한 번만 id를 찾고 이후 단계는 id로 배열을 바로 인덱싱한다
+ * - 목록에 없는 종목은 SubscriptionService가 stock_items에서 확인한 뒤에만 register로 뒤에 추가하며, 한 번 부여한 id는 바뀌거나 삭제되지 않는다
+ * - 수신 경로는 idOf로 찾기만 하고, 사전에 없는 종목의 프레임은 버린다
+ * - 용량은 고정이라 id로 만든 배열은 capacity() 크기로 한 번만 할당하면 된다
+ */
+@Slf4j
+@Component
+public class SymbolDictionary {
+    public static final int UNKNOWN = -1;
+
+    private static final int MAX_PROBE = 64;
+
+    private final int capacity;
+    private final String[] symbols;
+    private final String[] destinations;
+
+    // open addressing 해시 테이블 (값은 id + 1, 0은 빈 칸)
+    // 추가는 락 안에서 symbols/destinations를 먼저 쓰고 마지막에 슬롯을 기록하므로, 슬롯을 읽은 스레드는 종목코드도 보인다
+    private final AtomicIntegerArray slots;
+    private final int mask;
+
+    private volatile int size;
+
+    @Autowired
+    public SymbolDictionary(StockItemsRepository stockItemsRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${kiwoom.symbol.capacity:8192}") int capacity) {
+        this(stockItemsRepository.findAll().stream().map(StockItems::getStockSymbol).toList(), capacity);
+        Gauge.builder("kiwoom.symbol.dictionary.size", this, SymbolDictionary::size)
+                .description("종목 사전에 등록된 종목 수")
+                .register(meterRegistry);
+        log.info("[SYMBOL] dictionary loaded {} symbols (capacity {})", size, this.capacity);
+    }
+
+    public SymbolDictionary(Collection<String> initialSymbols, int capacity) {
+        this.capacity = Math.max(capacity, initialSymbols.size() * 2);
+        this.symbols = new String[this.capacity];
+        this.destinations = new String[this.capacity];
+
+        int tableSize = Integer.highestOneBit(this.capacity * 2 - 1) << 1;
+        this.slots = new AtomicIntegerArray(tableSize);
+        this.mask = tableSize - 1;
+
+        for (String symbol : initialSymbols) {
+            register(symbol);
+        }
+    }
+
+    /**
+     * 종목코드의 id (없으면 추가), 사전이 가득 찼으면 UNKNOWN
+     */
+    public int register(String symbol) {
+        int id = idOf(symbol);
+        if (id != UNKNOWN) {
+            return id;
+        }
+        return add(symbol);
+    }
+
+    /**
+     * 원본 메시지의 [start, end) 구간 종목코드 id, 없으면 UNKNOWN (추가하지 않음, String을 만들지 않고 찾는다)
+     */
+    public int idOf(CharSequence in, int start, int end) {
+        int hash = 0;
+        for (int k = start; k < end; k++) {
+            hash = 31 * hash + in.charAt(k);
+        }
+
+        int index = spread(hash);
+        for (int probe = 0; probe < MAX_PROBE; probe++) {
+            int entry = slots.get(index);
+            if (entry == 0) {
+                return UNKNOWN;
+            }
+            if (regionEquals(in, start, end, symbols[entry - 1])) {
+                return entry - 1;
+            }
+            index = (index + 1) & mask;
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * 등록된 종목이면 id, 아니면 UNKNOWN (추가하지 않음)
+     */
+    public int idOf(String symbol) {
+        if (symbol == null) {
+            return UNKNOWN;
+        }
+        int index = spread(symbol.hashCode());
+        for (int probe = 0; probe < MAX_PROBE; probe++) {
+            int entry = slots.get(index);
+            if (entry == 0) {
+                return UNKNOWN;
+            }
+            if (symbols[entry - 1].equals(symbol)) {
+                return entry - 1;
+            }
+            index = (index + 1) & mask;
+        }
+        return UNKNOWN;
+    }
+
+    public String symbol(int id) {
+        return symbols[id];
+    }
+
+    /**
+     * 미리 만들어 둔 /topic/{symbol} 목적지
+     */
+    public String destination(int id) {
+        return destinations[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private synchronized int add(String symbol) {
+        int index = spread(symbol.hashCode());
+        for (int probe = 0; probe < MAX_PROBE; probe++) {
+            int entry = slots.get(index);
+            if (entry == 0) {
+                if (size == capacity) {
+                    log.warn("[SYMBOL] dictionary full ({}). symbol={}", capacity, symbol);
+                    return UNKNOWN;
+                }
+                int id = size;
+                symbols[id] = symbol;
+                destinations[id] = QuoteTopics.destination(symbol);
+                slots.set(index, id + 1);
+                size = id + 1;
+                return id;
+            }
+            if (symbols[entry - 1].equals(symbol)) {
+                return entry - 1;
+            }
+            index = (index + 1) & mask;
+        }
+        log.warn("[SYMBOL] dictionary probe limit. symbol={}", symbol);
+        return UNKNOWN;
+    }
+
+    private int spread(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static boolean regionEquals(CharSequence in, int start, int end, String s) {
+        int len = end - start;
+        if (len != s.length()) {
+            return false;
+        }
+        for (int k = 0; k < len; k++) {
+            if (in.charAt(start + k) != s.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.antsimulate.stockhistory.ingest.service;
 
+import com.example.antsimulate.domain.stock.event.StockPriceDailyIngestedEvent;
 import com.example.antsimulate.global.exception.BusinessException;
 import com.example.antsimulate.global.exception.ErrorCode;
 import com.example.antsimulate.stockhistory.ingest.client.TwelveDataClient;
 import com.example.antsimulate.stockhistory.ingest.dto.TwelveTimeSeriesResponse;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
@@ -20,6 +22,7 @@ import java.util.List;
 public class StockPriceDailyIngestService {
     private final TwelveDataClient client;
     private final NamedParameterJdbcTemplate jdbc;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public int ingestDailyBySymbol(long stockItemId, String symbol, int outputsize){
@@ -62,6 +65,9 @@ public class StockPriceDailyIngestService {
 
         int[] counts = jdbc.batchUpdate(sql, batch.toArray(MapSqlParameterSource[]::new));
 
+        // 커밋 후 이 종목의 캐시된 종가를 비운다
+        eventPublisher.publishEvent(new StockPriceDailyIngestedEvent(stockItemId));
+
         return counts.length;
     }
 }
@@ -0,0 +1,137 @@
+package com.example.antsimulate.domain.account.service;
+
+import com.example.antsimulate.domain.account.entity.Account;
+import com.example.antsimulate.global.exception.BusinessException;
+import com.example.antsimulate.global.exception.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class AccountExecutorTest {
+    private final AccountExecutor accountExecutor = new AccountExecutor(3);
+
+    @AfterEach
+    void tearDown() {
+        accountExecutor.shutdown();
+    }
+
+    @Test
+    void drainHandOffNeitherStrandsTasksNorRunsThemConcurrently() {
+        // 작업이 짧아 drain이 mailbox를 지우는 순간과 새 작업 적재가 자주 겹친다
+        int producers = 4;
+        int tasksPerProducer = 2_000;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                threads.add(Thread.ofPlatform().start(() -> {
+                    await(start);
+                    for (int i = 0; i < tasksPerProducer; i++) {
+                        accountExecutor.run(1L, () -> {
+                            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                            running.decrementAndGet();
+                            completed.incrementAndGet();
+                        });
+                    }
+                }));
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            awaitIdle();
+        });
+
+        assertThat(completed.get()).isEqualTo(producers * tasksPerProducer);
+        assertThat(maxRunning.get()).isEqualTo(1);
+        assertThat(accountExecutor.mailboxCount()).isZero();
+    }
+
+    @Test
+    void idleMailboxIsRemovedAndRecreatedOnNextTask() {
+        assertThat(accountExecutor.execute(1L, () -> 1)).isEqualTo(1);
+        assertTimeoutPreemptively(Duration.ofSeconds(5), this::awaitIdle);
+
+        assertThat(accountExecutor.execute(1L, () -> 2)).isEqualTo(2);
+        assertTimeoutPreemptively(Duration.ofSeconds(5), this::awaitIdle);
+    }
+
+    @Test
+    void differentAccountsRunInParallel() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            Thread other = Thread.ofPlatform().start(() -> accountExecutor.run(2L, () -> {
+                bothStarted.countDown();
+                await(bothStarted);
+            }));
+            accountExecutor.run(1L, () -> {
+                bothStarted.countDown();
+                await(bothStarted);
+            });
+            other.join();
+        });
+    }
+
+    @Test
+    void versionConflictIsRetriedThenReported() {
+        AtomicInteger attempts = new AtomicInteger();
+        assertThat(accountExecutor.execute(1L, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Account.class, 1L);
+            }
+            return "ok";
+        })).isEqualTo("ok");
+
+        attempts.set(0);
+        assertThatThrownBy(() -> accountExecutor.run(1L, () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Account.class, 1L);
+        }))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getErrorCode())
+                .isEqualTo(ErrorCode.ACCOUNT_UPDATE_CONFLICT);
+        assertThat(attempts.get()).isEqualTo(3);
+    }
+
+    @Test
+    void taskExceptionIsRethrownToCaller() {
+        assertThatThrownBy(() -> accountExecutor.run(1L, () -> {
+            throw new BusinessException(ErrorCode.INSUFFICIENT_BALANCE);
+        })).isInstanceOf(BusinessException.class);
+
+        // 실패한 작업 뒤에도 같은 계좌 mailbox는 계속 동작한다
+        assertThat(accountExecutor.execute(1L, () -> 1)).isEqualTo(1);
+    }
+
+    /**
+     * 마지막 작업의 결과는 drain이 mailbox를 지우기 직전에 전달되므로 잠시 기다린다
+     */
+    private void awaitIdle() throws InterruptedException {
+        while (accountExecutor.mailboxCount() > 0) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.antsimulate.domain.order.service;
+
+import com.example.antsimulate.domain.account.entity.Account;
+import com.example.antsimulate.domain.account.repository.AccountRepository;
+import com.example.antsimulate.domain.order.dto.OrderFill;
+import com.example.antsimulate.domain.order.entity.OrderStatus;
+import com.example.antsimulate.domain.order.entity.OrderType;
+import com.example.antsimulate.domain.order.entity.Orders;
+import com.example.antsimulate.domain.order.repository.OrdersRepository;
+import com.example.antsimulate.domain.portfolio.service.PortfolioService;
+import com.example.antsimulate.domain.stock.entity.StockItems;
+import com.example.antsimulate.domain.stock.service.PricingCache;
+import com.example.antsimulate.domain.transaction.entity.TransactionType;
+import com.example.antsimulate.global.exception.BusinessException;
+import com.example.antsimulate.global.exception.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderServiceTest {
+    private static final OffsetDateTime FILLED_AT = OffsetDateTime.of(2026, 10, 16, 0, 30, 0, 0, ZoneOffset.UTC);
+
+    private OrdersRepository ordersRepository;
+    private AccountRepository accountRepository;
+    private PortfolioService portfolioService;
+    private PricingCache pricingCache;
+    private JdbcTemplate jdbcTemplate;
+    private OrderService orderService;
+
+    private final StockItems stockItems = StockItems.builder().id(10L).stockSymbol("005930").stockName("삼성전자")
+            .stockType("STOCK").stockCountry("KR").build();
+
+    @BeforeEach
+    void setUp() {
+        ordersRepository = mock(OrdersRepository.class);
+        accountRepository = mock(AccountRepository.class);
+        portfolioService = mock(PortfolioService.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        pricingCache = mock(PricingCache.class);
+        orderService = new OrderService(ordersRepository, accountRepository, pricingCache,
+                portfolioService, jdbcTemplate, mock(ApplicationEventPublisher.class), 30);
+        when(portfolioService.createOrUpdatePortfolio(anyLong(), anyLong(), any(), anyLong(), anyInt())).thenReturn(true);
+    }
+
+    private static Account account(long totalAsset) {
+        return Account.builder().id(1L).startAsset(1_000_000).totalAsset(totalAsset).accountName("test").build();
+    }
+
+    private Orders order(long id, Account account, TransactionType side, long limitPrice, int quantity) {
+        return Orders.builder().id(id).account(account).stockItems(stockItems).side(side).orderType(OrderType.LIMIT)
+                .limitPrice(limitPrice).quantity(quantity)
+                .reservedAmount(side == TransactionType.BUY ? limitPrice * quantity : 0)
+                .status(OrderStatus.OPEN).build();
+    }
+
+    @Test
+    void buyFillRefundsDifferenceBetweenReservedAndFilledAmount() {
+        // 접수 때 70,000 x 10 = 700,000을 이미 뺐다
+        Account account = account(300_000);
+        Orders buy = order(1, account, TransactionType.BUY, 70_000, 10);
+        when(ordersRepository.findOpenByIdIn(any())).thenReturn(List.of(buy));
+
+        int settled = orderService.settleFills(List.of(new OrderFill(1L, 69_000, FILLED_AT)));
+
+        assertThat(settled).isEqualTo(1);
+        assertThat(account.getTotalAsset()).isEqualTo(300_000 + (700_000 - 690_000));
+        assertThat(buy.getStatus()).isEqualTo(OrderStatus.FILLED);
+        assertThat(buy.getFilledPrice()).isEqualTo(69_000L);
+        assertThat(buy.getClosedAt()).isEqualTo(FILLED_AT);
+    }
+
+    @Test
+    void buyFillAtLimitRefundsNothing() {
+        Account account = account(300_000);
+        when(ordersRepository.findOpenByIdIn(any()))
+                .thenReturn(List.of(order(1, account, TransactionType.BUY, 70_000, 10)));
+
+        orderService.settleFills(List.of(new OrderFill(1L, 70_000, FILLED_AT)));
+
+        assertThat(account.getTotalAsset()).isEqualTo(300_000);
+    }
+
+    @Test
+    void sellFillDepositsFilledAmount() {
+        Account account = account(300_000);
+        when(ordersRepository.findOpenByIdIn(any()))
+                .thenReturn(List.of(order(2, account, TransactionType.SELL, 71_000, 5)));
+
+        orderService.settleFills(List.of(new OrderFill(2L, 72_000, FILLED_AT)));
+
+        assertThat(account.getTotalAsset()).isEqualTo(300_000 + 360_000);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void filledOrdersAreInsertedAsTransactionsInOneBatch() {
+        Account account = account(300_000);
+        when(ordersRepository.findOpenByIdIn(any())).thenReturn(List.of(
+                order(1, account, TransactionType.BUY, 70_000, 10),
+                order(2, account, TransactionType.SELL, 71_000, 5)));
+
+        orderService.settleFills(List.of(new OrderFill(1L, 69_000, FILLED_AT), new OrderFill(2L, 72_000, FILLED_AT)));
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertThat(rows.getValue()).containsExactly(
+                new Object[]{1L, 10L, "BUY", 69_000, 10, FILLED_AT},
+                new Object[]{1L, 10L, "SELL", 72_000, 5, FILLED_AT});
+    }
+
+    @Test
+    void sellWithoutHoldingsIsCancelledInsteadOfFilled() {
+        Account account = account(300_000);
+        Orders sell = order(2, account, TransactionType.SELL, 71_000, 5);
+        when(ordersRepository.findOpenByIdIn(any())).thenReturn(List.of(sell));
+        when(portfolioService.createOrUpdatePortfolio(anyLong(), anyLong(), any(), anyLong(), anyInt())).thenReturn(false);
+
+        int settled = orderService.settleFills(List.of(new OrderFill(2L, 72_000, FILLED_AT)));
+
+        assertThat(settled).isZero();
+        assertThat(sell.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(account.getTotalAsset()).isEqualTo(300_000);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void largeSellFillIsDepositedWithoutWrapping() {
+        // 1,000,000 x 3,000 = 30억, int 범위를 넘지만 잔고는 long이다
+        Account account = account(300_000);
+        when(ordersRepository.findOpenByIdIn(any()))
+                .thenReturn(List.of(order(2, account, TransactionType.SELL, 700_000, 3_000)));
+
+        orderService.settleFills(List.of(new OrderFill(2L, 1_000_000, FILLED_AT)));
+
+        assertThat(account.getTotalAsset()).isEqualTo(300_000 + 3_000_000_000L);
+    }
+
+    @Test
+    void fillPriceOutsideIntFailsInsteadOfWrapping() {
+        Account account = account(300_000);
+        when(ordersRepository.findOpenByIdIn(any()))
+                .thenReturn(List.of(order(2, account, TransactionType.SELL, 1_000_000, 1)));
+
+        assertThatThrownBy(() -> orderService.settleFills(List.of(new OrderFill(2L, 3_000_000_000L, FILLED_AT))))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void sellOrderOverIntNotionalIsRejectedAtPlacement() {
+        when(accountRepository.findByUserId(7L)).thenReturn(Optional.of(account(300_000)));
+        when(pricingCache.getStockItems(10L)).thenReturn(stockItems);
+        when(portfolioService.getQuantity(1L, 10L)).thenReturn(3_000);
+
+        assertThatThrownBy(() -> orderService.createOrder(7L, 10L, TransactionType.SELL, OrderType.LIMIT, 1_000_000, 3_000))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getErrorCode())
+                .isEqualTo(ErrorCode.INVALID_ORDER);
+        assertThatThrownBy(() -> orderService.createOrder(7L, 10L, TransactionType.SELL, OrderType.LIMIT, 3_000_000_000L, 1))
+                .isInstanceOf(BusinessException.class);
+        verify(ordersRepository, never()).save(any());
+    }
+
+    @Test
+    void unsettledBuyIsCancelledWithReservationRefunded() {
+        Account account = account(300_000);
+        Orders buy = order(1, account, TransactionType.BUY, 70_000, 10);
+        when(ordersRepository.findOpenByIdIn(any())).thenReturn(List.of(buy));
+
+        assertThat(orderService.cancelUnsettled(1L, FILLED_AT)).isTrue();
+
+        assertThat(buy.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(buy.getClosedAt()).isEqualTo(FILLED_AT);
+        assertThat(account.getTotalAsset()).isEqualTo(300_000 + 700_000);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.antsimulate.domain.portfolio.service;
+
+import com.example.antsimulate.domain.account.service.AccountExecutor;
+import com.example.antsimulate.domain.portfolio.dto.PortfolioDrift;
+import com.example.antsimulate.domain.portfolio.repository.PortfolioQueryRepository;
+import com.example.antsimulate.domain.portfolio.repository.PortfolioQueryRepository.BackfillTarget;
+import com.example.antsimulate.domain.portfolio.repository.PortfolioQueryRepository.PositionRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PortfolioBackfillTest {
+    private final FakePortfolioQueryRepository repository = new FakePortfolioQueryRepository();
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private AccountExecutor accountExecutor;
+    private PortfolioBackfill backfill;
+    private PortfolioConsistencyChecker checker;
+
+    @BeforeEach
+    void setUp() {
+        accountExecutor = new AccountExecutor(3);
+        backfill = new PortfolioBackfill(repository, accountExecutor, transactionManager, true);
+        checker = new PortfolioConsistencyChecker(repository, transactionManager, 2, 2);
+
+        // portfolio 도입 전 거래 (portfolio 행 없음)
+        repository.trade(1, 10, "BUY", 1_000, 1);
+        repository.trade(1, 10, "BUY", 1_001, 1);
+        repository.trade(1, 10, "SELL", 1_010, 1);
+        repository.trade(1, 11, "BUY", 500, 5);
+        repository.trade(1, 11, "SELL", 510, 7);       // 보유보다 많이 판 과거 거래
+        repository.trade(2, 10, "BUY", 70_000, 10);
+
+        // 도입 후 거래 (portfolio가 같이 갱신됨)
+        repository.trade(3, 10, "BUY", 69_000, 2);
+        repository.positions.put(key(3, 10), new PositionRow(3, 10, 2, 69_000));
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountExecutor.shutdown();
+    }
+
+    @Test
+    void checkerReportsNoDriftAfterBackfill() {
+        assertThat(checker.check().drifts())
+                .extracting(PortfolioDrift::accountId)
+                .containsOnly(1L, 2L);
+
+        assertThat(backfill.backfill()).isEqualTo(2);
+
+        assertThat(checker.check().drifts()).isEmpty();
+        assertThat(repository.positions.values())
+                .extracting(PositionRow::accountId, PositionRow::stockItemId, PositionRow::totalQuantity, PositionRow::avgPrice)
+                .containsExactlyInAnyOrder(
+                        // (1,000 + 1,001 + 1) / 2, upsertBuy와 같은 반올림
+                        tuple(1L, 10L, 1, 1_001L),
+                        tuple(1L, 11L, 0, 0L),
+                        tuple(2L, 10L, 10, 70_000L),
+                        tuple(3L, 10L, 2, 69_000L));
+    }
+
+    @Test
+    void backfillRunsOnlyOnce() {
+        backfill.backfill();
+
+        assertThat(repository.findBackfillTargets()).isEmpty();
+        assertThat(backfill.backfill()).isZero();
+    }
+
+    private static String key(long accountId, long stockItemId) {
+        return accountId + ":" + stockItemId;
+    }
+
+    /**
+     * 거래내역과 portfolio를 메모리에 두는 저장소
+     */
+    private static final class FakePortfolioQueryRepository extends PortfolioQueryRepository {
+        private final List<Trade> trades = new ArrayList<>();
+        private final Map<String, PositionRow> positions = new TreeMap<>();
+
+        FakePortfolioQueryRepository() {
+            super(null);
+        }
+
+        void trade(long accountId, long stockItemId, String type, long price, int quantity) {
+            trades.add(new Trade(accountId, stockItemId, type, price, quantity));
+        }
+
+        @Override
+        public List<Long> findAccountIds() {
+            return trades.stream().map(Trade::accountId).distinct().sorted().toList();
+        }
+
+        @Override
+        public void streamTransactions(long fromAccountId, long toAccountId, RowCallbackHandler handler) {
+            List<Trade> rows = trades.stream()
+                    .filter(t -> t.accountId() >= fromAccountId && t.accountId() <= toAccountId)
+                    .sorted(Comparator.comparingLong(Trade::accountId).thenComparingLong(Trade::stockItemId))
+                    .toList();
+            try {
+                for (Trade t : rows) {
+                    handler.processRow(t.toResultSet());
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public List<PositionRow> findPositions(long fromAccountId, long toAccountId) {
+            return positions.values().stream()
+                    .filter(p -> p.accountId() >= fromAccountId && p.accountId() <= toAccountId)
+                    .toList();
+        }
+
+        @Override
+        public List<BackfillTarget> findBackfillTargets() {
+            return trades.stream()
+                    .filter(t -> !positions.containsKey(key(t.accountId(), t.stockItemId())))
+                    .map(Trade::accountId)
+                    .distinct()
+                    .sorted()
+                    .map(accountId -> new BackfillTarget(accountId, accountId + 100))
+                    .toList();
+        }
+
+        @Override
+        public void replacePositions(long accountId, List<PositionRow> rows) {
+            positions.values().removeIf(p -> p.accountId() == accountId);
+            for (PositionRow row : rows) {
+                positions.put(key(row.accountId(), row.stockItemId()), row);
+            }
+        }
+    }
+
+    private record Trade(long accountId, long stockItemId, String type, long price, int quantity) {
+        ResultSet toResultSet() throws SQLException {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong("account_id")).thenReturn(accountId);
+            when(rs.getLong("stock_item_id")).thenReturn(stockItemId);
+            when(rs.getString("type")).thenReturn(type);
+            when(rs.getLong("price")).thenReturn(price);
+            when(rs.getInt("quantity")).thenReturn(quantity);
+            return rs;
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.example.antsimulate.global.websocket;
+
+import com.example.antsimulate.kiwoom.message.CompactQuoteEncoder;
+import com.example.antsimulate.kiwoom.message.QuoteFrame;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SessionOutboundPolicyTest {
+    private static final int CAPACITY = 4;
+    private static final int MAX_QUEUED = 8;
+    private static final long MAX_BEHIND_MS = 50;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SessionOutboundPolicy policy = new SessionOutboundPolicy(meterRegistry, CAPACITY, MAX_QUEUED, MAX_BEHIND_MS);
+    private final StalledHandler handler = new StalledHandler();
+    private WebSocketHandler decorated;
+
+    @BeforeEach
+    void setUp() {
+        decorated = policy.decorate(handler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        handler.resume();
+    }
+
+    @Test
+    void stalledSessionConflatesQuotesAndKeepsOtherMessagesInOrder() throws Exception {
+        connect("s1");
+        send("s1", "/topic/005930", "p0");
+        handler.awaitStalled();
+
+        // 전송 중인 p0 뒤로 capacity까지는 순서대로 쌓인다
+        for (int i = 1; i <= CAPACITY; i++) {
+            send("s1", "/topic/005930", "p" + i);
+        }
+        // 밀림 상태: 시세는 종목별 마지막 값만, 나머지는 순서대로
+        send("s1", "/user/queue/orders", "o1");
+        send("s1", "/topic/005930", "p5");
+        send("s1", "/topic/005930", "p6");
+        send("s1", "/topic/000660", "q1");
+        send("s1", "/topic/depth/005930", "d1");
+        send("s1", "/topic/005930", "p7");
+        send("s1", "/user/queue/orders", "o2");
+
+        assertThat(policy.stats().get(0).conflated()).isEqualTo(2);
+        handler.resume();
+
+        assertThat(handler.awaitPayloads("s1", 10)).containsExactly(
+                "p0", "p1", "p2", "p3", "p4", "o1", "d1", "o2", "p7", "q1");
+        assertThat(meterRegistry.get("stomp.outbound.conflated").counter().count()).isEqualTo(2);
+        assertThat(policy.stats().get(0).dropped()).isEqualTo(2);
+    }
+
+    @Test
+    void quotesAreConflatedPerSubscription() throws Exception {
+        connect("s1");
+        send("s1", "/user/queue/orders", "o0");
+        handler.awaitStalled();
+        for (int i = 1; i <= CAPACITY; i++) {
+            send("s1", "/user/queue/orders", "o" + i);
+        }
+
+        // 같은 종목을 두 구독(a, b)으로 받는 세션: 각 구독이 자기 마지막 값을 받아야 한다
+        send("s1", "a", "/topic/005930", "a1");
+        send("s1", "b", "/topic/005930", "b1");
+        send("s1", "a", "/topic/005930", "a2");
+        send("s1", "b", "/topic/005930", "b2");
+        send("s1", "a", "/topic/005930", "a3");
+        handler.resume();
+
+        assertThat(handler.awaitPayloads("s1", 7)).containsExactly("o0", "o1", "o2", "o3", "o4", "a3", "b2");
+        assertThat(meterRegistry.get("stomp.outbound.conflated").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void laneRecoversAfterBacklogDrains() throws Exception {
+        connect("s1");
+        send("s1", "/topic/005930", "p0");
+        handler.awaitStalled();
+        for (int i = 1; i <= CAPACITY + 2; i++) {
+            send("s1", "/topic/005930", "p" + i);
+        }
+        handler.resume();
+        handler.awaitPayloads("s1", CAPACITY + 2);
+
+        // 밀림이 풀린 뒤에는 다시 모든 시세를 보낸다
+        send("s1", "/topic/005930", "p7");
+        send("s1", "/topic/005930", "p8");
+
+        assertThat(handler.awaitPayloads("s1", CAPACITY + 4)).endsWith("p6", "p7", "p8");
+        assertThat(policy.stats().get(0).behindMs()).isZero();
+    }
+
+    @Test
+    void overflowOfNonConflatableMessagesDisconnects() throws Exception {
+        WebSocketSession session = connect("s1");
+        WebSocketSession other = connect("s2");
+        send("s1", "/user/queue/orders", "o0");
+        handler.awaitStalled();
+
+        for (int i = 1; i <= MAX_QUEUED; i++) {
+            send("s1", "/user/queue/orders", "o" + i);
+        }
+        verify(session, never()).close(CloseStatus.SESSION_NOT_RELIABLE);
+
+        send("s1", "/user/queue/orders", "o" + (MAX_QUEUED + 1));
+
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        verify(other, never()).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertThat(meterRegistry.get("stomp.outbound.overflow.disconnects").counter().count()).isEqualTo(1);
+        assertThat(policy.stats()).extracting(s -> s.sessionId()).containsExactly("s2");
+    }
+
+    @Test
+    void sweepDisconnectsSessionsBehindLongerThanMaxBehind() throws Exception {
+        WebSocketSession slow = connect("s1");
+        WebSocketSession busy = connect("s2");
+        send("s1", "/topic/005930", "p0");
+        handler.awaitStalled();
+        for (int i = 1; i <= CAPACITY + 1; i++) {
+            send("s1", "/topic/005930", "p" + i);
+        }
+        // s2도 같은 핸들러에 막혀 있지만 capacity 안쪽이라 밀림 상태가 아니다
+        send("s2", "/topic/005930", "x1");
+
+        policy.disconnectSlowSessions();
+        verify(slow, never()).close(CloseStatus.SESSION_NOT_RELIABLE);
+
+        Thread.sleep(MAX_BEHIND_MS + 20);
+        policy.disconnectSlowSessions();
+
+        verify(slow).close(CloseStatus.SESSION_NOT_RELIABLE);
+        verify(busy, never()).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertThat(meterRegistry.get("stomp.outbound.slow.disconnects").counter().count()).isEqualTo(1);
+        assertThat(policy.stats()).extracting(s -> s.sessionId()).containsExactly("s2");
+    }
+
+    @Test
+    void nonMessageFramesAndUnknownSessionsPassThrough() {
+        Message<?> unknown = message("nobody", "/topic/005930", "p0");
+        assertThat(policy.preSend(unknown, null)).isSameAs(unknown);
+
+        connect("s1");
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.HEARTBEAT);
+        accessor.setSessionId("s1");
+        Message<?> heartbeat = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        assertThat(policy.preSend(heartbeat, null)).isSameAs(heartbeat);
+    }
+
+    @Test
+    void compactSubscriptionsOnOneSessionKeepSeparateDeltaBases() {
+        handler.resume();
+        connect("s1");
+        subscribe("s1", "a", "/topic/005930", true);
+        subscribe("s1", "b", "/topic/000660", true);
+        subscribe("s1", "c", "/topic/005930", false);
+
+        // 구독 직후 스냅샷
+        quote("s1", "a", "/topic/005930", new QuoteFrame(70_000, 0, 32_400));
+        quote("s1", "b", "/topic/000660", new QuoteFrame(185_000, 0, 32_400));
+        quote("s1", "c", "/topic/005930", new QuoteFrame(70_000, 0, 32_400));
+        handler.awaitMessages("s1", 3);
+
+        // 이후 실시간 체결이 구독별로 섞여 들어온다
+        quote("s1", "a", "/topic/005930", new QuoteFrame(70_100, 5, 32_401));
+        quote("s1", "c", "/topic/005930", new QuoteFrame(70_100, 5, 32_401));
+        quote("s1", "b", "/topic/000660", new QuoteFrame(184_500, 2, 32_405));
+        quote("s1", "a", "/topic/005930", new QuoteFrame(69_900, 1, 32_410));
+        handler.awaitMessages("s1", 7);
+
+        // 다시 구독하면 새 기준으로 키 프레임부터
+        unsubscribe("s1", "a");
+        subscribe("s1", "a", "/topic/005930", true);
+        quote("s1", "a", "/topic/005930", new QuoteFrame(69_800, 3, 32_420));
+
+        List<Message<?>> sent = handler.awaitMessages("s1", 8);
+        assertThat(sent).extracting(SessionOutboundPolicyTest::body).containsExactly(
+                "[0,70000,32400,0]",
+                "[0,185000,32400,0]",
+                "json",
+                "[1,100,1,5]",
+                "json",
+                "[1,-500,5,2]",
+                "[1,-200,9,1]",
+                "[0,69800,32420,3]");
+        assertThat(sent)
+                .extracting(m -> SimpMessageHeaderAccessor.wrap(m).getFirstNativeHeader(CompactQuoteEncoder.ENCODING_HEADER))
+                .containsExactly("compact", "compact", null, "compact", null, "compact", "compact", "compact");
+    }
+
+    private void subscribe(String sessionId, String subscriptionId, String destination, boolean compact) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        if (compact) {
+            accessor.setNativeHeader(CompactQuoteEncoder.ENCODING_HEADER, CompactQuoteEncoder.COMPACT);
+        }
+        policy.onSubscribe(new SessionSubscribeEvent(this, MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders())));
+    }
+
+    private void unsubscribe(String sessionId, String subscriptionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.UNSUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        policy.onUnsubscribe(new SessionUnsubscribeEvent(this, MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders())));
+    }
+
+    /**
+     * QuoteBroadcastService / QuoteSnapshotService처럼 JSON 본문에 원본 값(QuoteFrame) 헤더를 함께 싣는다
+     */
+    private void quote(String sessionId, String subscriptionId, String destination, QuoteFrame quote) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination(destination);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setHeader(QuoteFrame.HEADER, quote);
+        assertThat(policy.preSend(MessageBuilder.createMessage("json", accessor.getMessageHeaders()), null)).isNull();
+    }
+
+    private static String body(Message<?> message) {
+        return message.getPayload() instanceof byte[] bytes
+                ? new String(bytes, StandardCharsets.US_ASCII)
+                : (String) message.getPayload();
+    }
+
+    private WebSocketSession connect(String sessionId) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(sessionId);
+        try {
+            decorated.afterConnectionEstablished(session);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return session;
+    }
+
+    private void send(String sessionId, String destination, String payload) {
+        send(sessionId, "sub-" + destination, destination, payload);
+    }
+
+    private void send(String sessionId, String subscriptionId, String destination, String payload) {
+        assertThat(policy.preSend(message(sessionId, subscriptionId, destination, payload), null)).isNull();
+    }
+
+    private static Message<?> message(String sessionId, String destination, String payload) {
+        return message(sessionId, "sub-" + destination, destination, payload);
+    }
+
+    private static Message<?> message(String sessionId, String subscriptionId, String destination, String payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination(destination);
+        accessor.setSubscriptionId(subscriptionId);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+
+    /**
+     * 첫 메시지에서 resume() 전까지 멈추는 SubProtocolWebSocketHandler 대역
+     */
+    private static final class StalledHandler implements WebSocketHandler, MessageHandler {
+        private final CountDownLatch stalled = new CountDownLatch(1);
+        private final CountDownLatch resumed = new CountDownLatch(1);
+        private final List<Message<?>> handled = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void handleMessage(Message<?> message) {
+            handled.add(message);
+            stalled.countDown();
+            try {
+                resumed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void awaitStalled() throws InterruptedException {
+            assertThat(stalled.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        void resume() {
+            resumed.countDown();
+        }
+
+        /**
+         * 세션에 전송된 본문이 count개 이상이 될 때까지 기다린 뒤 반환 (조금 더 기다려 초과 전송이 없는지도 본다)
+         */
+        List<String> awaitPayloads(String sessionId, int count) {
+            return awaitMessages(sessionId, count).stream().map(SessionOutboundPolicyTest::body).toList();
+        }
+
+        List<Message<?>> awaitMessages(String sessionId, int count) {
+            return assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                while (messages(sessionId).size() < count) {
+                    Thread.sleep(1);
+                }
+                Thread.sleep(20);
+                return messages(sessionId);
+            });
+        }
+
+        private List<Message<?>> messages(String sessionId) {
+            synchronized (handled) {
+                return handled.stream()
+                        .filter(m -> sessionId.equals(SimpMessageHeaderAccessor.getSessionId(m.getHeaders())))
+                        .toList();
+            }
+        }
+
+        @Override
+        public void afterConnectionEstablished(WebSocketSession session) {
+        }
+
+        @Override
+        public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) {
+        }
+
+        @Override
+        public void handleTransportError(WebSocketSession session, Throwable exception) {
+        }
+
+        @Override
+        public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) {
+        }
+
+        @Override
+        public boolean supportsPartialMessages() {
+            return false;
+        }
+    }
+}
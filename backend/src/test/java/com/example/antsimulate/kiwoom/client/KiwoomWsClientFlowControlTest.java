@@ -0,0 +1,220 @@
+package com.example.antsimulate.kiwoom.client;
+
+import com.example.antsimulate.kiwoom.message.KiwoomWsMessageFactory;
+import com.example.antsimulate.kiwoom.message.KiwoomWsStreamParser;
+import com.example.antsimulate.kiwoom.pipeline.OverflowPolicy;
+import com.example.antsimulate.kiwoom.pipeline.PipelineLatencyRecorder;
+import com.example.antsimulate.kiwoom.service.KiwoomTokenService;
+import com.example.antsimulate.kiwoom.service.QuoteListener;
+import com.example.antsimulate.kiwoom.symbol.SymbolDictionary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.net.URI;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.Mockito.mock;
+
+/**
+ * request(n) 재충전: BACKPRESSURE면 링 버퍼 빈 슬롯보다 많이 요청하지 않는다
+ */
+class KiwoomWsClientFlowControlTest {
+    private static final int CAPACITY = 8;
+    private static final int BATCH = 4;
+    private static final String LOGIN_OK = "{\"trnm\":\"LOGIN\",\"return_code\":0}";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FakeUpstream upstream = new FakeUpstream();
+    private final List<Long> prices = Collections.synchronizedList(new ArrayList<>());
+    private volatile long consumeDelayNanos;
+    private KiwoomWsClient client;
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.shutdown();
+        }
+    }
+
+    @Test
+    void requestsStopAtRingCapacityUntilSlotsAreReleased() throws Exception {
+        client = client(OverflowPolicy.BACKPRESSURE);
+        client.onOpen(upstream);
+        assertThat(upstream.requested.get()).isEqualTo(BATCH);
+
+        // 소비 스레드 시작 전: 요청받은 만큼 보내면 링 버퍼가 찰 때까지만 더 요청한다
+        assertThat(upstream.permits.tryAcquire()).isTrue();
+        client.onText(upstream, LOGIN_OK, true);
+        int sent = 0;
+        while (upstream.permits.tryAcquire()) {
+            client.onText(upstream, trade(sent++), true);
+        }
+        assertThat(sent).isEqualTo(CAPACITY - 1);
+        assertThat(upstream.requested.get()).isEqualTo(CAPACITY);
+        assertThat(client.ringSize()).isEqualTo(CAPACITY);
+
+        // 조각 메시지도 요청 하나씩을 쓰지만 슬롯은 마지막 조각에서만 차지한다
+        client.start();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            while (upstream.permits.availablePermits() < 2) {
+                Thread.sleep(1);
+            }
+        });
+        upstream.permits.acquire(2);
+        String fragmented = trade(sent);
+        client.onText(upstream, fragmented.substring(0, 10), false);
+        client.onText(upstream, fragmented.substring(10), true);
+
+        int total = sent + 1;
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            while (prices.size() < total) {
+                Thread.sleep(1);
+            }
+        });
+        assertThat(prices).hasSize(total).last().isEqualTo(1_000L + sent);
+    }
+
+    @Test
+    void slowConsumerNeverLetsUpstreamOverrunRing() {
+        int frames = 20_000;
+        client = client(OverflowPolicy.BACKPRESSURE);
+        client.start();
+        consumeDelayNanos = TimeUnit.MICROSECONDS.toNanos(5);
+
+        AtomicInteger overruns = new AtomicInteger();
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+            client.onOpen(upstream);
+            upstream.permits.acquire();
+            client.onText(upstream, LOGIN_OK, true);
+            for (int i = 0; i < frames; i++) {
+                upstream.permits.acquire();
+                // 수신 스레드만 발행하므로 지금 빈 슬롯이 없으면 요청을 넘겨 받은 것
+                if (client.ringSize() >= CAPACITY) {
+                    overruns.incrementAndGet();
+                }
+                client.onText(upstream, trade(i), true);
+            }
+            while (prices.size() < frames) {
+                Thread.sleep(1);
+            }
+        });
+
+        assertThat(overruns.get()).isZero();
+        assertThat(prices).hasSize(frames);
+        for (int i = 0; i < frames; i++) {
+            assertThat(prices.get(i)).isEqualTo(1_000L + i);
+        }
+        assertThat(meterRegistry.get("kiwoom.ring.dropped").functionCounter().count()).isZero();
+    }
+
+    @Test
+    void dropNewestKeepsReadingAndCountsDrops() {
+        client = client(OverflowPolicy.DROP_NEWEST);
+        client.onOpen(upstream);
+
+        // 소비 스레드가 없어도 상류 요청은 계속된다
+        for (int i = 0; i < 100; i++) {
+            assertThat(upstream.permits.tryAcquire()).isTrue();
+            client.onText(upstream, trade(i), true);
+        }
+
+        assertThat(client.ringSize()).isEqualTo(CAPACITY);
+        assertThat(meterRegistry.get("kiwoom.ring.dropped").functionCounter().count()).isEqualTo(100 - CAPACITY);
+    }
+
+    private KiwoomWsClient client(OverflowPolicy overflowPolicy) {
+        KiwoomConnectionOptions options = new KiwoomConnectionOptions(URI.create("ws://localhost"), CAPACITY, 1,
+                "yielding", overflowPolicy, BATCH, 100, 1_000, 1_000);
+        QuoteListener listener = quote -> {
+            prices.add(quote.getPrice());
+            long delay = consumeDelayNanos;
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+        };
+        return new KiwoomWsClient(1, List.of("1"), options, mock(KiwoomTokenService.class),
+                new KiwoomWsStreamParser(new SymbolDictionary(List.of("005930"), 16)), List.of(listener),
+                new KiwoomWsMessageFactory(), null, new PipelineLatencyRecorder(false),
+                mock(TaskScheduler.class), meterRegistry);
+    }
+
+    /**
+     * 가격에 순번을 실어 보내는 체결 메시지 (1,000부터)
+     */
+    private static String trade(int n) {
+        return "{\"trnm\":\"REAL\",\"data\":[{\"type\":\"0B\",\"item\":\"005930\",\"values\":{\"10\":\"" + (1_000 + n) + "\"}}]}";
+    }
+
+    /**
+     * request(n)만큼 보낼 수 있게 허용 수를 쌓는 가짜 연결
+     */
+    private static final class FakeUpstream implements WebSocket {
+        private final Semaphore permits = new Semaphore(0);
+        private final AtomicLong requested = new AtomicLong();
+
+        @Override
+        public void request(long n) {
+            requested.addAndGet(n);
+            permits.release((int) n);
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> sendText(CharSequence data, boolean last) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> sendBinary(ByteBuffer data, boolean last) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> sendPing(ByteBuffer message) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> sendPong(ByteBuffer message) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> sendClose(int statusCode, String reason) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public String getSubprotocol() {
+            return "";
+        }
+
+        @Override
+        public boolean isOutputClosed() {
+            return false;
+        }
+
+        @Override
+        public boolean isInputClosed() {
+            return false;
+        }
+
+        @Override
+        public void abort() {
+        }
+    }
+}
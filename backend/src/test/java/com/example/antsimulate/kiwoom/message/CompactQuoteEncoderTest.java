@@ -0,0 +1,129 @@
+package com.example.antsimulate.kiwoom.message;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactQuoteEncoderTest {
+
+    @Test
+    void firstFrameIsKeyFrame() {
+        CompactQuoteEncoder.Cursor cursor = new CompactQuoteEncoder.Cursor();
+
+        assertThat(encode(new QuoteFrame(70_100, 12, 32_400), cursor)).isEqualTo("[0,70100,32400,12]");
+        assertThat(encode(new QuoteFrame(70_000, 3, 32_401), cursor)).isEqualTo("[1,-100,1,3]");
+    }
+
+    @Test
+    void snapshotFollowedByDeltasRoundTrips() {
+        // 구독 직후 스냅샷(QuoteSnapshotService) 뒤로 실시간 체결이 이어지는 흐름
+        List<QuoteFrame> quotes = List.of(
+                QuoteFrame.of(70_100, 0, "153000"),     // 스냅샷
+                QuoteFrame.of(70_200, 15, "153001"),
+                QuoteFrame.of(70_200, 0, "153001"),
+                QuoteFrame.of(69_900, 7, "153005"),
+                QuoteFrame.of(69_900, 1, "090000"));    // 다음 날 (시각이 뒤로 감)
+
+        List<String> encoded = encodeAll(quotes, new CompactQuoteEncoder.Cursor());
+
+        assertThat(encoded).containsExactly(
+                "[0,70100,55800,0]",
+                "[1,100,1,15]",
+                "[1,0,0,0]",
+                "[1,-300,4,7]",
+                "[1,0,-23405,1]");
+        assertThat(new Decoder().decodeAll(encoded)).containsExactlyElementsOf(quotes);
+    }
+
+    @Test
+    void unknownTimeFallsBackToKeyFrames() {
+        List<QuoteFrame> quotes = List.of(
+                QuoteFrame.of(1_000, 1, "153000"),
+                QuoteFrame.of(1_010, 2, null),
+                QuoteFrame.of(1_020, 3, "1530"),
+                QuoteFrame.of(1_030, 4, "153010"),
+                QuoteFrame.of(1_040, 5, "153011"));
+
+        List<String> encoded = encodeAll(quotes, new CompactQuoteEncoder.Cursor());
+
+        assertThat(encoded).extracting(s -> s.substring(0, 2))
+                .containsExactly("[0", "[0", "[0", "[0", "[1");
+        assertThat(new Decoder().decodeAll(encoded)).containsExactlyElementsOf(quotes);
+    }
+
+    @Test
+    void randomSequenceRoundTrips() {
+        Random random = new Random(42);
+        List<QuoteFrame> quotes = new ArrayList<>();
+        long price = 50_000;
+        int time = 32_400;
+        for (int i = 0; i < 10_000; i++) {
+            price = Math.max(1, price + random.nextInt(201) - 100);
+            time = random.nextInt(50) == 0 ? -1 : Math.min(86_399, time + random.nextInt(3));
+            quotes.add(new QuoteFrame(price, random.nextInt(1_000), time));
+        }
+        // 자리수 끝값
+        quotes.add(new QuoteFrame(Long.MAX_VALUE, Long.MAX_VALUE, 86_399));
+        quotes.add(new QuoteFrame(1, 0, 0));
+        quotes.add(new QuoteFrame(Long.MAX_VALUE, 0, 0));
+
+        List<String> encoded = encodeAll(quotes, new CompactQuoteEncoder.Cursor());
+
+        assertThat(new Decoder().decodeAll(encoded)).containsExactlyElementsOf(quotes);
+    }
+
+    @Test
+    void cursorsAreIndependent() {
+        CompactQuoteEncoder.Cursor first = new CompactQuoteEncoder.Cursor();
+        CompactQuoteEncoder.Cursor second = new CompactQuoteEncoder.Cursor();
+
+        encode(new QuoteFrame(70_000, 1, 100), first);
+        encode(new QuoteFrame(70_100, 1, 101), first);
+
+        // 같은 종목이라도 새 구독의 첫 메시지는 키 프레임
+        assertThat(encode(new QuoteFrame(70_200, 1, 102), second)).isEqualTo("[0,70200,102,1]");
+        assertThat(encode(new QuoteFrame(70_200, 1, 102), first)).isEqualTo("[1,100,1,1]");
+    }
+
+    private static String encode(QuoteFrame quote, CompactQuoteEncoder.Cursor cursor) {
+        return new String(CompactQuoteEncoder.encode(quote, cursor), StandardCharsets.US_ASCII);
+    }
+
+    private static List<String> encodeAll(List<QuoteFrame> quotes, CompactQuoteEncoder.Cursor cursor) {
+        return quotes.stream().map(q -> encode(q, cursor)).toList();
+    }
+
+    /**
+     * 클라이언트 쪽 복원 (구독 하나 기준)
+     */
+    private static final class Decoder {
+        private long price;
+        private int timeSec;
+
+        List<QuoteFrame> decodeAll(List<String> frames) {
+            return frames.stream().map(this::decode).toList();
+        }
+
+        QuoteFrame decode(String frame) {
+            assertThat(frame).startsWith("[").endsWith("]");
+            String[] parts = frame.substring(1, frame.length() - 1).split(",");
+            assertThat(parts).hasSize(4);
+            long a = Long.parseLong(parts[1]);
+            long b = Long.parseLong(parts[2]);
+            if (parts[0].equals("0")) {
+                price = a;
+                timeSec = (int) b;
+            } else {
+                assertThat(parts[0]).isEqualTo("1");
+                price += a;
+                timeSec += (int) b;
+            }
+            return new QuoteFrame(price, Long.parseLong(parts[3]), timeSec);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.example.antsimulate.kiwoom.message;
+
+import com.example.antsimulate.kiwoom.dto.KiwoomDepthDto;
+import com.example.antsimulate.kiwoom.dto.KiwoomQuoteDto;
+import com.example.antsimulate.kiwoom.symbol.SymbolDictionary;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class KiwoomWsStreamParserTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String TRADES = """
+            {"trnm":"REAL","data":[\
+            {"type":"0B","name":"주식체결","item":"005930","values":{"20":"165208","10":"-20800","11":"-50","15":"+82","13":"30265"}},\
+            {"type":"0B","name":"주식체결","item":"000660","values":{"20":"165208","10":"+185300","15":"-3"}},\
+            {"type":"0B","name":"주식체결","item":"035420","values":{"10":"171200","20":"165209"}}\
+            ]}""";
+
+    private static final String DEPTH = """
+            {"trnm":"REAL","data":[\
+            {"type":"0D","name":"주식호가잔량","item":"005930","values":{"21":"165208",\
+            "41":"+20850","42":"+20900","43":"+20950","44":"+21000","45":"+21050","46":"+21100","47":"+21150","48":"+21200","49":"+21250","50":"+21300",\
+            "51":"-20800","52":"-20750","53":"-20700","54":"-20650","55":"-20600","56":"-20550","57":"-20500","58":"-20450","59":"-20400","60":"-20350",\
+            "61":"1203","62":"5521","63":"3310","64":"9021","65":"1200","66":"780","67":"4410","68":"2301","69":"1999","70":"8800",\
+            "71":"2210","72":"1301","73":"6620","74":"4400","75":"3030","76":"1180","77":"920","78":"5010","79":"2222","80":"7310",\
+            "121":"38545","125":"34203"}},\
+            {"type":"0D","item":"000660","values":{"41":"185400","71":"12"}}\
+            ]}""";
+
+    private final SymbolDictionary dictionary = new SymbolDictionary(List.of("005930", "000660", "035420"), 16);
+    private final KiwoomWsStreamParser parser = new KiwoomWsStreamParser(dictionary);
+    private final KiwoomFrame frame = new KiwoomFrame();
+
+    @Test
+    void loginSuccessAndFailure() {
+        assertThat(parser.parse("{\"trnm\":\"LOGIN\",\"return_code\":0,\"return_msg\":\"\"}", frame)).isTrue();
+        assertThat(frame.getType()).isEqualTo(KiwoomFrameType.LOGIN);
+        assertThat(frame.getReturnCode()).isZero();
+
+        assertThat(parser.parse("{ \"trnm\" : \"LOGIN\" , \"return_code\" : 100013 , \"return_msg\" : \"토큰 만료\" }", frame)).isTrue();
+        assertThat(frame.getType()).isEqualTo(KiwoomFrameType.LOGIN);
+        assertThat(frame.getReturnCode()).isEqualTo(100013);
+
+        // 문자열로 오는 return_code
+        assertThat(parser.parse("{\"return_code\":\"1\",\"trnm\":\"LOGIN\"}", frame)).isTrue();
+        assertThat(frame.getReturnCode()).isEqualTo(1);
+    }
+
+    @Test
+    void ping() {
+        assertThat(parser.parse(CharBuffer.wrap("{\"trnm\":\"PING\"}"), frame)).isTrue();
+
+        assertThat(frame.getType()).isEqualTo(KiwoomFrameType.PING);
+        assertThat(frame.size()).isZero();
+        assertThat(frame.depthSize()).isZero();
+    }
+
+    @Test
+    void realTradesMatchJacksonReading() throws Exception {
+        assertThat(parser.parse(CharBuffer.wrap(TRADES), frame)).isTrue();
+
+        assertThat(frame.getType()).isEqualTo(KiwoomFrameType.REAL);
+        assertThat(quotes()).containsExactlyElementsOf(referenceQuotes(TRADES));
+        assertThat(quotes()).extracting(Quote::price).containsExactly(20_800L, 185_300L, 171_200L);
+        for (int i = 0; i < frame.size(); i++) {
+            KiwoomQuoteDto quote = frame.getQuote(i);
+            assertThat(quote.getSymbolId()).isEqualTo(dictionary.idOf(quote.getSymbol()));
+            // 사전의 String 인스턴스를 그대로 쓴다
+            assertThat(quote.getSymbol()).isSameAs(dictionary.symbol(quote.getSymbolId()));
+        }
+    }
+
+    @Test
+    void realDepthMatchesJacksonReading() throws Exception {
+        assertThat(parser.parse(CharBuffer.wrap(DEPTH), frame)).isTrue();
+
+        assertThat(frame.size()).isZero();
+        assertThat(depths()).containsExactlyElementsOf(referenceDepths(DEPTH));
+
+        KiwoomDepthDto full = frame.getDepth(0);
+        assertThat(full.getPresentMask()).isEqualTo((1L << 40) - 1);
+        assertThat(full.getAskPrices()[0]).isEqualTo(20_850L);
+        assertThat(full.getBidPrices()[9]).isEqualTo(20_350L);
+        assertThat(full.getBidSizes()[9]).isEqualTo(7_310L);
+
+        KiwoomDepthDto partial = frame.getDepth(1);
+        assertThat(partial.has(KiwoomDepthDto.ASK_PRICE_BIT)).isTrue();
+        assertThat(partial.has(KiwoomDepthDto.BID_SIZE_BIT)).isTrue();
+        assertThat(partial.has(KiwoomDepthDto.BID_PRICE_BIT)).isFalse();
+        assertThat(partial.getTime()).isNull();
+    }
+
+    @Test
+    void tradesAndDepthInOneFrame() throws Exception {
+        String raw = """
+                {"trnm":"REAL","data":[\
+                {"type":"0D","item":"005930","values":{"21":"090001","41":"70100","51":"70000"}},\
+                {"type":"0B","item":"005930","values":{"10":"+70100","15":"+10","20":"090001"}},\
+                {"type":"0A","item":"005930","values":{"10":"70100"}}\
+                ]}""";
+
+        assertThat(parser.parse(raw, frame)).isTrue();
+
+        assertThat(quotes()).containsExactlyElementsOf(referenceQuotes(raw));
+        assertThat(depths()).containsExactlyElementsOf(referenceDepths(raw));
+        assertThat(frame.size()).isEqualTo(1);
+        assertThat(frame.depthSize()).isEqualTo(1);
+    }
+
+    @Test
+    void signedAndZeroPaddedNumbers() throws Exception {
+        String raw = """
+                {"trnm":"REAL","data":[\
+                {"type":"0B","item":"005930","values":{"10":"+0070000","15":"-000005","20":"090000"}},\
+                {"type":"0B","item":"000660","values":{"10":"-00185300","15":"0","20":"090000"}},\
+                {"type":"0B","item":"035420","values":{"10":"0","15":"+3","20":"090000"}}\
+                ]}""";
+
+        assertThat(parser.parse(raw, frame)).isTrue();
+
+        // 가격 0인 항목은 시세로 보지 않는다
+        assertThat(quotes()).containsExactlyElementsOf(referenceQuotes(raw));
+        assertThat(quotes()).extracting(Quote::price, Quote::volume)
+                .containsExactly(
+                        org.assertj.core.groups.Tuple.tuple(70_000L, 5L),
+                        org.assertj.core.groups.Tuple.tuple(185_300L, 0L));
+    }
+
+    @Test
+    void unknownSymbolIsParsedButNotAddedToDictionary() throws Exception {
+        String raw = "{\"trnm\":\"REAL\",\"data\":[{\"type\":\"0B\",\"item\":\"999999\",\"values\":{\"10\":\"1000\",\"20\":\"090000\"}}]}";
+        int size = dictionary.size();
+
+        assertThat(parser.parse(raw, frame)).isTrue();
+
+        assertThat(quotes()).containsExactlyElementsOf(referenceQuotes(raw));
+        assertThat(frame.getQuote(0).getSymbolId()).isEqualTo(SymbolDictionary.UNKNOWN);
+        assertThat(dictionary.size()).isEqualTo(size);
+    }
+
+    @Test
+    void escapedStringsAreSkipped() throws Exception {
+        String raw = """
+                {"trnm":"REAL","note":"say \\"hi\\" \\\\","data":[\
+                {"type":"0B","name":"주식\\"체결\\\\","item":"005930","x\\"y":{"a":"}]\\""},\
+                "values":{"9\\"9":"\\"}","10":"+70000","20":"090000"}}\
+                ]}""";
+
+        assertThat(parser.parse(raw, frame)).isTrue();
+
+        assertThat(quotes()).containsExactlyElementsOf(referenceQuotes(raw));
+        assertThat(frame.getQuote(0).getPrice()).isEqualTo(70_000L);
+    }
+
+    @Test
+    void truncatedFramesAreRejected() {
+        for (String raw : List.of(TRADES, DEPTH, "{\"trnm\":\"LOGIN\",\"return_code\":0}")) {
+            for (int cut = 0; cut < raw.length(); cut++) {
+                String truncated = raw.substring(0, cut);
+                assertThatCode(() -> assertThat(parser.parse(truncated, frame)).as(truncated).isFalse())
+                        .as(truncated)
+                        .doesNotThrowAnyException();
+            }
+        }
+    }
+
+    /**
+     * 쉼표 누락은 받아 준다 (구분자는 건너뛰기만 함), 그 외 구조가 깨진 메시지는 false
+     */
+    @Test
+    void malformedFramesAreRejected() {
+        List<String> malformed = List.of(
+                "",
+                "   ",
+                "[]",
+                "null",
+                "{trnm:\"PING\"}",
+                "{\"trnm\" \"PING\"}",
+                "{\"trnm\":PING}",
+                "{\"trnm\":\"PING",
+                "{\"data\":[{\"type\":\"0B\",\"item\":\"005930\",\"values\":{\"10\" \"1\"}}]}",
+                "{\"data\":[{\"type\":\"0B\",\"item\":\"005930\",\"values\":{10:\"1\"}}]}",
+                "{\"data\":[{\"type\":\"0B\",\"item\":\"005930\",\"values\":{\"10\":\"1\"}]}");
+        for (String raw : malformed) {
+            assertThatCode(() -> assertThat(parser.parse(raw, frame)).as(raw).isFalse())
+                    .as(raw)
+                    .doesNotThrowAnyException();
+        }
+    }
+
+    @Test
+    void pooledFrameDoesNotLeakPreviousValues() throws Exception {
+        assertThat(parser.parse(TRADES, frame)).isTrue();
+        assertThat(parser.parse(DEPTH, frame)).isTrue();
+
+        // 시간, 체결량 없는 항목: 이전 프레임의 같은 슬롯 값이 남으면 안 된다
+        String sparse = """
+                {"trnm":"REAL","data":[\
+                {"type":"0B","item":"000660","values":{"10":"185000"}},\
+                {"type":"0D","item":"005930","values":{"45":"21000"}}\
+                ]}""";
+        assertThat(parser.parse(sparse, frame)).isTrue();
+
+        assertThat(quotes()).containsExactlyElementsOf(referenceQuotes(sparse));
+        assertThat(frame.getQuote(0).getTime()).isNull();
+        assertThat(frame.getQuote(0).getVolume()).isZero();
+        assertThat(depths()).containsExactlyElementsOf(referenceDepths(sparse));
+        assertThat(frame.getDepth(0).getPresentMask()).isEqualTo(1L << 4);
+
+        // 실패한 파싱 뒤에도 이전 결과가 보이지 않는다
+        assertThat(parser.parse("{\"trnm\":\"REAL\",\"data\":[", frame)).isFalse();
+        assertThat(frame.size()).isZero();
+        assertThat(frame.depthSize()).isZero();
+        assertThat(frame.getType()).isEqualTo(KiwoomFrameType.REAL);
+
+        assertThat(parser.parse("{\"trnm\":\"PING\"}", frame)).isTrue();
+        assertThat(frame.getReturnCode()).isEqualTo(-1);
+    }
+
+    @Test
+    void poolGrowsForLargeFrames() throws Exception {
+        StringBuilder raw = new StringBuilder("{\"trnm\":\"REAL\",\"data\":[");
+        for (int i = 0; i < 20; i++) {
+            if (i > 0) {
+                raw.append(',');
+            }
+            raw.append("{\"type\":\"0B\",\"item\":\"005930\",\"values\":{\"10\":\"").append(70_000 + i).append("\",\"20\":\"090000\"}}");
+        }
+        raw.append("]}");
+
+        assertThat(parser.parse(raw, frame)).isTrue();
+
+        assertThat(quotes()).containsExactlyElementsOf(referenceQuotes(raw.toString()));
+        assertThat(frame.size()).isEqualTo(20);
+    }
+
+    private List<Quote> quotes() {
+        List<Quote> quotes = new ArrayList<>();
+        for (int i = 0; i < frame.size(); i++) {
+            KiwoomQuoteDto q = frame.getQuote(i);
+            quotes.add(new Quote(q.getSymbol(), q.getPrice(), q.getVolume(), q.getTime()));
+        }
+        return quotes;
+    }
+
+    private List<Depth> depths() {
+        List<Depth> depths = new ArrayList<>();
+        for (int i = 0; i < frame.depthSize(); i++) {
+            KiwoomDepthDto d = frame.getDepth(i);
+            long[] values = new long[40];
+            for (int bit = 0; bit < 40; bit++) {
+                if (d.has(bit)) {
+                    int level = bit % KiwoomDepthDto.MAX_LEVELS;
+                    values[bit] = switch (bit / KiwoomDepthDto.MAX_LEVELS) {
+                        case 0 -> d.getAskPrices()[level];
+                        case 1 -> d.getBidPrices()[level];
+                        case 2 -> d.getAskSizes()[level];
+                        default -> d.getBidSizes()[level];
+                    };
+                }
+            }
+            depths.add(new Depth(d.getSymbol(), d.getTime(), d.getPresentMask(), values));
+        }
+        return depths;
+    }
+
+    /**
+     * 같은 메시지를 Jackson 트리로 읽은 기준값 (0B: 10 현재가, 15 체결량, 20 체결시간)
+     */
+    private static List<Quote> referenceQuotes(String raw) throws Exception {
+        List<Quote> quotes = new ArrayList<>();
+        for (JsonNode item : MAPPER.readTree(raw).path("data")) {
+            JsonNode values = item.path("values");
+            long price = Math.abs(Long.parseLong(values.path("10").asText("0")));
+            if (!"0B".equals(item.path("type").asText()) || item.path("item").asText("").isEmpty() || price == 0) {
+                continue;
+            }
+            quotes.add(new Quote(item.path("item").asText(), price,
+                    Math.abs(Long.parseLong(values.path("15").asText("0"))),
+                    values.has("20") ? values.path("20").asText() : null));
+        }
+        return quotes;
+    }
+
+    /**
+     * 같은 메시지를 Jackson 트리로 읽은 기준값 (0D: 41~80 호가/잔량, 21 호가시간)
+     */
+    private static List<Depth> referenceDepths(String raw) throws Exception {
+        List<Depth> depths = new ArrayList<>();
+        for (JsonNode item : MAPPER.readTree(raw).path("data")) {
+            if (!"0D".equals(item.path("type").asText()) || item.path("item").asText("").isEmpty()) {
+                continue;
+            }
+            JsonNode values = item.path("values");
+            long[] levels = new long[40];
+            long mask = 0;
+            for (int fid = 41; fid <= 80; fid++) {
+                if (values.has(String.valueOf(fid))) {
+                    levels[fid - 41] = Math.abs(Long.parseLong(values.path(String.valueOf(fid)).asText()));
+                    mask |= 1L << (fid - 41);
+                }
+            }
+            if (mask != 0) {
+                depths.add(new Depth(item.path("item").asText(), values.has("21") ? values.path("21").asText() : null, mask, levels));
+            }
+        }
+        return depths;
+    }
+
+    private record Quote(String symbol, long price, long volume, String time) {
+    }
+
+    private record Depth(String symbol, String time, long mask, long[] values) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Depth d && d.symbol.equals(symbol) && java.util.Objects.equals(d.time, time)
+                    && d.mask == mask && Arrays.equals(d.values, values);
+        }
+
+        @Override
+        public int hashCode() {
+            return symbol.hashCode() * 31 + Arrays.hashCode(values);
+        }
+    }
+}
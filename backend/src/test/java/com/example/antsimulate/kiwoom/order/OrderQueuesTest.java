@@ -0,0 +1,110 @@
+package com.example.antsimulate.kiwoom.order;
+
+import com.example.antsimulate.domain.transaction.entity.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderQueuesTest {
+
+    private static RestingOrder buy(long id, long limitPrice) {
+        return new RestingOrder(id, 1L, "005930", TransactionType.BUY, limitPrice);
+    }
+
+    private static RestingOrder sell(long id, long limitPrice) {
+        return new RestingOrder(id, 1L, "005930", TransactionType.SELL, limitPrice);
+    }
+
+    @Test
+    void buyCrossesWhenTradeAtOrBelowLimit() {
+        OrderQueues queues = new OrderQueues();
+        queues.add(buy(1, 70_000));
+        queues.add(buy(2, 69_000));
+
+        List<RestingOrder> out = new ArrayList<>();
+        assertThat(queues.mayMatch(70_100)).isFalse();
+        assertThat(queues.pollCrossed(70_100, out)).isZero();
+
+        assertThat(queues.mayMatch(70_000)).isTrue();
+        assertThat(queues.pollCrossed(70_000, out)).isEqualTo(1);
+        assertThat(out).extracting(RestingOrder::orderId).containsExactly(1L);
+        assertThat(queues.size()).isEqualTo(1);
+        assertThat(queues.mayMatch(69_500)).isFalse();
+    }
+
+    @Test
+    void sellCrossesWhenTradeAtOrAboveLimit() {
+        OrderQueues queues = new OrderQueues();
+        queues.add(sell(1, 71_000));
+        queues.add(sell(2, 72_000));
+
+        List<RestingOrder> out = new ArrayList<>();
+        assertThat(queues.mayMatch(70_900)).isFalse();
+        assertThat(queues.pollCrossed(70_900, out)).isZero();
+
+        assertThat(queues.pollCrossed(71_500, out)).isEqualTo(1);
+        assertThat(out).extracting(RestingOrder::orderId).containsExactly(1L);
+        assertThat(queues.mayMatch(71_500)).isFalse();
+        assertThat(queues.mayMatch(72_000)).isTrue();
+    }
+
+    @Test
+    void marketLimitsAtPriceBandCrossOnAnyTick() {
+        // 시장가는 가격제한폭 끝값을 지정가로 접수된다
+        OrderQueues queues = new OrderQueues();
+        queues.add(buy(1, 91_000));
+        queues.add(sell(2, 49_000));
+
+        List<RestingOrder> out = new ArrayList<>();
+        assertThat(queues.pollCrossed(70_000, out)).isEqualTo(2);
+        assertThat(out).extracting(RestingOrder::orderId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(queues.isEmpty()).isTrue();
+        assertThat(queues.mayMatch(70_000)).isFalse();
+    }
+
+    @Test
+    void crossedOrdersComeOutByPriceThenArrival() {
+        OrderQueues queues = new OrderQueues();
+        queues.add(buy(1, 70_000));
+        queues.add(buy(2, 71_000));
+        queues.add(buy(3, 70_000));
+        queues.add(buy(4, 71_000));
+
+        List<RestingOrder> out = new ArrayList<>();
+        queues.pollCrossed(69_000, out);
+
+        assertThat(out).extracting(RestingOrder::orderId).containsExactly(2L, 4L, 1L, 3L);
+    }
+
+    @Test
+    void removedOrderIsNotMatched() {
+        OrderQueues queues = new OrderQueues();
+        RestingOrder first = buy(1, 70_000);
+        queues.add(first);
+        queues.add(buy(2, 70_000));
+
+        assertThat(queues.remove(first)).isTrue();
+        assertThat(queues.remove(first)).isFalse();
+
+        List<RestingOrder> out = new ArrayList<>();
+        queues.pollCrossed(70_000, out);
+        assertThat(out).extracting(RestingOrder::orderId).containsExactly(2L);
+        assertThat(queues.isEmpty()).isTrue();
+    }
+
+    @Test
+    void removingLastOrderAtBestPriceMovesBound() {
+        OrderQueues queues = new OrderQueues();
+        RestingOrder best = sell(1, 70_000);
+        queues.add(best);
+        queues.add(sell(2, 72_000));
+
+        queues.remove(best);
+
+        assertThat(queues.mayMatch(71_000)).isFalse();
+        assertThat(queues.mayMatch(72_000)).isTrue();
+    }
+}
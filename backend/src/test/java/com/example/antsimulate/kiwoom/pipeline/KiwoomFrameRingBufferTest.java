@@ -0,0 +1,269 @@
+package com.example.antsimulate.kiwoom.pipeline;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class KiwoomFrameRingBufferTest {
+    private final AtomicLong releases = new AtomicLong();
+    private KiwoomFrameRingBuffer ringBuffer;
+
+    @AfterEach
+    void tearDown() {
+        if (ringBuffer != null) {
+            ringBuffer.stop();
+        }
+    }
+
+    @Test
+    void capacityMustBePowerOfTwo() {
+        assertThatThrownBy(() -> new KiwoomFrameRingBuffer(6, new WaitStrategy.BusySpin(), OverflowPolicy.BACKPRESSURE, () -> {
+        })).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void wrapsAroundKeepingOrderAndContent() {
+        ringBuffer = ringBuffer(4, OverflowPolicy.BACKPRESSURE);
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        ringBuffer.start("test", 1, () -> slot -> received.add(slot.toString()));
+
+        List<String> published = new ArrayList<>();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int i = 0; i < 50; i++) {
+                // 길이가 다른 메시지로 슬롯 재사용 시 이전 내용이 남지 않는지 함께 본다
+                String message = "frame-" + i + "-" + "x".repeat(i % 7 == 0 ? 2_000 : i % 5);
+                published.add(message);
+                assertThat(ringBuffer.publish(message)).isTrue();
+            }
+            awaitSize(0);
+        });
+
+        assertThat(received).containsExactlyElementsOf(published);
+        assertThat(releases.get()).isEqualTo(50);
+        assertThat(ringBuffer.droppedCount()).isZero();
+    }
+
+    @Test
+    void dropNewestDropsWhenFullAndCounts() {
+        ringBuffer = ringBuffer(4, OverflowPolicy.DROP_NEWEST);
+
+        // 소비자가 없으므로 4개 뒤로는 가득 찬 상태
+        for (int i = 0; i < 4; i++) {
+            assertThat(ringBuffer.publish("m" + i)).isTrue();
+        }
+        assertThat(ringBuffer.publish("m4")).isFalse();
+        assertThat(ringBuffer.publish("m5")).isFalse();
+        assertThat(ringBuffer.size()).isEqualTo(4);
+        assertThat(ringBuffer.droppedCount()).isEqualTo(2);
+
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        ringBuffer.start("test", 1, () -> slot -> received.add(slot.toString()));
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> awaitSize(0));
+
+        // 버려진 메시지는 나오지 않고, 자리가 나면 다시 받는다
+        assertThat(ringBuffer.publish("m6")).isTrue();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> awaitSize(0));
+        assertThat(received).containsExactly("m0", "m1", "m2", "m3", "m6");
+        assertThat(ringBuffer.droppedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void backpressureWaitsForFreeSlot() throws Exception {
+        ringBuffer = ringBuffer(4, OverflowPolicy.BACKPRESSURE);
+        CountDownLatch handling = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        ringBuffer.start("test", 1, () -> slot -> {
+            received.add(slot.toString());
+            handling.countDown();
+            await(unblock);
+        });
+
+        // 첫 메시지를 처리 중인 동안 슬롯 4개가 모두 차 있다 (처리 중인 슬롯은 반환 전)
+        for (int i = 0; i < 4; i++) {
+            assertThat(ringBuffer.publish("m" + i)).isTrue();
+        }
+        assertThat(handling.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CountDownLatch published = new CountDownLatch(1);
+        Thread producer = Thread.ofPlatform().start(() -> {
+            ringBuffer.publish("m4");
+            published.countDown();
+        });
+        assertThat(published.await(100, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(ringBuffer.size()).isEqualTo(4);
+
+        unblock.countDown();
+        assertThat(published.await(5, TimeUnit.SECONDS)).isTrue();
+        producer.join();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> awaitSize(0));
+
+        assertThat(received).containsExactly("m0", "m1", "m2", "m3", "m4");
+        assertThat(ringBuffer.droppedCount()).isZero();
+    }
+
+    @Test
+    void backpressuredPublishGivesUpOnStop() throws Exception {
+        ringBuffer = ringBuffer(2, OverflowPolicy.BACKPRESSURE);
+        // 인터럽트에도 반환하지 않는 처리기 (슬롯이 끝까지 비지 않는다)
+        AtomicInteger hold = new AtomicInteger(1);
+        ringBuffer.start("test", 1, () -> slot -> {
+            while (hold.get() == 1) {
+                Thread.onSpinWait();
+            }
+        });
+        ringBuffer.publish("m0");
+        ringBuffer.publish("m1");
+
+        AtomicInteger result = new AtomicInteger(-1);
+        Thread producer = Thread.ofPlatform().start(() -> result.set(ringBuffer.publish("m2") ? 1 : 0));
+        Thread.sleep(50);
+        ringBuffer.stop();
+        producer.join(5_000);
+        hold.set(0);
+
+        assertThat(producer.isAlive()).isFalse();
+        assertThat(result.get()).isZero();
+    }
+
+    @Test
+    void singleConsumerStressKeepsEveryFrameInOrder() {
+        int count = 200_000;
+        ringBuffer = ringBuffer(64, OverflowPolicy.BACKPRESSURE);
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger outOfOrder = new AtomicInteger();
+        ringBuffer.start("test", 1, () -> slot -> {
+            if (Integer.parseInt(slot, 0, slot.length(), 10) != next.getAndIncrement()) {
+                outOfOrder.incrementAndGet();
+            }
+        });
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            for (int i = 0; i < count; i++) {
+                ringBuffer.publish(Integer.toString(i));
+            }
+            awaitSize(0);
+        });
+
+        assertThat(next.get()).isEqualTo(count);
+        assertThat(outOfOrder.get()).isZero();
+        assertThat(releases.get()).isEqualTo(count);
+    }
+
+    @Test
+    void multiConsumerStressNeitherLosesNorDuplicates() {
+        int count = 200_000;
+        ringBuffer = ringBuffer(64, OverflowPolicy.BACKPRESSURE);
+        BitSet seen = new BitSet(count);
+        AtomicInteger duplicates = new AtomicInteger();
+        ringBuffer.start("test", 3, () -> slot -> {
+            int n = Integer.parseInt(slot, 0, slot.length(), 10);
+            synchronized (seen) {
+                if (seen.get(n)) {
+                    duplicates.incrementAndGet();
+                }
+                seen.set(n);
+            }
+        });
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            for (int i = 0; i < count; i++) {
+                ringBuffer.publish(Integer.toString(i));
+            }
+            awaitSize(0);
+        });
+
+        assertThat(duplicates.get()).isZero();
+        assertThat(seen.cardinality()).isEqualTo(count);
+    }
+
+    @Test
+    void dropNewestStressAccountsForEveryFrame() {
+        int count = 200_000;
+        ringBuffer = ringBuffer(16, OverflowPolicy.DROP_NEWEST);
+        BitSet seen = new BitSet(count);
+        AtomicInteger duplicates = new AtomicInteger();
+        ringBuffer.start("test", 1, () -> slot -> {
+            int n = Integer.parseInt(slot, 0, slot.length(), 10);
+            if (seen.get(n)) {
+                duplicates.incrementAndGet();
+            }
+            seen.set(n);
+        });
+
+        List<Integer> dropped = new ArrayList<>();
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            for (int i = 0; i < count; i++) {
+                if (!ringBuffer.publish(Integer.toString(i))) {
+                    dropped.add(i);
+                }
+            }
+            awaitSize(0);
+        });
+
+        // 받은 것 + 버린 것 = 보낸 것, 버린 메시지는 소비되지 않는다
+        assertThat(duplicates.get()).isZero();
+        assertThat(ringBuffer.droppedCount()).isEqualTo(dropped.size());
+        assertThat(releases.get()).isEqualTo(count - dropped.size());
+        assertThat(seen.cardinality()).isEqualTo(count - dropped.size());
+        assertThat(dropped).noneMatch(seen::get);
+    }
+
+    @Test
+    void handlerFailureStillReleasesSlot() {
+        ringBuffer = ringBuffer(2, OverflowPolicy.BACKPRESSURE);
+        AtomicInteger handled = new AtomicInteger();
+        ringBuffer.start("test", 1, () -> slot -> {
+            handled.incrementAndGet();
+            throw new IllegalStateException("boom");
+        });
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int i = 0; i < 10; i++) {
+                ringBuffer.publish("m" + i);
+            }
+            awaitSize(0);
+        });
+
+        assertThat(handled.get()).isEqualTo(10);
+    }
+
+    private KiwoomFrameRingBuffer ringBuffer(int capacity, OverflowPolicy overflowPolicy) {
+        return new KiwoomFrameRingBuffer(capacity, new WaitStrategy.Yielding(), overflowPolicy, releases::incrementAndGet);
+    }
+
+    /**
+     * size가 0이 되면 handler는 끝났고, onRelease 콜백은 그 직후 돌므로 반환 횟수도 맞춰질 때까지 기다린다
+     */
+    private void awaitSize(int size) throws InterruptedException {
+        while (ringBuffer.size() != size) {
+            Thread.sleep(1);
+        }
+        long expected = releases.get() + ringBuffer.size();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (releases.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
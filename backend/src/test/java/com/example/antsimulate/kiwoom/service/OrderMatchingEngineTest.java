@@ -0,0 +1,338 @@
+package com.example.antsimulate.kiwoom.service;
+
+import com.example.antsimulate.domain.account.entity.Account;
+import com.example.antsimulate.domain.account.service.AccountExecutor;
+import com.example.antsimulate.domain.order.dto.OrderFill;
+import com.example.antsimulate.domain.order.entity.OrderStatus;
+import com.example.antsimulate.domain.order.entity.OrderType;
+import com.example.antsimulate.domain.order.entity.Orders;
+import com.example.antsimulate.domain.order.event.OrderChangedEvent;
+import com.example.antsimulate.domain.order.service.OrderService;
+import com.example.antsimulate.domain.stock.entity.StockItems;
+import com.example.antsimulate.domain.transaction.entity.TransactionType;
+import com.example.antsimulate.domain.user.entity.User;
+import com.example.antsimulate.kiwoom.dto.KiwoomQuoteDto;
+import com.example.antsimulate.kiwoom.symbol.SymbolDictionary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderMatchingEngineTest {
+    private static final String SYMBOL = "005930";
+
+    private OrderService orderService;
+    private AccountExecutor accountExecutor;
+    private SubscriptionService subscriptionService;
+    private SymbolDictionary symbolDictionary;
+    private OrderMatchingEngine engine;
+
+    // settleFills로 넘어간 체결 (호출 순서대로)
+    private final List<OrderFill> settled = Collections.synchronizedList(new ArrayList<>());
+
+    // 주문 id → 사용자 id (계좌별 분할 검증용)
+    private final Map<Long, Long> userByOrder = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        orderService = mock(OrderService.class);
+        accountExecutor = new AccountExecutor(3);
+        subscriptionService = mock(SubscriptionService.class);
+        symbolDictionary = new SymbolDictionary(List.of(SYMBOL), 16);
+        when(orderService.settleFills(anyList())).thenAnswer(invocation -> {
+            List<OrderFill> fills = invocation.getArgument(0);
+            settled.addAll(fills);
+            return fills.size();
+        });
+        engine = new OrderMatchingEngine(orderService, accountExecutor, subscriptionService, symbolDictionary, new SimpleMeterRegistry(), 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountExecutor.shutdown();
+    }
+
+    private void open(long orderId, TransactionType side, long limitPrice) {
+        open(orderId, 1L, side, limitPrice);
+    }
+
+    private void open(long orderId, long userId, TransactionType side, long limitPrice) {
+        userByOrder.put(orderId, userId);
+        engine.onChanged(new OrderChangedEvent(orderId, userId, SYMBOL, side, limitPrice, true));
+    }
+
+    private void cancel(long orderId, TransactionType side, long limitPrice) {
+        engine.onChanged(new OrderChangedEvent(orderId, userByOrder.get(orderId), SYMBOL, side, limitPrice, false));
+    }
+
+    private void tick(long price) {
+        KiwoomQuoteDto quote = new KiwoomQuoteDto();
+        quote.setSymbol(SYMBOL);
+        quote.setSymbolId(symbolDictionary.idOf(SYMBOL));
+        quote.setPrice(price);
+        quote.setTime("090000");
+        engine.onQuote(quote);
+    }
+
+    private List<Long> settledIds() {
+        return settled.stream().map(OrderFill::orderId).toList();
+    }
+
+    @Test
+    void limitOrdersFillAtTradePriceOnBothSides() {
+        open(1, TransactionType.BUY, 70_000);
+        open(2, TransactionType.SELL, 72_000);
+
+        tick(71_000);
+        engine.settle();
+        assertThat(settled).isEmpty();
+
+        tick(69_900);
+        tick(72_100);
+        engine.settle();
+
+        assertThat(settled).extracting(OrderFill::orderId, OrderFill::price)
+                .containsExactly(
+                        tuple(1L, 69_900L),
+                        tuple(2L, 72_100L));
+        verify(subscriptionService, times(2)).subscribe(SYMBOL);
+        verify(subscriptionService, times(2)).unsubscribe(SYMBOL);
+    }
+
+    @Test
+    void marketOrdersFillOnNextTick() {
+        // 시장가는 가격제한폭 끝값을 지정가로 접수된다
+        open(1, TransactionType.BUY, 91_000);
+        open(2, TransactionType.SELL, 49_000);
+
+        tick(70_000);
+        engine.settle();
+
+        assertThat(settledIds()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(settled).allMatch(fill -> fill.price() == 70_000);
+    }
+
+    @Test
+    void sameLimitFillsInArrivalOrder() {
+        open(3, TransactionType.BUY, 70_000);
+        open(1, TransactionType.BUY, 70_000);
+        open(2, TransactionType.BUY, 70_000);
+
+        tick(70_000);
+        engine.settle();
+
+        assertThat(settledIds()).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    void cancelledBeforeTickIsNotMatched() {
+        open(1, TransactionType.BUY, 70_000);
+        cancel(1, TransactionType.BUY, 70_000);
+        verify(subscriptionService, times(1)).unsubscribe(SYMBOL);
+
+        tick(69_000);
+        engine.settle();
+
+        assertThat(settled).isEmpty();
+        verify(orderService, never()).settleFills(anyList());
+        verify(subscriptionService, times(1)).unsubscribe(SYMBOL);
+    }
+
+    @Test
+    void cancelAfterMatchLeavesReleaseToSettle() {
+        open(1, TransactionType.BUY, 70_000);
+        tick(69_000);
+
+        // 취소 커밋이 체결 뒤에 도착하면 대기열에는 없고, 구독 해제는 settle이 한 번만 한다
+        cancel(1, TransactionType.BUY, 70_000);
+        verify(subscriptionService, never()).unsubscribe(SYMBOL);
+
+        engine.settle();
+        assertThat(settledIds()).containsExactly(1L);
+        verify(subscriptionService, times(1)).unsubscribe(SYMBOL);
+    }
+
+    @Test
+    void cancelRacingMatchReleasesEachOrderOnce() throws Exception {
+        int orders = 200;
+        for (int round = 0; round < 20; round++) {
+            tearDown();
+            setUp();
+            settled.clear();
+            for (long id = 1; id <= orders; id++) {
+                open(id, TransactionType.BUY, 70_000);
+            }
+
+            CountDownLatch start = new CountDownLatch(1);
+            Thread ticker = Thread.ofPlatform().start(() -> {
+                await(start);
+                for (int i = 0; i < orders; i++) {
+                    tick(69_000);
+                }
+            });
+            Thread canceller = Thread.ofPlatform().start(() -> {
+                await(start);
+                for (long id = orders; id >= 1; id--) {
+                    cancel(id, TransactionType.BUY, 70_000);
+                }
+            });
+            start.countDown();
+            ticker.join();
+            canceller.join();
+            engine.settle();
+
+            // 주문마다 체결 또는 취소 중 하나로만 끝나고 구독 참조도 한 번씩만 돌려준다
+            assertThat(settledIds()).doesNotHaveDuplicates();
+            verify(subscriptionService, times(orders)).unsubscribe(SYMBOL);
+        }
+    }
+
+    @Test
+    void batchIsSettledPerAccount() {
+        open(1, 1L, TransactionType.BUY, 70_000);
+        open(2, 2L, TransactionType.BUY, 70_000);
+        open(3, 1L, TransactionType.BUY, 70_000);
+
+        tick(69_000);
+        engine.settle();
+
+        // 계좌마다 한 번씩, 그 계좌의 체결만 접수 순서대로 넘어간다
+        verify(orderService, times(2)).settleFills(anyList());
+        assertThat(settledIds()).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(settledIds().indexOf(1L)).isLessThan(settledIds().indexOf(3L));
+        verify(subscriptionService, times(3)).unsubscribe(SYMBOL);
+    }
+
+    @Test
+    void versionConflictIsRetriedInAccountMailbox() {
+        // mailbox 밖 계좌 변경과 한 번 부딪혀도 같은 체결을 다시 반영한다
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new ObjectOptimisticLockingFailureException(Account.class, 1L);
+            }
+            List<OrderFill> fills = invocation.getArgument(0);
+            settled.addAll(fills);
+            return fills.size();
+        }).when(orderService).settleFills(anyList());
+        open(1, TransactionType.BUY, 70_000);
+
+        tick(69_000);
+        engine.settle();
+
+        assertThat(settledIds()).containsExactly(1L);
+        verify(orderService, times(2)).settleFills(anyList());
+        verify(subscriptionService, times(1)).unsubscribe(SYMBOL);
+    }
+
+    @Test
+    void poisonedFillIsCancelledWithoutBlockingOtherFills() {
+        // 주문 2는 몇 번을 해도 금액 범위를 넘어 실패하고, 같은 배치의 나머지는 반영돼야 한다
+        doAnswer(invocation -> {
+            List<OrderFill> fills = invocation.getArgument(0);
+            if (fills.stream().anyMatch(fill -> fill.orderId() == 2L)) {
+                throw new ArithmeticException("integer overflow");
+            }
+            settled.addAll(fills);
+            return fills.size();
+        }).when(orderService).settleFills(anyList());
+        when(orderService.cancelUnsettled(eq(2L), any())).thenReturn(true);
+        open(1, 1L, TransactionType.BUY, 70_000);
+        open(2, 1L, TransactionType.SELL, 68_000);
+        open(3, 2L, TransactionType.BUY, 70_000);
+
+        tick(69_000);
+        engine.settle();
+        assertThat(settledIds()).containsExactlyInAnyOrder(1L, 3L);
+        verify(subscriptionService, times(2)).unsubscribe(SYMBOL);
+
+        for (int i = 1; i < 5; i++) {
+            engine.settle();
+        }
+        verify(orderService).cancelUnsettled(eq(2L), any());
+        verify(subscriptionService, times(3)).unsubscribe(SYMBOL);
+
+        // 취소했으므로 대기열로 돌아오지 않는다
+        tick(69_000);
+        engine.settle();
+        assertThat(settledIds()).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void fillFailingEveryAttemptGoesBackToQueueWhenCancelFailsToo() {
+        when(orderService.settleFills(anyList())).thenThrow(new IllegalStateException("db down"));
+        when(orderService.cancelUnsettled(any(), any())).thenThrow(new IllegalStateException("db down"));
+        open(1, TransactionType.BUY, 70_000);
+
+        tick(69_000);
+        for (int i = 0; i < 5; i++) {
+            engine.settle();
+        }
+        verify(orderService, times(5)).settleFills(anyList());
+        verify(subscriptionService, never()).unsubscribe(SYMBOL);
+
+        // 버려지지 않고 대기열로 돌아와 다음 틱에 다시 체결된다
+        doAnswer(invocation -> {
+            List<OrderFill> fills = invocation.getArgument(0);
+            settled.addAll(fills);
+            return fills.size();
+        }).when(orderService).settleFills(anyList());
+        tick(68_000);
+        engine.settle();
+
+        assertThat(settled).extracting(OrderFill::price).containsExactly(68_000L);
+        verify(subscriptionService, times(1)).unsubscribe(SYMBOL);
+    }
+
+    @Test
+    void loadRebuildsQueuesFromOpenOrders() {
+        Account account = Account.builder().id(1L).user(User.builder().id(1L).build()).build();
+        StockItems stockItems = StockItems.builder().id(10L).stockSymbol(SYMBOL).stockName("삼성전자")
+                .stockType("STOCK").stockCountry("KR").build();
+        when(orderService.getOpenOrders()).thenReturn(List.of(
+                Orders.builder().id(1L).account(account).stockItems(stockItems).side(TransactionType.BUY).orderType(OrderType.LIMIT)
+                        .limitPrice(70_000).quantity(1).status(OrderStatus.OPEN).build(),
+                Orders.builder().id(2L).account(account).stockItems(stockItems).side(TransactionType.SELL).orderType(OrderType.LIMIT)
+                        .limitPrice(72_000).quantity(1).status(OrderStatus.OPEN).build()));
+
+        engine.load();
+        // 재적재 직후 같은 주문의 접수 이벤트가 겹쳐 와도 한 번만 올라간다
+        open(1, TransactionType.BUY, 70_000);
+        verify(subscriptionService, times(2)).subscribe(SYMBOL);
+
+        tick(72_000);
+        tick(70_000);
+        engine.settle();
+
+        assertThat(settledIds()).containsExactly(2L, 1L);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.antsimulate.kiwoom.service;
+
+import com.example.antsimulate.domain.alert.entity.AlertDirection;
+import com.example.antsimulate.domain.alert.event.PriceAlertChangedEvent;
+import com.example.antsimulate.domain.alert.service.PriceAlertService;
+import com.example.antsimulate.kiwoom.dto.KiwoomQuoteDto;
+import com.example.antsimulate.kiwoom.symbol.SymbolDictionary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PriceAlertEngineTest {
+    private static final int MAX_DISPATCH_ATTEMPTS = 5;
+
+    private final PriceAlertService priceAlertService = mock(PriceAlertService.class);
+    private final SubscriptionService subscriptionService = mock(SubscriptionService.class);
+    private final SimpMessagingTemplate simpMessagingTemplate = mock(SimpMessagingTemplate.class);
+    private final SymbolDictionary symbolDictionary = new SymbolDictionary(List.of("005930"), 16);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void alertFailingToDispatchIsParkedInsteadOfRetriggeringEveryTick() {
+        PriceAlertEngine engine = engine(60_000);
+        when(priceAlertService.markTriggered(1L, 70_000)).thenThrow(new QueryTimeoutException("db down"));
+        engine.onChanged(added(1L, 70_000));
+
+        engine.onQuote(quote(70_000));
+        for (int i = 0; i < MAX_DISPATCH_ATTEMPTS; i++) {
+            engine.dispatch();
+        }
+        verify(priceAlertService, times(MAX_DISPATCH_ATTEMPTS)).markTriggered(1L, 70_000);
+
+        // 가격이 그대로여도 빼 둔 동안은 다시 발동하지 않는다
+        for (int i = 0; i < 100; i++) {
+            engine.onQuote(quote(70_000));
+            engine.dispatch();
+        }
+
+        verify(priceAlertService, times(MAX_DISPATCH_ATTEMPTS)).markTriggered(1L, 70_000);
+        assertThat(gauge("kiwoom.alert.active")).isZero();
+        assertThat(gauge("kiwoom.alert.parked")).isEqualTo(1);
+        verify(subscriptionService, never()).unsubscribe(anyString());
+    }
+
+    @Test
+    void parkedAlertReturnsToIndexAfterBackoff() throws Exception {
+        PriceAlertEngine engine = engine(20);
+        when(priceAlertService.markTriggered(1L, 70_000)).thenThrow(new QueryTimeoutException("db down"));
+        engine.onChanged(added(1L, 70_000));
+        engine.onQuote(quote(70_000));
+        for (int i = 0; i < MAX_DISPATCH_ATTEMPTS; i++) {
+            engine.dispatch();
+        }
+
+        Thread.sleep(40);
+        engine.dispatch();
+        assertThat(gauge("kiwoom.alert.parked")).isZero();
+        assertThat(gauge("kiwoom.alert.active")).isEqualTo(1);
+
+        // DB가 돌아온 뒤 다음 틱에 발동
+        doReturn(true).when(priceAlertService).markTriggered(1L, 70_100);
+        engine.onQuote(quote(70_100));
+        engine.dispatch();
+
+        verify(simpMessagingTemplate).convertAndSendToUser(eq("10"), eq(PriceAlertEngine.DESTINATION), any());
+        verify(subscriptionService, times(1)).unsubscribe("005930");
+        assertThat(gauge("kiwoom.alert.active")).isZero();
+    }
+
+    @Test
+    void alertDeletedWhileParkedIsNotRestored() throws Exception {
+        PriceAlertEngine engine = engine(20);
+        when(priceAlertService.markTriggered(anyLong(), anyLong())).thenThrow(new QueryTimeoutException("db down"));
+        engine.onChanged(added(1L, 70_000));
+        engine.onQuote(quote(70_000));
+        for (int i = 0; i < MAX_DISPATCH_ATTEMPTS; i++) {
+            engine.dispatch();
+        }
+
+        engine.onChanged(new PriceAlertChangedEvent(1L, 10L, "005930", AlertDirection.ABOVE, 70_000, false));
+        verify(subscriptionService, times(1)).unsubscribe("005930");
+
+        Thread.sleep(40);
+        engine.dispatch();
+        engine.onQuote(quote(70_000));
+        engine.dispatch();
+
+        assertThat(gauge("kiwoom.alert.parked")).isZero();
+        assertThat(gauge("kiwoom.alert.active")).isZero();
+        verify(priceAlertService, times(MAX_DISPATCH_ATTEMPTS)).markTriggered(1L, 70_000);
+        verify(subscriptionService, times(1)).unsubscribe("005930");
+    }
+
+    private PriceAlertEngine engine(long restoreBackoffMs) {
+        return new PriceAlertEngine(priceAlertService, subscriptionService, simpMessagingTemplate, symbolDictionary,
+                meterRegistry, restoreBackoffMs);
+    }
+
+    private static PriceAlertChangedEvent added(Long alertId, long targetPrice) {
+        return new PriceAlertChangedEvent(alertId, 10L, "005930", AlertDirection.ABOVE, targetPrice, true);
+    }
+
+    private KiwoomQuoteDto quote(long price) {
+        KiwoomQuoteDto quote = new KiwoomQuoteDto();
+        quote.setSymbol("005930");
+        quote.setSymbolId(symbolDictionary.idOf("005930"));
+        quote.setPrice(price);
+        quote.setTime("090000");
+        return quote;
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.antsimulate.kiwoom.service;
+
+import com.example.antsimulate.domain.stock.entity.StockItems;
+import com.example.antsimulate.domain.stock.repository.StockItemsRepository;
+import com.example.antsimulate.global.exception.BusinessException;
+import com.example.antsimulate.global.exception.ErrorCode;
+import com.example.antsimulate.kiwoom.client.KiwoomConnectionPool;
+import com.example.antsimulate.kiwoom.symbol.SymbolDictionary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SubscriptionServiceTest {
+    private final KiwoomConnectionPool kiwoomConnectionPool = mock(KiwoomConnectionPool.class);
+    private final StockItemsRepository stockItemsRepository = mock(StockItemsRepository.class);
+    private final SymbolDictionary symbolDictionary = new SymbolDictionary(List.of("005930"), 16);
+
+    @Test
+    void preloadedSymbolDoesNotHitStockItems() {
+        SubscriptionService subscriptionService = service(60_000);
+
+        assertThat(subscriptionService.subscribe("005930")).isTrue();
+        assertThat(subscriptionService.subscribe("005930")).isFalse();
+
+        verify(stockItemsRepository, never()).findByStockSymbol("005930");
+        verify(kiwoomConnectionPool, times(1)).register("005930");
+    }
+
+    @Test
+    void unknownSymbolIsLookedUpOncePerTtl() {
+        SubscriptionService subscriptionService = service(60_000);
+        when(stockItemsRepository.findByStockSymbol("999999")).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> subscriptionService.subscribe("999999"))
+                    .isInstanceOf(BusinessException.class)
+                    .extracting(e -> ((BusinessException) e).getErrorCode())
+                    .isEqualTo(ErrorCode.STOCK_ITEMS_NOT_FOUND);
+        }
+        assertThatThrownBy(() -> subscriptionService.touchDepth("999999"))
+                .isInstanceOf(BusinessException.class);
+
+        // 거절된 종목은 사전 id를 차지하지 않는다
+        verify(stockItemsRepository, times(1)).findByStockSymbol("999999");
+        assertThat(symbolDictionary.idOf("999999")).isEqualTo(SymbolDictionary.UNKNOWN);
+        verify(kiwoomConnectionPool, never()).register("999999");
+    }
+
+    @Test
+    void symbolListedAfterTtlIsAdmitted() {
+        SubscriptionService subscriptionService = service(0);
+        when(stockItemsRepository.findByStockSymbol("000660")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> subscriptionService.subscribe("000660")).isInstanceOf(BusinessException.class);
+
+        // 시작 후 stock_items에 추가된 종목
+        when(stockItemsRepository.findByStockSymbol("000660")).thenReturn(Optional.of(new StockItems()));
+
+        assertThat(subscriptionService.subscribe("000660")).isTrue();
+        assertThat(symbolDictionary.idOf("000660")).isNotEqualTo(SymbolDictionary.UNKNOWN);
+        verify(kiwoomConnectionPool).register("000660");
+    }
+
+    private SubscriptionService service(long unknownSymbolTtlMs) {
+        return new SubscriptionService(kiwoomConnectionPool, mock(TaskScheduler.class), symbolDictionary,
+                stockItemsRepository, new SimpleMeterRegistry(), 30_000, true, 30_000, unknownSymbolTtlMs);
+    }
+}
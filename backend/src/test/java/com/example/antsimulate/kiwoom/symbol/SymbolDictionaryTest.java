@@ -0,0 +1,35 @@
+package com.example.antsimulate.kiwoom.symbol;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SymbolDictionaryTest {
+
+    @Test
+    void lookupFromRawFrameFindsPreloadedSymbolWithoutAllocating() {
+        SymbolDictionary dictionary = new SymbolDictionary(List.of("005930", "000660"), 16);
+        String frame = "{\"item\":\"000660\"}";
+
+        int id = dictionary.idOf(frame, 9, 15);
+
+        assertThat(id).isEqualTo(dictionary.idOf("000660"));
+        assertThat(dictionary.symbol(id)).isSameAs(dictionary.symbol(dictionary.idOf("000660")));
+    }
+
+    @Test
+    void lookupNeverGrowsDictionary() {
+        // 사전은 stock_items로 확인된 종목만 register로 늘어난다
+        SymbolDictionary dictionary = new SymbolDictionary(List.of("005930"), 16);
+
+        assertThat(dictionary.idOf("{\"item\":\"999999\"}", 9, 15)).isEqualTo(SymbolDictionary.UNKNOWN);
+        assertThat(dictionary.idOf("999999")).isEqualTo(SymbolDictionary.UNKNOWN);
+        assertThat(dictionary.size()).isEqualTo(1);
+
+        int id = dictionary.register("999999");
+        assertThat(dictionary.idOf("{\"item\":\"999999\"}", 9, 15)).isEqualTo(id);
+        assertThat(dictionary.destination(id)).isEqualTo("/topic/999999");
+    }
+}
@@ -138,6 +138,7 @@ COMMENT ON COLUMN portfolio.total_quantity IS '총보유수량';
 COMMENT ON COLUMN portfolio.avg_price IS '평균단가(원)';
 COMMENT ON COLUMN portfolio.created_at IS '생성시간';
 COMMENT ON COLUMN portfolio.updated_at IS '마지막 수정시간';
+-- 거래마다 갱신되기 전에 쌓인 거래내역은 앱 시작 시 PortfolioBackfill이 이 테이블로 다시 계산해 채운다
 
 
 /* =========================================
@@ -321,4 +322,107 @@ COMMENT ON COLUMN transactions.exchange_rate IS '거래 시점 적용 환율(스
    ========================================= */
 	ALTER TABLE transactions
   ALTER COLUMN type TYPE varchar(20)
-  USING type::text;
\ No newline at end of file
+  USING type::text;
+
+/* 
+ * 
+ * 
+ * ==================================================================================
+   	10/17 수정
+   ================================================================================== 
+ *
+ *
+ *
+ */
+
+
+/* =========================================
+   가격 알림 테이블
+   ========================================= */
+
+CREATE TABLE price_alert (
+  id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  user_id         bigint NOT NULL,
+  stock_item_id   bigint NOT NULL,
+  direction       varchar(10) NOT NULL CHECK (direction IN ('ABOVE', 'BELOW')),
+  target_price    bigint NOT NULL CHECK (target_price > 0),
+  status          varchar(20) NOT NULL DEFAULT 'ACTIVE' CHECK (status IN ('ACTIVE', 'TRIGGERED')),
+  triggered_price bigint NULL,
+  created_at      timestamptz NOT NULL DEFAULT now(),
+  triggered_at    timestamptz NULL,
+
+  CONSTRAINT fk_price_alert_user
+    FOREIGN KEY (user_id)
+    REFERENCES users(id)
+    ON DELETE CASCADE,
+
+  CONSTRAINT fk_price_alert_stock
+    FOREIGN KEY (stock_item_id)
+    REFERENCES stock_items(id)
+    ON DELETE RESTRICT
+);
+
+CREATE INDEX ix_price_alert_user ON price_alert (user_id);
+-- 시작 시 활성 알림만 읽어 실시간 인덱스를 만든다
+CREATE INDEX ix_price_alert_active ON price_alert (stock_item_id) WHERE status = 'ACTIVE';
+
+COMMENT ON TABLE price_alert IS '가격 알림';
+COMMENT ON COLUMN price_alert.direction IS 'ABOVE: 목표가 이상 / BELOW: 목표가 이하';
+COMMENT ON COLUMN price_alert.target_price IS '목표가(원)';
+COMMENT ON COLUMN price_alert.status IS 'ACTIVE: 대기 / TRIGGERED: 발동됨';
+COMMENT ON COLUMN price_alert.triggered_price IS '발동시킨 체결가(원)';
+COMMENT ON COLUMN price_alert.created_at IS '생성시간';
+COMMENT ON COLUMN price_alert.triggered_at IS '발동시간';
+
+
+/* =========================================
+   실시간 주문 테이블 (시장가/지정가)
+   ========================================= */
+
+CREATE TABLE orders (
+  id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  account_id      bigint NOT NULL,
+  stock_item_id   bigint NOT NULL,
+  side            varchar(10) NOT NULL CHECK (side IN ('BUY', 'SELL')),
+  order_type      varchar(10) NOT NULL CHECK (order_type IN ('MARKET', 'LIMIT')),
+  limit_price     bigint NOT NULL CHECK (limit_price > 0),
+  quantity        int NOT NULL CHECK (quantity > 0),
+  reserved_amount bigint NOT NULL DEFAULT 0,
+  status          varchar(20) NOT NULL DEFAULT 'OPEN' CHECK (status IN ('OPEN', 'FILLED', 'CANCELLED')),
+  filled_price    bigint NULL,
+  created_at      timestamptz NOT NULL DEFAULT now(),
+  closed_at       timestamptz NULL,
+
+  CONSTRAINT fk_orders_account
+    FOREIGN KEY (account_id)
+    REFERENCES account(id)
+    ON DELETE CASCADE,
+
+  CONSTRAINT fk_orders_stock
+    FOREIGN KEY (stock_item_id)
+    REFERENCES stock_items(id)
+    ON DELETE RESTRICT
+);
+
+CREATE INDEX ix_orders_account ON orders (account_id, id DESC);
+-- 시작 시 미체결 주문만 읽어 매칭 대기열을 만든다
+CREATE INDEX ix_orders_open ON orders (stock_item_id) WHERE status = 'OPEN';
+
+COMMENT ON TABLE orders IS '실시간 주문';
+COMMENT ON COLUMN orders.side IS 'BUY: 매수 / SELL: 매도';
+COMMENT ON COLUMN orders.order_type IS 'MARKET: 시장가 / LIMIT: 지정가';
+COMMENT ON COLUMN orders.limit_price IS '지정가(원), 시장가는 전일 종가 기준 가격제한폭 끝값';
+COMMENT ON COLUMN orders.reserved_amount IS '매수 주문 시 계좌에서 미리 뺀 금액(원)';
+COMMENT ON COLUMN orders.status IS 'OPEN: 미체결 / FILLED: 체결 / CANCELLED: 취소';
+COMMENT ON COLUMN orders.filled_price IS '체결가(원)';
+COMMENT ON COLUMN orders.created_at IS '접수시간';
+COMMENT ON COLUMN orders.closed_at IS '체결/취소시간';
+
+
+/* =========================================
+   account 낙관적 락 버전 컬럼 추가
+   ========================================= */
+ALTER TABLE account
+  ADD COLUMN version bigint NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN account.version IS '잔고 갱신 충돌 감지용 버전';